@@ -17,6 +17,7 @@ import dev.lsdmc.edenCorrections.storage.DataManager;
 import dev.lsdmc.edenCorrections.events.GuardEventHandler;
 import dev.lsdmc.edenCorrections.commands.CommandHandler;
 import dev.lsdmc.edenCorrections.integrations.EdenCorrectionsExpansion;
+import dev.lsdmc.edenCorrections.utils.CorrectionsFlags;
 import dev.lsdmc.edenCorrections.utils.WorldGuardUtils;
 import dev.lsdmc.edenCorrections.managers.GuardTagManager;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -71,6 +72,18 @@ public class EdenCorrections extends JavaPlugin {
     // Vault Economy Integration for penalty system
     private dev.lsdmc.edenCorrections.integrations.VaultEconomyManager vaultEconomyManager;
     
+    @Override
+    public void onLoad() {
+        // WorldGuard only accepts new flags while plugins load, before any are enabled
+        if (getServer().getPluginManager().getPlugin("WorldGuard") != null) {
+            try {
+                CorrectionsFlags.register(getLogger());
+            } catch (Exception | NoClassDefFoundError e) {
+                getLogger().warning("Failed to register WorldGuard flags: " + e.getMessage());
+            }
+        }
+    }
+    
     @Override
     public void onEnable() {
         instance = this;
@@ -361,6 +374,11 @@ public class EdenCorrections extends JavaPlugin {
             configManager.reload();
             messageManager.reload();
             
+            // Region lists may have changed; re-index the plugin's regions
+            if (worldGuardUtils != null) {
+                worldGuardUtils.reloadRegionLists();
+            }
+            
             // Reload guard tag manager configuration
             if (guardTagManager != null) {
                 guardTagManager.reloadConfiguration();
@@ -3,17 +3,32 @@ package dev.lsdmc.edenCorrections.commands;
 import dev.lsdmc.edenCorrections.EdenCorrections;
 import dev.lsdmc.edenCorrections.models.PlayerData;
 import dev.lsdmc.edenCorrections.models.ChaseData;
+import dev.lsdmc.edenCorrections.events.GuardEventHandler;
+import dev.lsdmc.edenCorrections.storage.DatabaseHandler;
+import dev.lsdmc.edenCorrections.utils.CorrectionsFlags.Zone;
+import dev.lsdmc.edenCorrections.utils.InventorySerializer;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.scheduler.BukkitRunnable;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.Map;
@@ -26,6 +41,9 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
     private final EdenCorrections plugin;
     private final Logger logger;
     
+    // The movement benchmark in progress, if any; only touched on the main thread
+    private MovementBenchmark movementBenchmark;
+    
     public CommandHandler(EdenCorrections plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
@@ -667,7 +685,7 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
     private boolean handleSystemCommand(CommandSender sender, String[] args) {
         if (args.length < 2) {
             plugin.getMessageManager().sendMessage(sender, "universal.invalid-usage",
-                stringPlaceholder("command", "/corrections system <stats|debug> [args...]"));
+                stringPlaceholder("command", "/corrections system <stats|debug|backup> [args...]"));
             return true;
         }
         
@@ -678,6 +696,8 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
                 return handleSystemStats(sender, args);
             case "debug":
                 return handleSystemDebug(sender, args);
+            case "backup":
+                return handleSystemBackup(sender, args);
             default:
                 plugin.getMessageManager().sendMessage(sender, "universal.unknown-subcommand",
                     stringPlaceholder("subcommand", action));
@@ -699,6 +719,22 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    private boolean handleSystemBackup(CommandSender sender, String[] args) {
+        plugin.getMessageManager().sendMessage(sender, "admin.system.backup-started");
+        plugin.getDataManager().createDatabaseBackup().whenComplete((backup, throwable) ->
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (throwable != null) {
+                    Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                    plugin.getMessageManager().sendMessage(sender, "admin.system.backup-failed",
+                        stringPlaceholder("error", cause.getMessage()));
+                } else {
+                    plugin.getMessageManager().sendMessage(sender, "admin.system.backup-verified",
+                        stringPlaceholder("file", backup.getFileName().toString()));
+                }
+            }));
+        return true;
+    }
+    
     private boolean handleSystemDebug(CommandSender sender, String[] args) {
         if (args.length < 3) {
             String debugStatus = plugin.getConfigManager().isDebugMode() ? "enabled" : "disabled";
@@ -719,6 +755,16 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
             return handleDebugMessages(sender, args);
         } else if (debugValue.equals("forcereload")) {
             return handleDebugForceReload(sender, args);
+        } else if (debugValue.equals("database")) {
+            return handleDebugDatabase(sender, args);
+        } else if (debugValue.equals("inventory")) {
+            return handleDebugInventory(sender, args);
+        } else if (debugValue.equals("chases")) {
+            return handleDebugChases(sender, args);
+        } else if (debugValue.equals("performance")) {
+            return handleDebugPerformance(sender, args);
+        } else if (debugValue.equals("movement")) {
+            return handleDebugMovement(sender, args);
         } else {
             plugin.getMessageManager().sendMessage(sender, "debug.invalid-value");
         }
@@ -797,6 +843,340 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    private boolean handleDebugDatabase(CommandSender sender, String[] args) {
+        plugin.getMessageManager().sendMessage(sender, "debug.database.header");
+        
+        Map<String, Object> diagnostics = plugin.getDataManager().getDiagnosticInfo();
+        for (Map.Entry<String, Object> entry : new java.util.TreeMap<>(diagnostics).entrySet()) {
+            plugin.getMessageManager().sendMessage(sender, "debug.database.entry",
+                stringPlaceholder("key", entry.getKey()),
+                stringPlaceholder("value", String.valueOf(entry.getValue())));
+        }
+        
+        return true;
+    }
+    
+    private boolean handleDebugInventory(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player)) {
+            plugin.getMessageManager().sendMessage(sender, "universal.player-only");
+            return true;
+        }
+        
+        // Encodes the sender's own inventory in every stored format
+        plugin.getMessageManager().sendMessage(sender, "debug.inventory.header");
+        for (String line : InventorySerializer.compareFormats((Player) sender, 100)) {
+            plugin.getMessageManager().sendMessage(sender, "debug.inventory.entry",
+                stringPlaceholder("line", line));
+        }
+        
+        return true;
+    }
+    
+    private boolean handleDebugMovement(CommandSender sender, String[] args) {
+        if (!(sender instanceof Player)) {
+            plugin.getMessageManager().sendMessage(sender, "universal.player-only");
+            return true;
+        }
+        
+        int players = 200;
+        if (args.length >= 4) {
+            try {
+                players = Math.max(1, Math.min(1000, Integer.parseInt(args[3])));
+            } catch (NumberFormatException e) {
+                plugin.getMessageManager().sendMessage(sender, "universal.invalid-usage",
+                    stringPlaceholder("command", "/corrections system debug movement [players]"));
+                return true;
+            }
+        }
+        
+        GuardEventHandler eventHandler = plugin.getEventHandler();
+        long moves = eventHandler.getMoveEvents();
+        long transitions = eventHandler.getBlockTransitions();
+        plugin.getMessageManager().sendMessage(sender, "debug.movement.header");
+        plugin.getMessageManager().sendMessage(sender, "debug.movement.moves",
+            numberPlaceholder("moves", moves),
+            numberPlaceholder("transitions", transitions),
+            percentagePlaceholder("percentage", moves > 0 ? (double) transitions / moves : 0));
+        plugin.getMessageManager().sendMessage(sender, "debug.movement.regions",
+            numberPlaceholder("transitions", plugin.getWorldGuardUtils().getRegionTransitions()),
+            numberPlaceholder("rate", plugin.getWorldGuardUtils().getTransitionsPerSecond()),
+            numberPlaceholder("events", plugin.getWorldGuardUtils().getRegionEvents()));
+        
+        if (movementBenchmark != null) {
+            plugin.getMessageManager().sendMessage(sender, "debug.movement.benchmark-running");
+            return true;
+        }
+        
+        // Simulated walks around the sender's own location
+        movementBenchmark = new MovementBenchmark((Player) sender, players);
+        plugin.getMessageManager().sendMessage(sender, "debug.movement.benchmark-started",
+            numberPlaceholder("players", players),
+            numberPlaceholder("moves", players * MovementBenchmark.MOVES_PER_WALK),
+            numberPlaceholder("budget", MovementBenchmark.TICK_BUDGET_NANOS / 1_000_000));
+        movementBenchmark.runTaskTimer(plugin, 1L, 1L);
+        
+        return true;
+    }
+    
+    /**
+     * Times the plugin's own move handlers on synthetic walks: every simulated player
+     * sends one move per tick at walking speed for one second, and each move goes
+     * through {@link GuardEventHandler#onPlayerMove} and, unless it was cancelled, the
+     * region transition publisher, exactly as the server would call them. The simulated
+     * players have throwaway ids, no permissions and no chases, so nothing they do
+     * reaches real players' state. The work is spread over ticks: each tick spends at
+     * most {@link #TICK_BUDGET_NANOS} in the handlers, then yields to the server.
+     */
+    private class MovementBenchmark extends BukkitRunnable {
+        static final int MOVES_PER_WALK = 20;
+        static final long TICK_BUDGET_NANOS = 5_000_000L;
+        
+        private final Player sender;
+        private final Player[] fakePlayers;
+        private final Location[][] walks;
+        private final Location[] positions;
+        private final int totalMoves;
+        
+        private int nextMove;
+        private int ticks;
+        private long handlerNanos;
+        private long transitions;
+        private long cancelled;
+        
+        MovementBenchmark(Player sender, int players) {
+            this.sender = sender;
+            this.fakePlayers = new Player[players];
+            this.walks = new Location[players][];
+            this.positions = new Location[players];
+            this.totalMoves = players * MOVES_PER_WALK;
+            
+            Location origin = sender.getLocation();
+            for (int p = 0; p < players; p++) {
+                Location[] walk = new Location[MOVES_PER_WALK + 1];
+                walk[0] = origin.clone().add((p % 20) * 4.0, 0, (p / 20) * 4.0);
+                for (int tick = 1; tick < walk.length; tick++) {
+                    walk[tick] = walk[tick - 1].clone().add(0.215, 0, 0.0);
+                }
+                walks[p] = walk;
+                positions[p] = walk[0];
+                fakePlayers[p] = createFakePlayer(p);
+            }
+        }
+        
+        @Override
+        public void run() {
+            if (!sender.isOnline()) {
+                finish(false);
+                return;
+            }
+            
+            ticks++;
+            long tickStart = System.nanoTime();
+            // Moves are taken in simulated-tick order, so every player finishes step n before anyone starts n + 1
+            while (nextMove < totalMoves && System.nanoTime() - tickStart < TICK_BUDGET_NANOS) {
+                int p = nextMove % fakePlayers.length;
+                int step = nextMove / fakePlayers.length + 1;
+                nextMove++;
+                
+                Location from = positions[p];
+                Location to = walks[p][step];
+                if (GuardEventHandler.crossesBlock(from, to)) {
+                    transitions++;
+                }
+                
+                PlayerMoveEvent event = new PlayerMoveEvent(fakePlayers[p], from, to);
+                long start = System.nanoTime();
+                plugin.getEventHandler().onPlayerMove(event);
+                if (!event.isCancelled()) {
+                    plugin.getWorldGuardUtils().onPlayerMove(event);
+                }
+                handlerNanos += System.nanoTime() - start;
+                
+                if (event.isCancelled()) {
+                    cancelled++;
+                } else {
+                    positions[p] = to;
+                }
+            }
+            
+            if (nextMove >= totalMoves) {
+                finish(true);
+            }
+        }
+        
+        private void finish(boolean completed) {
+            cancel();
+            movementBenchmark = null;
+            for (Player fakePlayer : fakePlayers) {
+                plugin.getWorldGuardUtils().forgetPlayer(fakePlayer.getUniqueId());
+            }
+            
+            if (!completed) {
+                if (sender.isOnline()) {
+                    plugin.getMessageManager().sendMessage(sender, "debug.movement.benchmark-aborted");
+                }
+                return;
+            }
+            
+            double perMove = handlerNanos / 1000.0 / totalMoves;
+            plugin.getMessageManager().sendMessage(sender, "debug.movement.benchmark-moves",
+                numberPlaceholder("moves", totalMoves),
+                numberPlaceholder("transitions", transitions),
+                numberPlaceholder("cancelled", cancelled),
+                numberPlaceholder("ticks", ticks));
+            plugin.getMessageManager().sendMessage(sender, "debug.movement.benchmark-cost",
+                stringPlaceholder("per-move", String.format("%.2f", perMove)),
+                stringPlaceholder("per-tick", String.format("%.3f", perMove * fakePlayers.length / 1000.0)),
+                numberPlaceholder("players", fakePlayers.length));
+        }
+        
+        // A player that only has an id, a name and the position of its walk; everything else is empty
+        private Player createFakePlayer(int index) {
+            UUID id = UUID.randomUUID();
+            String name = "benchmark-" + index;
+            return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[] { Player.class },
+                (proxy, method, methodArgs) -> {
+                    switch (method.getName()) {
+                        case "getUniqueId":
+                            return id;
+                        case "getName":
+                        case "toString":
+                            return name;
+                        case "getLocation":
+                            return positions[index].clone();
+                        case "getWorld":
+                            return positions[index].getWorld();
+                        case "equals":
+                            return proxy == methodArgs[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+        }
+    }
+    
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type.isPrimitive() && type != void.class) {
+            return Array.get(Array.newInstance(type, 1), 0);
+        }
+        return null;
+    }
+    
+    private boolean handleDebugChases(CommandSender sender, String[] args) {
+        if (args.length < 4) {
+            plugin.getMessageManager().sendMessage(sender, "universal.invalid-usage",
+                stringPlaceholder("command", "/corrections system debug chases <player> [days]"));
+            return true;
+        }
+        
+        UUID guardId = plugin.getDataManager().findPlayerId(args[3]);
+        if (guardId == null) {
+            plugin.getMessageManager().sendMessage(sender, "universal.player-not-found",
+                stringPlaceholder("player", args[3]));
+            return true;
+        }
+        
+        int days = 7;
+        if (args.length >= 5) {
+            try {
+                days = Math.max(1, Integer.parseInt(args[4]));
+            } catch (NumberFormatException e) {
+                plugin.getMessageManager().sendMessage(sender, "universal.invalid-usage",
+                    stringPlaceholder("command", "/corrections system debug chases <player> [days]"));
+                return true;
+            }
+        }
+        
+        String guardName = args[3];
+        int shownDays = days;
+        plugin.getDataManager().loadChaseRollups(guardId, days).whenComplete((rollups, throwable) ->
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (throwable != null) {
+                    plugin.getMessageManager().sendMessage(sender, "debug.chases.load-failed",
+                        stringPlaceholder("error", throwable.getMessage()));
+                    return;
+                }
+                
+                plugin.getMessageManager().sendMessage(sender, "debug.chases.header",
+                    stringPlaceholder("guard", guardName),
+                    numberPlaceholder("days", shownDays));
+                if (rollups.isEmpty()) {
+                    plugin.getMessageManager().sendMessage(sender, "debug.chases.none");
+                    return;
+                }
+                for (DatabaseHandler.ChaseRollup rollup : rollups) {
+                    plugin.getMessageManager().sendMessage(sender, "debug.chases.entry",
+                        stringPlaceholder("day", LocalDate.ofEpochDay(rollup.getDay()).toString()),
+                        stringPlaceholder("reason", rollup.getEndReason()),
+                        numberPlaceholder("count", rollup.getChaseCount()),
+                        numberPlaceholder("average", rollup.getAverageDuration() / 1000));
+                }
+            }));
+        
+        return true;
+    }
+    
+    private boolean handleDebugPerformance(CommandSender sender, String[] args) {
+        String usage = "/corrections system debug performance <player> [hour|day]";
+        if (args.length < 4) {
+            plugin.getMessageManager().sendMessage(sender, "universal.invalid-usage",
+                stringPlaceholder("command", usage));
+            return true;
+        }
+        
+        UUID playerId = plugin.getDataManager().findPlayerId(args[3]);
+        if (playerId == null) {
+            plugin.getMessageManager().sendMessage(sender, "universal.player-not-found",
+                stringPlaceholder("player", args[3]));
+            return true;
+        }
+        
+        String period = args.length >= 5 ? args[4].toLowerCase() : DatabaseHandler.PerformanceRollup.DAY;
+        if (!period.equals(DatabaseHandler.PerformanceRollup.HOUR) && !period.equals(DatabaseHandler.PerformanceRollup.DAY)) {
+            plugin.getMessageManager().sendMessage(sender, "universal.invalid-usage",
+                stringPlaceholder("command", usage));
+            return true;
+        }
+        
+        // Last 24 hours, or last 7 days
+        boolean hourly = period.equals(DatabaseHandler.PerformanceRollup.HOUR);
+        String playerName = args[3];
+        plugin.getDataManager().loadPerformanceRollups(playerId, period, hourly ? 1 : 7).whenComplete((rollups, throwable) ->
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (throwable != null) {
+                    plugin.getMessageManager().sendMessage(sender, "debug.performance.load-failed",
+                        stringPlaceholder("error", throwable.getMessage()));
+                    return;
+                }
+                
+                plugin.getMessageManager().sendMessage(sender, "debug.performance.header",
+                    stringPlaceholder("player", playerName),
+                    stringPlaceholder("period", period));
+                if (rollups.isEmpty()) {
+                    plugin.getMessageManager().sendMessage(sender, "debug.performance.none");
+                    return;
+                }
+                for (DatabaseHandler.PerformanceRollup rollup : rollups) {
+                    LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochMilli(rollup.getPeriodStart()), ZoneOffset.UTC);
+                    plugin.getMessageManager().sendMessage(sender, "debug.performance.entry",
+                        stringPlaceholder("start", String.valueOf(hourly ? start : start.toLocalDate())),
+                        stringPlaceholder("stat", rollup.getStatType()),
+                        numberPlaceholder("count", rollup.getEventCount()),
+                        numberPlaceholder("total", rollup.getTotalValue()));
+                }
+            }));
+        
+        return true;
+    }
+    
     private boolean handleReloadCommand(CommandSender sender, String[] args) {
         try {
             plugin.reload();
@@ -1000,8 +1380,14 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
     }
     
     private List<String> handleJailOfflineTabComplete(CommandSender sender, String[] args) {
-        // For offline jail, we can't really predict player names
-        return new ArrayList<>();
+        List<String> completions = new ArrayList<>();
+        
+        if (args.length == 1) {
+            // Offline players come from the in-memory name index, no database query per keystroke
+            completions.addAll(plugin.getDataManager().getKnownPlayerNames(args[0], 50));
+        }
+        
+        return filterCompletions(completions, args);
     }
     
     private List<String> handleCorrectionsTabComplete(CommandSender sender, String[] args) {
@@ -1022,7 +1408,7 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
                     completions.addAll(Arrays.asList("list"));
                     break;
                 case "system":
-                    completions.addAll(Arrays.asList("stats", "debug"));
+                    completions.addAll(Arrays.asList("stats", "debug", "backup"));
                     break;
             }
         } else if (args.length == 3) {
@@ -1034,14 +1420,14 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
             } else if (subCommand.equals("chase") && action.equals("end")) {
                 completions.addAll(getOnlinePlayerNames());
             } else if (subCommand.equals("system") && action.equals("debug")) {
-                completions.addAll(Arrays.asList("on", "off", "rank", "messages", "forcereload"));
+                completions.addAll(Arrays.asList("on", "off", "rank", "messages", "forcereload", "database", "inventory", "chases", "performance", "movement"));
             }
         } else if (args.length == 4) {
             String subCommand = args[0].toLowerCase();
             String action = args[1].toLowerCase();
             String option = args[2].toLowerCase();
             
-            if (subCommand.equals("system") && action.equals("debug") && option.equals("rank")) {
+            if (subCommand.equals("system") && action.equals("debug") && (option.equals("rank") || option.equals("chases") || option.equals("performance"))) {
                 completions.addAll(getOnlinePlayerNames());
             }
         }
@@ -1127,7 +1513,8 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
     }
     
     private boolean handleAreaList(CommandSender sender) {
-        String[] restrictedAreas = plugin.getConfigManager().getChaseRestrictedAreas();
+        Set<String> restrictedAreas = new TreeSet<>(plugin.getConfigManager().getChaseRestrictedAreaIds());
+        restrictedAreas.addAll(plugin.getWorldGuardUtils().getZoneRegionIds(Zone.CHASE_RESTRICTED));
         
         plugin.getMessageManager().sendMessage(sender, "system.admin.area.list-header");
         for (String area : restrictedAreas) {
@@ -1156,7 +1543,12 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
             return true;
         }
         
-        // Add to restricted areas (this would require config modification)
+        // Mark the region with the chase-restricted flag
+        if (!plugin.getWorldGuardUtils().setRegionZone(areaName, Zone.CHASE_RESTRICTED, true)) {
+            plugin.getMessageManager().sendMessage(sender, "universal.failed");
+            return true;
+        }
+        
         plugin.getMessageManager().sendMessage(sender, "system.admin.area.add-success",
             stringPlaceholder("area", areaName));
         return true;
@@ -1170,23 +1562,20 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
         }
         
         String areaName = args[1];
-        String[] currentAreas = plugin.getConfigManager().getChaseRestrictedAreas();
+        String areaId = areaName.trim().toLowerCase();
         
-        boolean found = false;
-        for (String area : currentAreas) {
-            if (area.equalsIgnoreCase(areaName)) {
-                found = true;
-                break;
-            }
-        }
-        
-        if (!found) {
+        if (!plugin.getWorldGuardUtils().getZoneRegionIds(Zone.CHASE_RESTRICTED).contains(areaId)) {
             plugin.getMessageManager().sendMessage(sender, "system.admin.area.not-in-list",
                 stringPlaceholder("area", areaName));
             return true;
         }
         
-        // Remove from restricted areas (this would require config modification)
+        // Take the chase-restricted flag off the region
+        if (!plugin.getWorldGuardUtils().setRegionZone(areaName, Zone.CHASE_RESTRICTED, false)) {
+            plugin.getMessageManager().sendMessage(sender, "universal.failed");
+            return true;
+        }
+        
         plugin.getMessageManager().sendMessage(sender, "system.admin.area.remove-success",
             stringPlaceholder("area", areaName));
         return true;
@@ -1231,9 +1620,12 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
             
             switch (subCommand) {
                 case "add":
+                    // Return all available regions
+                    return filterCompletions(new ArrayList<>(plugin.getWorldGuardUtils().getAllRegions()), args);
                 case "remove":
                     // Return current restricted areas
-                    return Arrays.asList(plugin.getConfigManager().getChaseRestrictedAreas());
+                    return filterCompletions(new ArrayList<>(
+                        plugin.getWorldGuardUtils().getZoneRegionIds(Zone.CHASE_RESTRICTED)), args);
                 case "check":
                     // Return all available regions
                     Set<String> allRegions = plugin.getWorldGuardUtils().getAllRegions();
@@ -14,6 +14,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -32,6 +36,12 @@ public class ConfigManager {
     private final Map<String, Object> configCache = new ConcurrentHashMap<>();
     private long lastReloadTime = 0;
     
+    // Region lists parsed once per load, for lookups on hot paths
+    private volatile Set<String> noChaseZoneIds = Collections.emptySet();
+    private volatile Set<String> dutyRequiredZoneIds = Collections.emptySet();
+    private volatile Set<String> chaseRestrictedAreaIds = Collections.emptySet();
+    private volatile Set<String> pluginRegionIds = Collections.emptySet();
+    
     // Configuration change listeners
     private final List<ConfigChangeListener> changeListeners = new ArrayList<>();
     
@@ -98,6 +108,25 @@ public class ConfigManager {
     private void cacheConfigValues() {
         configCache.clear();
         cacheSection("", config);
+        noChaseZoneIds = parseRegionIds(getNoChaseZones());
+        dutyRequiredZoneIds = parseRegionIds(getDutyRequiredZones());
+        chaseRestrictedAreaIds = parseRegionIds(getChaseRestrictedAreas());
+        
+        Set<String> regionIds = new HashSet<>(parseRegionIds(new String[] {getDutyRegion()}));
+        regionIds.addAll(noChaseZoneIds);
+        regionIds.addAll(dutyRequiredZoneIds);
+        regionIds.addAll(chaseRestrictedAreaIds);
+        pluginRegionIds = Collections.unmodifiableSet(regionIds);
+    }
+    
+    private Set<String> parseRegionIds(String[] names) {
+        Set<String> ids = new HashSet<>();
+        for (String name : names) {
+            if (!name.trim().isEmpty()) {
+                ids.add(name.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return Collections.unmodifiableSet(ids);
     }
     
     private void cacheSection(String prefix, ConfigurationSection section) {
@@ -306,10 +335,36 @@ public class ConfigManager {
         // Database settings
         config.addDefault("database.type", "sqlite");
         config.addDefault("database.sqlite.file", "edencorrections.db");
+        config.addDefault("database.sqlite.read-connections", 3);
         config.addDefault("database.sqlite.maintenance.enabled", true);
         config.addDefault("database.sqlite.maintenance.enable-vacuum", true);
         config.addDefault("database.sqlite.maintenance.vacuum-timeout", 10000);
         config.addDefault("database.sqlite.maintenance.maintenance-interval", 60);
+        config.addDefault("database.maintenance.max-players", 5);
+        config.addDefault("database.maintenance.max-queue-depth", 10);
+        config.addDefault("database.maintenance.step-interval", 5);
+        config.addDefault("database.maintenance.batch-size", 1000);
+        config.addDefault("database.maintenance.vacuum-pages", 256);
+        config.addDefault("database.write-behind.enabled", true);
+        config.addDefault("database.write-behind.flush-interval", 5);
+        config.addDefault("database.write-behind.max-queue-depth", 100);
+        config.addDefault("database.detect-main-thread-access", false);
+        config.addDefault("database.cache.max-weight-kb", 512);
+        config.addDefault("database.inventory-retention.enabled", true);
+        config.addDefault("database.inventory-retention.max-age-days", 7);
+        config.addDefault("database.inventory-retention.keep-on-duty", true);
+        config.addDefault("database.inventory-retention.batch-size", 500);
+        config.addDefault("database.chase-history.batch-size", 50);
+        config.addDefault("database.chase-history.retention-days", 90);
+        config.addDefault("database.telemetry.enabled", true);
+        config.addDefault("database.telemetry.buffer-size", 8192);
+        config.addDefault("database.telemetry.flush-interval", 10);
+        config.addDefault("database.telemetry.retention-days", 30);
+        config.addDefault("database.backup.enabled", true);
+        config.addDefault("database.backup.interval-hours", 24);
+        config.addDefault("database.backup.directory", "backups");
+        config.addDefault("database.backup.compress", true);
+        config.addDefault("database.backup.keep", 7);
         config.addDefault("database.mysql.host", "localhost");
         config.addDefault("database.mysql.port", 3306);
         config.addDefault("database.mysql.database", "edencorrections");
@@ -662,7 +717,7 @@ public class ConfigManager {
         return config.getString("core.language", "en");
     }
     
-
+    
     
     public int getChaseDuration() {
         return config.getInt("times.wanted-duration", 1800); // Use wanted duration for chase duration
@@ -731,6 +786,13 @@ public class ConfigManager {
         return areas.split(",");
     }
     
+    /**
+     * @return the restricted areas as trimmed, lowercase region IDs
+     */
+    public Set<String> getChaseRestrictedAreaIds() {
+        return chaseRestrictedAreaIds;
+    }
+    
     public boolean shouldAutoEndInRestrictedArea() {
         return config.getBoolean("chase-system.restrictions.auto-end-in-restricted-area", true);
     }
@@ -767,6 +829,10 @@ public class ConfigManager {
         return config.getString("database.sqlite.file", "edencorrections.db");
     }
     
+    public int getSQLiteReadConnections() {
+        return config.getInt("database.sqlite.read-connections", 3);
+    }
+    
     // MySQL database configuration
     public String getMySQLHost() {
         return config.getString("database.mysql.host", "localhost");
@@ -805,6 +871,111 @@ public class ConfigManager {
         return config.getInt("database.sqlite.maintenance.maintenance-interval", 60);
     }
     
+    public int getMaintenanceMaxPlayers() {
+        return config.getInt("database.maintenance.max-players", 5);
+    }
+    
+    public int getMaintenanceMaxQueueDepth() {
+        return config.getInt("database.maintenance.max-queue-depth", 10);
+    }
+    
+    public int getMaintenanceStepInterval() {
+        return config.getInt("database.maintenance.step-interval", 5);
+    }
+    
+    public int getMaintenanceBatchSize() {
+        return config.getInt("database.maintenance.batch-size", 1000);
+    }
+    
+    public int getMaintenanceVacuumPages() {
+        return config.getInt("database.maintenance.vacuum-pages", 256);
+    }
+    
+    // Write-behind persistence configuration
+    public boolean isWriteBehindEnabled() {
+        return config.getBoolean("database.write-behind.enabled", true);
+    }
+    
+    public int getWriteBehindFlushInterval() {
+        return config.getInt("database.write-behind.flush-interval", 5);
+    }
+    
+    public int getWriteBehindMaxQueueDepth() {
+        return config.getInt("database.write-behind.max-queue-depth", 100);
+    }
+    
+    public boolean isMainThreadAccessCheckEnabled() {
+        return config.getBoolean("database.detect-main-thread-access", false);
+    }
+    
+    public int getPlayerCacheMaxWeightKB() {
+        return config.getInt("database.cache.max-weight-kb", 512);
+    }
+    
+    // Stored inventory retention
+    public boolean isInventoryRetentionEnabled() {
+        return config.getBoolean("database.inventory-retention.enabled", true);
+    }
+    
+    public int getInventoryRetentionDays() {
+        return config.getInt("database.inventory-retention.max-age-days", 7);
+    }
+    
+    public boolean isInventoryRetentionKeepOnDuty() {
+        return config.getBoolean("database.inventory-retention.keep-on-duty", true);
+    }
+    
+    public int getInventoryRetentionBatchSize() {
+        return config.getInt("database.inventory-retention.batch-size", 500);
+    }
+    
+    // Ended chase history
+    public int getChaseHistoryBatchSize() {
+        return config.getInt("database.chase-history.batch-size", 50);
+    }
+    
+    public int getChaseHistoryRetentionDays() {
+        return config.getInt("database.chase-history.retention-days", 90);
+    }
+    
+    // Guard performance telemetry
+    public boolean isTelemetryEnabled() {
+        return config.getBoolean("database.telemetry.enabled", true);
+    }
+    
+    public int getTelemetryBufferSize() {
+        return config.getInt("database.telemetry.buffer-size", 8192);
+    }
+    
+    public int getTelemetryFlushInterval() {
+        return config.getInt("database.telemetry.flush-interval", 10);
+    }
+    
+    public int getTelemetryRetentionDays() {
+        return config.getInt("database.telemetry.retention-days", 30);
+    }
+    
+    // Database backups
+    public boolean isBackupEnabled() {
+        return config.getBoolean("database.backup.enabled", true);
+    }
+    
+    public int getBackupIntervalHours() {
+        return config.getInt("database.backup.interval-hours", 24);
+    }
+    
+    public String getBackupDirectory() {
+        return config.getString("database.backup.directory", "backups");
+    }
+    
+    public boolean isBackupCompressionEnabled() {
+        return config.getBoolean("database.backup.compress", true);
+    }
+    
+    public int getBackupKeepCount() {
+        return config.getInt("database.backup.keep", 7);
+    }
+    
     // === ENHANCED SYSTEM GETTERS ===
     
     // Guard System Configuration
@@ -953,6 +1124,28 @@ public class ConfigManager {
         return zones.split(",");
     }
     
+    /**
+     * @return the no-chase zones as trimmed, lowercase region IDs
+     */
+    public Set<String> getNoChaseZoneIds() {
+        return noChaseZoneIds;
+    }
+    
+    /**
+     * @return the duty-required zones as trimmed, lowercase region IDs
+     */
+    public Set<String> getDutyRequiredZoneIds() {
+        return dutyRequiredZoneIds;
+    }
+    
+    /**
+     * @return every region the plugin checks (duty region, no-chase zones, duty-required
+     *         zones and chase restricted areas) as lowercase IDs
+     */
+    public Set<String> getPluginRegionIds() {
+        return pluginRegionIds;
+    }
+    
     // Performance Configuration
     public boolean isDutySystemContinuousMessagesDisabled() {
         return config.getBoolean("performance.spam-control.duty-system.disable-continuous-messages", true);
@@ -1182,7 +1375,7 @@ public class ConfigManager {
     public int getPenaltyBossBarDuration() {
         return config.getInt("user-interface.boss-bars.penalty.duration", 30);
     }
-
+    
     // === LUCKPERMS META INTEGRATION CONFIGURATION ===
     
     public boolean isLuckPermsGuardTagsEnabled() {
@@ -1319,7 +1512,7 @@ public class ConfigManager {
     public boolean isPenaltyRecurringWarningEnabled() {
         return (Boolean) getConfigValue("penalty-escalation.recurring.warning-enabled", true);
     }
-
+    
     public int getPenaltyBypassEarnedTimeBonus() {
         return (Integer) getConfigValue("penalty-escalation.bypass.earned-time-bonus", 60);
     }
@@ -1331,7 +1524,7 @@ public class ConfigManager {
     public boolean isPenaltyBypassRemovePotionEffects() {
         return (Boolean) getConfigValue("penalty-escalation.bypass.remove-potion-effects", true);
     }
-
+    
     // === CONFIGURATION SETTERS ===
     
     public void setDebugMode(boolean debug) {
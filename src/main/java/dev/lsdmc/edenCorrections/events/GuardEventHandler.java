@@ -1,13 +1,16 @@
 package dev.lsdmc.edenCorrections.events;
 
 import dev.lsdmc.edenCorrections.EdenCorrections;
+import dev.lsdmc.edenCorrections.models.ChaseData;
 import dev.lsdmc.edenCorrections.models.PlayerData;
+import dev.lsdmc.edenCorrections.utils.CorrectionsFlags.Zone;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
@@ -39,16 +42,33 @@ public class GuardEventHandler implements Listener {
         "/spawn", "/home", "/tpa", "/tpaccept", "/warp", "/back", "/rtp"
     );
     
+    // Movement statistics (main thread only)
+    private long moveEvents = 0;
+    private long blockTransitions = 0;
+    
     public GuardEventHandler(EdenCorrections plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
     }
     
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        
+        // Load player state off the main thread so the join event doesn't hit the database
+        plugin.getDataManager().preloadPlayer(event.getUniqueId(), event.getName());
+    }
+    
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         
-        // Initialize or load player data
+        // Keep this player's data in memory for the whole session
+        plugin.getDataManager().pinPlayer(player.getUniqueId());
+        
+        // Initialize or load player data (already cached by the pre-login preload)
         PlayerData data = plugin.getDataManager().getOrCreatePlayerData(player.getUniqueId(), player.getName());
         
         // Check for expired wanted levels
@@ -92,13 +112,16 @@ public class GuardEventHandler implements Listener {
             }
             
             // If they have stored inventory, keep it for when they go off duty later
-            if (hasStoredInventory && plugin.getConfigManager().isDebugMode()) {
-                logger.info("DEBUG: Preserved stored inventory for " + player.getName() + " (will restore when they go off duty)");
+            if (hasStoredInventory) {
+                plugin.getDutyManager().prefetchStoredInventory(player);
+                if (plugin.getConfigManager().isDebugMode()) {
+                    logger.info("DEBUG: Preserved stored inventory for " + player.getName() + " (will restore when they go off duty)");
+                }
             }
         } else {
             // Player is off duty - restore their original inventory if they have stored inventory
             if (hasStoredInventory) {
-                plugin.getDutyManager().restorePlayerInventoryPublic(player);
+                plugin.getDutyManager().restorePlayerInventoryWhenReady(player);
                 if (plugin.getConfigManager().isDebugMode()) {
                     logger.info("DEBUG: Restored original inventory for " + player.getName() + " on join (was off duty)");
                 }
@@ -114,23 +137,30 @@ public class GuardEventHandler implements Listener {
         if (plugin.getDutyManager().hasGuardPermission(player) && plugin.getDutyManager().isOnDuty(player)) {
             PlayerData data = plugin.getDataManager().getPlayerData(player.getUniqueId());
             if (data != null) {
-                // Force guard off duty on logout
-                data.setOnDuty(false);
-                data.setOffDutyTime(System.currentTimeMillis());
-                
-                // Reset notification flag for future sessions
-                data.setHasBeenNotifiedOfExpiredTime(false);
-                
-                // Remove guard tag
-                plugin.getGuardTagManager().removeGuardTag(player);
-                
-                // Restore their original inventory (removes guard kit)
-                plugin.getDutyManager().restorePlayerInventoryPublic(player);
-                
-                logger.info("Automatically set guard " + player.getName() + " to off duty on logout");
-                
-                // Save the updated data immediately
-                plugin.getDataManager().savePlayerData(data);
+                // Restore their original inventory (removes guard kit). A stored inventory that is
+                // still loading can't be applied now, so they stay on duty with the kit and the
+                // stored copy, and the next join picks both up again.
+                if (!plugin.getDutyManager().restorePlayerInventoryPublic(player) &&
+                    plugin.getDutyManager().hasStoredInventoryForRestoration(player)) {
+                    logger.warning("Stored inventory of guard " + player.getName() +
+                                   " was not loaded yet, keeping them on duty until they rejoin");
+                    plugin.getDataManager().savePlayerData(data);
+                } else {
+                    // Force guard off duty on logout
+                    data.setOnDuty(false);
+                    data.setOffDutyTime(System.currentTimeMillis());
+                    
+                    // Reset notification flag for future sessions
+                    data.setHasBeenNotifiedOfExpiredTime(false);
+                    
+                    // Remove guard tag
+                    plugin.getGuardTagManager().removeGuardTag(player);
+                    
+                    logger.info("Automatically set guard " + player.getName() + " to off duty on logout");
+                    
+                    // Save the updated data immediately
+                    plugin.getDataManager().savePlayerData(data);
+                }
             }
         }
         
@@ -163,6 +193,9 @@ public class GuardEventHandler implements Listener {
             plugin.getDataManager().savePlayerData(data);
         }
         
+        // Session over, the data may be evicted from the cache again
+        plugin.getDataManager().unpinPlayer(player.getUniqueId());
+        
         if (plugin.getConfigManager().isDebugMode()) {
             logger.info("Player " + player.getName() + " left - Data saved and systems cleaned up");
         }
@@ -468,15 +501,16 @@ public class GuardEventHandler implements Listener {
         }
     }
     
-    @EventHandler(priority = EventPriority.MONITOR)
+    // HIGH so moves are cancelled before WorldGuardUtils publishes region transitions at MONITOR
+    @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerMove(PlayerMoveEvent event) {
         Player player = event.getPlayer();
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        moveEvents++;
         
         // Check duty transition immobilization
         if (plugin.getDutyManager().isInDutyTransition(player)) {
-            Location from = event.getFrom();
-            Location to = event.getTo();
-            
             if (to != null && from.distanceSquared(to) > 0.25) { // Moved more than 0.5 blocks
                 event.setCancelled(true);
                 plugin.getDutyManager().cancelDutyTransition(player, "duty.restrictions.movement-cancelled");
@@ -484,42 +518,89 @@ public class GuardEventHandler implements Listener {
             }
         }
         
-        // Cancel jail countdown if target moves (if implemented in JailManager)
-        if (plugin.getJailManager().isInJailCountdown(player)) {
-            // This could be implemented to cancel jail countdown if player moves
-            // For now, we'll allow some movement tolerance in the JailManager itself
+        // Most moves only turn the head or stay inside a block; nothing below can change then
+        if (to == null || !crossesBlock(from, to)) {
+            return;
         }
+        blockTransitions++;
         
         // Check chase area restrictions for chased players
-        if (plugin.getDataManager().isPlayerBeingChased(player.getUniqueId()) && 
-            plugin.getConfigManager().shouldBlockRestrictedAreas()) {
-            
-            Location from = event.getFrom();
-            Location to = event.getTo();
-            
-            if (to != null && !from.getWorld().equals(to.getWorld())) {
-                // World change - check if destination is restricted
-                if (plugin.getChaseManager().isPlayerInRestrictedArea(player)) {
-                    event.setCancelled(true);
-                    plugin.getMessageManager().sendMessage(player, "chase.blocking.area-entry");
-                    return;
-                }
-            } else if (to != null) {
-                // Same world movement - check if entering restricted area
-                String[] restrictedAreas = plugin.getConfigManager().getChaseRestrictedAreas();
-                for (String area : restrictedAreas) {
-                    if (plugin.getWorldGuardUtils().isLocationInRegion(to, area) && 
-                        !plugin.getWorldGuardUtils().isLocationInRegion(from, area)) {
-                        // Entering restricted area
-                        event.setCancelled(true);
-                        plugin.getMessageManager().sendMessage(player, "chase.blocking.area-entry");
-                        return;
-                    }
-                }
-            }
+        if (plugin.getDataManager().getChaseByTarget(player.getUniqueId()) != null &&
+            plugin.getConfigManager().shouldBlockRestrictedAreas() &&
+            entersRestrictedArea(player, from, to)) {
+            event.setCancelled(true);
+            plugin.getMessageManager().sendMessage(player, "chase.blocking.area-entry");
         }
         
         // Update chase distance monitoring is handled by the ChaseManager task
         // No need to check every move event for performance reasons
     }
+    
+    // === REGION TRANSITIONS ===
+    
+    @EventHandler(priority = EventPriority.NORMAL)
+    public void onRegionEnter(RegionEnterEvent event) {
+        handleRegionTransition(event);
+    }
+    
+    @EventHandler(priority = EventPriority.NORMAL)
+    public void onRegionExit(RegionExitEvent event) {
+        handleRegionTransition(event);
+    }
+    
+    /**
+     * Act on zone boundaries once, when they are crossed. Entering a region can also
+     * take a player out of a zone (a region denying the flag), and one transition can
+     * fire several events, so both kinds go through here and the checks below are
+     * no-ops the second time.
+     */
+    private void handleRegionTransition(RegionTransitionEvent event) {
+        Player player = event.getPlayer();
+        
+        // Duty activation must be finished inside the duty region
+        if (event.hasLeft(Zone.DUTY_STATION) && plugin.getDutyManager().isInDutyTransition(player)) {
+            plugin.getDutyManager().cancelDutyTransition(player, "duty.restrictions.left-region");
+        }
+        
+        // Guards have to be on duty inside duty-required zones
+        if (event.hasEntered(Zone.DUTY_REQUIRED)) {
+            plugin.getDutyManager().handleDutyRequiredZoneEntry(player);
+        }
+        
+        // Walking in is cancelled by onPlayerMove before this fires, but teleports and region changes
+        // can still put a target there
+        if (event.hasEntered(Zone.CHASE_RESTRICTED) && plugin.getConfigManager().shouldAutoEndInRestrictedArea()) {
+            ChaseData chase = plugin.getDataManager().getChaseByTarget(player.getUniqueId());
+            if (chase != null) {
+                plugin.getChaseManager().endChase(chase.getChaseId(),
+                    plugin.getMessageManager().getPlainTextMessage("chase.end-reasons.target-restricted-area"));
+            }
+        }
+    }
+    
+    /**
+     * Check if a move ends in another block or world than it started in
+     */
+    public static boolean crossesBlock(Location from, Location to) {
+        return from.getBlockX() != to.getBlockX() || from.getBlockY() != to.getBlockY() ||
+               from.getBlockZ() != to.getBlockZ() || from.getWorld() != to.getWorld();
+    }
+    
+    /**
+     * Check if a block transition takes a player into a chase restricted area from
+     * outside one. Zones are cached per player and block, so each transition costs
+     * one index lookup for the destination.
+     */
+    private boolean entersRestrictedArea(Player player, Location from, Location to) {
+        return !plugin.getWorldGuardUtils().getPlayerZones(player, from).contains(Zone.CHASE_RESTRICTED) &&
+               plugin.getWorldGuardUtils().getPlayerZones(player, to).contains(Zone.CHASE_RESTRICTED);
+    }
+    
+    public long getMoveEvents() {
+        return moveEvents;
+    }
+    
+    public long getBlockTransitions() {
+        return blockTransitions;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,28 @@
+package dev.lsdmc.edenCorrections.events;
+
+import dev.lsdmc.edenCorrections.utils.CorrectionsFlags.Zone;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+
+import java.util.Set;
+
+/**
+ * A player entered one of the plugin's regions
+ */
+public class RegionEnterEvent extends RegionTransitionEvent {
+    
+    private static final HandlerList HANDLERS = new HandlerList();
+    
+    public RegionEnterEvent(Player player, String regionId, Set<Zone> previousZones, Set<Zone> zones) {
+        super(player, regionId, previousZones, zones);
+    }
+    
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+    
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
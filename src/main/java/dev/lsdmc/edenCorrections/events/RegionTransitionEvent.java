@@ -0,0 +1,65 @@
+package dev.lsdmc.edenCorrections.events;
+
+import dev.lsdmc.edenCorrections.utils.CorrectionsFlags.Zone;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerEvent;
+
+import java.util.Set;
+
+/**
+ * A player crossing the boundary of one of the plugin's regions: a region with one
+ * of the zone flags, or one named in the config. Published by WorldGuardUtils after
+ * the move, teleport, join or respawn that caused it, so it can't be cancelled.
+ *
+ * One transition can cross several boundaries at once; each gets its own event, all
+ * carrying the same zones before and after. A flag edit that changes the zones of
+ * the regions a player stands in is published the same way, for each of those regions.
+ */
+public abstract class RegionTransitionEvent extends PlayerEvent {
+    
+    private final String regionId;
+    private final Set<Zone> previousZones;
+    private final Set<Zone> zones;
+    
+    protected RegionTransitionEvent(Player player, String regionId, Set<Zone> previousZones, Set<Zone> zones) {
+        super(player);
+        this.regionId = regionId;
+        this.previousZones = previousZones;
+        this.zones = zones;
+    }
+    
+    /**
+     * @return the ID (lowercase) of the region whose boundary was crossed
+     */
+    public String getRegionId() {
+        return regionId;
+    }
+    
+    /**
+     * @return the zones the player was in before the transition
+     */
+    public Set<Zone> getPreviousZones() {
+        return previousZones;
+    }
+    
+    /**
+     * @return the zones the player is in now
+     */
+    public Set<Zone> getZones() {
+        return zones;
+    }
+    
+    /**
+     * @return true if the transition took the player into the zone
+     */
+    public boolean hasEntered(Zone zone) {
+        return zones.contains(zone) && !previousZones.contains(zone);
+    }
+    
+    /**
+     * @return true if the transition took the player out of the zone
+     */
+    public boolean hasLeft(Zone zone) {
+        return previousZones.contains(zone) && !zones.contains(zone);
+    }
+}
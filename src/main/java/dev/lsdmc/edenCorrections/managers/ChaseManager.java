@@ -149,11 +149,7 @@ public class ChaseManager {
                 continue;
             }
             
-            // Check if target entered restricted area
-            if (isPlayerInRestrictedArea(target)) {
-                            endChase(chaseId, "Target entered restricted area");
-                continue;
-            }
+            // Entering a restricted area ends the chase right away (GuardEventHandler#onRegionEnter)
             
                         // Safe boss bar updates with error handling
                         try {
@@ -292,21 +288,9 @@ public class ChaseManager {
     // === ENHANCED CHASE METHODS ===
     
     public boolean startChase(Player guard, Player target) {
-<<<<<<< HEAD
         // Input validation
         if (guard == null || target == null) {
             logger.warning("Cannot start chase: null player provided (guard=" + guard + ", target=" + target + ")");
-=======
-        // Validate chase can start
-        if (!canStartChaseWithMessages(guard, target)) {
-            return false;
-        }
-        
-        // Check security restrictions
-        if (!plugin.getSecurityManager().canPlayerBeChased(target)) {
-            plugin.getMessageManager().sendMessage(guard, "security.guard-immunity.chase-protected");
-            plugin.getSecurityManager().logSecurityViolation("start chase", guard, target);
->>>>>>> 802b20989bd53e59c06b10b624bd5acdc909227d
             return false;
         }
         
@@ -408,7 +392,6 @@ public class ChaseManager {
         plugin.getDataManager().savePlayerData(guardData);
         plugin.getDataManager().savePlayerData(targetData);
         
-<<<<<<< HEAD
                 // Add chase data to manager
                 plugin.getDataManager().addChaseData(chase);
                 dataUpdated = true;
@@ -425,14 +408,6 @@ public class ChaseManager {
         
                 // Send messages with error handling
                 try {
-=======
-        // Show boss bars
-        double distance = guard.getLocation().distance(target.getLocation());
-        plugin.getBossBarManager().showChaseGuardBossBar(guard, target, distance);
-        plugin.getBossBarManager().showChaseTargetBossBar(target, guard, distance);
-        
-        // Send messages
->>>>>>> 802b20989bd53e59c06b10b624bd5acdc909227d
         plugin.getMessageManager().sendMessage(guard, "chase.start.success", 
             playerPlaceholder("target", target));
         plugin.getMessageManager().sendMessage(target, "chase.start.target-notification", 
@@ -460,7 +435,7 @@ public class ChaseManager {
                         logger.info("Attempting rollback for failed chase " + chaseId);
                         
                         // Remove chase data
-                        plugin.getDataManager().removeChaseData(chaseId);
+                        removeEndedChase(chaseId, "Chase creation failed");
                         
                         // Restore original player data states
                         if (targetData != null) {
@@ -566,7 +541,7 @@ public class ChaseManager {
             // Remove chase from data manager
             boolean chaseDataRemoved = false;
             try {
-                plugin.getDataManager().removeChaseData(chaseId);
+                removeEndedChase(chaseId, reason);
                 chaseDataRemoved = true;
             } catch (Exception e) {
                 logger.severe("Error removing chase data for " + chaseId + ": " + e.getMessage());
@@ -589,22 +564,7 @@ public class ChaseManager {
                 }
         }
         
-<<<<<<< HEAD
             // Send end messages with error handling
-=======
-        // Remove chase from data
-        plugin.getDataManager().removeChaseData(chaseId);
-        
-        // Hide boss bars
-        if (guard != null) {
-            plugin.getBossBarManager().hideBossBarByType(guard, "chase_guard");
-        }
-        if (target != null) {
-            plugin.getBossBarManager().hideBossBarByType(target, "chase_target");
-        }
-        
-        // Send end messages
->>>>>>> 802b20989bd53e59c06b10b624bd5acdc909227d
         if (guard != null) {
                 try {
             plugin.getMessageManager().sendMessage(guard, "chase.end.success",
@@ -651,7 +611,7 @@ public class ChaseManager {
             
             // Emergency cleanup attempt
             try {
-                plugin.getDataManager().removeChaseData(chaseId);
+                removeEndedChase(chaseId, reason);
                 logger.info("Emergency cleanup completed for chase " + chaseId);
             } catch (Exception emergencyError) {
                 logger.severe("Emergency cleanup failed for chase " + chaseId + ": " + emergencyError.getMessage());
@@ -662,64 +622,17 @@ public class ChaseManager {
     }
     
     /**
-     * Check if a chase can start between guard and target
-     * @param guard The guard attempting to start the chase
-     * @param target The target to be chased
-     * @return true if chase can start, false otherwise
+     * Mark a chase ended and remove it, so the chase history records why and when
+     * it ended instead of an unknown reason at archive time
      */
-    public boolean canStartChase(Player guard, Player target) {
-        // Check if guard is on duty
-        if (!plugin.getDutyManager().isOnDuty(guard)) {
-            return false;
+    private void removeEndedChase(UUID chaseId, String reason) {
+        ChaseData chase = plugin.getDataManager().getChaseData(chaseId);
+        if (chase != null && chase.isActive()) {
+            chase.endChase(reason);
         }
-        
-        // Check if target is wanted
-        if (!plugin.getWantedManager().isWanted(target)) {
-            return false;
-        }
-        
-        // Check if target is in combat (enhanced restriction)
-        if (plugin.getConfigManager().shouldPreventChaseDuringCombat() && isInCombat(target)) {
-            return false;
-        }
-        
-        // Check if target is in restricted area
-        if (isPlayerInRestrictedArea(target)) {
-            return false;
-        }
-        
-        // Check max concurrent chases
-        int activeChases = plugin.getDataManager().getAllActiveChases().size();
-        if (activeChases >= plugin.getConfigManager().getMaxConcurrentChases()) {
-            return false;
-        }
-        
-        // Check if guard is already chasing someone
-        if (plugin.getDataManager().isGuardChasing(guard.getUniqueId())) {
-            return false;
-        }
-        
-        // Check if target is already being chased
-        if (plugin.getDataManager().isPlayerBeingChased(target.getUniqueId())) {
-            return false;
-        }
-        
-        // Check if trying to chase themselves
-        if (guard.equals(target)) {
-            return false;
-        }
-        
-        // Check distance
-        double distance = guard.getLocation().distance(target.getLocation());
-        if (distance > plugin.getConfigManager().getMaxChaseDistance()) {
-            return false;
-        }
-        
-        return true;
+        plugin.getDataManager().removeChaseData(chaseId);
     }
     
-<<<<<<< HEAD
-=======
     /**
      * Check if a chase can start between guard and target
      * @param guard The guard attempting to start the chase
@@ -777,7 +690,6 @@ public class ChaseManager {
         return true;
     }
     
->>>>>>> 802b20989bd53e59c06b10b624bd5acdc909227d
     private boolean canStartChaseWithMessages(Player guard, Player target) {
         // Check if guard is on duty
         if (!plugin.getDutyManager().isOnDuty(guard)) {
@@ -866,8 +778,7 @@ public class ChaseManager {
             return false;
         }
         
-        String[] restrictedAreas = plugin.getConfigManager().getChaseRestrictedAreas();
-        return plugin.getWorldGuardUtils().isPlayerInAnyRegion(player, restrictedAreas);
+        return plugin.getWorldGuardUtils().isPlayerInChaseRestrictedArea(player);
     }
     
     public ChaseData getChaseByPlayer(Player player) {
@@ -890,7 +801,7 @@ public class ChaseManager {
         
         for (ChaseData chase : invalidChases) {
             logger.warning("Cleaning up invalid chase with null UUIDs: " + chase.getChaseId());
-            plugin.getDataManager().removeChaseData(chase.getChaseId());
+            removeEndedChase(chase.getChaseId(), "Invalid chase data (null UUIDs)");
         }
         
         if (!invalidChases.isEmpty()) {
@@ -1,8 +1,10 @@
 package dev.lsdmc.edenCorrections.managers;
 
 import dev.lsdmc.edenCorrections.EdenCorrections;
+import dev.lsdmc.edenCorrections.models.PerformanceStat;
 import dev.lsdmc.edenCorrections.models.PlayerData;
 import dev.lsdmc.edenCorrections.utils.InventorySerializer;
+import dev.lsdmc.edenCorrections.utils.InventorySerializer.InventorySnapshot;
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.LuckPermsProvider;
 import net.luckperms.api.model.user.User;
@@ -18,12 +20,13 @@ import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import static dev.lsdmc.edenCorrections.managers.MessageManager.*;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
 public class DutyManager {
     
@@ -38,7 +41,13 @@ public class DutyManager {
     private final Map<UUID, Location> transitionLocations;
     
     // Inventory caching for duty management
-    private final Map<UUID, String> inventoryCache;
+    private final Map<UUID, InventorySnapshot> inventoryCache;
+    // Stored inventories being loaded and decoded ahead of restoration
+    private final Map<UUID, CompletableFuture<InventorySnapshot>> inventoryPrefetches;
+    // Last queued inventory save/delete per player, so they reach the database in order
+    private final Map<UUID, CompletableFuture<Void>> inventoryWrites;
+    // Encoding and decoding run on Bukkit's async pool; inline once the plugin is disabling
+    private final Executor inventoryExecutor;
     private final List<Material> guardKitItems;
     
     public DutyManager(EdenCorrections plugin) {
@@ -47,6 +56,15 @@ public class DutyManager {
         this.dutyTransitions = new HashMap<>();
         this.transitionLocations = new HashMap<>();
         this.inventoryCache = new HashMap<>();
+        this.inventoryPrefetches = new ConcurrentHashMap<>();
+        this.inventoryWrites = new ConcurrentHashMap<>();
+        this.inventoryExecutor = task -> {
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+            } else {
+                task.run();
+            }
+        };
         this.guardKitItems = InventorySerializer.getCommonGuardKitItems();
     }
     
@@ -73,7 +91,7 @@ public class DutyManager {
         }
     }
     
-
+    
     
     private void startDutyMonitoring() {
         new BukkitRunnable() {
@@ -88,7 +106,7 @@ public class DutyManager {
     private void checkDutyStatus() {
         for (Player player : plugin.getServer().getOnlinePlayers()) {
             if (hasGuardPermission(player)) {
-                PlayerData data = plugin.getDataManager().getPlayerData(player.getUniqueId());
+                PlayerData data = plugin.getDataManager().peekPlayerData(player.getUniqueId());
                 if (data != null) {
                     checkOffDutyTimeEarning(player, data);
                     checkOffDutyTimeConsumption(player, data);
@@ -444,7 +462,7 @@ public class DutyManager {
         plugin.getBossBarManager().showPenaltyBossBar(player, data.getCurrentPenaltyStage(), overrunMinutes);
         data.setHasActivePenaltyBossBar(true);
     }
-
+    
     // === ENHANCED DUTY MANAGEMENT ===
     
     public boolean toggleDuty(Player player) {
@@ -471,8 +489,8 @@ public class DutyManager {
         }
         
         
-
-
+        
+        
         // STRICT GUARD RANK VALIDATION - Even OPs must have proper LuckPerms rank
         String guardRank = getPlayerGuardRank(player);
         if (guardRank == null) {
@@ -526,7 +544,7 @@ public class DutyManager {
         // Start immobilization countdown
         return startDutyTransition(player, guardRank);
     }
-
+    
     
     // Debug helper method
     private void debugPlayerGroups(Player player) {
@@ -605,12 +623,7 @@ public class DutyManager {
                     return;
                 }
                 
-                // Check if player is still in duty region
-                if (!isInDutyRegion(player)) {
-                    cancelDutyTransition(player, "duty.restrictions.left-region");
-                    this.cancel();
-                    return;
-                }
+                // Leaving the duty region cancels the transition right away (GuardEventHandler#onRegionExit)
                 
                 remaining--;
             }
@@ -620,6 +633,19 @@ public class DutyManager {
         return true;
     }
     
+    /**
+     * Tell an off-duty guard who entered a duty-required zone to go on duty.
+     * Driven by region enter events, so nothing polls guards' locations for it.
+     * @param player the player who entered the zone
+     */
+    public void handleDutyRequiredZoneEntry(Player player) {
+        if (!hasGuardPermission(player) || isOnDuty(player) || isInDutyTransition(player)) {
+            return;
+        }
+        
+        plugin.getMessageManager().sendMessage(player, "duty.restrictions.duty-required-zone");
+    }
+    
     public void cancelDutyTransition(Player player, String reason) {
         UUID playerId = player.getUniqueId();
         
@@ -779,6 +805,7 @@ public class DutyManager {
         // Calculate duty time
         long dutyTime = System.currentTimeMillis() - data.getDutyStartTime();
         data.addDutyTime(dutyTime);
+        plugin.getDataManager().recordPerformance(player.getUniqueId(), PerformanceStat.DUTY_MINUTES, dutyTime / 60000L);
         
         // Set off duty
         data.setOnDuty(false);
@@ -787,8 +814,8 @@ public class DutyManager {
         // Reset notification flag for this off-duty session
         data.setHasBeenNotifiedOfExpiredTime(false);
         
-        // NEW: Restore player's original inventory
-        boolean inventoryRestored = restorePlayerInventory(player);
+        // NEW: Restore player's original inventory; a copy not in memory is loaded off the main thread first
+        restorePlayerInventoryWhenReady(player);
         
         // Save data
         plugin.getDataManager().savePlayerData(data);
@@ -798,18 +825,6 @@ public class DutyManager {
         plugin.getMessageManager().sendMessage(player, "duty.deactivation.success-with-time",
             timePlaceholder("time", availableMinutes * 60L));
         
-        // Provide feedback about inventory restoration
-        if (inventoryRestored) {
-            if (plugin.getConfigManager().isDebugMode()) {
-                logger.info("DEBUG: Successfully restored original inventory for " + player.getName() + " when going off duty");
-            }
-        } else {
-            // This could happen if they were on duty before a server restart or if there was no stored inventory
-            if (plugin.getConfigManager().isDebugMode()) {
-                logger.info("DEBUG: No stored inventory found for " + player.getName() + " when going off duty");
-            }
-        }
-        
         // Remove guard tag
         plugin.getGuardTagManager().removeGuardTag(player);
         
@@ -913,7 +928,7 @@ public class DutyManager {
         
         logger.info(player.getName() + " has used up their earned off-duty time");
     }
-
+    
     // === INVENTORY MANAGEMENT METHODS ===
     
     /**
@@ -928,19 +943,25 @@ public class DutyManager {
         }
         
         try {
-            // Serialize player's inventory
-            String inventoryData = InventorySerializer.serializePlayerInventory(player);
-            
-            if (inventoryData == null) {
-                logger.warning("Failed to serialize inventory for " + player.getName());
-                return false;
-            }
+            // Copy the inventory on this thread; encoding and the database write happen on a worker
+            UUID playerId = player.getUniqueId();
+            String playerName = player.getName();
+            InventorySnapshot snapshot = InventorySerializer.snapshotInventory(player);
             
             // Store in memory cache for quick access
-            inventoryCache.put(player.getUniqueId(), inventoryData);
+            inventoryCache.put(playerId, snapshot);
+            inventoryPrefetches.remove(playerId);
             
-            // Store in database for persistence
-            plugin.getDataManager().savePlayerInventory(player.getUniqueId(), inventoryData);
+            // Store in database for persistence; not deflated, the handler splits the
+            // (already gzipped) items out and stores each distinct one once
+            queueInventoryWrite(playerId, () -> {
+                byte[] inventoryData = InventorySerializer.encodeInventory(snapshot, false);
+                if (inventoryData == null) {
+                    logger.severe("Failed to serialize inventory for " + playerName + ", it is only kept in memory");
+                    return;
+                }
+                plugin.getDataManager().savePlayerInventory(playerId, inventoryData);
+            });
             
             if (plugin.getConfigManager().isDebugMode()) {
                 logger.info("DEBUG: Stored inventory for " + player.getName());
@@ -955,7 +976,9 @@ public class DutyManager {
     }
     
     /**
-     * Restore player's original inventory from cache/database
+     * Restore player's original inventory if it is already in memory, stored this
+     * session or prefetched. Never waits on the database; use
+     * {@link #restorePlayerInventoryWhenReady(Player)} when it may need loading.
      * @param player the player whose inventory to restore
      * @return true if successful, false otherwise
      */
@@ -967,17 +990,18 @@ public class DutyManager {
         
         try {
             UUID playerId = player.getUniqueId();
-            String inventoryData = null;
+            InventorySnapshot snapshot = inventoryCache.get(playerId);
             
-            // Try to get from memory cache first
-            if (inventoryCache.containsKey(playerId)) {
-                inventoryData = inventoryCache.get(playerId);
-            } else {
-                // Try to load from database
-                inventoryData = plugin.getDataManager().loadPlayerInventory(playerId);
+            // Not stored this session: use the prefetched copy if it has finished loading
+            if (snapshot == null) {
+                CompletableFuture<InventorySnapshot> prefetch = inventoryPrefetches.get(playerId);
+                if (prefetch != null && prefetch.isDone() && !prefetch.isCompletedExceptionally()) {
+                    inventoryPrefetches.remove(playerId, prefetch);
+                    snapshot = prefetch.join();
+                }
             }
             
-            if (inventoryData == null) {
+            if (snapshot == null) {
                 logger.warning("No cached inventory found for " + player.getName());
                 return false;
             }
@@ -986,19 +1010,17 @@ public class DutyManager {
             int removedItems = InventorySerializer.removeGuardKitItems(player, guardKitItems);
             
             // Restore original inventory
-            boolean success = InventorySerializer.deserializePlayerInventory(player, inventoryData);
+            InventorySerializer.applyInventory(player, snapshot);
             
-            if (success) {
-                // Clean up cache and database
-                inventoryCache.remove(playerId);
-                plugin.getDataManager().deletePlayerInventory(playerId);
-                
-                if (plugin.getConfigManager().isDebugMode()) {
-                    logger.info("DEBUG: Restored inventory for " + player.getName() + " (removed " + removedItems + " guard items)");
-                }
+            // Clean up cache and database
+            inventoryCache.remove(playerId);
+            queueInventoryWrite(playerId, () -> plugin.getDataManager().deletePlayerInventory(playerId));
+            
+            if (plugin.getConfigManager().isDebugMode()) {
+                logger.info("DEBUG: Restored inventory for " + player.getName() + " (removed " + removedItems + " guard items)");
             }
             
-            return success;
+            return true;
         } catch (Exception e) {
             logger.severe("Failed to restore inventory for " + player.getName() + ": " + e.getMessage());
             e.printStackTrace();
@@ -1018,63 +1040,19 @@ public class DutyManager {
         }
         
         // Check if player is in any duty-required zones (these are also valid for going off duty)
-        String[] dutyRequiredZones = plugin.getConfigManager().getDutyRequiredZones();
-        return plugin.getWorldGuardUtils().isPlayerInAnyRegion(player, dutyRequiredZones);
+        return plugin.getWorldGuardUtils().isPlayerInDutyRequiredZone(player);
     }
     
     /**
      * Clean up old stored inventory data to prevent database bloat
-     * This should be called periodically (e.g., daily)
+     * Database maintenance already does this; the retention policy is configured under database.inventory-retention
      */
     public void cleanupOldStoredInventories() {
-        try {
-            // Clean up stored inventories older than 7 days for players who are no longer on duty
-            long cutoffTime = System.currentTimeMillis() - (7 * 24 * 60 * 60 * 1000L); // 7 days
-            
-            // Get all stored inventory entries
-            List<UUID> storedInventoryPlayers = plugin.getDataManager().getPlayersWithStoredInventory();
-            
-            int cleanedCount = 0;
-            for (UUID playerId : storedInventoryPlayers) {
-                PlayerData data = plugin.getDataManager().getPlayerData(playerId);
-                
-                // Clean up if player is not on duty and inventory is old
-                if (data != null && !data.isOnDuty()) {
-                    String inventoryData = plugin.getDataManager().loadPlayerInventory(playerId);
-                    if (inventoryData != null) {
-                        // Check if inventory data contains timestamp
-                        try {
-                            JsonObject inventoryObj = JsonParser.parseString(inventoryData).getAsJsonObject();
-                            if (inventoryObj.has("metadata")) {
-                                JsonObject metadata = inventoryObj.getAsJsonObject("metadata");
-                                if (metadata.has("timestamp")) {
-                                    long timestamp = metadata.get("timestamp").getAsLong();
-                                    if (timestamp < cutoffTime) {
-                                        plugin.getDataManager().deletePlayerInventory(playerId);
-                                        cleanedCount++;
-                                        
-                                        if (plugin.getConfigManager().isDebugMode()) {
-                                            logger.info("DEBUG: Cleaned up old stored inventory for " + playerId);
-                                        }
-                                    }
-                                }
-                            }
-                        } catch (Exception e) {
-                            // If we can't parse the data, it's corrupted - clean it up
-                            plugin.getDataManager().deletePlayerInventory(playerId);
-                            cleanedCount++;
-                        }
-                    }
-                }
-            }
-            
-            if (cleanedCount > 0) {
-                logger.info("Cleaned up " + cleanedCount + " old stored inventories");
+        plugin.getDataManager().purgeStoredInventories().thenAccept(result -> {
+            if (plugin.getConfigManager().isDebugMode()) {
+                logger.info("DEBUG: Cleaned up " + result.getDeletedInventories() + " old stored inventories");
             }
-            
-        } catch (Exception e) {
-            logger.severe("Failed to cleanup old stored inventories: " + e.getMessage());
-        }
+        });
     }
     
     /**
@@ -1107,6 +1085,82 @@ public class DutyManager {
         return restorePlayerInventory(player);
     }
     
+    /**
+     * Load and decode a player's stored inventory off the main thread, so that
+     * restoring it later only has to apply the items
+     * @param player the player whose stored inventory to prefetch
+     */
+    public void prefetchStoredInventory(Player player) {
+        UUID playerId = player.getUniqueId();
+        if (inventoryCache.containsKey(playerId) || inventoryPrefetches.containsKey(playerId)) {
+            return;
+        }
+        
+        inventoryPrefetches.put(playerId, plugin.getDataManager().loadPlayerInventoryAsync(playerId)
+            .thenApplyAsync(inventoryData -> inventoryData != null ? InventorySerializer.decodeInventory(inventoryData) : null,
+                inventoryExecutor));
+    }
+    
+    /**
+     * Restore a player's stored inventory, loading and decoding it off the main thread
+     * first if it isn't in memory; only applying the items runs on the main thread
+     * @param player the player to restore inventory for
+     */
+    public void restorePlayerInventoryWhenReady(Player player) {
+        UUID playerId = player.getUniqueId();
+        if (inventoryCache.containsKey(playerId)) {
+            restorePlayerInventory(player);
+            return;
+        }
+        
+        prefetchStoredInventory(player);
+        CompletableFuture<InventorySnapshot> prefetch = inventoryPrefetches.get(playerId);
+        if (prefetch == null) {
+            return;
+        }
+        
+        prefetch.whenComplete((snapshot, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (throwable != null || snapshot == null) {
+                inventoryPrefetches.remove(playerId, prefetch);
+                if (throwable != null) {
+                    logger.severe("Failed to load stored inventory for " + player.getName() + ": " + throwable.getMessage());
+                } else if (plugin.getConfigManager().isDebugMode()) {
+                    logger.info("DEBUG: No stored inventory found for " + player.getName());
+                }
+                return;
+            }
+            
+            // They may have left or gone back on duty in the meantime
+            if (player.isOnline() && !isOnDuty(player)) {
+                restorePlayerInventory(player);
+            }
+        }));
+    }
+    
+    // Run an inventory save or delete on a worker after the player's previous one
+    private void queueInventoryWrite(UUID playerId, Runnable write) {
+        CompletableFuture<Void> queued = inventoryWrites.compute(playerId, (id, previous) -> previous == null
+            ? CompletableFuture.runAsync(write, inventoryExecutor)
+            : previous.handle((result, throwable) -> null).thenRunAsync(write, inventoryExecutor));
+        
+        queued.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                logger.severe("Failed to write stored inventory for " + playerId + ": " + throwable.getMessage());
+            }
+            inventoryWrites.remove(playerId, queued);
+        });
+    }
+    
+    // Wait for queued inventory writes to reach the database handler
+    private void flushInventoryWrites() {
+        try {
+            CompletableFuture.allOf(inventoryWrites.values().toArray(new CompletableFuture[0]))
+                .get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warning("Failed to flush stored inventory writes: " + e.getMessage());
+        }
+    }
+    
     /**
      * Public method to give guard kit to a player (for use by event handlers)
      * @param player the player to give kit to
@@ -1141,7 +1195,7 @@ public class DutyManager {
     public List<Material> getGuardKitItems() {
         return guardKitItems;
     }
-
+    
     // === INTEGRATION METHODS ===
     
     public String getPlayerGuardRank(Player player) {
@@ -1219,7 +1273,7 @@ public class DutyManager {
     public boolean isInAnyRegion(Player player, String[] regionNames) {
         return plugin.getWorldGuardUtils().isPlayerInAnyRegion(player, regionNames);
     }
-
+    
     // === UTILITY METHODS ===
     
     public boolean canGoOnDuty(PlayerData data) {
@@ -1279,7 +1333,7 @@ public class DutyManager {
     }
     
     public boolean isOnDuty(Player player) {
-        PlayerData data = plugin.getDataManager().getPlayerData(player.getUniqueId());
+        PlayerData data = plugin.getDataManager().peekPlayerData(player.getUniqueId());
         return data != null && data.isOnDuty();
     }
     
@@ -1310,6 +1364,7 @@ public class DutyManager {
         PlayerData data = plugin.getDataManager().getPlayerData(guard.getUniqueId());
         if (data != null) {
             data.incrementSessionSearches();
+            plugin.getDataManager().recordPerformance(guard.getUniqueId(), PerformanceStat.SEARCH, 1);
             plugin.getDataManager().savePlayerData(data);
             
             // Update guard tag to reflect new stats
@@ -1330,6 +1385,7 @@ public class DutyManager {
         PlayerData data = plugin.getDataManager().getPlayerData(guard.getUniqueId());
         if (data != null) {
             data.incrementSessionSuccessfulSearches();
+            plugin.getDataManager().recordPerformance(guard.getUniqueId(), PerformanceStat.SUCCESSFUL_SEARCH, 1);
             
             // Award immediate bonus
             int bonusMinutes = plugin.getConfigManager().getSuccessfulSearchBonus();
@@ -1354,6 +1410,7 @@ public class DutyManager {
         PlayerData data = plugin.getDataManager().getPlayerData(guard.getUniqueId());
         if (data != null) {
             data.incrementSessionArrests();
+            plugin.getDataManager().recordPerformance(guard.getUniqueId(), PerformanceStat.ARREST, 1);
             
             // Award immediate bonus
             int bonusMinutes = plugin.getConfigManager().getSuccessfulArrestBonus();
@@ -1378,6 +1435,7 @@ public class DutyManager {
         PlayerData data = plugin.getDataManager().getPlayerData(guard.getUniqueId());
         if (data != null) {
             data.incrementSessionKills();
+            plugin.getDataManager().recordPerformance(guard.getUniqueId(), PerformanceStat.KILL, 1);
             plugin.getDataManager().savePlayerData(data);
             
             // Update guard tag to reflect new stats
@@ -1398,6 +1456,7 @@ public class DutyManager {
         PlayerData data = plugin.getDataManager().getPlayerData(guard.getUniqueId());
         if (data != null) {
             data.incrementSessionDetections();
+            plugin.getDataManager().recordPerformance(guard.getUniqueId(), PerformanceStat.DETECTION, 1);
             
             // Award immediate bonus
             int bonusMinutes = plugin.getConfigManager().getSuccessfulDetectionBonus();
@@ -1431,25 +1490,33 @@ public class DutyManager {
         }
         
         // Clean up inventory cache and restore inventories for online players
-        for (Map.Entry<UUID, String> entry : inventoryCache.entrySet()) {
-            Player player = Bukkit.getPlayer(entry.getKey());
+        for (UUID playerId : new ArrayList<>(inventoryCache.keySet())) {
+            Player player = Bukkit.getPlayer(playerId);
             if (player != null && player.isOnline()) {
                 restorePlayerInventory(player);
             }
         }
         
+        // Let queued saves and deletes reach the database before it closes
+        flushInventoryWrites();
+        
         // Clean up all guard tags
         plugin.getGuardTagManager().cleanupAllGuardTags();
         
         dutyTransitions.clear();
         transitionLocations.clear();
         inventoryCache.clear();
+        inventoryPrefetches.clear();
     }
     
     public void cleanupPlayer(Player player) {
         // Cancel any active duty transition
         cancelDutyTransition(player, null);
         
+        // A stored inventory still loading is prefetched again on the next join
+        UUID playerId = player.getUniqueId();
+        inventoryPrefetches.remove(playerId);
+        
         // Remove guard tag if player is on duty
         if (isOnDuty(player)) {
             plugin.getGuardTagManager().removeGuardTag(player);
@@ -1460,12 +1527,8 @@ public class DutyManager {
             }
         } else {
             // Clean up inventory cache for off-duty players
-            UUID playerId = player.getUniqueId();
             if (inventoryCache.containsKey(playerId)) {
-                // Just remove from cache
-                inventoryCache.remove(playerId);
-                plugin.getDataManager().deletePlayerInventory(playerId);
-                // Restore inventory if off duty
+                // Restore inventory if off duty; this also clears the cache and database copies
                 restorePlayerInventory(player);
             }
         }
@@ -46,7 +46,7 @@ public class EdenCorrectionsExpansion extends PlaceholderExpansion {
             return null;
         }
 
-        PlayerData data = plugin.getDataManager().getPlayerData(player.getUniqueId());
+        PlayerData data = plugin.getDataManager().peekPlayerData(player.getUniqueId());
         if (data == null) {
             return null;
         }
@@ -194,7 +194,7 @@ public class WantedManager {
     }
     
     public int getWantedLevel(UUID playerId) {
-        PlayerData data = plugin.getDataManager().getPlayerData(playerId);
+        PlayerData data = plugin.getDataManager().peekPlayerData(playerId);
         return data != null ? data.getWantedLevel() : 0;
     }
     
@@ -203,7 +203,7 @@ public class WantedManager {
     }
     
     public boolean isWanted(UUID playerId) {
-        PlayerData data = plugin.getDataManager().getPlayerData(playerId);
+        PlayerData data = plugin.getDataManager().peekPlayerData(playerId);
         return data != null && data.isWanted();
     }
     
@@ -212,7 +212,7 @@ public class WantedManager {
     }
     
     public long getRemainingWantedTime(UUID playerId) {
-        PlayerData data = plugin.getDataManager().getPlayerData(playerId);
+        PlayerData data = plugin.getDataManager().peekPlayerData(playerId);
         return data != null ? data.getRemainingWantedTime() : 0;
     }
     
@@ -221,7 +221,7 @@ public class WantedManager {
     }
     
     public String getWantedReason(UUID playerId) {
-        PlayerData data = plugin.getDataManager().getPlayerData(playerId);
+        PlayerData data = plugin.getDataManager().peekPlayerData(playerId);
         return data != null ? data.getWantedReason() : "";
     }
     
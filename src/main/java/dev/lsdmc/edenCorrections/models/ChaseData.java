@@ -25,6 +25,19 @@ public class ChaseData {
         this.endTime = 0;
     }
     
+    // Restore a chase from storage
+    public ChaseData(UUID chaseId, UUID guardId, UUID targetId, long startTime, long duration,
+                     boolean isActive, String endReason, long endTime) {
+        this.chaseId = chaseId;
+        this.guardId = guardId;
+        this.targetId = targetId;
+        this.startTime = startTime;
+        this.duration = duration;
+        this.isActive = isActive;
+        this.endReason = endReason != null ? endReason : "";
+        this.endTime = endTime;
+    }
+    
     // Getters
     public UUID getChaseId() { return chaseId; }
     public UUID getGuardId() { return guardId; }
@@ -49,6 +62,19 @@ public class ChaseData {
         return getElapsedTime() >= duration;
     }
     
+    /**
+     * End reason without its per-chase details, e.g. "Target too far (212 > 100)"
+     * becomes "Target too far"; used to group chases in statistics
+     */
+    public String getEndReasonCategory() {
+        if (endReason == null || endReason.isEmpty()) {
+            return "Unknown";
+        }
+        int detail = endReason.indexOf(" (");
+        String category = detail > 0 ? endReason.substring(0, detail) : endReason;
+        return category.length() > 64 ? category.substring(0, 64) : category;
+    }
+    
     public void endChase(String reason) {
         this.isActive = false;
         this.endReason = reason;
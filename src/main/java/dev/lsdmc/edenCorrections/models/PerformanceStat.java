@@ -0,0 +1,26 @@
+package dev.lsdmc.edenCorrections.models;
+
+/**
+ * Guard performance events recorded to performance_stats.
+ * The key is stored in the stat_type column, so existing keys must not change.
+ */
+public enum PerformanceStat {
+
+    SEARCH("search"),
+    SUCCESSFUL_SEARCH("successful_search"),
+    DETECTION("detection"),
+    ARREST("arrest"),
+    KILL("kill"),
+    // Value is the number of minutes served in one duty session
+    DUTY_MINUTES("duty_minutes");
+
+    private final String key;
+
+    PerformanceStat(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -1,6 +1,8 @@
-<<<<<<< HEAD
 package dev.lsdmc.edenCorrections.models;
 
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 public class PlayerData {
@@ -49,6 +51,13 @@ public class PlayerData {
     private int totalViolations;
     private long totalDutyTime;
     
+    // Fields changed since the last write, so saves only touch those columns
+    private final EnumSet<PlayerDataField> dirtyFields = EnumSet.noneOf(PlayerDataField.class);
+    private volatile boolean persisted = false;
+    
+    // Version of the latest write (player_data.version), guarded by dirtyFields
+    private long version = 0;
+    
     public PlayerData(UUID playerId, String playerName) {
         this.playerId = playerId;
         this.playerName = playerName;
@@ -114,37 +123,196 @@ public class PlayerData {
     public boolean hasActivePenaltyBossBar() { return hasActivePenaltyBossBar; }
 
     // === SETTERS ===
-    public void setOnDuty(boolean onDuty) { this.isOnDuty = onDuty; }
-    public void setDutyStartTime(long dutyStartTime) { this.dutyStartTime = dutyStartTime; }
-    public void setOffDutyTime(long offDutyTime) { this.offDutyTime = offDutyTime; }
-    public void setGraceDebtTime(long graceDebtTime) { this.graceDebtTime = graceDebtTime; }
-    public void setGuardRank(String guardRank) { this.guardRank = guardRank; }
-    public void setWantedLevel(int wantedLevel) { this.wantedLevel = wantedLevel; }
-    public void setWantedExpireTime(long wantedExpireTime) { this.wantedExpireTime = wantedExpireTime; }
-    public void setWantedReason(String wantedReason) { this.wantedReason = wantedReason; }
-    public void setBeingChased(boolean beingChased) { this.beingChased = beingChased; }
-    public void setChaserGuard(UUID chaserGuard) { this.chaserGuard = chaserGuard; }
-    public void setChaseStartTime(long chaseStartTime) { this.chaseStartTime = chaseStartTime; }
-    public void setTotalArrests(int totalArrests) { this.totalArrests = totalArrests; }
-    public void setTotalViolations(int totalViolations) { this.totalViolations = totalViolations; }
-    public void setTotalDutyTime(long totalDutyTime) { this.totalDutyTime = totalDutyTime; }
+    public void setOnDuty(boolean onDuty) {
+        if (this.isOnDuty != onDuty) {
+            this.isOnDuty = onDuty;
+            markDirty(PlayerDataField.ON_DUTY);
+        }
+    }
+    
+    public void setDutyStartTime(long dutyStartTime) {
+        if (this.dutyStartTime != dutyStartTime) {
+            this.dutyStartTime = dutyStartTime;
+            markDirty(PlayerDataField.DUTY_START_TIME);
+        }
+    }
+    
+    public void setOffDutyTime(long offDutyTime) {
+        if (this.offDutyTime != offDutyTime) {
+            this.offDutyTime = offDutyTime;
+            markDirty(PlayerDataField.OFF_DUTY_TIME);
+        }
+    }
+    
+    public void setGraceDebtTime(long graceDebtTime) {
+        if (this.graceDebtTime != graceDebtTime) {
+            this.graceDebtTime = graceDebtTime;
+            markDirty(PlayerDataField.GRACE_DEBT_TIME);
+        }
+    }
+    
+    public void setGuardRank(String guardRank) {
+        if (!Objects.equals(this.guardRank, guardRank)) {
+            this.guardRank = guardRank;
+            markDirty(PlayerDataField.GUARD_RANK);
+        }
+    }
+    
+    public void setWantedLevel(int wantedLevel) {
+        if (this.wantedLevel != wantedLevel) {
+            this.wantedLevel = wantedLevel;
+            markDirty(PlayerDataField.WANTED_LEVEL);
+        }
+    }
+    
+    public void setWantedExpireTime(long wantedExpireTime) {
+        if (this.wantedExpireTime != wantedExpireTime) {
+            this.wantedExpireTime = wantedExpireTime;
+            markDirty(PlayerDataField.WANTED_EXPIRE_TIME);
+        }
+    }
+    
+    public void setWantedReason(String wantedReason) {
+        if (!Objects.equals(this.wantedReason, wantedReason)) {
+            this.wantedReason = wantedReason;
+            markDirty(PlayerDataField.WANTED_REASON);
+        }
+    }
+    
+    public void setBeingChased(boolean beingChased) {
+        if (this.beingChased != beingChased) {
+            this.beingChased = beingChased;
+            markDirty(PlayerDataField.BEING_CHASED);
+        }
+    }
+    
+    public void setChaserGuard(UUID chaserGuard) {
+        if (!Objects.equals(this.chaserGuard, chaserGuard)) {
+            this.chaserGuard = chaserGuard;
+            markDirty(PlayerDataField.CHASER_GUARD);
+        }
+    }
+    
+    public void setChaseStartTime(long chaseStartTime) {
+        if (this.chaseStartTime != chaseStartTime) {
+            this.chaseStartTime = chaseStartTime;
+            markDirty(PlayerDataField.CHASE_START_TIME);
+        }
+    }
+    
+    public void setTotalArrests(int totalArrests) {
+        if (this.totalArrests != totalArrests) {
+            this.totalArrests = totalArrests;
+            markDirty(PlayerDataField.TOTAL_ARRESTS);
+        }
+    }
+    
+    public void setTotalViolations(int totalViolations) {
+        if (this.totalViolations != totalViolations) {
+            this.totalViolations = totalViolations;
+            markDirty(PlayerDataField.TOTAL_VIOLATIONS);
+        }
+    }
+    
+    public void setTotalDutyTime(long totalDutyTime) {
+        if (this.totalDutyTime != totalDutyTime) {
+            this.totalDutyTime = totalDutyTime;
+            markDirty(PlayerDataField.TOTAL_DUTY_TIME);
+        }
+    }
     
     // NEW: Off-duty earning system setters
-    public void setEarnedOffDutyTime(long earnedOffDutyTime) { this.earnedOffDutyTime = earnedOffDutyTime; }
-    public void setHasEarnedBaseTime(boolean hasEarnedBaseTime) { this.hasEarnedBaseTime = hasEarnedBaseTime; }
-    public void setHasBeenNotifiedOfExpiredTime(boolean hasBeenNotifiedOfExpiredTime) { this.hasBeenNotifiedOfExpiredTime = hasBeenNotifiedOfExpiredTime; }
-    public void setSessionSearches(int sessionSearches) { this.sessionSearches = sessionSearches; }
-    public void setSessionSuccessfulSearches(int sessionSuccessfulSearches) { this.sessionSuccessfulSearches = sessionSuccessfulSearches; }
-    public void setSessionArrests(int sessionArrests) { this.sessionArrests = sessionArrests; }
-    public void setSessionKills(int sessionKills) { this.sessionKills = sessionKills; }
-    public void setSessionDetections(int sessionDetections) { this.sessionDetections = sessionDetections; }
+    public void setEarnedOffDutyTime(long earnedOffDutyTime) {
+        if (this.earnedOffDutyTime != earnedOffDutyTime) {
+            this.earnedOffDutyTime = earnedOffDutyTime;
+            markDirty(PlayerDataField.EARNED_OFF_DUTY_TIME);
+        }
+    }
+    
+    public void setHasEarnedBaseTime(boolean hasEarnedBaseTime) {
+        if (this.hasEarnedBaseTime != hasEarnedBaseTime) {
+            this.hasEarnedBaseTime = hasEarnedBaseTime;
+            markDirty(PlayerDataField.HAS_EARNED_BASE_TIME);
+        }
+    }
+    
+    public void setHasBeenNotifiedOfExpiredTime(boolean hasBeenNotifiedOfExpiredTime) {
+        if (this.hasBeenNotifiedOfExpiredTime != hasBeenNotifiedOfExpiredTime) {
+            this.hasBeenNotifiedOfExpiredTime = hasBeenNotifiedOfExpiredTime;
+            markDirty(PlayerDataField.NOTIFIED_OF_EXPIRED_TIME);
+        }
+    }
+    
+    public void setSessionSearches(int sessionSearches) {
+        if (this.sessionSearches != sessionSearches) {
+            this.sessionSearches = sessionSearches;
+            markDirty(PlayerDataField.SESSION_SEARCHES);
+        }
+    }
+    
+    public void setSessionSuccessfulSearches(int sessionSuccessfulSearches) {
+        if (this.sessionSuccessfulSearches != sessionSuccessfulSearches) {
+            this.sessionSuccessfulSearches = sessionSuccessfulSearches;
+            markDirty(PlayerDataField.SESSION_SUCCESSFUL_SEARCHES);
+        }
+    }
+    
+    public void setSessionArrests(int sessionArrests) {
+        if (this.sessionArrests != sessionArrests) {
+            this.sessionArrests = sessionArrests;
+            markDirty(PlayerDataField.SESSION_ARRESTS);
+        }
+    }
+    
+    public void setSessionKills(int sessionKills) {
+        if (this.sessionKills != sessionKills) {
+            this.sessionKills = sessionKills;
+            markDirty(PlayerDataField.SESSION_KILLS);
+        }
+    }
+    
+    public void setSessionDetections(int sessionDetections) {
+        if (this.sessionDetections != sessionDetections) {
+            this.sessionDetections = sessionDetections;
+            markDirty(PlayerDataField.SESSION_DETECTIONS);
+        }
+    }
     
     // === PENALTY ESCALATION SETTERS ===
-    public void setPenaltyStartTime(long penaltyStartTime) { this.penaltyStartTime = penaltyStartTime; }
-    public void setCurrentPenaltyStage(int currentPenaltyStage) { this.currentPenaltyStage = currentPenaltyStage; }
-    public void setLastPenaltyTime(long lastPenaltyTime) { this.lastPenaltyTime = lastPenaltyTime; }
-    public void setLastSlownessApplication(long lastSlownessApplication) { this.lastSlownessApplication = lastSlownessApplication; }
-    public void setHasActivePenaltyBossBar(boolean hasActivePenaltyBossBar) { this.hasActivePenaltyBossBar = hasActivePenaltyBossBar; }
+    public void setPenaltyStartTime(long penaltyStartTime) {
+        if (this.penaltyStartTime != penaltyStartTime) {
+            this.penaltyStartTime = penaltyStartTime;
+            markDirty(PlayerDataField.PENALTY_START_TIME);
+        }
+    }
+    
+    public void setCurrentPenaltyStage(int currentPenaltyStage) {
+        if (this.currentPenaltyStage != currentPenaltyStage) {
+            this.currentPenaltyStage = currentPenaltyStage;
+            markDirty(PlayerDataField.CURRENT_PENALTY_STAGE);
+        }
+    }
+    
+    public void setLastPenaltyTime(long lastPenaltyTime) {
+        if (this.lastPenaltyTime != lastPenaltyTime) {
+            this.lastPenaltyTime = lastPenaltyTime;
+            markDirty(PlayerDataField.LAST_PENALTY_TIME);
+        }
+    }
+    
+    public void setLastSlownessApplication(long lastSlownessApplication) {
+        if (this.lastSlownessApplication != lastSlownessApplication) {
+            this.lastSlownessApplication = lastSlownessApplication;
+            markDirty(PlayerDataField.LAST_SLOWNESS_APPLICATION);
+        }
+    }
+    
+    public void setHasActivePenaltyBossBar(boolean hasActivePenaltyBossBar) {
+        if (this.hasActivePenaltyBossBar != hasActivePenaltyBossBar) {
+            this.hasActivePenaltyBossBar = hasActivePenaltyBossBar;
+            markDirty(PlayerDataField.ACTIVE_PENALTY_BOSS_BAR);
+        }
+    }
 
     // === UTILITY METHODS ===
     public boolean isWanted() {
@@ -161,27 +329,27 @@ public class PlayerData {
     }
     
     public void clearWantedLevel() {
-        this.wantedLevel = 0;
-        this.wantedExpireTime = 0;
-        this.wantedReason = "";
+        setWantedLevel(0);
+        setWantedExpireTime(0);
+        setWantedReason("");
     }
     
     public void clearChaseData() {
-        this.beingChased = false;
-        this.chaserGuard = null;
-        this.chaseStartTime = 0;
+        setBeingChased(false);
+        setChaserGuard(null);
+        setChaseStartTime(0);
     }
     
     public void incrementArrests() {
-        this.totalArrests++;
+        setTotalArrests(totalArrests + 1);
     }
     
     public void incrementViolations() {
-        this.totalViolations++;
+        setTotalViolations(totalViolations + 1);
     }
     
     public void addDutyTime(long additionalTime) {
-        this.totalDutyTime += additionalTime;
+        setTotalDutyTime(totalDutyTime + additionalTime);
     }
     
     // Guard rank utility methods
@@ -195,11 +363,11 @@ public class PlayerData {
     
     // NEW: Off-duty earning system utility methods
     public void addEarnedOffDutyTime(long additionalTime) {
-        this.earnedOffDutyTime += additionalTime;
+        setEarnedOffDutyTime(earnedOffDutyTime + additionalTime);
     }
     
     public void consumeOffDutyTime(long consumedTime) {
-        this.earnedOffDutyTime = Math.max(0, this.earnedOffDutyTime - consumedTime);
+        setEarnedOffDutyTime(Math.max(0, earnedOffDutyTime - consumedTime));
     }
     
     public boolean hasAvailableOffDutyTime() {
@@ -242,51 +410,51 @@ public class PlayerData {
     }
     
     public void incrementSessionSearches() {
-        this.sessionSearches++;
+        setSessionSearches(sessionSearches + 1);
     }
     
     public void incrementSessionSuccessfulSearches() {
-        this.sessionSuccessfulSearches++;
+        setSessionSuccessfulSearches(sessionSuccessfulSearches + 1);
     }
     
     public void incrementSessionArrests() {
-        this.sessionArrests++;
+        setSessionArrests(sessionArrests + 1);
     }
     
     public void incrementSessionKills() {
-        this.sessionKills++;
+        setSessionKills(sessionKills + 1);
     }
     
     public void incrementSessionDetections() {
-        this.sessionDetections++;
+        setSessionDetections(sessionDetections + 1);
     }
     
     public void resetSessionStats() {
-        this.sessionSearches = 0;
-        this.sessionSuccessfulSearches = 0;
-        this.sessionArrests = 0;
-        this.sessionKills = 0;
-        this.sessionDetections = 0;
-        this.hasEarnedBaseTime = false;
-        this.hasBeenNotifiedOfExpiredTime = false;
+        setSessionSearches(0);
+        setSessionSuccessfulSearches(0);
+        setSessionArrests(0);
+        setSessionKills(0);
+        setSessionDetections(0);
+        setHasEarnedBaseTime(false);
+        setHasBeenNotifiedOfExpiredTime(false);
     }
     
     // === PENALTY UTILITY METHODS ===
     
     public void initializePenaltyTracking() {
-        this.penaltyStartTime = System.currentTimeMillis();
-        this.currentPenaltyStage = 0;
-        this.lastPenaltyTime = 0;
-        this.lastSlownessApplication = 0;
-        this.hasActivePenaltyBossBar = false;
+        setPenaltyStartTime(System.currentTimeMillis());
+        setCurrentPenaltyStage(0);
+        setLastPenaltyTime(0);
+        setLastSlownessApplication(0);
+        setHasActivePenaltyBossBar(false);
     }
     
     public void clearPenaltyTracking() {
-        this.penaltyStartTime = 0;
-        this.currentPenaltyStage = 0;
-        this.lastPenaltyTime = 0;
-        this.lastSlownessApplication = 0;
-        this.hasActivePenaltyBossBar = false;
+        setPenaltyStartTime(0);
+        setCurrentPenaltyStage(0);
+        setLastPenaltyTime(0);
+        setLastSlownessApplication(0);
+        setHasActivePenaltyBossBar(false);
     }
     
     public boolean isPenaltyTrackingActive() {
@@ -302,8 +470,111 @@ public class PlayerData {
     }
     
     public void advancePenaltyStage() {
-        this.currentPenaltyStage++;
-        this.lastPenaltyTime = System.currentTimeMillis();
+        setCurrentPenaltyStage(currentPenaltyStage + 1);
+        setLastPenaltyTime(System.currentTimeMillis());
+    }
+    
+    // === CHANGE TRACKING ===
+    
+    private void markDirty(PlayerDataField field) {
+        synchronized (dirtyFields) {
+            dirtyFields.add(field);
+        }
+    }
+    
+    /**
+     * Copy the current values for a write and reset the change tracking. Call this on
+     * the thread that changes the data (normally the main thread), so the copy never
+     * mixes values from before and after an update.
+     * @return the snapshot, with a new version if there is anything to write
+     */
+    public PlayerDataSnapshot snapshot() {
+        synchronized (dirtyFields) {
+            boolean insert = !persisted;
+            Set<PlayerDataField> changed = EnumSet.copyOf(dirtyFields);
+            dirtyFields.clear();
+            persisted = true;
+            if (insert || !changed.isEmpty()) {
+                version++;
+            }
+
+            return new PlayerDataSnapshot(playerId, playerName, isOnDuty, dutyStartTime, offDutyTime,
+                graceDebtTime, guardRank, earnedOffDutyTime, hasEarnedBaseTime, hasBeenNotifiedOfExpiredTime,
+                sessionSearches, sessionSuccessfulSearches, sessionArrests, sessionKills, sessionDetections,
+                penaltyStartTime, currentPenaltyStage, lastPenaltyTime, lastSlownessApplication,
+                hasActivePenaltyBossBar, wantedLevel, wantedExpireTime, wantedReason, beingChased, chaserGuard,
+                chaseStartTime, totalArrests, totalViolations, totalDutyTime, changed, insert, version);
+        }
+    }
+    
+    /**
+     * Put a snapshot's changes back after its write failed, so the next save
+     * includes them again
+     * @param snapshot the snapshot that was not written
+     */
+    public void restoreChanges(PlayerDataSnapshot snapshot) {
+        synchronized (dirtyFields) {
+            dirtyFields.addAll(snapshot.changedFields());
+            if (snapshot.insert()) {
+                persisted = false;
+            }
+        }
+    }
+    
+    /**
+     * Put fields back after a failed write so the next save includes them again
+     * @param fields the fields that were not written
+     */
+    public void restoreDirtyFields(Set<PlayerDataField> fields) {
+        synchronized (dirtyFields) {
+            dirtyFields.addAll(fields);
+        }
+    }
+    
+    public boolean hasDirtyFields() {
+        synchronized (dirtyFields) {
+            return !dirtyFields.isEmpty();
+        }
+    }
+    
+    /**
+     * @return true if this player already has a row in the database
+     */
+    public boolean isPersisted() {
+        return persisted;
+    }
+    
+    public void setPersisted(boolean persisted) {
+        this.persisted = persisted;
+    }
+    
+    /**
+     * Mark the data as matching its database row, e.g. right after loading it
+     * @param version the row's version
+     */
+    public void markPersisted(long version) {
+        synchronized (dirtyFields) {
+            dirtyFields.clear();
+            this.version = version;
+        }
+        this.persisted = true;
+    }
+    
+    public long getVersion() {
+        synchronized (dirtyFields) {
+            return version;
+        }
+    }
+    
+    /**
+     * Catch up with a row that was written with a newer version elsewhere, so the
+     * next write is accepted again
+     * @param storedVersion the version found in the database
+     */
+    public void advanceVersion(long storedVersion) {
+        synchronized (dirtyFields) {
+            version = Math.max(version, storedVersion);
+        }
     }
 
     @Override
@@ -317,5 +588,4 @@ public class PlayerData {
                 ", beingChased=" + beingChased +
                 '}';
     }
-
- 
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package dev.lsdmc.edenCorrections.models;
+
+/**
+ * Persisted PlayerData fields, used to track which columns changed since the last save.
+ * Declaration order matches the player_data column order.
+ */
+public enum PlayerDataField {
+
+    // Duty information
+    ON_DUTY("is_on_duty"),
+    DUTY_START_TIME("duty_start_time"),
+    OFF_DUTY_TIME("off_duty_time"),
+    GRACE_DEBT_TIME("grace_debt_time"),
+    GUARD_RANK("guard_rank"),
+
+    // Off-duty earning system
+    EARNED_OFF_DUTY_TIME("earned_off_duty_time"),
+    HAS_EARNED_BASE_TIME("has_earned_base_time"),
+    NOTIFIED_OF_EXPIRED_TIME("has_been_notified_expired"),
+
+    // Session performance
+    SESSION_SEARCHES("session_searches"),
+    SESSION_SUCCESSFUL_SEARCHES("session_successful_searches"),
+    SESSION_ARRESTS("session_arrests"),
+    SESSION_KILLS("session_kills"),
+    SESSION_DETECTIONS("session_detections"),
+
+    // Penalty escalation
+    PENALTY_START_TIME("penalty_start_time"),
+    CURRENT_PENALTY_STAGE("current_penalty_stage"),
+    LAST_PENALTY_TIME("last_penalty_time"),
+    LAST_SLOWNESS_APPLICATION("last_slowness_application"),
+    ACTIVE_PENALTY_BOSS_BAR("has_active_penalty_boss_bar"),
+
+    // Wanted system
+    WANTED_LEVEL("wanted_level"),
+    WANTED_EXPIRE_TIME("wanted_expire_time"),
+    WANTED_REASON("wanted_reason"),
+
+    // Chase information
+    BEING_CHASED("being_chased"),
+    CHASER_GUARD("chaser_guard"),
+    CHASE_START_TIME("chase_start_time"),
+
+    // Statistics
+    TOTAL_ARRESTS("total_arrests"),
+    TOTAL_VIOLATIONS("total_violations"),
+    TOTAL_DUTY_TIME("total_duty_time");
+
+    private final String column;
+
+    PlayerDataField(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+}
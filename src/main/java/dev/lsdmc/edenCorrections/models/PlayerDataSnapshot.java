@@ -0,0 +1,123 @@
+package dev.lsdmc.edenCorrections.models;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a player's persisted fields, taken by {@link PlayerData#snapshot()}
+ * on the thread that changes the data (normally the main thread) when the player is
+ * saved. Database threads only bind from snapshots, so a write can't mix old and
+ * new values of fields that change together, such as is_on_duty and duty_start_time.
+ *
+ * Besides the values it carries what the write needs: the fields changed since the
+ * previous snapshot, whether the row is new, and the version of the write.
+ */
+public record PlayerDataSnapshot(
+        UUID playerId,
+        String playerName,
+        boolean onDuty,
+        long dutyStartTime,
+        long offDutyTime,
+        long graceDebtTime,
+        String guardRank,
+        long earnedOffDutyTime,
+        boolean hasEarnedBaseTime,
+        boolean notifiedOfExpiredTime,
+        int sessionSearches,
+        int sessionSuccessfulSearches,
+        int sessionArrests,
+        int sessionKills,
+        int sessionDetections,
+        long penaltyStartTime,
+        int currentPenaltyStage,
+        long lastPenaltyTime,
+        long lastSlownessApplication,
+        boolean activePenaltyBossBar,
+        int wantedLevel,
+        long wantedExpireTime,
+        String wantedReason,
+        boolean beingChased,
+        UUID chaserGuard,
+        long chaseStartTime,
+        int totalArrests,
+        int totalViolations,
+        long totalDutyTime,
+        Set<PlayerDataField> changedFields,
+        boolean insert,
+        long version) {
+
+    public PlayerDataSnapshot {
+        changedFields = Collections.unmodifiableSet(changedFields);
+    }
+
+    /**
+     * @return true if there is nothing to write
+     */
+    public boolean isEmpty() {
+        return !insert && changedFields.isEmpty();
+    }
+
+    /**
+     * Combine two snapshots of the same player that are both waiting to be written:
+     * the values of the newer one, with the changed fields of both
+     */
+    public static PlayerDataSnapshot merge(PlayerDataSnapshot a, PlayerDataSnapshot b) {
+        PlayerDataSnapshot newer = a.version >= b.version ? a : b;
+        PlayerDataSnapshot older = newer == a ? b : a;
+        if ((newer.insert || !older.insert) && newer.changedFields.containsAll(older.changedFields)) {
+            return newer;
+        }
+
+        Set<PlayerDataField> fields = EnumSet.noneOf(PlayerDataField.class);
+        fields.addAll(older.changedFields);
+        fields.addAll(newer.changedFields);
+        return new PlayerDataSnapshot(newer.playerId, newer.playerName, newer.onDuty, newer.dutyStartTime,
+            newer.offDutyTime, newer.graceDebtTime, newer.guardRank, newer.earnedOffDutyTime,
+            newer.hasEarnedBaseTime, newer.notifiedOfExpiredTime, newer.sessionSearches,
+            newer.sessionSuccessfulSearches, newer.sessionArrests, newer.sessionKills, newer.sessionDetections,
+            newer.penaltyStartTime, newer.currentPenaltyStage, newer.lastPenaltyTime,
+            newer.lastSlownessApplication, newer.activePenaltyBossBar, newer.wantedLevel, newer.wantedExpireTime,
+            newer.wantedReason, newer.beingChased, newer.chaserGuard, newer.chaseStartTime, newer.totalArrests,
+            newer.totalViolations, newer.totalDutyTime, fields, older.insert || newer.insert, newer.version);
+    }
+
+    /**
+     * Rebuild player data from a snapshot that is still waiting to be written. The
+     * result counts as persisted at the snapshot's version, since the pending write
+     * will bring the row there.
+     */
+    public PlayerData toPlayerData() {
+        PlayerData data = new PlayerData(playerId, playerName);
+        data.setOnDuty(onDuty);
+        data.setDutyStartTime(dutyStartTime);
+        data.setOffDutyTime(offDutyTime);
+        data.setGraceDebtTime(graceDebtTime);
+        data.setGuardRank(guardRank);
+        data.setEarnedOffDutyTime(earnedOffDutyTime);
+        data.setHasEarnedBaseTime(hasEarnedBaseTime);
+        data.setHasBeenNotifiedOfExpiredTime(notifiedOfExpiredTime);
+        data.setSessionSearches(sessionSearches);
+        data.setSessionSuccessfulSearches(sessionSuccessfulSearches);
+        data.setSessionArrests(sessionArrests);
+        data.setSessionKills(sessionKills);
+        data.setSessionDetections(sessionDetections);
+        data.setPenaltyStartTime(penaltyStartTime);
+        data.setCurrentPenaltyStage(currentPenaltyStage);
+        data.setLastPenaltyTime(lastPenaltyTime);
+        data.setLastSlownessApplication(lastSlownessApplication);
+        data.setHasActivePenaltyBossBar(activePenaltyBossBar);
+        data.setWantedLevel(wantedLevel);
+        data.setWantedExpireTime(wantedExpireTime);
+        data.setWantedReason(wantedReason);
+        data.setBeingChased(beingChased);
+        data.setChaserGuard(chaserGuard);
+        data.setChaseStartTime(chaseStartTime);
+        data.setTotalArrests(totalArrests);
+        data.setTotalViolations(totalViolations);
+        data.setTotalDutyTime(totalDutyTime);
+        data.markPersisted(version);
+        return data;
+    }
+}
@@ -0,0 +1,210 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.EdenCorrections;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Database backups.
+ *
+ * The handler writes a consistent copy (SQLite: VACUUM INTO, MySQL: a logical dump
+ * from one snapshot) to a temporary file. That file is then optionally gzipped into
+ * the backup directory while its SHA-256 is computed, the checksum is written next
+ * to it, and a verification pass reads the file back (and decompresses it) to make
+ * sure what reached the disk matches. Only then are the oldest backups beyond the
+ * configured count removed.
+ */
+public class BackupManager {
+
+    private static final String PREFIX = "edencorrections-";
+    private static final String CHECKSUM_SUFFIX = ".sha256";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final DateTimeFormatter TIMESTAMP =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final EdenCorrections plugin;
+    private final Logger logger;
+    private final DatabaseHandler databaseHandler;
+    private final Path directory;
+    private final String extension;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BackupManager(EdenCorrections plugin, DatabaseHandler databaseHandler) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.databaseHandler = databaseHandler;
+        this.directory = plugin.getDataFolder().toPath().resolve(plugin.getConfigManager().getBackupDirectory());
+        this.extension = databaseHandler instanceof SQLiteHandler ? ".db" : ".sql";
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "EdenCorrections-Backup");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Create, verify and rotate one backup. Only one backup runs at a time.
+     * @return CompletableFuture containing the path of the new backup
+     */
+    public CompletableFuture<Path> createBackup() {
+        if (!running.compareAndSet(false, true)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("A backup is already running"));
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            long startTime = System.currentTimeMillis();
+            String name = PREFIX + TIMESTAMP.format(Instant.now()) + extension;
+            Path copy = directory.resolve(name + TEMP_SUFFIX);
+
+            try {
+                Files.createDirectories(directory);
+                deleteTemporaryFiles();
+
+                databaseHandler.createBackup(copy.toString()).join();
+
+                boolean compress = plugin.getConfigManager().isBackupCompressionEnabled();
+                Path backup = directory.resolve(compress ? name + ".gz" : name);
+                String checksum = writeBackup(copy, backup, compress);
+                Files.writeString(checksumFile(backup), checksum + "  " + backup.getFileName() + "\n");
+
+                // Verification pass over what is actually on disk
+                String verified = readChecksum(backup, compress);
+                if (!checksum.equals(verified)) {
+                    Files.deleteIfExists(backup);
+                    Files.deleteIfExists(checksumFile(backup));
+                    throw new IOException("Backup checksum mismatch: wrote " + checksum + ", read back " + verified);
+                }
+
+                int removed = rotate(plugin.getConfigManager().getBackupKeepCount());
+                logger.info("Database backup " + backup.getFileName() + " verified (" + (Files.size(backup) / 1024) +
+                           " KB, sha256 " + checksum.substring(0, 12) + ") in " +
+                           (System.currentTimeMillis() - startTime) + "ms" +
+                           (removed > 0 ? ", removed " + removed + " old backups" : ""));
+                return backup;
+
+            } catch (IOException e) {
+                logger.severe("Failed to create database backup: " + e.getMessage());
+                throw new RuntimeException(e);
+            } finally {
+                try {
+                    Files.deleteIfExists(copy);
+                } catch (IOException e) {
+                    logger.warning("Could not delete temporary backup file " + copy + ": " + e.getMessage());
+                }
+                running.set(false);
+            }
+        }, executor);
+    }
+
+    // Copy the handler's output into the backup, returning the SHA-256 of the written bytes
+    private String writeBackup(Path copy, Path backup, boolean compress) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(copy);
+             OutputStream file = new DigestOutputStream(Files.newOutputStream(backup), digest);
+             OutputStream out = compress ? new GZIPOutputStream(file, 64 * 1024) : file) {
+            in.transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // SHA-256 of a backup file; compressed backups are also decompressed to prove they are readable
+    private String readChecksum(Path backup, boolean compress) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream file = new DigestInputStream(Files.newInputStream(backup), digest);
+             InputStream in = compress ? new GZIPInputStream(file, 64 * 1024) : file) {
+            in.transferTo(OutputStream.nullOutputStream());
+            // Read any bytes after the gzip trailer, so they are hashed too
+            file.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Delete the oldest backups so that at most keepCount remain
+     * @return the number of backups deleted
+     */
+    private int rotate(int keepCount) throws IOException {
+        List<Path> backups = listBackups();
+        int removed = 0;
+        for (int i = 0; i < backups.size() - Math.max(1, keepCount); i++) {
+            Files.deleteIfExists(backups.get(i));
+            Files.deleteIfExists(checksumFile(backups.get(i)));
+            removed++;
+        }
+        return removed;
+    }
+
+    /**
+     * @return existing backups, oldest first (the names sort by their timestamp)
+     */
+    public List<Path> listBackups() throws IOException {
+        List<Path> backups = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return backups;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(this::isBackup).sorted().forEach(backups::add);
+        }
+        return backups;
+    }
+
+    private boolean isBackup(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(PREFIX) && (name.endsWith(extension) || name.endsWith(extension + ".gz"));
+    }
+
+    // Left behind by a backup that was interrupted, e.g. by a crash
+    private void deleteTemporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static Path checksumFile(Path backup) {
+        return backup.resolveSibling(backup.getFileName() + CHECKSUM_SUFFIX);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
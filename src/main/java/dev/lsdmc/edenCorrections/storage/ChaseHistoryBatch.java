@@ -0,0 +1,138 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.models.ChaseData;
+import dev.lsdmc.edenCorrections.storage.DatabaseHandler.ChaseRollup;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One batch of ended chases on its way to chase_history.
+ *
+ * The handlers first drop the chases chase_history already has with
+ * {@link #skipArchived}, then write the history rows with {@link #bindHistory} and
+ * add {@link #getRollups()} to chase_rollups, all inside the same transaction that
+ * deletes the chases from chase_data. Roll-ups are summed here first, so a batch
+ * touches each (day, guard, end reason) row once.
+ */
+final class ChaseHistoryBatch {
+    
+    static final String ARCHIVED_SQL = "SELECT 1 FROM chase_history WHERE chase_id = ?";
+    
+    private final long archivedAt = System.currentTimeMillis();
+    private final Map<UUID, ChaseData> chases = new LinkedHashMap<>();
+    
+    ChaseHistoryBatch(Collection<ChaseData> ended) {
+        for (ChaseData chase : ended) {
+            // Chases without both players can't be attributed, they are only dropped from chase_data
+            if (chase.getGuardId() == null || chase.getTargetId() == null) {
+                continue;
+            }
+            chases.putIfAbsent(chase.getChaseId(), chase);
+        }
+    }
+    
+    /**
+     * Drop the chases already in chase_history, e.g. one queued for archiving that
+     * cleanupExpiredChases also found in chase_data, so they aren't counted twice
+     * @param archived {@link #ARCHIVED_SQL}, prepared on the batch's connection
+     */
+    void skipArchived(PreparedStatement archived) throws SQLException {
+        Iterator<ChaseData> iterator = chases.values().iterator();
+        while (iterator.hasNext()) {
+            UuidCodec.bind(archived, 1, iterator.next().getChaseId());
+            try (ResultSet rs = archived.executeQuery()) {
+                if (rs.next()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+    
+    Collection<ChaseData> getChases() {
+        return chases.values();
+    }
+    
+    Collection<Rollup> getRollups() {
+        Map<RollupKey, Rollup> rollups = new LinkedHashMap<>();
+        for (ChaseData chase : chases.values()) {
+            long endTime = getEndTime(chase);
+            RollupKey key = new RollupKey(ChaseRollup.toDay(endTime), chase.getGuardId(), chase.getEndReasonCategory());
+            Rollup rollup = rollups.computeIfAbsent(key, Rollup::new);
+            rollup.chaseCount++;
+            rollup.totalDuration += Math.max(0, endTime - chase.getStartTime());
+        }
+        return rollups.values();
+    }
+    
+    // Chases removed before they were ended count as ending now
+    long getEndTime(ChaseData chase) {
+        return chase.getEndTime() > 0 ? chase.getEndTime() : archivedAt;
+    }
+    
+    /**
+     * Bind (chase_id, guard_id, target_id, start_time, end_time, end_day, end_reason)
+     */
+    void bindHistory(PreparedStatement stmt, ChaseData chase) throws SQLException {
+        long endTime = getEndTime(chase);
+        UuidCodec.bind(stmt, 1, chase.getChaseId());
+        UuidCodec.bind(stmt, 2, chase.getGuardId());
+        UuidCodec.bind(stmt, 3, chase.getTargetId());
+        stmt.setLong(4, chase.getStartTime());
+        stmt.setLong(5, endTime);
+        stmt.setLong(6, ChaseRollup.toDay(endTime));
+        stmt.setString(7, chase.getEndReason());
+    }
+    
+    /**
+     * Bind (day, guard_id, end_reason, chase_count, total_duration)
+     */
+    static void bindRollup(PreparedStatement stmt, Rollup rollup) throws SQLException {
+        stmt.setLong(1, rollup.key.day);
+        UuidCodec.bind(stmt, 2, rollup.key.guardId);
+        stmt.setString(3, rollup.key.endReason);
+        stmt.setInt(4, rollup.chaseCount);
+        stmt.setLong(5, rollup.totalDuration);
+    }
+    
+    static final class Rollup {
+        private final RollupKey key;
+        private int chaseCount;
+        private long totalDuration;
+        
+        private Rollup(RollupKey key) {
+            this.key = key;
+        }
+    }
+    
+    private static final class RollupKey {
+        private final long day;
+        private final UUID guardId;
+        private final String endReason;
+        
+        private RollupKey(long day, UUID guardId, String endReason) {
+            this.day = day;
+            this.guardId = guardId;
+            this.endReason = endReason;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RollupKey other)) return false;
+            return day == other.day && guardId.equals(other.guardId) && endReason.equals(other.endReason);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, guardId, endReason);
+        }
+    }
+}
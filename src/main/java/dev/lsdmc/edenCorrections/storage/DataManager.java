@@ -1,23 +1,36 @@
-<<<<<<< HEAD
 package dev.lsdmc.edenCorrections.storage;
 
 import dev.lsdmc.edenCorrections.EdenCorrections;
 import dev.lsdmc.edenCorrections.models.PlayerData;
+import dev.lsdmc.edenCorrections.models.PlayerDataField;
+import dev.lsdmc.edenCorrections.models.PlayerDataSnapshot;
 import dev.lsdmc.edenCorrections.models.ChaseData;
+import dev.lsdmc.edenCorrections.models.PerformanceStat;
 
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
 import java.util.List;
 import java.util.ArrayList;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 
 public class DataManager {
     
@@ -27,21 +40,66 @@ public class DataManager {
     // Database handler
     private DatabaseHandler databaseHandler;
     
+    // Write-behind buffer for player data saves (null when disabled)
+    private WriteBehindQueue writeQueue;
+    
+    // Guard performance events waiting to be written to performance_stats (null when disabled)
+    private TelemetryBuffer telemetryBuffer;
+    private final AtomicLong telemetryFailedEvents = new AtomicLong();
+    
+    private BackupManager backupManager;
+    
+    // Runs maintenance in small steps while the server is quiet
+    private MaintenanceScheduler maintenanceScheduler;
+    
     // In-memory cache for performance (loaded from database)
-    private final Map<UUID, PlayerData> playerDataCache;
+    // Online players are pinned; wanted and chased players are never evicted since
+    // getWantedPlayers() and getPlayersInChase() are answered from the cache
+    private final PlayerDataCache playerDataCache;
     private final Map<UUID, ChaseData> activeChases;
     
-    // Cache management
-    private final Map<UUID, Long> lastCacheUpdate;
-    private static final long CACHE_EXPIRY_TIME = 5 * 60 * 1000L; // 5 minutes
-    private static final int MAX_CACHE_SIZE = 1000; // Maximum number of cached players
+    // Chase lookups by participant, kept in step with activeChases (one chase per guard and per target)
+    private final Map<UUID, ChaseData> chasesByGuard = new ConcurrentHashMap<>();
+    private final Map<UUID, ChaseData> chasesByTarget = new ConcurrentHashMap<>();
+    
+    // Ended chases waiting to be moved to the chase history in one batch
+    private final Queue<ChaseData> pendingChaseHistory = new ConcurrentLinkedQueue<>();
+    
+    // Lowercase name -> player, for every player seen in the database or this session.
+    // Sorted so tab completion can take a prefix range.
+    private final ConcurrentSkipListMap<String, KnownPlayer> playersByName = new ConcurrentSkipListMap<>();
+    
+    // Database loads in progress, so concurrent cache misses share one query
+    private final Map<UUID, CompletableFuture<PlayerData>> pendingLoads = new ConcurrentHashMap<>();
+    
+    // Players the database had no row for -> when to ask again, so hot-path misses don't re-query
+    private static final long MISSING_PLAYER_TTL = 30_000L;
+    private final Map<UUID, Long> missingPlayers = new ConcurrentHashMap<>();
+    
+    // Stored inventory state, filled in at pre-login so joins don't query the database
+    private final Map<UUID, Boolean> storedInventoryPresence = new ConcurrentHashMap<>();
+    private final Map<UUID, byte[]> preloadedInventories = new ConcurrentHashMap<>();
+    
+    // Startup load measurements
+    private long startupLoadMillis = 0;
+    private long startupHeapBytes = 0;
+    
+    // Player data snapshots taken for writes, and the heap they allocated where the JVM reports it
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = getAllocationBean();
+    private final AtomicLong playerSnapshots = new AtomicLong();
+    private final AtomicLong measuredSnapshots = new AtomicLong();
+    private final AtomicLong snapshotBytes = new AtomicLong();
+    
+    // Blocking database calls made from the main thread, keyed by call site
+    private final Map<String, AtomicLong> mainThreadBlockingCalls = new ConcurrentHashMap<>();
     
     public DataManager(EdenCorrections plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
-        this.playerDataCache = new ConcurrentHashMap<>();
+        this.playerDataCache = new PlayerDataCache(
+            plugin.getConfigManager().getPlayerCacheMaxWeightKB() * 1024L,
+            data -> data.isWanted() || data.isBeingChased());
         this.activeChases = new ConcurrentHashMap<>();
-        this.lastCacheUpdate = new ConcurrentHashMap<>();
     }
     
     public void initialize() {
@@ -49,6 +107,20 @@ public class DataManager {
             // Initialize database handler based on configuration
             initializeDatabase();
             
+            // Buffer player data saves and write them in batches
+            if (plugin.getConfigManager().isWriteBehindEnabled()) {
+                writeQueue = new WriteBehindQueue(plugin, databaseHandler, this::handleSupersededWrites);
+                writeQueue.start();
+            }
+            
+            if (plugin.getConfigManager().isTelemetryEnabled()) {
+                telemetryBuffer = new TelemetryBuffer(plugin.getConfigManager().getTelemetryBufferSize());
+            }
+            
+            backupManager = new BackupManager(plugin, databaseHandler);
+            maintenanceScheduler = new MaintenanceScheduler(plugin, () -> databaseHandler.getPendingOperations() +
+                (writeQueue != null ? writeQueue.getPendingCount() : 0));
+            
             // Load existing data from database
             loadExistingData();
             
@@ -98,14 +170,24 @@ public class DataManager {
     }
     
     private void loadExistingData() {
+        long startTime = System.nanoTime();
+        Runtime runtime = Runtime.getRuntime();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        
         try {
-            // Load all player data
-            CompletableFuture<List<PlayerData>> playerDataFuture = databaseHandler.loadAllPlayerData();
+            // Only load players whose state matters while offline (wanted or being chased);
+            // everyone else is loaded on demand at login or first lookup
+            CompletableFuture<List<PlayerData>> playerDataFuture =
+                databaseHandler.loadActivePlayerData(System.currentTimeMillis());
             List<PlayerData> playerDataList = playerDataFuture.get(30, TimeUnit.SECONDS);
             
             for (PlayerData playerData : playerDataList) {
-                playerDataCache.put(playerData.getPlayerId(), playerData);
-                lastCacheUpdate.put(playerData.getPlayerId(), System.currentTimeMillis());
+                cachePlayerData(playerData);
+            }
+            
+            // Players already online (plugin reload) never went through pre-login
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                playerDataCache.pin(player.getUniqueId());
             }
             
             // Load all active chases
@@ -114,10 +196,35 @@ public class DataManager {
             
             for (ChaseData chaseData : chaseDataList) {
                 activeChases.put(chaseData.getChaseId(), chaseData);
+                indexChase(chaseData);
             }
             
-            logger.info("Loaded " + playerDataList.size() + " player records and " + 
-                       chaseDataList.size() + " active chases from database");
+            startupLoadMillis = (System.nanoTime() - startTime) / 1_000_000L;
+            startupHeapBytes = Math.max(0L, (runtime.totalMemory() - runtime.freeMemory()) - heapBefore);
+            
+            logger.info("Loaded " + playerDataList.size() + " active player records and " + 
+                       chaseDataList.size() + " active chases from database in " + startupLoadMillis +
+                       "ms (heap +" + (startupHeapBytes / 1024L) + " KB)");
+            
+            // Names only matter for offline lookups and tab completion, don't hold up startup for them.
+            // The names indexed by the load above came from the database as well; anything else is newer.
+            Map<String, KnownPlayer> startupNames = new HashMap<>(playersByName);
+            databaseHandler.loadPlayerNames().whenComplete((names, throwable) -> {
+                if (throwable != null) {
+                    logger.warning("Failed to load player name index: " + throwable.getMessage());
+                    return;
+                }
+                // Oldest update first, so of several players who used a name the latest one wins
+                Map<String, KnownPlayer> latest = new HashMap<>();
+                names.forEach((playerId, playerName) ->
+                    latest.put(playerName.toLowerCase(Locale.ROOT), new KnownPlayer(playerId, playerName)));
+                // Players seen since startup are newer than the database
+                latest.forEach((key, known) -> playersByName.compute(key, (name, current) ->
+                    current == null || current == startupNames.get(name) ? known : current));
+                if (plugin.getConfigManager().isDebugMode()) {
+                    logger.info("DEBUG: Indexed " + names.size() + " player names");
+                }
+            });
             
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             logger.severe("Failed to load existing data: " + e.getMessage());
@@ -130,15 +237,34 @@ public class DataManager {
         Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::cleanupExpiredCache, 
             6000L, 6000L); // 5 minutes = 6000 ticks
         
+        // Write ended chases to the history at least every write-behind interval
+        long historyFlushTicks = Math.max(1, plugin.getConfigManager().getWriteBehindFlushInterval()) * 20L;
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flushChaseHistory,
+            historyFlushTicks, historyFlushTicks);
+        
+        if (telemetryBuffer != null) {
+            long telemetryFlushTicks = Math.max(1, plugin.getConfigManager().getTelemetryFlushInterval()) * 20L;
+            Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flushTelemetry,
+                telemetryFlushTicks, telemetryFlushTicks);
+        }
+        
+        // Scheduled backups, the first one a full interval after startup
+        int backupIntervalHours = plugin.getConfigManager().getBackupIntervalHours();
+        if (plugin.getConfigManager().isBackupEnabled() && backupIntervalHours > 0) {
+            long backupIntervalTicks = backupIntervalHours * 60L * 60L * 20L;
+            Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::createDatabaseBackup,
+                backupIntervalTicks, backupIntervalTicks);
+        }
+        
         // Start database maintenance task 
         int maintenanceIntervalMinutes = plugin.getConfigManager().getDatabaseMaintenanceInterval();
         long maintenanceIntervalTicks = maintenanceIntervalMinutes * 60L * 20L; // Convert minutes to ticks
         
-        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::performDatabaseMaintenance,
-            maintenanceIntervalTicks, maintenanceIntervalTicks);
-        
         // Only perform maintenance if enabled
         if (plugin.getConfigManager().isDatabaseMaintenanceEnabled()) {
+            Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::performDatabaseMaintenance,
+                maintenanceIntervalTicks, maintenanceIntervalTicks);
+            maintenanceScheduler.start();
             logger.info("Database maintenance scheduled every " + maintenanceIntervalMinutes + " minutes");
         } else {
             logger.info("Database maintenance is disabled in configuration");
@@ -146,50 +272,145 @@ public class DataManager {
     }
     
     private void cleanupExpiredCache() {
-        long currentTime = System.currentTimeMillis();
+        // The player cache evicts on insert; only release pins of players who
+        // were preloaded but never joined (no quit event for them)
+        playerDataCache.unpinIf(playerId -> !isOnline(playerId));
         
-        // Remove expired cache entries
-        lastCacheUpdate.entrySet().removeIf(entry -> {
-            if (currentTime - entry.getValue() > CACHE_EXPIRY_TIME) {
-                playerDataCache.remove(entry.getKey());
-                return true;
-            }
-            return false;
-        });
+        // Expired markers for players without a row
+        long now = System.currentTimeMillis();
+        missingPlayers.values().removeIf(retryAt -> retryAt <= now);
         
-        // Enforce cache size limit
-        if (playerDataCache.size() > MAX_CACHE_SIZE) {
-            // Remove oldest entries to maintain size limit
-            List<Map.Entry<UUID, Long>> sortedEntries = new ArrayList<>(lastCacheUpdate.entrySet());
-            sortedEntries.sort(Map.Entry.comparingByValue());
-            
-            int toRemove = playerDataCache.size() - MAX_CACHE_SIZE;
-            for (int i = 0; i < toRemove && i < sortedEntries.size(); i++) {
-                UUID playerId = sortedEntries.get(i).getKey();
-                playerDataCache.remove(playerId);
-                lastCacheUpdate.remove(playerId);
+        // Stored inventory state is only kept for online players
+        storedInventoryPresence.keySet().removeIf(playerId -> !isOnline(playerId));
+        preloadedInventories.keySet().removeIf(playerId -> !isOnline(playerId));
+        
+        // Expired chases are only collected here; they are ended on the main thread
+        List<UUID> expiredChases = findExpiredChases();
+        if (!expiredChases.isEmpty() && plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, () -> endExpiredChases(expiredChases));
+        }
+    }
+    
+    private List<UUID> findExpiredChases() {
+        List<UUID> expiredChases = new ArrayList<>();
+        for (ChaseData chase : activeChases.values()) {
+            if (chase.isExpired()) {
+                expiredChases.add(chase.getChaseId());
+            }
+        }
+        return expiredChases;
+    }
+    
+    /**
+     * End expired chases through the chase manager, which clears the target's chase
+     * state and both players' boss bars and queues the history row. Must run on the
+     * main thread.
+     */
+    private void endExpiredChases(List<UUID> chaseIds) {
+        String reason = plugin.getMessageManager().getPlainTextMessage("chase.end-reasons.chase-expired");
+        for (UUID chaseId : chaseIds) {
+            // It may have ended some other way since it was collected
+            ChaseData chase = activeChases.get(chaseId);
+            if (chase != null && chase.isExpired()) {
+                plugin.getChaseManager().endChase(chaseId, reason);
             }
-            
-            logger.info("Cache size limit reached, removed " + toRemove + " oldest entries");
         }
-        
-        // Clean up expired chases
-        activeChases.entrySet().removeIf(entry -> entry.getValue().isExpired());
     }
     
+    private boolean isOnline(UUID playerId) {
+        return plugin.getServer().getPlayer(playerId) != null;
+    }
+    
+    // Queue one maintenance cycle; the scheduler runs it while the server is quiet
     private void performDatabaseMaintenance() {
-        try {
-            databaseHandler.performMaintenance();
-        } catch (Exception e) {
-            logger.warning("Database maintenance failed: " + e.getMessage());
+        int batchSize = plugin.getConfigManager().getMaintenanceBatchSize();
+        List<MaintenanceScheduler.Unit> units = new ArrayList<>();
+        
+        // Purge first, so maintenance also drops the items only purged inventories used
+        units.add(new MaintenanceScheduler.Unit("inventory retention",
+            () -> purgeStoredInventories().thenApply(DatabaseHandler.RetentionResult::hasMore)));
+        units.add(new MaintenanceScheduler.Unit("chase history retention",
+            () -> purgeChaseHistory().thenApply(ignored -> false)));
+        for (DatabaseHandler.MaintenanceStep step : DatabaseHandler.MaintenanceStep.values()) {
+            units.add(new MaintenanceScheduler.Unit(step.name(),
+                () -> databaseHandler.performMaintenanceStep(step, batchSize)));
+        }
+        
+        maintenanceScheduler.startCycle(units);
+    }
+    
+    /**
+     * Apply the stored inventory retention policy to one chunk: delete inventories
+     * older than the configured age, optionally keeping those of guards still on duty
+     * @return CompletableFuture containing what was deleted and whether more may remain
+     */
+    public CompletableFuture<DatabaseHandler.RetentionResult> purgeStoredInventories() {
+        if (!plugin.getConfigManager().isInventoryRetentionEnabled()) {
+            return CompletableFuture.completedFuture(new DatabaseHandler.RetentionResult(new ArrayList<>(), 0));
         }
+        
+        long cutoffTime = System.currentTimeMillis() -
+                         TimeUnit.DAYS.toMillis(plugin.getConfigManager().getInventoryRetentionDays());
+        long startTime = System.nanoTime();
+        
+        return databaseHandler.purgeStoredInventories(cutoffTime,
+                plugin.getConfigManager().isInventoryRetentionKeepOnDuty(),
+                plugin.getConfigManager().getInventoryRetentionBatchSize())
+            .whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    logger.warning("Failed to purge old stored inventories: " + throwable.getMessage());
+                    return;
+                }
+                
+                for (UUID playerId : result.getPurgedPlayers()) {
+                    storedInventoryPresence.put(playerId, false);
+                    preloadedInventories.remove(playerId);
+                }
+                
+                if (result.getDeletedInventories() > 0) {
+                    logger.info("Purged " + result.getDeletedInventories() + " stored inventories older than " +
+                               plugin.getConfigManager().getInventoryRetentionDays() + " days (" +
+                               (result.getReclaimedBytes() / 1024) + " KB) in " +
+                               (System.nanoTime() - startTime) / 1_000_000L + "ms");
+                }
+            });
+    }
+    
+    // Delete chase history past its retention; the daily roll-ups are kept
+    private CompletableFuture<Void> purgeChaseHistory() {
+        int days = plugin.getConfigManager().getChaseHistoryRetentionDays();
+        return databaseHandler.purgeChaseHistory(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days))
+            .handle((deleted, throwable) -> {
+                if (throwable != null) {
+                    logger.warning("Failed to purge chase history: " + throwable.getMessage());
+                } else if (deleted > 0) {
+                    logger.info("Purged " + deleted + " chase history records older than " + days + " days");
+                }
+                return null;
+            });
     }
     
     public void shutdown() {
         try {
+            // Write out anything still waiting in the write-behind queue
+            if (writeQueue != null) {
+                writeQueue.shutdown();
+            }
+            
+            // Then the buffered performance events, which reference player rows
+            try {
+                flushTelemetry().get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                logger.warning("Failed to write buffered performance events: " + e.getMessage());
+            }
+            
             // Save all cached data to database
             saveAllCachedData();
             
+            if (backupManager != null) {
+                backupManager.shutdown();
+            }
+            
             // Close database connection
             if (databaseHandler != null) {
                 databaseHandler.close();
@@ -205,14 +426,21 @@ public class DataManager {
     
     private void saveAllCachedData() {
         try {
-            // Save all player data
-            List<PlayerData> playerDataList = new ArrayList<>(playerDataCache.values());
-            if (!playerDataList.isEmpty()) {
-                databaseHandler.batchSavePlayerData(playerDataList).get(30, TimeUnit.SECONDS);
-                logger.info("Saved " + playerDataList.size() + " player records to database");
+            // Save all player data that changed since its last write
+            List<PlayerDataSnapshot> snapshots = new ArrayList<>();
+            for (PlayerData playerData : playerDataCache.values()) {
+                PlayerDataSnapshot snapshot = takeSnapshot(playerData);
+                if (!snapshot.isEmpty()) {
+                    snapshots.add(snapshot);
+                }
+            }
+            if (!snapshots.isEmpty()) {
+                databaseHandler.batchSavePlayerData(snapshots).get(30, TimeUnit.SECONDS);
+                logger.info("Saved " + snapshots.size() + " player records to database");
             }
             
-            // Save all chase data
+            // Move ended chases to the history, then save the live ones
+            flushChaseHistory().handle((result, throwable) -> null).get(30, TimeUnit.SECONDS);
             for (ChaseData chaseData : activeChases.values()) {
                 databaseHandler.saveChaseData(chaseData);
             }
@@ -225,669 +453,139 @@ public class DataManager {
     
     // === PLAYER DATA METHODS ===
     
+    /**
+     * Get player data, loading it from the database on a cache miss.
+     * A miss blocks the calling thread - main thread code should prefer
+     * {@link #peekPlayerData(UUID)} or {@link #getPlayerDataAsync(UUID)}.
+     * @param playerId the player's UUID
+     * @return the player data, or null if the player has no record
+     */
     public PlayerData getPlayerData(UUID playerId) {
-        // Check cache first
-        PlayerData cachedData = playerDataCache.get(playerId);
+        // Every save goes through the cache, so a cached entry is never stale
+        PlayerData cachedData = getCachedPlayerData(playerId);
         if (cachedData != null) {
-            // Check if cache is still valid
-            Long lastUpdate = lastCacheUpdate.get(playerId);
-            if (lastUpdate != null && System.currentTimeMillis() - lastUpdate < CACHE_EXPIRY_TIME) {
-                return cachedData;
-            }
+            return cachedData;
         }
         
         // Load from database
+        checkMainThreadAccess("getPlayerData");
         try {
-            CompletableFuture<PlayerData> future = databaseHandler.loadPlayerData(playerId);
-            PlayerData data = future.get(5, TimeUnit.SECONDS);
-            
-            if (data != null) {
-                playerDataCache.put(playerId, data);
-                lastCacheUpdate.put(playerId, System.currentTimeMillis());
-            }
-            
-            return data;
+            return loadIntoCache(playerId).get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             logger.warning("Failed to load player data for " + playerId + ": " + e.getMessage());
-            return cachedData; // Return cached data if database fails
-        }
-    }
-    
-    public PlayerData getOrCreatePlayerData(UUID playerId, String playerName) {
-        PlayerData data = getPlayerData(playerId);
-        if (data == null) {
-            data = new PlayerData(playerId, playerName);
-            // Save to database immediately
-            savePlayerData(data);
-        }
-        return data;
-    }
-    
-    public void savePlayerData(PlayerData playerData) {
-        // Update cache
-        playerDataCache.put(playerData.getPlayerId(), playerData);
-        lastCacheUpdate.put(playerData.getPlayerId(), System.currentTimeMillis());
-        
-        // Save to database asynchronously
-        databaseHandler.savePlayerData(playerData).whenComplete((result, throwable) -> {
-            if (throwable != null) {
-                logger.severe("Failed to save player data for " + playerData.getPlayerName() + ": " + throwable.getMessage());
-            } else if (plugin.getConfigManager().isDebugMode()) {
-                logger.info("DEBUG: Saved player data for " + playerData.getPlayerName());
-            }
-        });
-    }
-    
-    public PlayerData getPlayerDataByName(String playerName) {
-        // Check cache first
-        for (PlayerData data : playerDataCache.values()) {
-            if (data.getPlayerName().equalsIgnoreCase(playerName)) {
-                return data;
-            }
-        }
-        
-        // Load from database
-        try {
-            CompletableFuture<PlayerData> future = databaseHandler.loadPlayerDataByName(playerName);
-            PlayerData data = future.get(5, TimeUnit.SECONDS);
-            
-            if (data != null) {
-                playerDataCache.put(data.getPlayerId(), data);
-                lastCacheUpdate.put(data.getPlayerId(), System.currentTimeMillis());
-            }
-            
-            return data;
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            logger.warning("Failed to load player data for " + playerName + ": " + e.getMessage());
             return null;
         }
     }
     
-    public void deletePlayerData(UUID playerId) {
-        // Remove from cache
-        playerDataCache.remove(playerId);
-        lastCacheUpdate.remove(playerId);
-        
-        // Delete from database
-        databaseHandler.deletePlayerData(playerId).whenComplete((result, throwable) -> {
-            if (throwable != null) {
-                logger.severe("Failed to delete player data for " + playerId + ": " + throwable.getMessage());
-            }
-        });
-    }
-    
-    // === CHASE DATA METHODS ===
-    
-    public ChaseData getChaseData(UUID chaseId) {
-        return activeChases.get(chaseId);
-    }
-    
-    public ChaseData getChaseByGuard(UUID guardId) {
-        return activeChases.values().stream()
-                .filter(chase -> chase.getGuardId() != null && chase.getGuardId().equals(guardId) && chase.isActive())
-                .findFirst()
-                .orElse(null);
-    }
-    
-    public ChaseData getChaseByTarget(UUID targetId) {
-        return activeChases.values().stream()
-                .filter(chase -> chase.getTargetId() != null && chase.getTargetId().equals(targetId) && chase.isActive())
-                .findFirst()
-                .orElse(null);
-    }
-    
-    public void addChaseData(ChaseData chaseData) {
-        activeChases.put(chaseData.getChaseId(), chaseData);
-        
-        // Save to database asynchronously
-        databaseHandler.saveChaseData(chaseData).whenComplete((result, throwable) -> {
-            if (throwable != null) {
-                logger.severe("Failed to save chase data: " + throwable.getMessage());
-            }
-        });
-    }
-    
-    public void removeChaseData(UUID chaseId) {
-        ChaseData chaseData = activeChases.remove(chaseId);
-        
-        if (chaseData != null) {
-            // Update in database (mark as inactive)
-            databaseHandler.saveChaseData(chaseData).whenComplete((result, throwable) -> {
-                if (throwable != null) {
-                    logger.severe("Failed to update chase data: " + throwable.getMessage());
-                }
-            });
+    /**
+     * Get player data without blocking. On a cache miss the data is loaded in the
+     * background and the future completes once it is cached.
+     * @param playerId the player's UUID
+     * @return CompletableFuture with the player data, or null if the player has no record
+     */
+    public CompletableFuture<PlayerData> getPlayerDataAsync(UUID playerId) {
+        PlayerData cachedData = getCachedPlayerData(playerId);
+        if (cachedData != null) {
+            return CompletableFuture.completedFuture(cachedData);
         }
+        
+        return loadIntoCache(playerId);
     }
     
-    public Collection<ChaseData> getAllActiveChases() {
-        return activeChases.values();
-    }
-    
-    public void cleanupExpiredChases() {
-        List<UUID> expiredChases = new ArrayList<>();
-        
-        for (ChaseData chase : activeChases.values()) {
-            if (chase.isExpired()) {
-                expiredChases.add(chase.getChaseId());
-            }
+    // Load a player that missed the cache; concurrent misses share one query
+    private CompletableFuture<PlayerData> loadIntoCache(UUID playerId) {
+        if (isKnownMissing(playerId)) {
+            return CompletableFuture.completedFuture(null);
         }
         
-        for (UUID chaseId : expiredChases) {
-            removeChaseData(chaseId);
+        CompletableFuture<PlayerData> load = pendingLoads.get(playerId);
+        if (load != null) {
+            return load;
         }
         
-        // Clean up database
-        databaseHandler.cleanupExpiredChases().whenComplete((result, throwable) -> {
-            if (throwable != null) {
-                logger.warning("Failed to cleanup expired chases from database: " + throwable.getMessage());
-            }
-        });
-    }
-    
-    public void cleanupExpiredWantedLevels() {
-        List<PlayerData> expiredPlayers = new ArrayList<>();
-        
-        for (PlayerData playerData : playerDataCache.values()) {
-            if (playerData.hasExpiredWanted()) {
-                playerData.clearWantedLevel();
-                expiredPlayers.add(playerData);
-            }
+        CompletableFuture<PlayerData> newLoad = new CompletableFuture<>();
+        load = pendingLoads.putIfAbsent(playerId, newLoad);
+        if (load != null) {
+            return load;
         }
         
-        // Save updated data
-        for (PlayerData playerData : expiredPlayers) {
-            savePlayerData(playerData);
-        }
-    }
-    
-    // === INVENTORY CACHING METHODS ===
-    
-    public void savePlayerInventory(UUID playerId, String inventoryData) {
-        databaseHandler.savePlayerInventory(playerId, inventoryData).whenComplete((result, throwable) -> {
-            if (throwable != null) {
-                logger.severe("Failed to save player inventory for " + playerId + ": " + throwable.getMessage());
-            } else if (plugin.getConfigManager().isDebugMode()) {
-                logger.info("DEBUG: Saved inventory cache for " + playerId);
-            }
-        });
-    }
-    
-    public String loadPlayerInventory(UUID playerId) {
-        try {
-            CompletableFuture<String> future = databaseHandler.loadPlayerInventory(playerId);
-            return future.get(5, TimeUnit.SECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            logger.warning("Failed to load player inventory for " + playerId + ": " + e.getMessage());
-            return null;
-        }
-    }
-    
-    public void deletePlayerInventory(UUID playerId) {
-        databaseHandler.deletePlayerInventory(playerId).whenComplete((result, throwable) -> {
+        databaseHandler.loadPlayerData(playerId).whenComplete((data, throwable) -> {
+            pendingLoads.remove(playerId, newLoad);
+            
             if (throwable != null) {
-                logger.severe("Failed to delete player inventory for " + playerId + ": " + throwable.getMessage());
-            }
-        });
-    }
-    
-    /**
-     * Check if a player has stored inventory data
-     * @param playerId the player's UUID
-     * @return true if stored inventory exists, false otherwise
-     */
-    public boolean hasStoredInventory(UUID playerId) {
-        try {
-            String inventoryData = loadPlayerInventory(playerId);
-            return inventoryData != null && !inventoryData.trim().isEmpty();
-        } catch (Exception e) {
-            logger.warning("Failed to check stored inventory for " + playerId + ": " + e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Get all players who have stored inventory data
-     * @return list of player UUIDs with stored inventory
-     */
-    public List<UUID> getPlayersWithStoredInventory() {
-        try {
-            return databaseHandler.getPlayersWithStoredInventory().get(5, TimeUnit.SECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            logger.warning("Failed to get players with stored inventory: " + e.getMessage());
-            return new ArrayList<>();
-        }
-    }
-    
-    // === UTILITY METHODS ===
-    
-    public boolean isPlayerOnDuty(UUID playerId) {
-        // Check cache first for better performance
-        PlayerData cachedData = playerDataCache.get(playerId);
-        if (cachedData != null) {
-            Long lastUpdate = lastCacheUpdate.get(playerId);
-            if (lastUpdate != null && System.currentTimeMillis() - lastUpdate < CACHE_EXPIRY_TIME) {
-                return cachedData.isOnDuty();
-            }
-        }
-        
-        PlayerData data = getPlayerData(playerId);
-        return data != null && data.isOnDuty();
-    }
-    
-    public boolean isPlayerWanted(UUID playerId) {
-        // Check cache first for better performance
-        PlayerData cachedData = playerDataCache.get(playerId);
-        if (cachedData != null) {
-            Long lastUpdate = lastCacheUpdate.get(playerId);
-            if (lastUpdate != null && System.currentTimeMillis() - lastUpdate < CACHE_EXPIRY_TIME) {
-                return cachedData.isWanted();
-            }
-        }
-        
-        PlayerData data = getPlayerData(playerId);
-        return data != null && data.isWanted();
-    }
-    
-    public boolean isPlayerBeingChased(UUID playerId) {
-        // Check cache first for better performance
-        PlayerData cachedData = playerDataCache.get(playerId);
-        if (cachedData != null) {
-            Long lastUpdate = lastCacheUpdate.get(playerId);
-            if (lastUpdate != null && System.currentTimeMillis() - lastUpdate < CACHE_EXPIRY_TIME) {
-                return cachedData.isBeingChased();
-            }
-        }
-        
-        PlayerData data = getPlayerData(playerId);
-        return data != null && data.isBeingChased();
-    }
-    
-    public boolean isGuardChasing(UUID guardId) {
-        return getChaseByGuard(guardId) != null;
-    }
-    
-    public int getActiveChaseCount() {
-        return (int) activeChases.values().stream()
-                .filter(ChaseData::isActive)
-                .count();
-    }
-    
-    // === STATISTICS AND DIAGNOSTICS ===
-    
-    public DatabaseHandler.DatabaseStats getDatabaseStats() {
-        try {
-            CompletableFuture<DatabaseHandler.DatabaseStats> future = databaseHandler.getStatistics();
-            return future.get(10, TimeUnit.SECONDS);
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            logger.warning("Failed to get database statistics: " + e.getMessage());
-            return null;
-        }
-    }
-    
-    public String getDatabaseType() {
-        if (databaseHandler instanceof SQLiteHandler) {
-            return "SQLite";
-        } else if (databaseHandler instanceof MySQLHandler) {
-            return "MySQL";
-        } else {
-            return "Unknown";
-        }
-    }
-    
-    public boolean isDatabaseConnected() {
-        return databaseHandler != null && databaseHandler.isConnected();
-    }
-    
-    public boolean testDatabaseConnection() {
-        return databaseHandler != null && databaseHandler.testConnection();
-    }
-    
-    public void createDatabaseBackup(String backupPath) {
-        if (databaseHandler != null) {
-            databaseHandler.createBackup(backupPath).whenComplete((result, throwable) -> {
-                if (throwable != null) {
-                    logger.severe("Failed to create database backup: " + throwable.getMessage());
-                } else {
-                    logger.info("Database backup created successfully at: " + backupPath);
-                }
-            });
-        }
-    }
-    
-    public Map<String, Object> getDiagnosticInfo() {
-        Map<String, Object> diagnostics = new ConcurrentHashMap<>();
-        
-        diagnostics.put("databaseType", getDatabaseType());
-        diagnostics.put("databaseConnected", isDatabaseConnected());
-        diagnostics.put("cachedPlayerData", playerDataCache.size());
-        diagnostics.put("activeChases", activeChases.size());
-        diagnostics.put("cacheHitRate", calculateCacheHitRate());
-        
-        DatabaseHandler.DatabaseStats stats = getDatabaseStats();
-        if (stats != null) {
-            diagnostics.put("totalPlayersInDB", stats.getTotalPlayers());
-            diagnostics.put("activeChasesInDB", stats.getActiveChases());
-            diagnostics.put("cachedInventoriesInDB", stats.getCachedInventories());
-            diagnostics.put("databaseSizeBytes", stats.getDatabaseSize());
-        }
-        
-        return diagnostics;
-    }
-    
-    private double calculateCacheHitRate() {
-        // This is a simplified calculation
-        // In a real implementation, you'd track cache hits vs misses
-        int totalCacheEntries = playerDataCache.size();
-        int recentEntries = (int) lastCacheUpdate.values().stream()
-                .filter(time -> System.currentTimeMillis() - time < CACHE_EXPIRY_TIME)
-                .count();
-        
-        return totalCacheEntries > 0 ? (double) recentEntries / totalCacheEntries : 0.0;
-    }
-    
-    // === BATCH OPERATIONS ===
-    
-    public void batchSavePlayerData(List<PlayerData> playerDataList) {
-        if (playerDataList.isEmpty()) return;
-        
-        // Update cache
-        for (PlayerData data : playerDataList) {
-            playerDataCache.put(data.getPlayerId(), data);
-            lastCacheUpdate.put(data.getPlayerId(), System.currentTimeMillis());
-        }
-        
-        // Save to database
-        databaseHandler.batchSavePlayerData(playerDataList).whenComplete((result, throwable) -> {
-            if (throwable != null) {
-                logger.severe("Failed to batch save player data: " + throwable.getMessage());
-            } else {
-                logger.info("Batch saved " + playerDataList.size() + " player records");
-            }
-        });
-    }
-    
-    public List<PlayerData> batchLoadPlayerData(List<UUID> playerIds) {
-        if (playerIds.isEmpty()) return new ArrayList<>();
-        
-        try {
-            CompletableFuture<List<PlayerData>> future = databaseHandler.batchLoadPlayerData(playerIds);
-            List<PlayerData> playerDataList = future.get(10, TimeUnit.SECONDS);
-            
-            // Update cache
-            for (PlayerData data : playerDataList) {
-                playerDataCache.put(data.getPlayerId(), data);
-                lastCacheUpdate.put(data.getPlayerId(), System.currentTimeMillis());
+                logger.warning("Failed to load player data for " + playerId + ": " + throwable.getMessage());
+                newLoad.completeExceptionally(throwable);
+                return;
             }
             
-            return playerDataList;
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            logger.warning("Failed to batch load player data: " + e.getMessage());
-            return new ArrayList<>();
-        }
-    }
-    
-    // === ADVANCED QUERY METHODS ===
-    
-    public List<PlayerData> getOnlineGuards() {
-        return playerDataCache.values().stream()
-                .filter(data -> data.isOnDuty() && plugin.getServer().getPlayer(data.getPlayerId()) != null)
-                .collect(java.util.stream.Collectors.toList());
-    }
-    
-    public List<PlayerData> getWantedPlayers() {
-        return playerDataCache.values().stream()
-                .filter(PlayerData::isWanted)
-                .collect(java.util.stream.Collectors.toList());
-    }
-    
-    public List<PlayerData> getPlayersInChase() {
-        return playerDataCache.values().stream()
-                .filter(PlayerData::isBeingChased)
-                .collect(java.util.stream.Collectors.toList());
-    }
-    
-    public int getTotalGuardDutyTime() {
-        return playerDataCache.values().stream()
-                .mapToInt(data -> (int) (data.getTotalDutyTime() / 1000L))
-                .sum();
-    }
-    
-    public int getTotalArrests() {
-        return playerDataCache.values().stream()
-                .mapToInt(PlayerData::getTotalArrests)
-                .sum();
-    }
-    
-    public int getTotalViolations() {
-        return playerDataCache.values().stream()
-                .mapToInt(PlayerData::getTotalViolations)
-                .sum();
-    }
-=======
-package dev.lsdmc.edenCorrections.storage;
-
-import dev.lsdmc.edenCorrections.EdenCorrections;
-import dev.lsdmc.edenCorrections.models.PlayerData;
-import dev.lsdmc.edenCorrections.models.ChaseData;
-
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.logging.Logger;
-import java.util.Map;
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.sql.SQLException;
-
-public class DataManager {
-    
-    private final EdenCorrections plugin;
-    private final Logger logger;
-    
-    // Database handler
-    private DatabaseHandler databaseHandler;
-    
-    // In-memory cache for performance (loaded from database)
-    private final Map<UUID, PlayerData> playerDataCache;
-    private final Map<UUID, ChaseData> activeChases;
-    
-    // Cache management
-    private final Map<UUID, Long> lastCacheUpdate;
-    private static final long CACHE_EXPIRY_TIME = 5 * 60 * 1000L; // 5 minutes
-    
-    public DataManager(EdenCorrections plugin) {
-        this.plugin = plugin;
-        this.logger = plugin.getLogger();
-        this.playerDataCache = new ConcurrentHashMap<>();
-        this.activeChases = new ConcurrentHashMap<>();
-        this.lastCacheUpdate = new ConcurrentHashMap<>();
-    }
-    
-    public void initialize() {
-        try {
-            // Initialize database handler based on configuration
-            initializeDatabase();
-            
-            // Load existing data from database
-            loadExistingData();
-            
-            // Start periodic cache cleanup
-            startCacheCleanup();
-            
-            logger.info("DataManager initialized successfully with " + 
-                       getDatabaseType() + " database!");
-            
-        } catch (Exception e) {
-            logger.severe("Failed to initialize DataManager: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("DataManager initialization failed", e);
-        }
-    }
-    
-    private void initializeDatabase() throws SQLException {
-        String databaseType = plugin.getConfigManager().getDatabaseType().toLowerCase();
-        
-        switch (databaseType) {
-            case "sqlite":
-                String sqliteFile = plugin.getConfigManager().getSQLiteFile();
-                databaseHandler = new SQLiteHandler(plugin, sqliteFile);
-                break;
-                
-            case "mysql":
-                // Get MySQL configuration from config
-                String host = plugin.getConfigManager().getConfig().getString("database.mysql.host", "localhost");
-                int port = plugin.getConfigManager().getConfig().getInt("database.mysql.port", 3306);
-                String database = plugin.getConfigManager().getConfig().getString("database.mysql.database", "edencorrections");
-                String username = plugin.getConfigManager().getConfig().getString("database.mysql.username", "username");
-                String password = plugin.getConfigManager().getConfig().getString("database.mysql.password", "password");
-                
-                databaseHandler = new MySQLHandler(plugin, host, port, database, username, password);
-                break;
-                
-            default:
-                throw new IllegalArgumentException("Unsupported database type: " + databaseType);
-        }
-        
-        // Initialize the database handler
-        databaseHandler.initialize();
-        
-        // Test the connection
-        if (!databaseHandler.testConnection()) {
-            throw new SQLException("Database connection test failed");
-        }
-    }
-    
-    private void loadExistingData() {
-        try {
-            // Load all player data
-            CompletableFuture<List<PlayerData>> playerDataFuture = databaseHandler.loadAllPlayerData();
-            List<PlayerData> playerDataList = playerDataFuture.get(30, TimeUnit.SECONDS);
-            
-            for (PlayerData playerData : playerDataList) {
-                playerDataCache.put(playerData.getPlayerId(), playerData);
-                lastCacheUpdate.put(playerData.getPlayerId(), System.currentTimeMillis());
-            }
-            
-            // Load all active chases
-            CompletableFuture<List<ChaseData>> chaseDataFuture = databaseHandler.loadAllActiveChases();
-            List<ChaseData> chaseDataList = chaseDataFuture.get(30, TimeUnit.SECONDS);
-            
-            for (ChaseData chaseData : chaseDataList) {
-                activeChases.put(chaseData.getChaseId(), chaseData);
-            }
-            
-            logger.info("Loaded " + playerDataList.size() + " player records and " + 
-                       chaseDataList.size() + " active chases from database");
-            
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            logger.severe("Failed to load existing data: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-    
-    private void startCacheCleanup() {
-        // Schedule periodic cache cleanup
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-            cleanupExpiredCache();
-            performDatabaseMaintenance();
-        }, 20L * 60L * 5L, 20L * 60L * 5L); // Run every 5 minutes
-    }
-    
-    private void cleanupExpiredCache() {
-        long currentTime = System.currentTimeMillis();
-        
-        // Remove expired cache entries
-        lastCacheUpdate.entrySet().removeIf(entry -> {
-            if (currentTime - entry.getValue() > CACHE_EXPIRY_TIME) {
-                playerDataCache.remove(entry.getKey());
-                return true;
+            // A save may have cached newer data while the query was running
+            PlayerData result = data;
+            if (data != null) {
+                PlayerData existing = playerDataCache.putIfAbsent(playerId, data);
+                if (existing != null) {
+                    result = existing;
+                } else {
+                    indexPlayerName(data);
+                }
+            } else {
+                result = playerDataCache.peek(playerId);
+                if (result == null) {
+                    missingPlayers.put(playerId, System.currentTimeMillis() + MISSING_PLAYER_TTL);
+                    // A save that raced the marker wins
+                    if (playerDataCache.peek(playerId) != null) {
+                        missingPlayers.remove(playerId);
+                    }
+                }
             }
-            return false;
+            newLoad.complete(result);
         });
         
-        // Clean up expired chases
-        activeChases.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        return newLoad;
     }
     
-    private void performDatabaseMaintenance() {
-        try {
-            databaseHandler.performMaintenance();
-        } catch (Exception e) {
-            logger.warning("Database maintenance failed: " + e.getMessage());
+    private boolean isKnownMissing(UUID playerId) {
+        Long retryAt = missingPlayers.get(playerId);
+        if (retryAt == null) {
+            return false;
         }
-    }
-    
-    public void shutdown() {
-        try {
-            // Save all cached data to database
-            saveAllCachedData();
-            
-            // Close database connection
-            if (databaseHandler != null) {
-                databaseHandler.close();
-            }
-            
-            logger.info("DataManager shutdown successfully!");
-            
-        } catch (Exception e) {
-            logger.severe("Error during DataManager shutdown: " + e.getMessage());
-            e.printStackTrace();
+        if (System.currentTimeMillis() < retryAt) {
+            return true;
         }
+        missingPlayers.remove(playerId, retryAt);
+        return false;
     }
     
-    private void saveAllCachedData() {
-        try {
-            // Save all player data
-            List<PlayerData> playerDataList = new ArrayList<>(playerDataCache.values());
-            if (!playerDataList.isEmpty()) {
-                databaseHandler.batchSavePlayerData(playerDataList).get(30, TimeUnit.SECONDS);
-                logger.info("Saved " + playerDataList.size() + " player records to database");
-            }
-            
-            // Save all chase data
-            for (ChaseData chaseData : activeChases.values()) {
-                databaseHandler.saveChaseData(chaseData);
-            }
-            
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            logger.severe("Failed to save all cached data: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Get player data from memory only. Never touches the database - on a miss
+     * a background load is started and null is returned.
+     * @param playerId the player's UUID
+     * @return the cached player data, or null if it isn't loaded yet
+     */
+    public PlayerData peekPlayerData(UUID playerId) {
+        PlayerData cachedData = getCachedPlayerData(playerId);
+        if (cachedData == null) {
+            loadIntoCache(playerId);
         }
+        return cachedData;
     }
     
-    // === PLAYER DATA METHODS ===
-    
-    public PlayerData getPlayerData(UUID playerId) {
-        // Check cache first
+    private PlayerData getCachedPlayerData(UUID playerId) {
         PlayerData cachedData = playerDataCache.get(playerId);
         if (cachedData != null) {
-            // Check if cache is still valid
-            Long lastUpdate = lastCacheUpdate.get(playerId);
-            if (lastUpdate != null && System.currentTimeMillis() - lastUpdate < CACHE_EXPIRY_TIME) {
-                return cachedData;
-            }
+            return cachedData;
         }
         
-        // Load from database
-        try {
-            CompletableFuture<PlayerData> future = databaseHandler.loadPlayerData(playerId);
-            PlayerData data = future.get(5, TimeUnit.SECONDS);
-            
-            if (data != null) {
-                playerDataCache.put(playerId, data);
-                lastCacheUpdate.put(playerId, System.currentTimeMillis());
+        // Pending writes are newer than anything in the database
+        if (writeQueue != null) {
+            PlayerDataSnapshot pending = writeQueue.getPending(playerId);
+            if (pending != null) {
+                PlayerData pendingData = pending.toPlayerData();
+                cachePlayerData(pendingData);
+                return pendingData;
             }
-            
-            return data;
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            logger.warning("Failed to load player data for " + playerId + ": " + e.getMessage());
-            return cachedData; // Return cached data if database fails
         }
+        
+        return null;
     }
     
     public PlayerData getOrCreatePlayerData(UUID playerId, String playerName) {
@@ -902,35 +600,136 @@ public class DataManager {
     
     public void savePlayerData(PlayerData playerData) {
         // Update cache
-        playerDataCache.put(playerData.getPlayerId(), playerData);
-        lastCacheUpdate.put(playerData.getPlayerId(), System.currentTimeMillis());
+        cachePlayerData(playerData);
+        missingPlayers.remove(playerData.getPlayerId());
+        
+        // The database threads only ever see this copy of the current values
+        PlayerDataSnapshot snapshot = takeSnapshot(playerData);
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        
+        // Coalesce with other pending saves and write in the next batch
+        if (writeQueue != null) {
+            writeQueue.enqueue(snapshot);
+            return;
+        }
         
         // Save to database asynchronously
-        databaseHandler.savePlayerData(playerData).whenComplete((result, throwable) -> {
+        databaseHandler.savePlayerData(snapshot).whenComplete((superseded, throwable) -> {
             if (throwable != null) {
+                playerData.restoreChanges(snapshot);
                 logger.severe("Failed to save player data for " + playerData.getPlayerName() + ": " + throwable.getMessage());
-            } else if (plugin.getConfigManager().isDebugMode()) {
+                return;
+            }
+            handleSupersededWrites(Collections.singletonList(snapshot), superseded);
+            if (plugin.getConfigManager().isDebugMode()) {
                 logger.info("DEBUG: Saved player data for " + playerData.getPlayerName());
             }
         });
     }
     
+    private PlayerDataSnapshot takeSnapshot(PlayerData playerData) {
+        playerSnapshots.incrementAndGet();
+        if (ALLOCATION_BEAN == null) {
+            return playerData.snapshot();
+        }
+        
+        long before = ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+        PlayerDataSnapshot snapshot = playerData.snapshot();
+        snapshotBytes.addAndGet(ALLOCATION_BEAN.getCurrentThreadAllocatedBytes() - before);
+        measuredSnapshots.incrementAndGet();
+        return snapshot;
+    }
+    
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean &&
+                bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        } catch (LinkageError e) {
+            // Not a HotSpot-based JVM, snapshots are counted but not measured
+        }
+        return null;
+    }
+    
+    /**
+     * Handle writes that were dropped because the row already held a newer version,
+     * e.g. written by another server sharing the database. The in-memory data is what
+     * the plugin acts on, so its fields are marked changed again and its version
+     * catches up with the row: the next save writes the current values on top of the
+     * newer row instead of the dropped snapshot's older ones.
+     */
+    private void handleSupersededWrites(List<PlayerDataSnapshot> snapshots, Map<UUID, Long> superseded) {
+        for (PlayerDataSnapshot snapshot : snapshots) {
+            Long storedVersion = superseded.get(snapshot.playerId());
+            PlayerData data = storedVersion != null ? playerDataCache.peek(snapshot.playerId()) : null;
+            if (data != null) {
+                data.advanceVersion(storedVersion);
+                data.restoreDirtyFields(snapshot.insert() ? EnumSet.allOf(PlayerDataField.class) : snapshot.changedFields());
+            }
+        }
+    }
+    
+    /**
+     * Load everything the join handler needs into memory: player data (created if
+     * missing) and stored inventory state. Called from the async pre-login event,
+     * so it may block; the join itself then needs no database access.
+     * Active chases are already held in memory and need no preload.
+     * @param playerId the player's UUID
+     * @param playerName the player's name
+     */
+    public void preloadPlayer(UUID playerId, String playerName) {
+        long startTime = System.nanoTime();
+        
+        // The player's session starts here; keep their data in memory until they quit
+        playerDataCache.pin(playerId);
+        missingPlayers.remove(playerId);
+        
+        try {
+            PlayerData data = getPlayerDataAsync(playerId).get(5, TimeUnit.SECONDS);
+            if (data == null) {
+                savePlayerData(new PlayerData(playerId, playerName));
+            }
+            
+            boolean hasInventory = databaseHandler.hasPlayerInventory(playerId).get(5, TimeUnit.SECONDS);
+            storedInventoryPresence.put(playerId, hasInventory);
+            if (hasInventory) {
+                // Off-duty players get it restored right on join, so fetch it now too
+                byte[] inventoryData = databaseHandler.loadPlayerInventory(playerId).get(5, TimeUnit.SECONDS);
+                if (inventoryData != null) {
+                    preloadedInventories.put(playerId, inventoryData);
+                }
+            }
+            
+            if (plugin.getConfigManager().isDebugMode()) {
+                logger.info("DEBUG: Preloaded data for " + playerName + " in " +
+                           String.format("%.2f", (System.nanoTime() - startTime) / 1_000_000.0) + "ms");
+            }
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            logger.warning("Failed to preload data for " + playerName + ": " + e.getMessage());
+        }
+    }
+    
     public PlayerData getPlayerDataByName(String playerName) {
-        // Check cache first
-        for (PlayerData data : playerDataCache.values()) {
-            if (data.getPlayerName().equalsIgnoreCase(playerName)) {
+        // Known name: resolve through the UUID (cache, pending writes, then primary key)
+        UUID playerId = findPlayerId(playerName);
+        if (playerId != null) {
+            PlayerData data = getPlayerData(playerId);
+            if (data != null && data.getPlayerName().equalsIgnoreCase(playerName)) {
                 return data;
             }
         }
         
         // Load from database
+        checkMainThreadAccess("getPlayerDataByName");
         try {
             CompletableFuture<PlayerData> future = databaseHandler.loadPlayerDataByName(playerName);
             PlayerData data = future.get(5, TimeUnit.SECONDS);
             
             if (data != null) {
-                playerDataCache.put(data.getPlayerId(), data);
-                lastCacheUpdate.put(data.getPlayerId(), System.currentTimeMillis());
+                cachePlayerData(data);
             }
             
             return data;
@@ -940,10 +739,54 @@ public class DataManager {
         }
     }
     
+    private void cachePlayerData(PlayerData playerData) {
+        playerDataCache.put(playerData.getPlayerId(), playerData);
+        indexPlayerName(playerData);
+    }
+    
+    private void indexPlayerName(PlayerData playerData) {
+        String key = playerData.getPlayerName().toLowerCase(Locale.ROOT);
+        KnownPlayer known = playersByName.get(key);
+        if (known == null || !known.playerId.equals(playerData.getPlayerId())) {
+            playersByName.put(key, new KnownPlayer(playerData.getPlayerId(), playerData.getPlayerName()));
+        }
+    }
+    
+    /**
+     * Resolve a player name (case-insensitive) from memory only
+     * @param playerName the player's name
+     * @return the player's UUID, or null if the name isn't known
+     */
+    public UUID findPlayerId(String playerName) {
+        KnownPlayer known = playersByName.get(playerName.toLowerCase(Locale.ROOT));
+        return known != null ? known.playerId : null;
+    }
+    
+    /**
+     * Known player names starting with a prefix (case-insensitive), for tab completion
+     * @param prefix the typed prefix
+     * @param limit maximum number of names to return
+     * @return matching names in alphabetical order
+     */
+    public List<String> getKnownPlayerNames(String prefix, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        List<String> names = new ArrayList<>();
+        for (KnownPlayer known : playersByName.subMap(from, true, from + Character.MAX_VALUE, true).values()) {
+            if (names.size() >= limit) break;
+            names.add(known.playerName);
+        }
+        return names;
+    }
+    
     public void deletePlayerData(UUID playerId) {
         // Remove from cache
         playerDataCache.remove(playerId);
-        lastCacheUpdate.remove(playerId);
+        playersByName.values().removeIf(known -> known.playerId.equals(playerId));
+        
+        // Make sure a queued save doesn't bring the row back
+        if (writeQueue != null) {
+            writeQueue.discard(playerId);
+        }
         
         // Delete from database
         databaseHandler.deletePlayerData(playerId).whenComplete((result, throwable) -> {
@@ -960,21 +803,42 @@ public class DataManager {
     }
     
     public ChaseData getChaseByGuard(UUID guardId) {
-        return activeChases.values().stream()
-                .filter(chase -> chase.getGuardId().equals(guardId) && chase.isActive())
-                .findFirst()
-                .orElse(null);
+        if (guardId == null) return null;
+        ChaseData chase = chasesByGuard.get(guardId);
+        return chase != null && chase.isActive() ? chase : null;
     }
     
     public ChaseData getChaseByTarget(UUID targetId) {
-        return activeChases.values().stream()
-                .filter(chase -> chase.getTargetId().equals(targetId) && chase.isActive())
-                .findFirst()
-                .orElse(null);
+        if (targetId == null) return null;
+        ChaseData chase = chasesByTarget.get(targetId);
+        return chase != null && chase.isActive() ? chase : null;
+    }
+    
+    private void indexChase(ChaseData chaseData) {
+        if (chaseData.getGuardId() != null) {
+            chasesByGuard.put(chaseData.getGuardId(), chaseData);
+        }
+        if (chaseData.getTargetId() != null) {
+            chasesByTarget.put(chaseData.getTargetId(), chaseData);
+        }
+    }
+    
+    private void unindexChase(ChaseData chaseData) {
+        // Only drop the mapping if it still points at this chase
+        if (chaseData.getGuardId() != null) {
+            chasesByGuard.remove(chaseData.getGuardId(), chaseData);
+        }
+        if (chaseData.getTargetId() != null) {
+            chasesByTarget.remove(chaseData.getTargetId(), chaseData);
+        }
     }
     
     public void addChaseData(ChaseData chaseData) {
-        activeChases.put(chaseData.getChaseId(), chaseData);
+        ChaseData previous = activeChases.put(chaseData.getChaseId(), chaseData);
+        if (previous != null) {
+            unindexChase(previous);
+        }
+        indexChase(chaseData);
         
         // Save to database asynchronously
         databaseHandler.saveChaseData(chaseData).whenComplete((result, throwable) -> {
@@ -988,32 +852,129 @@ public class DataManager {
         ChaseData chaseData = activeChases.remove(chaseId);
         
         if (chaseData != null) {
-            // Update in database (mark as inactive)
-            databaseHandler.saveChaseData(chaseData).whenComplete((result, throwable) -> {
+            unindexChase(chaseData);
+            
+            // Its roll-up would land under "Unknown"; callers should end the chase with a reason first
+            if (chaseData.isActive()) {
+                logger.warning("Chase " + chaseId + " removed without being ended, its end reason is unknown");
+            }
+            
+            // Moved from chase_data to the chase history with the next batch
+            queueChaseHistory(chaseData);
+        }
+    }
+    
+    private void queueChaseHistory(ChaseData chaseData) {
+        pendingChaseHistory.add(chaseData);
+        if (pendingChaseHistory.size() >= plugin.getConfigManager().getChaseHistoryBatchSize()) {
+            flushChaseHistory();
+        }
+    }
+    
+    /**
+     * Write the queued ended chases to the chase history in one batch
+     * @return CompletableFuture that completes when the batch is written
+     */
+    private CompletableFuture<Void> flushChaseHistory() {
+        List<ChaseData> batch = new ArrayList<>();
+        ChaseData chaseData;
+        while ((chaseData = pendingChaseHistory.poll()) != null) {
+            batch.add(chaseData);
+        }
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return databaseHandler.archiveChases(batch).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                // Keep them for the next flush; they are still in chase_data until archived
+                logger.severe("Failed to archive " + batch.size() + " ended chases: " + throwable.getMessage());
+                pendingChaseHistory.addAll(batch);
+            }
+        });
+    }
+    
+    /**
+     * Load a guard's daily chase totals
+     * @param guardId the guard's UUID
+     * @param days how many days back to include
+     * @return CompletableFuture containing the roll-ups, newest day first
+     */
+    public CompletableFuture<List<DatabaseHandler.ChaseRollup>> loadChaseRollups(UUID guardId, int days) {
+        return databaseHandler.loadChaseRollups(guardId, System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
+    }
+    
+    // === PERFORMANCE TELEMETRY ===
+    
+    /**
+     * Record a guard performance event. Never blocks: the event goes into the
+     * telemetry buffer and is written to performance_stats with the next flush.
+     * @param playerId the guard's UUID
+     * @param stat the kind of event
+     * @param value the event's value (1 for counted events, minutes for duty time)
+     */
+    public void recordPerformance(UUID playerId, PerformanceStat stat, long value) {
+        if (telemetryBuffer != null && playerId != null) {
+            telemetryBuffer.record(playerId, stat, value);
+        }
+    }
+    
+    /**
+     * Write everything in the telemetry buffer to the database
+     * @return CompletableFuture that completes when the drained events are written
+     */
+    private CompletableFuture<Void> flushTelemetry() {
+        if (telemetryBuffer == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<TelemetryBuffer.Event> events = telemetryBuffer.drain(telemetryBuffer.getCapacity());
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        // performance_stats references player_data, so pending player rows go first
+        CompletableFuture<Void> playersWritten = writeQueue != null && writeQueue.getPendingCount() > 0
+            ? writeQueue.flush()
+            : CompletableFuture.completedFuture(null);
+        
+        return playersWritten
+            .handle((result, throwable) -> null)
+            .thenCompose(ignored -> databaseHandler.recordPerformanceStats(events))
+            .whenComplete((result, throwable) -> {
                 if (throwable != null) {
-                    logger.severe("Failed to update chase data: " + throwable.getMessage());
+                    // Telemetry is best effort, a failed batch is not retried
+                    telemetryFailedEvents.addAndGet(events.size());
+                    logger.warning("Failed to write " + events.size() + " performance events: " + throwable.getMessage());
                 }
             });
-        }
+    }
+    
+    /**
+     * Load a player's performance roll-ups
+     * @param playerId the player's UUID
+     * @param period {@link DatabaseHandler.PerformanceRollup#HOUR} or {@link DatabaseHandler.PerformanceRollup#DAY}
+     * @param days how many days back to include
+     * @return CompletableFuture containing the roll-ups, newest period first
+     */
+    public CompletableFuture<List<DatabaseHandler.PerformanceRollup>> loadPerformanceRollups(UUID playerId, String period, int days) {
+        return databaseHandler.loadPerformanceRollups(playerId, period, System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
     }
     
     public Collection<ChaseData> getAllActiveChases() {
-        return activeChases.values();
+        // Read-only so the participant indexes can't be bypassed
+        return Collections.unmodifiableCollection(activeChases.values());
     }
     
     public void cleanupExpiredChases() {
-        List<UUID> expiredChases = new ArrayList<>();
-        
-        for (ChaseData chase : activeChases.values()) {
-            if (chase.isExpired()) {
-                expiredChases.add(chase.getChaseId());
+        List<UUID> expiredChases = findExpiredChases();
+        if (!expiredChases.isEmpty()) {
+            if (Bukkit.isPrimaryThread()) {
+                endExpiredChases(expiredChases);
+            } else if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> endExpiredChases(expiredChases));
             }
         }
         
-        for (UUID chaseId : expiredChases) {
-            removeChaseData(chaseId);
-        }
-        
         // Clean up database
         databaseHandler.cleanupExpiredChases().whenComplete((result, throwable) -> {
             if (throwable != null) {
@@ -1040,7 +1001,10 @@ public class DataManager {
     
     // === INVENTORY CACHING METHODS ===
     
-    public void savePlayerInventory(UUID playerId, String inventoryData) {
+    public void savePlayerInventory(UUID playerId, byte[] inventoryData) {
+        storedInventoryPresence.put(playerId, inventoryData != null && inventoryData.length > 0);
+        preloadedInventories.remove(playerId);
+        
         databaseHandler.savePlayerInventory(playerId, inventoryData).whenComplete((result, throwable) -> {
             if (throwable != null) {
                 logger.severe("Failed to save player inventory for " + playerId + ": " + throwable.getMessage());
@@ -1050,9 +1014,15 @@ public class DataManager {
         });
     }
     
-    public String loadPlayerInventory(UUID playerId) {
+    public byte[] loadPlayerInventory(UUID playerId) {
+        byte[] preloaded = preloadedInventories.get(playerId);
+        if (preloaded != null) {
+            return preloaded;
+        }
+        
+        checkMainThreadAccess("loadPlayerInventory");
         try {
-            CompletableFuture<String> future = databaseHandler.loadPlayerInventory(playerId);
+            CompletableFuture<byte[]> future = databaseHandler.loadPlayerInventory(playerId);
             return future.get(5, TimeUnit.SECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             logger.warning("Failed to load player inventory for " + playerId + ": " + e.getMessage());
@@ -1060,7 +1030,28 @@ public class DataManager {
         }
     }
     
+    /**
+     * Load a player's stored inventory without blocking; the query runs on the
+     * database handler's threads
+     * @param playerId the player's UUID
+     * @return CompletableFuture with the stored inventory, or null if none is stored
+     */
+    public CompletableFuture<byte[]> loadPlayerInventoryAsync(UUID playerId) {
+        byte[] preloaded = preloadedInventories.get(playerId);
+        if (preloaded != null) {
+            return CompletableFuture.completedFuture(preloaded);
+        }
+        if (Boolean.FALSE.equals(storedInventoryPresence.get(playerId))) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return databaseHandler.loadPlayerInventory(playerId);
+    }
+    
     public void deletePlayerInventory(UUID playerId) {
+        storedInventoryPresence.put(playerId, false);
+        preloadedInventories.remove(playerId);
+        
         databaseHandler.deletePlayerInventory(playerId).whenComplete((result, throwable) -> {
             if (throwable != null) {
                 logger.severe("Failed to delete player inventory for " + playerId + ": " + throwable.getMessage());
@@ -1068,20 +1059,59 @@ public class DataManager {
         });
     }
     
+    /**
+     * Check if a player has stored inventory data
+     * @param playerId the player's UUID
+     * @return true if stored inventory exists, false otherwise
+     */
+    public boolean hasStoredInventory(UUID playerId) {
+        Boolean present = storedInventoryPresence.get(playerId);
+        if (present != null) {
+            return present;
+        }
+        
+        checkMainThreadAccess("hasStoredInventory");
+        try {
+            boolean hasInventory = databaseHandler.hasPlayerInventory(playerId).get(5, TimeUnit.SECONDS);
+            storedInventoryPresence.put(playerId, hasInventory);
+            return hasInventory;
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            logger.warning("Failed to check stored inventory for " + playerId + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Get all players who have stored inventory data
+     * @return list of player UUIDs with stored inventory
+     */
+    public List<UUID> getPlayersWithStoredInventory() {
+        checkMainThreadAccess("getPlayersWithStoredInventory");
+        try {
+            return databaseHandler.getPlayersWithStoredInventory().get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            logger.warning("Failed to get players with stored inventory: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
     // === UTILITY METHODS ===
     
     public boolean isPlayerOnDuty(UUID playerId) {
-        PlayerData data = getPlayerData(playerId);
+        // Hot path - never wait on the database here
+        PlayerData data = peekPlayerData(playerId);
         return data != null && data.isOnDuty();
     }
     
     public boolean isPlayerWanted(UUID playerId) {
-        PlayerData data = getPlayerData(playerId);
+        // Hot path - never wait on the database here
+        PlayerData data = peekPlayerData(playerId);
         return data != null && data.isWanted();
     }
     
     public boolean isPlayerBeingChased(UUID playerId) {
-        PlayerData data = getPlayerData(playerId);
+        // Hot path - never wait on the database here
+        PlayerData data = peekPlayerData(playerId);
         return data != null && data.isBeingChased();
     }
     
@@ -1098,6 +1128,7 @@ public class DataManager {
     // === STATISTICS AND DIAGNOSTICS ===
     
     public DatabaseHandler.DatabaseStats getDatabaseStats() {
+        checkMainThreadAccess("getDatabaseStats");
         try {
             CompletableFuture<DatabaseHandler.DatabaseStats> future = databaseHandler.getStatistics();
             return future.get(10, TimeUnit.SECONDS);
@@ -1121,20 +1152,37 @@ public class DataManager {
         return databaseHandler != null && databaseHandler.isConnected();
     }
     
+    public WriteBehindQueue getWriteQueue() {
+        return writeQueue;
+    }
+    
+    /**
+     * Keep a player's data in memory for their session (called on join)
+     */
+    public void pinPlayer(UUID playerId) {
+        playerDataCache.pin(playerId);
+    }
+    
+    /**
+     * Let a player's data be evicted again (called on quit)
+     */
+    public void unpinPlayer(UUID playerId) {
+        playerDataCache.unpin(playerId);
+    }
+    
     public boolean testDatabaseConnection() {
         return databaseHandler != null && databaseHandler.testConnection();
     }
     
-    public void createDatabaseBackup(String backupPath) {
-        if (databaseHandler != null) {
-            databaseHandler.createBackup(backupPath).whenComplete((result, throwable) -> {
-                if (throwable != null) {
-                    logger.severe("Failed to create database backup: " + throwable.getMessage());
-                } else {
-                    logger.info("Database backup created successfully at: " + backupPath);
-                }
-            });
+    /**
+     * Create a verified backup of the database and rotate old backups
+     * @return CompletableFuture containing the path of the new backup
+     */
+    public CompletableFuture<Path> createDatabaseBackup() {
+        if (backupManager == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Database is not initialized"));
         }
+        return backupManager.createBackup();
     }
     
     public Map<String, Object> getDiagnosticInfo() {
@@ -1144,7 +1192,44 @@ public class DataManager {
         diagnostics.put("databaseConnected", isDatabaseConnected());
         diagnostics.put("cachedPlayerData", playerDataCache.size());
         diagnostics.put("activeChases", activeChases.size());
-        diagnostics.put("cacheHitRate", calculateCacheHitRate());
+        diagnostics.put("cacheHitRate", playerDataCache.getHitRate());
+        diagnostics.put("cacheHits", playerDataCache.getHits());
+        diagnostics.put("cacheMisses", playerDataCache.getMisses());
+        diagnostics.put("cacheEvictions", playerDataCache.getEvictions());
+        diagnostics.put("cachePinnedPlayers", playerDataCache.getPinnedCount());
+        diagnostics.put("cacheWeightKB", playerDataCache.getWeight() / 1024L);
+        diagnostics.put("cacheMaxWeightKB", playerDataCache.getMaxWeight() / 1024L);
+        diagnostics.put("playerSnapshots", playerSnapshots.get());
+        long measured = measuredSnapshots.get();
+        diagnostics.put("playerSnapshotAvgBytes", measured > 0 ? snapshotBytes.get() / measured : 0L);
+        diagnostics.put("writeBehindEnabled", writeQueue != null);
+        if (writeQueue != null) {
+            diagnostics.putAll(writeQueue.getStatistics());
+        }
+        if (databaseHandler instanceof SQLiteHandler sqliteHandler) {
+            diagnostics.putAll(sqliteHandler.getEngineStatistics());
+        } else if (databaseHandler instanceof MySQLHandler mysqlHandler) {
+            diagnostics.putAll(mysqlHandler.getEngineStatistics());
+        }
+        diagnostics.put("telemetryEnabled", telemetryBuffer != null);
+        if (telemetryBuffer != null) {
+            diagnostics.put("telemetryRecorded", telemetryBuffer.getRecorded());
+            diagnostics.put("telemetryPending", telemetryBuffer.getPending());
+            diagnostics.put("telemetryDropped", telemetryBuffer.getDropped());
+            diagnostics.put("telemetryFailedWrites", telemetryFailedEvents.get());
+        }
+        diagnostics.put("maintenancePendingSteps", maintenanceScheduler.getPendingUnits());
+        diagnostics.put("maintenanceOverdue", maintenanceScheduler.isOverdue());
+        diagnostics.put("maintenanceCycles", maintenanceScheduler.getCompletedCycles());
+        diagnostics.put("maintenanceStepsRun", maintenanceScheduler.getUnitsRun());
+        diagnostics.put("maintenanceDeferrals", maintenanceScheduler.getDeferrals());
+        diagnostics.put("pendingPlayerLoads", pendingLoads.size());
+        diagnostics.put("knownMissingPlayers", missingPlayers.size());
+        diagnostics.put("startupLoadMs", startupLoadMillis);
+        diagnostics.put("startupLoadHeapKB", startupHeapBytes / 1024L);
+        if (!mainThreadBlockingCalls.isEmpty()) {
+            diagnostics.put("mainThreadBlockingCalls", getMainThreadBlockingCalls());
+        }
         
         DatabaseHandler.DatabaseStats stats = getDatabaseStats();
         if (stats != null) {
@@ -1157,15 +1242,43 @@ public class DataManager {
         return diagnostics;
     }
     
-    private double calculateCacheHitRate() {
-        // This is a simplified calculation
-        // In a real implementation, you'd track cache hits vs misses
-        int totalCacheEntries = playerDataCache.size();
-        int recentEntries = (int) lastCacheUpdate.values().stream()
-                .filter(time -> System.currentTimeMillis() - time < CACHE_EXPIRY_TIME)
-                .count();
+    /**
+     * Report a blocking database call made from the server thread. Only active when
+     * database.detect-main-thread-access is enabled; each call site is logged once
+     * and counted afterwards.
+     * @param operation the blocking DataManager method
+     */
+    private void checkMainThreadAccess(String operation) {
+        if (!Bukkit.isPrimaryThread() || !plugin.getConfigManager().isMainThreadAccessCheckEnabled()) {
+            return;
+        }
         
-        return totalCacheEntries > 0 ? (double) recentEntries / totalCacheEntries : 0.0;
+        String callSite = operation + " <- " + findCallSite();
+        AtomicLong count = mainThreadBlockingCalls.computeIfAbsent(callSite, key -> new AtomicLong());
+        if (count.incrementAndGet() == 1) {
+            logger.warning("Blocking database access on the main thread: " + callSite);
+        }
+    }
+    
+    private String findCallSite() {
+        for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+            String className = element.getClassName();
+            if (className.equals(DataManager.class.getName()) || className.startsWith("java.")) {
+                continue;
+            }
+            return className.substring(className.lastIndexOf('.') + 1) + "." + element.getMethodName() +
+                   "(" + element.getFileName() + ":" + element.getLineNumber() + ")";
+        }
+        return "unknown";
+    }
+    
+    /**
+     * @return blocking main thread calls seen so far, keyed by operation and call site
+     */
+    public Map<String, Long> getMainThreadBlockingCalls() {
+        Map<String, Long> calls = new java.util.TreeMap<>();
+        mainThreadBlockingCalls.forEach((callSite, count) -> calls.put(callSite, count.get()));
+        return calls;
     }
     
     // === BATCH OPERATIONS ===
@@ -1175,16 +1288,38 @@ public class DataManager {
         
         // Update cache
         for (PlayerData data : playerDataList) {
-            playerDataCache.put(data.getPlayerId(), data);
-            lastCacheUpdate.put(data.getPlayerId(), System.currentTimeMillis());
+            cachePlayerData(data);
+        }
+        
+        List<PlayerData> changed = new ArrayList<>(playerDataList.size());
+        List<PlayerDataSnapshot> snapshots = new ArrayList<>(playerDataList.size());
+        for (PlayerData data : playerDataList) {
+            PlayerDataSnapshot snapshot = takeSnapshot(data);
+            if (!snapshot.isEmpty()) {
+                changed.add(data);
+                snapshots.add(snapshot);
+            }
+        }
+        if (snapshots.isEmpty()) return;
+        
+        if (writeQueue != null) {
+            for (PlayerDataSnapshot snapshot : snapshots) {
+                writeQueue.enqueue(snapshot);
+            }
+            writeQueue.flush();
+            return;
         }
         
         // Save to database
-        databaseHandler.batchSavePlayerData(playerDataList).whenComplete((result, throwable) -> {
+        databaseHandler.batchSavePlayerData(snapshots).whenComplete((superseded, throwable) -> {
             if (throwable != null) {
+                for (int i = 0; i < snapshots.size(); i++) {
+                    changed.get(i).restoreChanges(snapshots.get(i));
+                }
                 logger.severe("Failed to batch save player data: " + throwable.getMessage());
             } else {
-                logger.info("Batch saved " + playerDataList.size() + " player records");
+                handleSupersededWrites(snapshots, superseded);
+                logger.info("Batch saved " + snapshots.size() + " player records");
             }
         });
     }
@@ -1192,14 +1327,14 @@ public class DataManager {
     public List<PlayerData> batchLoadPlayerData(List<UUID> playerIds) {
         if (playerIds.isEmpty()) return new ArrayList<>();
         
+        checkMainThreadAccess("batchLoadPlayerData");
         try {
             CompletableFuture<List<PlayerData>> future = databaseHandler.batchLoadPlayerData(playerIds);
             List<PlayerData> playerDataList = future.get(10, TimeUnit.SECONDS);
             
             // Update cache
             for (PlayerData data : playerDataList) {
-                playerDataCache.put(data.getPlayerId(), data);
-                lastCacheUpdate.put(data.getPlayerId(), System.currentTimeMillis());
+                cachePlayerData(data);
             }
             
             return playerDataList;
@@ -1246,5 +1381,14 @@ public class DataManager {
                 .mapToInt(PlayerData::getTotalViolations)
                 .sum();
     }
->>>>>>> 802b20989bd53e59c06b10b624bd5acdc909227d
+    
+    private static final class KnownPlayer {
+        private final UUID playerId;
+        private final String playerName;
+        
+        private KnownPlayer(UUID playerId, String playerName) {
+            this.playerId = playerId;
+            this.playerName = playerName;
+        }
+    }
 } 
\ No newline at end of file
@@ -1,11 +1,12 @@
-<<<<<<< HEAD
 package dev.lsdmc.edenCorrections.storage;
 
 import dev.lsdmc.edenCorrections.models.PlayerData;
+import dev.lsdmc.edenCorrections.models.PlayerDataSnapshot;
 import dev.lsdmc.edenCorrections.models.ChaseData;
 
 import java.util.UUID;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.sql.SQLException;
 
@@ -40,10 +41,11 @@ public interface DatabaseHandler {
     
     /**
      * Save player data to the database
-     * @param playerData the player data to save
-     * @return CompletableFuture that completes when save is done
+     * @param snapshot the player data to save, see {@link PlayerData#snapshot()}
+     * @return CompletableFuture with the players whose row already held a newer
+     *         version, mapped to that version, when save is done
      */
-    CompletableFuture<Void> savePlayerData(PlayerData playerData);
+    CompletableFuture<Map<UUID, Long>> savePlayerData(PlayerDataSnapshot snapshot);
     
     /**
      * Load player data from the database
@@ -59,12 +61,26 @@ public interface DatabaseHandler {
      */
     CompletableFuture<PlayerData> loadPlayerDataByName(String playerName);
     
+    /**
+     * Load the UUID and name of every stored player, oldest update first
+     * @return CompletableFuture containing player names keyed by UUID
+     */
+    CompletableFuture<Map<UUID, String>> loadPlayerNames();
+    
     /**
      * Load all player data from the database
      * @return CompletableFuture containing list of all player data
      */
     CompletableFuture<List<PlayerData>> loadAllPlayerData();
     
+    /**
+     * Load the players whose state matters while they are offline: an unexpired
+     * wanted level or an active chase
+     * @param currentTime the current time in milliseconds
+     * @return CompletableFuture containing the matching player data
+     */
+    CompletableFuture<List<PlayerData>> loadActivePlayerData(long currentTime);
+    
     /**
      * Delete player data from the database
      * @param playerId the player's UUID
@@ -102,245 +118,118 @@ public interface DatabaseHandler {
     CompletableFuture<Void> deleteChaseData(UUID chaseId);
     
     /**
-     * Clean up expired chase data from the database
+     * Move ended chases still left in chase_data (e.g. from older versions) to the chase history
      * @return CompletableFuture that completes when cleanup is done
      */
     CompletableFuture<Void> cleanupExpiredChases();
     
-    // === INVENTORY CACHING OPERATIONS ===
-    
-    /**
-     * Save player's inventory data to the database
-     * @param playerId the player's UUID
-     * @param inventoryData serialized inventory data
-     * @return CompletableFuture that completes when save is done
-     */
-    CompletableFuture<Void> savePlayerInventory(UUID playerId, String inventoryData);
-    
-    /**
-     * Load player's inventory data from the database
-     * @param playerId the player's UUID
-     * @return CompletableFuture containing the serialized inventory data, or null if not found
-     */
-    CompletableFuture<String> loadPlayerInventory(UUID playerId);
-    
-    /**
-     * Delete player's inventory data from the database
-     * @param playerId the player's UUID
-     * @return CompletableFuture that completes when deletion is done
-     */
-    CompletableFuture<Void> deletePlayerInventory(UUID playerId);
-    
-    /**
-     * Get all players who have stored inventory data
-     * @return CompletableFuture containing list of player UUIDs with stored inventory
-     */
-    CompletableFuture<List<UUID>> getPlayersWithStoredInventory();
-    
-    // === STATISTICS AND MAINTENANCE ===
-    
-    /**
-     * Clean up old/expired data from the database
-     * @return CompletableFuture that completes when cleanup is done
-     */
-    CompletableFuture<Void> performMaintenance();
-    
-    /**
-     * Get database statistics
-     * @return CompletableFuture containing database statistics
-     */
-    CompletableFuture<DatabaseStats> getStatistics();
-    
-    /**
-     * Create a backup of the database
-     * @param backupPath the path to save the backup
-     * @return CompletableFuture that completes when backup is done
-     */
-    CompletableFuture<Void> createBackup(String backupPath);
-    
-    // === BATCH OPERATIONS ===
-    
-    /**
-     * Save multiple player data entries in a batch
-     * @param playerDataList list of player data to save
-     * @return CompletableFuture that completes when batch save is done
-     */
-    CompletableFuture<Void> batchSavePlayerData(List<PlayerData> playerDataList);
-    
-    /**
-     * Load multiple player data entries by UUIDs
-     * @param playerIds list of player UUIDs
-     * @return CompletableFuture containing list of player data
-     */
-    CompletableFuture<List<PlayerData>> batchLoadPlayerData(List<UUID> playerIds);
-    
-    // === DATABASE STATS CLASS ===
-    
-    class DatabaseStats {
-        private final int totalPlayers;
-        private final int activeChases;
-        private final int cachedInventories;
-        private final long databaseSize;
-        private final String databaseType;
-        private final long lastMaintenance;
-        
-        public DatabaseStats(int totalPlayers, int activeChases, int cachedInventories, 
-                           long databaseSize, String databaseType, long lastMaintenance) {
-            this.totalPlayers = totalPlayers;
-            this.activeChases = activeChases;
-            this.cachedInventories = cachedInventories;
-            this.databaseSize = databaseSize;
-            this.databaseType = databaseType;
-            this.lastMaintenance = lastMaintenance;
-        }
-        
-        public int getTotalPlayers() { return totalPlayers; }
-        public int getActiveChases() { return activeChases; }
-        public int getCachedInventories() { return cachedInventories; }
-        public long getDatabaseSize() { return databaseSize; }
-        public String getDatabaseType() { return databaseType; }
-        public long getLastMaintenance() { return lastMaintenance; }
-    }
-=======
-package dev.lsdmc.edenCorrections.storage;
-
-import dev.lsdmc.edenCorrections.models.PlayerData;
-import dev.lsdmc.edenCorrections.models.ChaseData;
-
-import java.util.UUID;
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.sql.SQLException;
-
-public interface DatabaseHandler {
-    
-    // === CONNECTION MANAGEMENT ===
-    
-    /**
-     * Initialize the database connection and create tables if they don't exist
-     * @throws SQLException if database initialization fails
-     */
-    void initialize() throws SQLException;
+    // === CHASE HISTORY OPERATIONS ===
     
     /**
-     * Close the database connection
+     * Move ended chases to the append-only chase history in one batch: adds them to
+     * chase_history, updates the daily roll-ups and removes them from chase_data
+     * @param chases the ended chases
+     * @return CompletableFuture that completes when the batch is written
      */
-    void close();
+    CompletableFuture<Void> archiveChases(List<ChaseData> chases);
     
     /**
-     * Check if the database connection is valid
-     * @return true if connection is valid, false otherwise
+     * Delete chase history that ended before a cutoff; roll-ups are kept
+     * @param cutoffTime history ending before this time (epoch millis) may be deleted
+     * @return CompletableFuture containing the number of deleted history rows
      */
-    boolean isConnected();
+    CompletableFuture<Integer> purgeChaseHistory(long cutoffTime);
     
     /**
-     * Test the database connection
-     * @return true if connection test passed, false otherwise
+     * Load a guard's daily chase roll-ups
+     * @param guardId the guard's UUID
+     * @param sinceTime first day to include (epoch millis)
+     * @return CompletableFuture containing the roll-ups, newest day first
      */
-    boolean testConnection();
+    CompletableFuture<List<ChaseRollup>> loadChaseRollups(UUID guardId, long sinceTime);
     
-    // === PLAYER DATA OPERATIONS ===
+    // === PERFORMANCE TELEMETRY OPERATIONS ===
     
     /**
-     * Save player data to the database
-     * @param playerData the player data to save
-     * @return CompletableFuture that completes when save is done
+     * Write drained performance events to performance_stats and add them to the
+     * hourly and daily roll-ups, in one transaction
+     * @param events the events, oldest first
+     * @return CompletableFuture that completes when the batch is written
      */
-    CompletableFuture<Void> savePlayerData(PlayerData playerData);
+    CompletableFuture<Void> recordPerformanceStats(List<TelemetryBuffer.Event> events);
     
     /**
-     * Load player data from the database
+     * Load a player's performance roll-ups
      * @param playerId the player's UUID
-     * @return CompletableFuture containing the player data, or null if not found
+     * @param period {@link PerformanceRollup#HOUR} or {@link PerformanceRollup#DAY}
+     * @param sinceTime first period to include (epoch millis)
+     * @return CompletableFuture containing the roll-ups, newest period first
      */
-    CompletableFuture<PlayerData> loadPlayerData(UUID playerId);
+    CompletableFuture<List<PerformanceRollup>> loadPerformanceRollups(UUID playerId, String period, long sinceTime);
     
-    /**
-     * Load player data by name (for offline operations)
-     * @param playerName the player's name
-     * @return CompletableFuture containing the player data, or null if not found
-     */
-    CompletableFuture<PlayerData> loadPlayerDataByName(String playerName);
-    
-    /**
-     * Load all player data from the database
-     * @return CompletableFuture containing list of all player data
-     */
-    CompletableFuture<List<PlayerData>> loadAllPlayerData();
+    // === INVENTORY CACHING OPERATIONS ===
     
     /**
-     * Delete player data from the database
+     * Save player's inventory data to the database
      * @param playerId the player's UUID
-     * @return CompletableFuture that completes when deletion is done
-     */
-    CompletableFuture<Void> deletePlayerData(UUID playerId);
-    
-    // === CHASE DATA OPERATIONS ===
-    
-    /**
-     * Save chase data to the database
-     * @param chaseData the chase data to save
+     * @param inventoryData serialized inventory data
      * @return CompletableFuture that completes when save is done
      */
-    CompletableFuture<Void> saveChaseData(ChaseData chaseData);
+    CompletableFuture<Void> savePlayerInventory(UUID playerId, byte[] inventoryData);
     
     /**
-     * Load chase data from the database
-     * @param chaseId the chase ID
-     * @return CompletableFuture containing the chase data, or null if not found
+     * Load player's inventory data from the database
+     * @param playerId the player's UUID
+     * @return CompletableFuture containing the serialized inventory data, or null if not found
      */
-    CompletableFuture<ChaseData> loadChaseData(UUID chaseId);
+    CompletableFuture<byte[]> loadPlayerInventory(UUID playerId);
     
     /**
-     * Load all active chase data from the database
-     * @return CompletableFuture containing list of all active chase data
+     * Check whether a player has inventory data stored, without loading it
+     * @param playerId the player's UUID
+     * @return CompletableFuture containing true if stored inventory exists
      */
-    CompletableFuture<List<ChaseData>> loadAllActiveChases();
+    CompletableFuture<Boolean> hasPlayerInventory(UUID playerId);
     
     /**
-     * Delete chase data from the database
-     * @param chaseId the chase ID
+     * Delete player's inventory data from the database
+     * @param playerId the player's UUID
      * @return CompletableFuture that completes when deletion is done
      */
-    CompletableFuture<Void> deleteChaseData(UUID chaseId);
+    CompletableFuture<Void> deletePlayerInventory(UUID playerId);
     
     /**
-     * Clean up expired chase data from the database
-     * @return CompletableFuture that completes when cleanup is done
+     * Get all players who have stored inventory data
+     * @return CompletableFuture containing list of player UUIDs with stored inventory
      */
-    CompletableFuture<Void> cleanupExpiredChases();
-    
-    // === INVENTORY CACHING OPERATIONS ===
+    CompletableFuture<List<UUID>> getPlayersWithStoredInventory();
     
     /**
-     * Save player's inventory data to the database
-     * @param playerId the player's UUID
-     * @param inventoryData serialized inventory data
-     * @return CompletableFuture that completes when save is done
+     * Delete one chunk of the stored inventories that were cached before a cutoff,
+     * oldest first; the caller decides whether to run the next chunk
+     * @param cutoffTime inventories cached before this time (epoch millis) are deleted
+     * @param keepOnDuty whether to keep the inventories of players who are on duty
+     * @param batchSize maximum number of inventories deleted
+     * @return CompletableFuture containing what was deleted and whether more may remain
      */
-    CompletableFuture<Void> savePlayerInventory(UUID playerId, String inventoryData);
+    CompletableFuture<RetentionResult> purgeStoredInventories(long cutoffTime, boolean keepOnDuty, int batchSize);
     
-    /**
-     * Load player's inventory data from the database
-     * @param playerId the player's UUID
-     * @return CompletableFuture containing the serialized inventory data, or null if not found
-     */
-    CompletableFuture<String> loadPlayerInventory(UUID playerId);
+    // === STATISTICS AND MAINTENANCE ===
     
     /**
-     * Delete player's inventory data from the database
-     * @param playerId the player's UUID
-     * @return CompletableFuture that completes when deletion is done
+     * Run one bounded unit of maintenance work. DataManager runs the steps in
+     * order, repeating a step while it reports more work left.
+     * @param step the kind of work
+     * @param batchSize maximum number of rows deleted by this unit
+     * @return CompletableFuture containing true if the step has more work left
      */
-    CompletableFuture<Void> deletePlayerInventory(UUID playerId);
-    
-    // === STATISTICS AND MAINTENANCE ===
+    CompletableFuture<Boolean> performMaintenanceStep(MaintenanceStep step, int batchSize);
     
     /**
-     * Clean up old/expired data from the database
-     * @return CompletableFuture that completes when cleanup is done
+     * Get the number of database operations waiting to run
+     * @return queued operations, used to hold maintenance back while the database is busy
      */
-    CompletableFuture<Void> performMaintenance();
+    int getPendingOperations();
     
     /**
      * Get database statistics
@@ -359,10 +248,11 @@ public interface DatabaseHandler {
     
     /**
      * Save multiple player data entries in a batch
-     * @param playerDataList list of player data to save
-     * @return CompletableFuture that completes when batch save is done
+     * @param snapshots snapshots of the player data to save
+     * @return CompletableFuture with the players whose row already held a newer
+     *         version, mapped to that version, when batch save is done
      */
-    CompletableFuture<Void> batchSavePlayerData(List<PlayerData> playerDataList);
+    CompletableFuture<Map<UUID, Long>> batchSavePlayerData(List<PlayerDataSnapshot> snapshots);
     
     /**
      * Load multiple player data entries by UUIDs
@@ -371,6 +261,21 @@ public interface DatabaseHandler {
      */
     CompletableFuture<List<PlayerData>> batchLoadPlayerData(List<UUID> playerIds);
     
+    // === MAINTENANCE STEPS ===
+    
+    enum MaintenanceStep {
+        // Move ended chases that are still in chase_data to the history
+        ARCHIVE_ENDED_CHASES,
+        // Delete stored items no inventory refers to any more
+        DELETE_UNUSED_ITEMS,
+        // Delete raw performance events and hourly roll-ups past retention
+        DELETE_OLD_STATS,
+        // Return free pages to the file system (SQLite incremental vacuum)
+        RECLAIM_SPACE,
+        // Refresh query planner statistics and record the maintenance time
+        OPTIMIZE
+    }
+    
     // === DATABASE STATS CLASS ===
     
     class DatabaseStats {
@@ -398,5 +303,92 @@ public interface DatabaseHandler {
         public String getDatabaseType() { return databaseType; }
         public long getLastMaintenance() { return lastMaintenance; }
     }
->>>>>>> 802b20989bd53e59c06b10b624bd5acdc909227d
+    
+    // === CHASE ROLLUP CLASS ===
+    
+    /**
+     * Chases one guard ended on one day (UTC) for one end reason
+     */
+    class ChaseRollup {
+        public static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+        
+        private final long day;
+        private final String endReason;
+        private final int chaseCount;
+        private final long totalDuration;
+        
+        public ChaseRollup(long day, String endReason, int chaseCount, long totalDuration) {
+            this.day = day;
+            this.endReason = endReason;
+            this.chaseCount = chaseCount;
+            this.totalDuration = totalDuration;
+        }
+        
+        public static long toDay(long time) { return Math.floorDiv(time, DAY_MILLIS); }
+        
+        public long getDay() { return day; }
+        public long getDayStart() { return day * DAY_MILLIS; }
+        public String getEndReason() { return endReason; }
+        public int getChaseCount() { return chaseCount; }
+        public long getTotalDuration() { return totalDuration; }
+        public long getAverageDuration() { return chaseCount > 0 ? totalDuration / chaseCount : 0; }
+    }
+    
+    // === PERFORMANCE ROLLUP CLASS ===
+    
+    /**
+     * One player's events of one type within one hour or day (UTC)
+     */
+    class PerformanceRollup {
+        public static final String HOUR = "hour";
+        public static final String DAY = "day";
+        
+        private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+        
+        private final long periodStart;
+        private final String statType;
+        private final int eventCount;
+        private final long totalValue;
+        
+        public PerformanceRollup(long periodStart, String statType, int eventCount, long totalValue) {
+            this.periodStart = periodStart;
+            this.statType = statType;
+            this.eventCount = eventCount;
+            this.totalValue = totalValue;
+        }
+        
+        public static long toPeriodStart(String period, long time) {
+            long length = DAY.equals(period) ? ChaseRollup.DAY_MILLIS : HOUR_MILLIS;
+            return Math.floorDiv(time, length) * length;
+        }
+        
+        public long getPeriodStart() { return periodStart; }
+        public String getStatType() { return statType; }
+        public int getEventCount() { return eventCount; }
+        public long getTotalValue() { return totalValue; }
+    }
+    
+    // === RETENTION RESULT CLASS ===
+    
+    class RetentionResult {
+        private final List<UUID> purgedPlayers;
+        private final long reclaimedBytes;
+        private final boolean more;
+        
+        public RetentionResult(List<UUID> purgedPlayers, long reclaimedBytes) {
+            this(purgedPlayers, reclaimedBytes, false);
+        }
+        
+        public RetentionResult(List<UUID> purgedPlayers, long reclaimedBytes, boolean more) {
+            this.purgedPlayers = purgedPlayers;
+            this.reclaimedBytes = reclaimedBytes;
+            this.more = more;
+        }
+        
+        public List<UUID> getPurgedPlayers() { return purgedPlayers; }
+        public int getDeletedInventories() { return purgedPlayers.size(); }
+        public long getReclaimedBytes() { return reclaimedBytes; }
+        // A full chunk was deleted, so more inventories may be past the cutoff
+        public boolean hasMore() { return more; }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,168 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.EdenCorrections;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs database maintenance as a queue of small units of work.
+ *
+ * Each maintenance interval queues a new cycle. A short timer then starts the next
+ * unit only while the server is quiet (few players online, little waiting on the
+ * database) and tries again on its next run otherwise. A unit that reports more
+ * work left, like a chunked delete that hit its batch size, stays at the front of
+ * the queue. If a cycle is still unfinished when the next one is due, the rest of
+ * it runs regardless of load so that a busy server is still maintained.
+ */
+public class MaintenanceScheduler {
+
+    private final EdenCorrections plugin;
+    private final Logger logger;
+    private final IntSupplier queueDepth;
+
+    // Units of the current cycle, guarded by this
+    private final Deque<Unit> pending = new ArrayDeque<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean overdue;
+    private long cycleStartTime;
+    private int cycleUnits;
+    private int cycleDeferrals;
+
+    // Statistics
+    private final AtomicLong completedCycles = new AtomicLong();
+    private final AtomicLong unitsRun = new AtomicLong();
+    private final AtomicLong deferrals = new AtomicLong();
+
+    /**
+     * @param queueDepth number of database operations waiting, checked before every unit
+     */
+    public MaintenanceScheduler(EdenCorrections plugin, IntSupplier queueDepth) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.queueDepth = queueDepth;
+    }
+
+    public void start() {
+        long stepTicks = Math.max(1, plugin.getConfigManager().getMaintenanceStepInterval()) * 20L;
+        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::runNextUnit, stepTicks, stepTicks);
+    }
+
+    /**
+     * Queue a maintenance cycle. If the previous cycle hasn't finished, it is finished
+     * first without waiting for a quiet server, and the new units are dropped.
+     */
+    public synchronized void startCycle(List<Unit> units) {
+        if (!pending.isEmpty()) {
+            overdue = true;
+            logger.warning("Database maintenance is overdue (" + pending.size() +
+                          " steps left), running the rest regardless of server load");
+            return;
+        }
+        pending.addAll(units);
+        cycleStartTime = System.currentTimeMillis();
+        cycleUnits = 0;
+        cycleDeferrals = 0;
+    }
+
+    private void runNextUnit() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        Unit unit;
+        synchronized (this) {
+            unit = pending.peek();
+            if (unit != null && !overdue && !isQuiet()) {
+                cycleDeferrals++;
+                deferrals.incrementAndGet();
+                unit = null;
+            }
+        }
+        if (unit == null) {
+            running.set(false);
+            return;
+        }
+
+        unitsRun.incrementAndGet();
+        CompletableFuture<Boolean> work;
+        try {
+            work = unit.work.get();
+        } catch (Exception e) {
+            work = CompletableFuture.failedFuture(e);
+        }
+
+        work.whenComplete((more, throwable) -> {
+            synchronized (this) {
+                cycleUnits++;
+                if (throwable != null) {
+                    logger.warning("Database maintenance step " + unit.name + " failed: " + throwable.getMessage());
+                }
+                // A failed unit is dropped, it gets another go in the next cycle
+                if (throwable != null || !Boolean.TRUE.equals(more)) {
+                    pending.poll();
+                }
+                if (pending.isEmpty()) {
+                    overdue = false;
+                    completedCycles.incrementAndGet();
+                    logger.info("Database maintenance completed in " +
+                               (System.currentTimeMillis() - cycleStartTime) / 1000 + "s (" + cycleUnits +
+                               " steps, deferred " + cycleDeferrals + " times while the server was busy)");
+                }
+            }
+            running.set(false);
+        });
+    }
+
+    private boolean isQuiet() {
+        return Bukkit.getOnlinePlayers().size() <= plugin.getConfigManager().getMaintenanceMaxPlayers() &&
+               queueDepth.getAsInt() <= plugin.getConfigManager().getMaintenanceMaxQueueDepth();
+    }
+
+    // === STATISTICS ===
+
+    public synchronized int getPendingUnits() {
+        return pending.size();
+    }
+
+    public boolean isOverdue() {
+        return overdue;
+    }
+
+    public long getCompletedCycles() {
+        return completedCycles.get();
+    }
+
+    public long getUnitsRun() {
+        return unitsRun.get();
+    }
+
+    public long getDeferrals() {
+        return deferrals.get();
+    }
+
+    /**
+     * One unit of maintenance work
+     */
+    public static final class Unit {
+        private final String name;
+        private final Supplier<CompletableFuture<Boolean>> work;
+
+        /**
+         * @param name shown in logs
+         * @param work starts the unit; its result is true if the unit should run again
+         */
+        public Unit(String name, Supplier<CompletableFuture<Boolean>> work) {
+            this.name = name;
+            this.work = work;
+        }
+    }
+}
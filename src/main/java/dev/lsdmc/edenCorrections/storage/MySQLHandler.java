@@ -1,17 +1,28 @@
-<<<<<<< HEAD
 package dev.lsdmc.edenCorrections.storage;
 
 import dev.lsdmc.edenCorrections.EdenCorrections;
 import dev.lsdmc.edenCorrections.models.PlayerData;
+import dev.lsdmc.edenCorrections.models.PlayerDataSnapshot;
 import dev.lsdmc.edenCorrections.models.ChaseData;
+import dev.lsdmc.edenCorrections.utils.InventorySerializer;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.*;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 public class MySQLHandler implements DatabaseHandler {
@@ -23,6 +34,12 @@ public class MySQLHandler implements DatabaseHandler {
     private HikariDataSource dataSource;
     private boolean initialized = false;
     
+    // Keeps each player's writes in order across the executor threads
+    private final PlayerWriteOrder writeOrder = new PlayerWriteOrder();
+    
+    // Player writes dropped because the row already held a newer version
+    private final AtomicLong supersededWrites = new AtomicLong();
+    
     // Database configuration
     private final String host;
     private final int port;
@@ -31,7 +48,111 @@ public class MySQLHandler implements DatabaseHandler {
     private final String password;
     
     // Database schema version for migrations
-    private static final int SCHEMA_VERSION = 1;
+    // v2: UUIDs stored as BINARY(16)
+    // v3: inventory_data holds the binary inventory format (LONGBLOB)
+    // v4: inventory items stored once in inventory_items, referenced by content hash
+    // v5: ended chases moved to chase_history with daily chase_rollups
+    // v6: hourly and daily performance_rollups
+    // v7: player_data.version for compare-and-set writes
+    private static final int SCHEMA_VERSION = 7;
+    
+    // Stored items must be unused for this long before maintenance may delete them
+    private static final long UNUSED_ITEM_GRACE_MS = 60 * 60 * 1000L;
+    
+    // Ended chases, append-only; chase_data only keeps live chases. The end_day is part
+    // of the primary key because MySQL requires it in every unique key of a partitioned table
+    private static final String CHASE_HISTORY_SQL = """
+        CREATE TABLE IF NOT EXISTS chase_history (
+            chase_id BINARY(16) NOT NULL,
+            guard_id BINARY(16) NOT NULL,
+            target_id BINARY(16) NOT NULL,
+            start_time BIGINT NOT NULL,
+            end_time BIGINT NOT NULL,
+            end_day INT NOT NULL,
+            end_reason TEXT,
+            
+            PRIMARY KEY (chase_id, end_day),
+            INDEX idx_history_day (end_day),
+            INDEX idx_history_guard (guard_id, end_day),
+            INDEX idx_history_target (target_id, end_day)
+        ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """;
+    
+    // Monthly partitions (pYYYYMM) are split off p_future by ensureHistoryPartitions
+    private static final String CHASE_HISTORY_PARTITIONING =
+        " PARTITION BY RANGE (end_day) (PARTITION p_future VALUES LESS THAN MAXVALUE)";
+    
+    // Chase history rows deleted per statement when the table isn't partitioned
+    private static final int HISTORY_PURGE_CHUNK = 1000;
+    
+    // Tables written by createBackup, parents before children
+    private static final String[] BACKUP_TABLES = {
+        "player_data", "chase_data", "chase_history", "chase_rollups", "player_inventory_cache",
+        "inventory_items", "performance_stats", "performance_rollups", "database_metadata"
+    };
+    
+    // Rows per INSERT statement in a backup
+    private static final int DUMP_ROWS_PER_INSERT = 100;
+    
+    // Tables whose optimizer statistics are refreshed by the OPTIMIZE step
+    private static final String ANALYZED_TABLES =
+        "player_data, chase_data, player_inventory_cache, inventory_items, performance_stats, performance_rollups";
+    
+    // UUID columns converted by the v2 migration, per table (parents before children)
+    private static final String[][] UUID_COLUMNS = {
+        {"player_data", "player_id", "chaser_guard"},
+        {"chase_data", "chase_id", "guard_id", "target_id"},
+        {"player_inventory_cache", "player_id"},
+        {"performance_stats", "player_id"}
+    };
+    
+    // Number of players timed for the before/after lookup measurement
+    private static final int LOOKUP_SAMPLE_SIZE = 500;
+    
+    // Full row write, used for new players and missing rows (updates only touch changed columns)
+    private static final String PLAYER_UPSERT_SQL = """
+        INSERT INTO player_data (
+            player_id, player_name, is_on_duty, duty_start_time, off_duty_time, 
+            grace_debt_time, guard_rank, earned_off_duty_time, has_earned_base_time, 
+            has_been_notified_expired, session_searches, session_successful_searches, 
+            session_arrests, session_kills, session_detections, penalty_start_time,
+            current_penalty_stage, last_penalty_time, last_slowness_application,
+            has_active_penalty_boss_bar, wanted_level, wanted_expire_time, wanted_reason, 
+            being_chased, chaser_guard, chase_start_time, total_arrests, total_violations, 
+            total_duty_time, last_updated, version
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            player_name = VALUES(player_name),
+            is_on_duty = VALUES(is_on_duty),
+            duty_start_time = VALUES(duty_start_time),
+            off_duty_time = VALUES(off_duty_time),
+            grace_debt_time = VALUES(grace_debt_time),
+            guard_rank = VALUES(guard_rank),
+            earned_off_duty_time = VALUES(earned_off_duty_time),
+            has_earned_base_time = VALUES(has_earned_base_time),
+            has_been_notified_expired = VALUES(has_been_notified_expired),
+            session_searches = VALUES(session_searches),
+            session_successful_searches = VALUES(session_successful_searches),
+            session_arrests = VALUES(session_arrests),
+            session_kills = VALUES(session_kills),
+            session_detections = VALUES(session_detections),
+            penalty_start_time = VALUES(penalty_start_time),
+            current_penalty_stage = VALUES(current_penalty_stage),
+            last_penalty_time = VALUES(last_penalty_time),
+            last_slowness_application = VALUES(last_slowness_application),
+            has_active_penalty_boss_bar = VALUES(has_active_penalty_boss_bar),
+            wanted_level = VALUES(wanted_level),
+            wanted_expire_time = VALUES(wanted_expire_time),
+            wanted_reason = VALUES(wanted_reason),
+            being_chased = VALUES(being_chased),
+            chaser_guard = VALUES(chaser_guard),
+            chase_start_time = VALUES(chase_start_time),
+            total_arrests = VALUES(total_arrests),
+            total_violations = VALUES(total_violations),
+            total_duty_time = VALUES(total_duty_time),
+            last_updated = VALUES(last_updated),
+            version = VALUES(version)
+        """;
     
     public MySQLHandler(EdenCorrections plugin, String host, int port, String database, String username, String password) {
         this.plugin = plugin;
@@ -112,7 +233,7 @@ public class MySQLHandler implements DatabaseHandler {
             // Player data table
             """
             CREATE TABLE IF NOT EXISTS player_data (
-                player_id VARCHAR(36) PRIMARY KEY,
+                player_id BINARY(16) PRIMARY KEY,
                 player_name VARCHAR(16) NOT NULL,
                 is_on_duty BOOLEAN NOT NULL DEFAULT FALSE,
                 duty_start_time BIGINT NOT NULL DEFAULT 0,
@@ -136,12 +257,13 @@ public class MySQLHandler implements DatabaseHandler {
                 wanted_expire_time BIGINT NOT NULL DEFAULT 0,
                 wanted_reason TEXT,
                 being_chased BOOLEAN NOT NULL DEFAULT FALSE,
-                chaser_guard VARCHAR(36),
+                chaser_guard BINARY(16),
                 chase_start_time BIGINT NOT NULL DEFAULT 0,
                 total_arrests INT NOT NULL DEFAULT 0,
                 total_violations INT NOT NULL DEFAULT 0,
                 total_duty_time BIGINT NOT NULL DEFAULT 0,
                 last_updated BIGINT NOT NULL DEFAULT 0,
+                version BIGINT NOT NULL DEFAULT 0,
                 
                 INDEX idx_player_name (player_name),
                 INDEX idx_player_duty (is_on_duty),
@@ -153,9 +275,9 @@ public class MySQLHandler implements DatabaseHandler {
             // Chase data table
             """
             CREATE TABLE IF NOT EXISTS chase_data (
-                chase_id VARCHAR(36) PRIMARY KEY,
-                guard_id VARCHAR(36) NOT NULL,
-                target_id VARCHAR(36) NOT NULL,
+                chase_id BINARY(16) PRIMARY KEY,
+                guard_id BINARY(16) NOT NULL,
+                target_id BINARY(16) NOT NULL,
                 start_time BIGINT NOT NULL,
                 duration BIGINT NOT NULL,
                 is_active BOOLEAN NOT NULL DEFAULT TRUE,
@@ -171,11 +293,24 @@ public class MySQLHandler implements DatabaseHandler {
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """,
             
+            // Ended chases per day (UTC), guard and end reason
+            """
+            CREATE TABLE IF NOT EXISTS chase_rollups (
+                guard_id BINARY(16) NOT NULL,
+                day INT NOT NULL,
+                end_reason VARCHAR(64) NOT NULL,
+                chase_count INT NOT NULL DEFAULT 0,
+                total_duration BIGINT NOT NULL DEFAULT 0,
+                
+                PRIMARY KEY (guard_id, day, end_reason)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """,
+            
             // Player inventory cache table
             """
             CREATE TABLE IF NOT EXISTS player_inventory_cache (
-                player_id VARCHAR(36) PRIMARY KEY,
-                inventory_data LONGTEXT NOT NULL,
+                player_id BINARY(16) PRIMARY KEY,
+                inventory_data LONGBLOB NOT NULL,
                 cached_at BIGINT NOT NULL DEFAULT 0,
                 
                 INDEX idx_inventory_cached (cached_at),
@@ -183,6 +318,17 @@ public class MySQLHandler implements DatabaseHandler {
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """,
             
+            // Distinct inventory items, keyed by the SHA-256 of their serialized bytes
+            """
+            CREATE TABLE IF NOT EXISTS inventory_items (
+                item_hash BINARY(32) PRIMARY KEY,
+                item_data MEDIUMBLOB NOT NULL,
+                last_used BIGINT NOT NULL DEFAULT 0,
+                
+                INDEX idx_inventory_items_used (last_used)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """,
+            
             // Database metadata table
             """
             CREATE TABLE IF NOT EXISTS database_metadata (
@@ -196,7 +342,7 @@ public class MySQLHandler implements DatabaseHandler {
             """
             CREATE TABLE IF NOT EXISTS performance_stats (
                 id INT AUTO_INCREMENT PRIMARY KEY,
-                player_id VARCHAR(36) NOT NULL,
+                player_id BINARY(16) NOT NULL,
                 stat_type VARCHAR(32) NOT NULL,
                 stat_value BIGINT NOT NULL,
                 recorded_at BIGINT NOT NULL DEFAULT 0,
@@ -206,6 +352,20 @@ public class MySQLHandler implements DatabaseHandler {
                 INDEX idx_performance_time (recorded_at),
                 FOREIGN KEY (player_id) REFERENCES player_data(player_id) ON DELETE CASCADE
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+            """,
+            
+            // Hourly and daily sums of performance_stats, so reports don't scan raw rows
+            """
+            CREATE TABLE IF NOT EXISTS performance_rollups (
+                player_id BINARY(16) NOT NULL,
+                period VARCHAR(8) NOT NULL,
+                period_start BIGINT NOT NULL,
+                stat_type VARCHAR(32) NOT NULL,
+                event_count INT NOT NULL DEFAULT 0,
+                total_value BIGINT NOT NULL DEFAULT 0,
+                
+                PRIMARY KEY (player_id, period, period_start, stat_type)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
             """
         };
         
@@ -215,7 +375,76 @@ public class MySQLHandler implements DatabaseHandler {
                     stmt.execute(sql);
                 }
             }
+            
+            createChaseHistoryTable(connection);
+        }
+    }
+    
+    private void createChaseHistoryTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            try {
+                stmt.execute(CHASE_HISTORY_SQL + CHASE_HISTORY_PARTITIONING);
+            } catch (SQLException e) {
+                // Partitioning can be disabled on the server; purges then delete in chunks instead
+                logger.warning("Could not create a partitioned chase_history table, using a plain table: " + e.getMessage());
+                stmt.execute(CHASE_HISTORY_SQL);
+            }
+        }
+        ensureHistoryPartitions(connection);
+    }
+    
+    /**
+     * Make sure chase_history has partitions for this month and the next one. They are
+     * split off p_future ahead of time, while it is still empty and the split is cheap
+     * @return the bounded partitions and their bounds (first excluded end_day) in order,
+     *         or null if the table isn't partitioned
+     */
+    private Map<String, Long> ensureHistoryPartitions(Connection connection) throws SQLException {
+        Map<String, Long> partitions = getHistoryPartitions(connection);
+        if (partitions == null) {
+            return null;
+        }
+        
+        long highestBound = partitions.values().stream().mapToLong(Long::longValue).max().orElse(Long.MIN_VALUE);
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i < 2; i++, month = month.plusMonths(1)) {
+            long bound = month.plusMonths(1).atDay(1).toEpochDay();
+            if (bound <= highestBound) {
+                continue;
+            }
+            String name = String.format("p%04d%02d", month.getYear(), month.getMonthValue());
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE chase_history REORGANIZE PARTITION p_future INTO (" +
+                             "PARTITION " + name + " VALUES LESS THAN (" + bound + "), " +
+                             "PARTITION p_future VALUES LESS THAN MAXVALUE)");
+            }
+            partitions.put(name, bound);
+            highestBound = bound;
+        }
+        return partitions;
+    }
+    
+    // Bounded partitions of chase_history in order (p_future left out), or null if it isn't partitioned
+    private Map<String, Long> getHistoryPartitions(Connection connection) throws SQLException {
+        String sql = """
+            SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'chase_history' AND PARTITION_NAME IS NOT NULL
+            ORDER BY PARTITION_ORDINAL_POSITION
+            """;
+        Map<String, Long> partitions = null;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                if (partitions == null) {
+                    partitions = new LinkedHashMap<>();
+                }
+                String bound = rs.getString(2);
+                if (!"MAXVALUE".equalsIgnoreCase(bound)) {
+                    partitions.put(rs.getString(1), Long.parseLong(bound));
+                }
+            }
         }
+        return partitions;
     }
     
     private void checkAndMigrate() throws SQLException {
@@ -263,8 +492,181 @@ public class MySQLHandler implements DatabaseHandler {
     }
     
     private void performMigration(int fromVersion) throws SQLException {
-        // Future migrations would go here
-        logger.info("No migrations needed from version " + fromVersion);
+        // A new database is created with the current schema, only older databases have text columns
+        boolean migrated = false;
+        if (fromVersion < 2 && "varchar".equalsIgnoreCase(getColumnType("player_data", "player_id"))) {
+            migrateToBinaryUuids();
+            migrated = true;
+        }
+        
+        if (fromVersion < 3 && "longtext".equalsIgnoreCase(getColumnType("player_inventory_cache", "inventory_data"))) {
+            // Binary inventories are not valid utf8mb4; the conversion keeps the bytes of legacy JSON rows
+            try (Connection connection = dataSource.getConnection();
+                 Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE player_inventory_cache MODIFY inventory_data LONGBLOB NOT NULL");
+            }
+            logger.info("Converted player_inventory_cache.inventory_data to LONGBLOB");
+            migrated = true;
+        }
+        
+        if (fromVersion < 7 && getColumnType("player_data", "version") == null) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE player_data ADD COLUMN version BIGINT NOT NULL DEFAULT 0");
+            }
+            logger.info("Added player_data.version");
+            migrated = true;
+        }
+        
+        if (!migrated) {
+            logger.info("No migrations needed from version " + fromVersion);
+        }
+    }
+    
+    private String getColumnType(String table, String column) throws SQLException {
+        String sql = """
+            SELECT DATA_TYPE FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?
+            """;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            stmt.setString(2, column);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+    
+    /**
+     * Schema v1 -> v2. MySQL DDL can't be rolled back, so the v1 tables are renamed
+     * aside in one atomic RENAME TABLE and only dropped once every row has been
+     * copied into the v2 tables. On failure the v2 tables are dropped and the v1
+     * tables renamed back.
+     */
+    private void migrateToBinaryUuids() throws SQLException {
+        long startTime = System.currentTimeMillis();
+        int players = 0;
+        
+        try (Connection connection = dataSource.getConnection();
+             Statement stmt = connection.createStatement()) {
+            
+            long sizeBefore = getDatabaseSize(connection);
+            double lookupBefore = measurePlayerLookup(connection);
+            
+            StringJoiner renames = new StringJoiner(", ");
+            for (String[] table : UUID_COLUMNS) {
+                renames.add(table[0] + " TO " + table[0] + "_v1");
+            }
+            stmt.execute("RENAME TABLE " + renames);
+            
+            try {
+                createTables();
+                
+                for (String[] table : UUID_COLUMNS) {
+                    int copied = copyWithBinaryUuids(connection, table);
+                    if (table[0].equals("player_data")) {
+                        players = copied;
+                    }
+                }
+            } catch (SQLException e) {
+                logger.severe("Schema v2 migration failed, restoring v1 tables: " + e.getMessage());
+                for (int i = UUID_COLUMNS.length - 1; i >= 0; i--) {
+                    stmt.execute("DROP TABLE IF EXISTS " + UUID_COLUMNS[i][0]);
+                }
+                StringJoiner restores = new StringJoiner(", ");
+                for (String[] table : UUID_COLUMNS) {
+                    restores.add(table[0] + "_v1 TO " + table[0]);
+                }
+                stmt.execute("RENAME TABLE " + restores);
+                throw e;
+            }
+            
+            // Children first, the v1 child tables still reference player_data_v1
+            for (int i = UUID_COLUMNS.length - 1; i >= 0; i--) {
+                stmt.execute("DROP TABLE " + UUID_COLUMNS[i][0] + "_v1");
+            }
+            
+            // Refresh table statistics so information_schema reports the new sizes
+            StringJoiner tables = new StringJoiner(", ");
+            for (String[] table : UUID_COLUMNS) {
+                tables.add(table[0]);
+            }
+            stmt.execute("ANALYZE TABLE " + tables);
+            
+            long sizeAfter = getDatabaseSize(connection);
+            double lookupAfter = measurePlayerLookup(connection);
+            
+            logger.info(String.format(
+                "Schema v2 migration finished in %dms (%d players): database size %d KB -> %d KB, " +
+                "player lookup %.1f us -> %.1f us",
+                System.currentTimeMillis() - startTime, players, sizeBefore / 1024, sizeAfter / 1024,
+                lookupBefore, lookupAfter));
+        }
+    }
+    
+    // Copy one v1 table into its v2 replacement, converting the UUID columns
+    private int copyWithBinaryUuids(Connection connection, String[] table) throws SQLException {
+        Set<String> uuidColumns = new HashSet<>(Arrays.asList(table).subList(1, table.length));
+        StringJoiner columns = new StringJoiner(", ");
+        StringJoiner values = new StringJoiner(", ");
+        
+        String sql = """
+            SELECT COLUMN_NAME FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?
+            ORDER BY ORDINAL_POSITION
+            """;
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, table[0] + "_v1");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String column = rs.getString(1);
+                    columns.add(column);
+                    values.add(uuidColumns.contains(column) ? "UNHEX(REPLACE(" + column + ", '-', ''))" : column);
+                }
+            }
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            return stmt.executeUpdate("INSERT INTO " + table[0] + " (" + columns + ") SELECT " + values +
+                                      " FROM " + table[0] + "_v1");
+        }
+    }
+    
+    private long getDatabaseSize(Connection connection) throws SQLException {
+        String sql = """
+            SELECT COALESCE(SUM(DATA_LENGTH + INDEX_LENGTH), 0) FROM information_schema.TABLES
+            WHERE TABLE_SCHEMA = DATABASE()
+            """;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+    
+    // Average primary key lookup time in microseconds over a sample of stored players
+    private double measurePlayerLookup(Connection connection) throws SQLException {
+        List<Object> keys = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT player_id FROM player_data LIMIT " + LOOKUP_SAMPLE_SIZE)) {
+            while (rs.next()) {
+                keys.add(rs.getObject(1));
+            }
+        }
+        if (keys.isEmpty()) {
+            return 0.0;
+        }
+        
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT * FROM player_data WHERE player_id = ?")) {
+            for (Object key : keys) {
+                stmt.setObject(1, key);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                }
+            }
+        }
+        return (System.nanoTime() - start) / 1000.0 / keys.size();
     }
     
     @Override
@@ -299,91 +701,8 @@ public class MySQLHandler implements DatabaseHandler {
     // === PLAYER DATA OPERATIONS ===
     
     @Override
-    public CompletableFuture<Void> savePlayerData(PlayerData playerData) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT INTO player_data (
-                    player_id, player_name, is_on_duty, duty_start_time, off_duty_time, 
-                    grace_debt_time, guard_rank, earned_off_duty_time, has_earned_base_time, 
-                    has_been_notified_expired, session_searches, session_successful_searches, 
-                    session_arrests, session_kills, session_detections, penalty_start_time,
-                    current_penalty_stage, last_penalty_time, last_slowness_application,
-                    has_active_penalty_boss_bar, wanted_level, wanted_expire_time, wanted_reason, 
-                    being_chased, chaser_guard, chase_start_time, total_arrests, total_violations, 
-                    total_duty_time, last_updated
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                ON DUPLICATE KEY UPDATE
-                    player_name = VALUES(player_name),
-                    is_on_duty = VALUES(is_on_duty),
-                    duty_start_time = VALUES(duty_start_time),
-                    off_duty_time = VALUES(off_duty_time),
-                    grace_debt_time = VALUES(grace_debt_time),
-                    guard_rank = VALUES(guard_rank),
-                    earned_off_duty_time = VALUES(earned_off_duty_time),
-                    has_earned_base_time = VALUES(has_earned_base_time),
-                    has_been_notified_expired = VALUES(has_been_notified_expired),
-                    session_searches = VALUES(session_searches),
-                    session_successful_searches = VALUES(session_successful_searches),
-                    session_arrests = VALUES(session_arrests),
-                    session_kills = VALUES(session_kills),
-                    session_detections = VALUES(session_detections),
-                    penalty_start_time = VALUES(penalty_start_time),
-                    current_penalty_stage = VALUES(current_penalty_stage),
-                    last_penalty_time = VALUES(last_penalty_time),
-                    last_slowness_application = VALUES(last_slowness_application),
-                    has_active_penalty_boss_bar = VALUES(has_active_penalty_boss_bar),
-                    wanted_level = VALUES(wanted_level),
-                    wanted_expire_time = VALUES(wanted_expire_time),
-                    wanted_reason = VALUES(wanted_reason),
-                    being_chased = VALUES(being_chased),
-                    chaser_guard = VALUES(chaser_guard),
-                    chase_start_time = VALUES(chase_start_time),
-                    total_arrests = VALUES(total_arrests),
-                    total_violations = VALUES(total_violations),
-                    total_duty_time = VALUES(total_duty_time),
-                    last_updated = VALUES(last_updated)
-                """;
-            
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, playerData.getPlayerId().toString());
-                stmt.setString(2, playerData.getPlayerName());
-                stmt.setBoolean(3, playerData.isOnDuty());
-                stmt.setLong(4, playerData.getDutyStartTime());
-                stmt.setLong(5, playerData.getOffDutyTime());
-                stmt.setLong(6, playerData.getGraceDebtTime());
-                stmt.setString(7, playerData.getGuardRank());
-                stmt.setLong(8, playerData.getEarnedOffDutyTime());
-                stmt.setBoolean(9, playerData.hasEarnedBaseTime());
-                stmt.setBoolean(10, playerData.hasBeenNotifiedOfExpiredTime());
-                stmt.setInt(11, playerData.getSessionSearches());
-                stmt.setInt(12, playerData.getSessionSuccessfulSearches());
-                stmt.setInt(13, playerData.getSessionArrests());
-                stmt.setInt(14, playerData.getSessionKills());
-                stmt.setInt(15, playerData.getSessionDetections());
-                stmt.setLong(16, playerData.getPenaltyStartTime());
-                stmt.setInt(17, playerData.getCurrentPenaltyStage());
-                stmt.setLong(18, playerData.getLastPenaltyTime());
-                stmt.setLong(19, playerData.getLastSlownessApplication());
-                stmt.setBoolean(20, playerData.hasActivePenaltyBossBar());
-                stmt.setInt(21, playerData.getWantedLevel());
-                stmt.setLong(22, playerData.getWantedExpireTime());
-                stmt.setString(23, playerData.getWantedReason());
-                stmt.setBoolean(24, playerData.isBeingChased());
-                stmt.setString(25, playerData.getChaserGuard() != null ? playerData.getChaserGuard().toString() : null);
-                stmt.setLong(26, playerData.getChaseStartTime());
-                stmt.setInt(27, playerData.getTotalArrests());
-                stmt.setInt(28, playerData.getTotalViolations());
-                stmt.setLong(29, playerData.getTotalDutyTime());
-                stmt.setLong(30, System.currentTimeMillis());
-                
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                logger.severe("Failed to save player data for " + playerData.getPlayerName() + ": " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
+    public CompletableFuture<Map<UUID, Long>> savePlayerData(PlayerDataSnapshot snapshot) {
+        return batchSavePlayerData(Collections.singletonList(snapshot));
     }
     
     @Override
@@ -394,7 +713,7 @@ public class MySQLHandler implements DatabaseHandler {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
-                stmt.setString(1, playerId.toString());
+                UuidCodec.bind(stmt, 1, playerId);
                 ResultSet rs = stmt.executeQuery();
                 
                 if (rs.next()) {
@@ -411,7 +730,8 @@ public class MySQLHandler implements DatabaseHandler {
     @Override
     public CompletableFuture<PlayerData> loadPlayerDataByName(String playerName) {
         return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM player_data WHERE player_name = ?";
+            // player_name uses a case-insensitive collation, so idx_player_name serves this
+            String sql = "SELECT * FROM player_data WHERE player_name = ? ORDER BY last_updated DESC LIMIT 1";
             
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -431,7 +751,7 @@ public class MySQLHandler implements DatabaseHandler {
     }
     
     private PlayerData mapResultSetToPlayerData(ResultSet rs) throws SQLException {
-        UUID playerId = UUID.fromString(rs.getString("player_id"));
+        UUID playerId = UuidCodec.read(rs, "player_id");
         String playerName = rs.getString("player_name");
         
         PlayerData data = new PlayerData(playerId, playerName);
@@ -469,10 +789,7 @@ public class MySQLHandler implements DatabaseHandler {
         
         // Set chase information
         data.setBeingChased(rs.getBoolean("being_chased"));
-        String chaserGuardStr = rs.getString("chaser_guard");
-        if (chaserGuardStr != null) {
-            data.setChaserGuard(UUID.fromString(chaserGuardStr));
-        }
+        data.setChaserGuard(UuidCodec.read(rs, "chaser_guard"));
         data.setChaseStartTime(rs.getLong("chase_start_time"));
         
         // Set statistics
@@ -480,6 +797,9 @@ public class MySQLHandler implements DatabaseHandler {
         data.setTotalViolations(rs.getInt("total_violations"));
         data.setTotalDutyTime(rs.getLong("total_duty_time"));
         
+        // Freshly loaded, nothing to write back yet
+        data.markPersisted(rs.getLong("version"));
+        
         return data;
     }
     
@@ -506,6 +826,51 @@ public class MySQLHandler implements DatabaseHandler {
         }, executor);
     }
     
+    @Override
+    public CompletableFuture<List<PlayerData>> loadActivePlayerData(long currentTime) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<PlayerData> playerDataList = new ArrayList<>();
+            String sql = "SELECT * FROM player_data WHERE (wanted_level > 0 AND wanted_expire_time > ?) OR being_chased = 1";
+            
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setLong(1, currentTime);
+                ResultSet rs = stmt.executeQuery();
+                
+                while (rs.next()) {
+                    playerDataList.add(mapResultSetToPlayerData(rs));
+                }
+            } catch (SQLException e) {
+                logger.severe("Failed to load active player data: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+            
+            return playerDataList;
+        }, executor);
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, String>> loadPlayerNames() {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<UUID, String> names = new LinkedHashMap<>();
+            String sql = "SELECT player_id, player_name FROM player_data ORDER BY last_updated";
+            
+            try (Connection connection = dataSource.getConnection();
+                 Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    names.put(UuidCodec.read(rs, "player_id"), rs.getString("player_name"));
+                }
+            } catch (SQLException e) {
+                logger.severe("Failed to load player names: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+            
+            return names;
+        }, executor);
+    }
+    
     @Override
     public CompletableFuture<Void> deletePlayerData(UUID playerId) {
         return CompletableFuture.runAsync(() -> {
@@ -514,7 +879,7 @@ public class MySQLHandler implements DatabaseHandler {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
-                stmt.setString(1, playerId.toString());
+                UuidCodec.bind(stmt, 1, playerId);
                 stmt.executeUpdate();
             } catch (SQLException e) {
                 logger.severe("Failed to delete player data for " + playerId + ": " + e.getMessage());
@@ -546,9 +911,9 @@ public class MySQLHandler implements DatabaseHandler {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
-                stmt.setString(1, chaseData.getChaseId().toString());
-                stmt.setString(2, chaseData.getGuardId().toString());
-                stmt.setString(3, chaseData.getTargetId().toString());
+                UuidCodec.bind(stmt, 1, chaseData.getChaseId());
+                UuidCodec.bind(stmt, 2, chaseData.getGuardId());
+                UuidCodec.bind(stmt, 3, chaseData.getTargetId());
                 stmt.setLong(4, chaseData.getStartTime());
                 stmt.setLong(5, chaseData.getDuration());
                 stmt.setBoolean(6, chaseData.isActive());
@@ -572,7 +937,7 @@ public class MySQLHandler implements DatabaseHandler {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
-                stmt.setString(1, chaseId.toString());
+                UuidCodec.bind(stmt, 1, chaseId);
                 ResultSet rs = stmt.executeQuery();
                 
                 if (rs.next()) {
@@ -587,19 +952,14 @@ public class MySQLHandler implements DatabaseHandler {
     }
     
     private ChaseData mapResultSetToChaseData(ResultSet rs) throws SQLException {
-        UUID chaseId = UUID.fromString(rs.getString("chase_id"));
-        UUID guardId = UUID.fromString(rs.getString("guard_id"));
-        UUID targetId = UUID.fromString(rs.getString("target_id"));
+        UUID chaseId = UuidCodec.read(rs, "chase_id");
+        UUID guardId = UuidCodec.read(rs, "guard_id");
+        UUID targetId = UuidCodec.read(rs, "target_id");
         long startTime = rs.getLong("start_time");
         long duration = rs.getLong("duration");
         
-        ChaseData chaseData = new ChaseData(chaseId, guardId, targetId, duration);
-        
-        if (!rs.getBoolean("is_active")) {
-            chaseData.endChase(rs.getString("end_reason"));
-        }
-        
-        return chaseData;
+        return new ChaseData(chaseId, guardId, targetId, startTime, duration,
+                             rs.getBoolean("is_active"), rs.getString("end_reason"), rs.getLong("end_time"));
     }
     
     @Override
@@ -633,7 +993,7 @@ public class MySQLHandler implements DatabaseHandler {
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
-                stmt.setString(1, chaseId.toString());
+                UuidCodec.bind(stmt, 1, chaseId);
                 stmt.executeUpdate();
             } catch (SQLException e) {
                 logger.severe("Failed to delete chase data for " + chaseId + ": " + e.getMessage());
@@ -645,18 +1005,20 @@ public class MySQLHandler implements DatabaseHandler {
     @Override
     public CompletableFuture<Void> cleanupExpiredChases() {
         return CompletableFuture.runAsync(() -> {
-            // Delete chases older than 24 hours
-            long cutoffTime = System.currentTimeMillis() - (24 * 60 * 60 * 1000);
-            String sql = "DELETE FROM chase_data WHERE is_active = FALSE AND end_time < ?";
+            List<ChaseData> ended = new ArrayList<>();
+            String sql = "SELECT * FROM chase_data WHERE is_active = FALSE";
             
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setLong(1, cutoffTime);
-                int deleted = stmt.executeUpdate();
+            try (Connection connection = dataSource.getConnection()) {
+                try (PreparedStatement stmt = connection.prepareStatement(sql);
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ended.add(mapResultSetToChaseData(rs));
+                    }
+                }
                 
-                if (deleted > 0) {
-                    logger.info("Cleaned up " + deleted + " expired chase records");
+                if (!ended.isEmpty()) {
+                    writeChaseHistory(connection, ended);
+                    logger.info("Moved " + ended.size() + " ended chases to the chase history");
                 }
             } catch (SQLException e) {
                 logger.severe("Failed to cleanup expired chases: " + e.getMessage());
@@ -665,1108 +1027,639 @@ public class MySQLHandler implements DatabaseHandler {
         }, executor);
     }
     
-    // === INVENTORY OPERATIONS ===
+    // === CHASE HISTORY OPERATIONS ===
     
     @Override
-    public CompletableFuture<Void> savePlayerInventory(UUID playerId, String inventoryData) {
+    public CompletableFuture<Void> archiveChases(List<ChaseData> chases) {
+        if (chases.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<ChaseData> batch = new ArrayList<>(chases);
         return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT INTO player_inventory_cache (player_id, inventory_data, cached_at) 
-                VALUES (?, ?, ?)
-                ON DUPLICATE KEY UPDATE 
-                    inventory_data = VALUES(inventory_data), 
-                    cached_at = VALUES(cached_at)
-                """;
-            
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, playerId.toString());
-                stmt.setString(2, inventoryData);
-                stmt.setLong(3, System.currentTimeMillis());
-                stmt.executeUpdate();
+            try (Connection connection = dataSource.getConnection()) {
+                writeChaseHistory(connection, batch);
             } catch (SQLException e) {
-                logger.severe("Failed to save player inventory for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to archive " + batch.size() + " chases: " + e.getMessage());
                 throw new RuntimeException(e);
             }
         }, executor);
     }
     
-    @Override
-    public CompletableFuture<String> loadPlayerInventory(UUID playerId) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT inventory_data FROM player_inventory_cache WHERE player_id = ?";
+    // History rows, roll-ups and the chase_data deletes go in one transaction
+    private void writeChaseHistory(Connection connection, List<ChaseData> chases) throws SQLException {
+        ChaseHistoryBatch batch = new ChaseHistoryBatch(chases);
+        String historySql = """
+            INSERT IGNORE INTO chase_history (
+                chase_id, guard_id, target_id, start_time, end_time, end_day, end_reason
+            ) VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+        String rollupSql = """
+            INSERT INTO chase_rollups (day, guard_id, end_reason, chase_count, total_duration)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                chase_count = chase_count + VALUES(chase_count),
+                total_duration = total_duration + VALUES(total_duration)
+            """;
+        
+        connection.setAutoCommit(false);
+        try {
+            try (PreparedStatement stmt = connection.prepareStatement(ChaseHistoryBatch.ARCHIVED_SQL)) {
+                batch.skipArchived(stmt);
+            }
             
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, playerId.toString());
-                ResultSet rs = stmt.executeQuery();
-                
-                if (rs.next()) {
-                    return rs.getString("inventory_data");
+            try (PreparedStatement stmt = connection.prepareStatement(historySql)) {
+                for (ChaseData chase : batch.getChases()) {
+                    batch.bindHistory(stmt, chase);
+                    stmt.addBatch();
                 }
-                return null;
-            } catch (SQLException e) {
-                logger.severe("Failed to load player inventory for " + playerId + ": " + e.getMessage());
-                throw new RuntimeException(e);
+                stmt.executeBatch();
             }
-        }, executor);
+            
+            try (PreparedStatement stmt = connection.prepareStatement(rollupSql)) {
+                for (ChaseHistoryBatch.Rollup rollup : batch.getRollups()) {
+                    ChaseHistoryBatch.bindRollup(stmt, rollup);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            
+            try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM chase_data WHERE chase_id = ?")) {
+                for (ChaseData chase : chases) {
+                    UuidCodec.bind(stmt, 1, chase.getChaseId());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
     }
     
     @Override
-    public CompletableFuture<Void> deletePlayerInventory(UUID playerId) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "DELETE FROM player_inventory_cache WHERE player_id = ?";
+    public CompletableFuture<Integer> purgeChaseHistory(long cutoffTime) {
+        return CompletableFuture.supplyAsync(() -> {
+            long cutoffDay = ChaseRollup.toDay(cutoffTime);
             
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (Connection connection = dataSource.getConnection()) {
+                Map<String, Long> partitions = ensureHistoryPartitions(connection);
+                if (partitions != null) {
+                    return dropHistoryPartitions(connection, partitions, cutoffDay);
+                }
                 
-                stmt.setString(1, playerId.toString());
-                stmt.executeUpdate();
+                int deleted = 0;
+                int chunk;
+                try (PreparedStatement stmt = connection.prepareStatement(
+                        "DELETE FROM chase_history WHERE end_day < ? LIMIT " + HISTORY_PURGE_CHUNK)) {
+                    do {
+                        stmt.setLong(1, cutoffDay);
+                        chunk = stmt.executeUpdate();
+                        deleted += chunk;
+                    } while (chunk >= HISTORY_PURGE_CHUNK);
+                }
+                return deleted;
             } catch (SQLException e) {
-                logger.severe("Failed to delete player inventory for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to purge chase history: " + e.getMessage());
                 throw new RuntimeException(e);
             }
         }, executor);
     }
     
+    // Drop whole months whose last day is before the cutoff, so retention rounds up to the month
+    private int dropHistoryPartitions(Connection connection, Map<String, Long> partitions, long cutoffDay) throws SQLException {
+        StringJoiner expired = new StringJoiner(", ");
+        for (Map.Entry<String, Long> partition : partitions.entrySet()) {
+            if (partition.getValue() <= cutoffDay) {
+                expired.add(partition.getKey());
+            }
+        }
+        if (expired.length() == 0) {
+            return 0;
+        }
+        
+        int deleted = 0;
+        try (Statement stmt = connection.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM chase_history PARTITION (" + expired + ")")) {
+                if (rs.next()) {
+                    deleted = rs.getInt(1);
+                }
+            }
+            stmt.execute("ALTER TABLE chase_history DROP PARTITION " + expired);
+        }
+        return deleted;
+    }
+    
     @Override
-    public CompletableFuture<List<UUID>> getPlayersWithStoredInventory() {
+    public CompletableFuture<List<ChaseRollup>> loadChaseRollups(UUID guardId, long sinceTime) {
         return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT player_id FROM player_inventory_cache";
-            List<UUID> playerIds = new ArrayList<>();
+            List<ChaseRollup> rollups = new ArrayList<>();
+            String sql = """
+                SELECT day, end_reason, chase_count, total_duration FROM chase_rollups
+                WHERE guard_id = ? AND day >= ? ORDER BY day DESC, chase_count DESC
+                """;
             
             try (Connection connection = dataSource.getConnection();
-                 Statement stmt = connection.createStatement();
-                 ResultSet rs = stmt.executeQuery(sql)) {
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
-                while (rs.next()) {
-                    try {
-                        UUID playerId = UUID.fromString(rs.getString("player_id"));
-                        playerIds.add(playerId);
-                    } catch (IllegalArgumentException e) {
-                        logger.warning("Invalid UUID in inventory cache: " + rs.getString("player_id"));
+                UuidCodec.bind(stmt, 1, guardId);
+                stmt.setLong(2, ChaseRollup.toDay(sinceTime));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rollups.add(new ChaseRollup(rs.getLong("day"), rs.getString("end_reason"),
+                                                    rs.getInt("chase_count"), rs.getLong("total_duration")));
                     }
                 }
             } catch (SQLException e) {
-                logger.severe("Failed to get players with stored inventory: " + e.getMessage());
+                logger.severe("Failed to load chase roll-ups for " + guardId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
             
-            return playerIds;
+            return rollups;
         }, executor);
     }
     
-    // === MAINTENANCE AND STATISTICS ===
+    // === PERFORMANCE TELEMETRY OPERATIONS ===
     
     @Override
-    public CompletableFuture<Void> performMaintenance() {
+    public CompletableFuture<Void> recordPerformanceStats(List<TelemetryBuffer.Event> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        PerformanceStatsBatch batch = new PerformanceStatsBatch(events);
+        String rollupSql = """
+            INSERT INTO performance_rollups (player_id, period, period_start, stat_type, event_count, total_value)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                event_count = event_count + VALUES(event_count),
+                total_value = total_value + VALUES(total_value)
+            """;
+        
         return CompletableFuture.runAsync(() -> {
-            try {
-                // Clean up expired chases
-                cleanupExpiredChases().get();
-                
-                // Clean up old inventory cache (older than 7 days)
-                long cutoffTime = System.currentTimeMillis() - (7 * 24 * 60 * 60 * 1000);
-                String sql = "DELETE FROM player_inventory_cache WHERE cached_at < ?";
-                
-                try (Connection connection = dataSource.getConnection();
-                     PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    
-                    stmt.setLong(1, cutoffTime);
-                    int deleted = stmt.executeUpdate();
-                    
-                    if (deleted > 0) {
-                        logger.info("Cleaned up " + deleted + " old inventory cache entries");
-                    }
-                }
-                
-                // Clean up old performance stats (older than 30 days)
-                cutoffTime = System.currentTimeMillis() - (30 * 24 * 60 * 60 * 1000);
-                sql = "DELETE FROM performance_stats WHERE recorded_at < ?";
-                
-                try (Connection connection = dataSource.getConnection();
-                     PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    
-                    stmt.setLong(1, cutoffTime);
-                    int deleted = stmt.executeUpdate();
-                    
-                    if (deleted > 0) {
-                        logger.info("Cleaned up " + deleted + " old performance statistics");
-                    }
-                }
-                
-                // Update maintenance timestamp
-                setSchemaVersion(SCHEMA_VERSION);
-                
-                logger.info("Database maintenance completed successfully");
-                
-            } catch (Exception e) {
-                logger.severe("Database maintenance failed: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    @Override
-    public CompletableFuture<DatabaseStats> getStatistics() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                int totalPlayers = 0;
-                int activeChases = 0;
-                int cachedInventories = 0;
-                long databaseSize = 0;
-                
-                // Count total players
-                try (Connection connection = dataSource.getConnection();
-                     Statement stmt = connection.createStatement()) {
-                    ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM player_data");
-                    if (rs.next()) {
-                        totalPlayers = rs.getInt(1);
-                    }
-                }
-                
-                // Count active chases
-                try (Connection connection = dataSource.getConnection();
-                     Statement stmt = connection.createStatement()) {
-                    ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM chase_data WHERE is_active = TRUE");
-                    if (rs.next()) {
-                        activeChases = rs.getInt(1);
-                    }
-                }
-                
-                // Count cached inventories
-                try (Connection connection = dataSource.getConnection();
-                     Statement stmt = connection.createStatement()) {
-                    ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM player_inventory_cache");
-                    if (rs.next()) {
-                        cachedInventories = rs.getInt(1);
-                    }
-                }
-                
-                // Get database size (approximate)
-                try (Connection connection = dataSource.getConnection();
-                     Statement stmt = connection.createStatement()) {
-                    ResultSet rs = stmt.executeQuery("SELECT SUM(data_length + index_length) FROM information_schema.tables WHERE table_schema = '" + database + "'");
-                    if (rs.next()) {
-                        databaseSize = rs.getLong(1);
-                    }
-                }
-                
-                return new DatabaseStats(totalPlayers, activeChases, cachedInventories, 
-                                       databaseSize, "MySQL", System.currentTimeMillis());
-                
-            } catch (SQLException e) {
-                logger.severe("Failed to get database statistics: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    @Override
-    public CompletableFuture<Void> createBackup(String backupPath) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                // MySQL backup would typically use mysqldump
-                // For now, we'll just log that backup is not implemented for MySQL
-                logger.warning("MySQL backup not implemented. Use mysqldump manually: " +
-                             "mysqldump -u " + username + " -p " + database + " > " + backupPath);
-                
-            } catch (Exception e) {
-                logger.severe("Failed to create database backup: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    // === BATCH OPERATIONS ===
-    
-    @Override
-    public CompletableFuture<Void> batchSavePlayerData(List<PlayerData> playerDataList) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT INTO player_data (
-                    player_id, player_name, is_on_duty, duty_start_time, off_duty_time, 
-                    grace_debt_time, guard_rank, earned_off_duty_time, has_earned_base_time, 
-                    has_been_notified_expired, session_searches, session_successful_searches, 
-                    session_arrests, session_kills, session_detections, wanted_level, 
-                    wanted_expire_time, wanted_reason, being_chased, chaser_guard, 
-                    chase_start_time, total_arrests, total_violations, total_duty_time, last_updated
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                ON DUPLICATE KEY UPDATE
-                    player_name = VALUES(player_name),
-                    is_on_duty = VALUES(is_on_duty),
-                    duty_start_time = VALUES(duty_start_time),
-                    off_duty_time = VALUES(off_duty_time),
-                    grace_debt_time = VALUES(grace_debt_time),
-                    guard_rank = VALUES(guard_rank),
-                    earned_off_duty_time = VALUES(earned_off_duty_time),
-                    has_earned_base_time = VALUES(has_earned_base_time),
-                    has_been_notified_expired = VALUES(has_been_notified_expired),
-                    session_searches = VALUES(session_searches),
-                    session_successful_searches = VALUES(session_successful_searches),
-                    session_arrests = VALUES(session_arrests),
-                    session_kills = VALUES(session_kills),
-                    session_detections = VALUES(session_detections),
-                    wanted_level = VALUES(wanted_level),
-                    wanted_expire_time = VALUES(wanted_expire_time),
-                    wanted_reason = VALUES(wanted_reason),
-                    being_chased = VALUES(being_chased),
-                    chaser_guard = VALUES(chaser_guard),
-                    chase_start_time = VALUES(chase_start_time),
-                    total_arrests = VALUES(total_arrests),
-                    total_violations = VALUES(total_violations),
-                    total_duty_time = VALUES(total_duty_time),
-                    last_updated = VALUES(last_updated)
-                """;
-            
             try (Connection connection = dataSource.getConnection()) {
                 connection.setAutoCommit(false);
-                
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    for (PlayerData playerData : playerDataList) {
-                        stmt.setString(1, playerData.getPlayerId().toString());
-                        stmt.setString(2, playerData.getPlayerName());
-                        stmt.setBoolean(3, playerData.isOnDuty());
-                        stmt.setLong(4, playerData.getDutyStartTime());
-                        stmt.setLong(5, playerData.getOffDutyTime());
-                        stmt.setLong(6, playerData.getGraceDebtTime());
-                        stmt.setString(7, playerData.getGuardRank());
-                        stmt.setLong(8, playerData.getEarnedOffDutyTime());
-                        stmt.setBoolean(9, playerData.hasEarnedBaseTime());
-                        stmt.setBoolean(10, playerData.hasBeenNotifiedOfExpiredTime());
-                        stmt.setInt(11, playerData.getSessionSearches());
-                        stmt.setInt(12, playerData.getSessionSuccessfulSearches());
-                        stmt.setInt(13, playerData.getSessionArrests());
-                        stmt.setInt(14, playerData.getSessionKills());
-                        stmt.setInt(15, playerData.getSessionDetections());
-                        stmt.setInt(16, playerData.getWantedLevel());
-                        stmt.setLong(17, playerData.getWantedExpireTime());
-                        stmt.setString(18, playerData.getWantedReason());
-                        stmt.setBoolean(19, playerData.isBeingChased());
-                        stmt.setString(20, playerData.getChaserGuard() != null ? playerData.getChaserGuard().toString() : null);
-                        stmt.setLong(21, playerData.getChaseStartTime());
-                        stmt.setInt(22, playerData.getTotalArrests());
-                        stmt.setInt(23, playerData.getTotalViolations());
-                        stmt.setLong(24, playerData.getTotalDutyTime());
-                        stmt.setLong(25, System.currentTimeMillis());
-                        
-                        stmt.addBatch();
+                try {
+                    int size = batch.getEvents().size();
+                    for (int from = 0; from < size; from += PerformanceStatsBatch.INSERT_CHUNK) {
+                        int to = Math.min(size, from + PerformanceStatsBatch.INSERT_CHUNK);
+                        try (PreparedStatement stmt = connection.prepareStatement(PerformanceStatsBatch.getInsertSql(to - from))) {
+                            batch.bindInsert(stmt, from, to);
+                            stmt.executeUpdate();
+                        }
+                    }
+                    
+                    try (PreparedStatement stmt = connection.prepareStatement(rollupSql)) {
+                        for (PerformanceStatsBatch.Rollup rollup : batch.getRollups()) {
+                            PerformanceStatsBatch.bindRollup(stmt, rollup);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
                     }
                     
-                    stmt.executeBatch();
                     connection.commit();
-                }
-                
-            } catch (SQLException e) {
-                try (Connection connection = dataSource.getConnection()) {
+                } catch (SQLException e) {
                     connection.rollback();
-                } catch (SQLException rollbackEx) {
-                    logger.severe("Failed to rollback batch save: " + rollbackEx.getMessage());
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
                 }
-                logger.severe("Failed to batch save player data: " + e.getMessage());
+            } catch (SQLException e) {
+                logger.severe("Failed to record " + events.size() + " performance events: " + e.getMessage());
                 throw new RuntimeException(e);
             }
         }, executor);
     }
     
     @Override
-    public CompletableFuture<List<PlayerData>> batchLoadPlayerData(List<UUID> playerIds) {
+    public CompletableFuture<List<PerformanceRollup>> loadPerformanceRollups(UUID playerId, String period, long sinceTime) {
         return CompletableFuture.supplyAsync(() -> {
-            List<PlayerData> playerDataList = new ArrayList<>();
-            
-            if (playerIds.isEmpty()) {
-                return playerDataList;
-            }
-            
-            // Create placeholders for IN clause
-            StringBuilder placeholders = new StringBuilder();
-            for (int i = 0; i < playerIds.size(); i++) {
-                if (i > 0) placeholders.append(", ");
-                placeholders.append("?");
-            }
-            
-            String sql = "SELECT * FROM player_data WHERE player_id IN (" + placeholders + ")";
+            List<PerformanceRollup> rollups = new ArrayList<>();
+            String sql = """
+                SELECT period_start, stat_type, event_count, total_value FROM performance_rollups
+                WHERE player_id = ? AND period = ? AND period_start >= ? ORDER BY period_start DESC, stat_type
+                """;
             
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
-                for (int i = 0; i < playerIds.size(); i++) {
-                    stmt.setString(i + 1, playerIds.get(i).toString());
-                }
-                
-                ResultSet rs = stmt.executeQuery();
-                while (rs.next()) {
-                    playerDataList.add(mapResultSetToPlayerData(rs));
+                UuidCodec.bind(stmt, 1, playerId);
+                stmt.setString(2, period);
+                stmt.setLong(3, PerformanceRollup.toPeriodStart(period, sinceTime));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rollups.add(new PerformanceRollup(rs.getLong("period_start"), rs.getString("stat_type"),
+                                                          rs.getInt("event_count"), rs.getLong("total_value")));
+                    }
                 }
             } catch (SQLException e) {
-                logger.severe("Failed to batch load player data: " + e.getMessage());
+                logger.severe("Failed to load performance roll-ups for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
             
-            return playerDataList;
-        }, executor);
-    }
-=======
-package dev.lsdmc.edenCorrections.storage;
-
-import dev.lsdmc.edenCorrections.EdenCorrections;
-import dev.lsdmc.edenCorrections.models.PlayerData;
-import dev.lsdmc.edenCorrections.models.ChaseData;
-import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
-
-import java.sql.*;
-import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.logging.Logger;
-
-public class MySQLHandler implements DatabaseHandler {
-    
-    private final EdenCorrections plugin;
-    private final Logger logger;
-    private final ExecutorService executor;
-    
-    private HikariDataSource dataSource;
-    private boolean initialized = false;
-    
-    // Database configuration
-    private final String host;
-    private final int port;
-    private final String database;
-    private final String username;
-    private final String password;
-    
-    // Database schema version for migrations
-    private static final int SCHEMA_VERSION = 1;
-    
-    public MySQLHandler(EdenCorrections plugin, String host, int port, String database, String username, String password) {
-        this.plugin = plugin;
-        this.logger = plugin.getLogger();
-        this.host = host;
-        this.port = port;
-        this.database = database;
-        this.username = username;
-        this.password = password;
-        this.executor = Executors.newFixedThreadPool(6, r -> {
-            Thread t = new Thread(r, "EdenCorrections-MySQL-Worker");
-            t.setDaemon(true);
-            return t;
-        });
-    }
-    
-    @Override
-    public void initialize() throws SQLException {
-        try {
-            // Load MySQL driver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            
-            // Configure HikariCP connection pool
-            HikariConfig config = new HikariConfig();
-            config.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database + 
-                            "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&useUnicode=true&characterEncoding=utf8");
-            config.setUsername(username);
-            config.setPassword(password);
-            
-            // Connection pool settings
-            config.setMaximumPoolSize(10);
-            config.setMinimumIdle(2);
-            config.setConnectionTimeout(30000);
-            config.setIdleTimeout(600000);
-            config.setMaxLifetime(1800000);
-            config.setLeakDetectionThreshold(60000);
-            
-            // Performance settings
-            config.addDataSourceProperty("cachePrepStmts", "true");
-            config.addDataSourceProperty("prepStmtCacheSize", "250");
-            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-            config.addDataSourceProperty("useServerPrepStmts", "true");
-            config.addDataSourceProperty("useLocalSessionState", "true");
-            config.addDataSourceProperty("rewriteBatchedStatements", "true");
-            config.addDataSourceProperty("cacheResultSetMetadata", "true");
-            config.addDataSourceProperty("cacheServerConfiguration", "true");
-            config.addDataSourceProperty("elideSetAutoCommits", "true");
-            config.addDataSourceProperty("maintainTimeStats", "false");
-            
-            dataSource = new HikariDataSource(config);
-            
-            // Test connection
-            try (Connection connection = dataSource.getConnection()) {
-                if (!connection.isValid(5)) {
-                    throw new SQLException("Database connection validation failed");
-                }
-            }
-            
-            // Create tables
-            createTables();
-            
-            // Check and perform migrations if needed
-            checkAndMigrate();
-            
-            initialized = true;
-            logger.info("MySQL database initialized successfully at: " + host + ":" + port + "/" + database);
-            
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL driver not found", e);
-        } catch (SQLException e) {
-            logger.severe("Failed to initialize MySQL database: " + e.getMessage());
-            throw e;
-        }
-    }
-    
-    private void createTables() throws SQLException {
-        String[] tableCreationSql = {
-            // Player data table
-            """
-            CREATE TABLE IF NOT EXISTS player_data (
-                player_id VARCHAR(36) PRIMARY KEY,
-                player_name VARCHAR(16) NOT NULL,
-                is_on_duty BOOLEAN NOT NULL DEFAULT FALSE,
-                duty_start_time BIGINT NOT NULL DEFAULT 0,
-                off_duty_time BIGINT NOT NULL DEFAULT 0,
-                grace_debt_time BIGINT NOT NULL DEFAULT 0,
-                guard_rank VARCHAR(32),
-                earned_off_duty_time BIGINT NOT NULL DEFAULT 0,
-                has_earned_base_time BOOLEAN NOT NULL DEFAULT FALSE,
-                has_been_notified_expired BOOLEAN NOT NULL DEFAULT FALSE,
-                session_searches INT NOT NULL DEFAULT 0,
-                session_successful_searches INT NOT NULL DEFAULT 0,
-                session_arrests INT NOT NULL DEFAULT 0,
-                session_kills INT NOT NULL DEFAULT 0,
-                session_detections INT NOT NULL DEFAULT 0,
-                wanted_level INT NOT NULL DEFAULT 0,
-                wanted_expire_time BIGINT NOT NULL DEFAULT 0,
-                wanted_reason TEXT,
-                being_chased BOOLEAN NOT NULL DEFAULT FALSE,
-                chaser_guard VARCHAR(36),
-                chase_start_time BIGINT NOT NULL DEFAULT 0,
-                total_arrests INT NOT NULL DEFAULT 0,
-                total_violations INT NOT NULL DEFAULT 0,
-                total_duty_time BIGINT NOT NULL DEFAULT 0,
-                last_updated BIGINT NOT NULL DEFAULT 0,
-                
-                INDEX idx_player_name (player_name),
-                INDEX idx_player_duty (is_on_duty),
-                INDEX idx_player_wanted (wanted_level),
-                INDEX idx_last_updated (last_updated)
-            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
-            """,
-            
-            // Chase data table
-            """
-            CREATE TABLE IF NOT EXISTS chase_data (
-                chase_id VARCHAR(36) PRIMARY KEY,
-                guard_id VARCHAR(36) NOT NULL,
-                target_id VARCHAR(36) NOT NULL,
-                start_time BIGINT NOT NULL,
-                duration BIGINT NOT NULL,
-                is_active BOOLEAN NOT NULL DEFAULT TRUE,
-                end_reason TEXT,
-                end_time BIGINT NOT NULL DEFAULT 0,
-                created_at BIGINT NOT NULL DEFAULT 0,
-                
-                INDEX idx_chase_guard (guard_id),
-                INDEX idx_chase_target (target_id),
-                INDEX idx_chase_active (is_active),
-                INDEX idx_chase_created (created_at)
-            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
-            """,
-            
-            // Player inventory cache table
-            """
-            CREATE TABLE IF NOT EXISTS player_inventory_cache (
-                player_id VARCHAR(36) PRIMARY KEY,
-                inventory_data LONGTEXT NOT NULL,
-                cached_at BIGINT NOT NULL DEFAULT 0,
-                
-                INDEX idx_inventory_cached (cached_at),
-                FOREIGN KEY (player_id) REFERENCES player_data(player_id) ON DELETE CASCADE
-            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
-            """,
-            
-            // Database metadata table
-            """
-            CREATE TABLE IF NOT EXISTS database_metadata (
-                meta_key VARCHAR(64) PRIMARY KEY,
-                meta_value TEXT NOT NULL,
-                updated_at BIGINT NOT NULL DEFAULT 0
-            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
-            """,
-            
-            // Performance statistics table
-            """
-            CREATE TABLE IF NOT EXISTS performance_stats (
-                id INT AUTO_INCREMENT PRIMARY KEY,
-                player_id VARCHAR(36) NOT NULL,
-                stat_type VARCHAR(32) NOT NULL,
-                stat_value BIGINT NOT NULL,
-                recorded_at BIGINT NOT NULL DEFAULT 0,
-                
-                INDEX idx_performance_player (player_id),
-                INDEX idx_performance_type (stat_type),
-                INDEX idx_performance_time (recorded_at),
-                FOREIGN KEY (player_id) REFERENCES player_data(player_id) ON DELETE CASCADE
-            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
-            """
-        };
-        
-        try (Connection connection = dataSource.getConnection()) {
-            for (String sql : tableCreationSql) {
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute(sql);
-                }
-            }
-        }
-    }
-    
-    private void checkAndMigrate() throws SQLException {
-        // Check current schema version
-        int currentVersion = getSchemaVersion();
-        
-        if (currentVersion < SCHEMA_VERSION) {
-            logger.info("Database schema outdated. Performing migration from version " + 
-                       currentVersion + " to " + SCHEMA_VERSION);
-            performMigration(currentVersion);
-            setSchemaVersion(SCHEMA_VERSION);
-        }
-    }
-    
-    private int getSchemaVersion() throws SQLException {
-        String sql = "SELECT meta_value FROM database_metadata WHERE meta_key = ?";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setString(1, "schema_version");
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return Integer.parseInt(rs.getString("meta_value"));
-            }
-        } catch (SQLException e) {
-            // Table might not exist yet
-        }
-        return 0;
-    }
-    
-    private void setSchemaVersion(int version) throws SQLException {
-        String sql = """
-            INSERT INTO database_metadata (meta_key, meta_value, updated_at) 
-            VALUES (?, ?, ?) 
-            ON DUPLICATE KEY UPDATE meta_value = VALUES(meta_value), updated_at = VALUES(updated_at)
-            """;
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setString(1, "schema_version");
-            stmt.setString(2, String.valueOf(version));
-            stmt.setLong(3, System.currentTimeMillis());
-            stmt.executeUpdate();
-        }
-    }
-    
-    private void performMigration(int fromVersion) throws SQLException {
-        // Future migrations would go here
-        logger.info("No migrations needed from version " + fromVersion);
-    }
-    
-    @Override
-    public void close() {
-        if (dataSource != null && !dataSource.isClosed()) {
-            dataSource.close();
-        }
-        executor.shutdown();
-        logger.info("MySQL database connection pool closed");
-        initialized = false;
-    }
-    
-    @Override
-    public boolean isConnected() {
-        return dataSource != null && !dataSource.isClosed() && initialized;
-    }
-    
-    @Override
-    public boolean testConnection() {
-        try {
-            if (!isConnected()) return false;
-            
-            try (Connection connection = dataSource.getConnection()) {
-                return connection.isValid(5);
-            }
-        } catch (SQLException e) {
-            logger.warning("Database connection test failed: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    // === PLAYER DATA OPERATIONS ===
-    
-    @Override
-    public CompletableFuture<Void> savePlayerData(PlayerData playerData) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT INTO player_data (
-                    player_id, player_name, is_on_duty, duty_start_time, off_duty_time, 
-                    grace_debt_time, guard_rank, earned_off_duty_time, has_earned_base_time, 
-                    has_been_notified_expired, session_searches, session_successful_searches, 
-                    session_arrests, session_kills, session_detections, wanted_level, 
-                    wanted_expire_time, wanted_reason, being_chased, chaser_guard, 
-                    chase_start_time, total_arrests, total_violations, total_duty_time, last_updated
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                ON DUPLICATE KEY UPDATE
-                    player_name = VALUES(player_name),
-                    is_on_duty = VALUES(is_on_duty),
-                    duty_start_time = VALUES(duty_start_time),
-                    off_duty_time = VALUES(off_duty_time),
-                    grace_debt_time = VALUES(grace_debt_time),
-                    guard_rank = VALUES(guard_rank),
-                    earned_off_duty_time = VALUES(earned_off_duty_time),
-                    has_earned_base_time = VALUES(has_earned_base_time),
-                    has_been_notified_expired = VALUES(has_been_notified_expired),
-                    session_searches = VALUES(session_searches),
-                    session_successful_searches = VALUES(session_successful_searches),
-                    session_arrests = VALUES(session_arrests),
-                    session_kills = VALUES(session_kills),
-                    session_detections = VALUES(session_detections),
-                    wanted_level = VALUES(wanted_level),
-                    wanted_expire_time = VALUES(wanted_expire_time),
-                    wanted_reason = VALUES(wanted_reason),
-                    being_chased = VALUES(being_chased),
-                    chaser_guard = VALUES(chaser_guard),
-                    chase_start_time = VALUES(chase_start_time),
-                    total_arrests = VALUES(total_arrests),
-                    total_violations = VALUES(total_violations),
-                    total_duty_time = VALUES(total_duty_time),
-                    last_updated = VALUES(last_updated)
-                """;
-            
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, playerData.getPlayerId().toString());
-                stmt.setString(2, playerData.getPlayerName());
-                stmt.setBoolean(3, playerData.isOnDuty());
-                stmt.setLong(4, playerData.getDutyStartTime());
-                stmt.setLong(5, playerData.getOffDutyTime());
-                stmt.setLong(6, playerData.getGraceDebtTime());
-                stmt.setString(7, playerData.getGuardRank());
-                stmt.setLong(8, playerData.getEarnedOffDutyTime());
-                stmt.setBoolean(9, playerData.hasEarnedBaseTime());
-                stmt.setBoolean(10, playerData.hasBeenNotifiedOfExpiredTime());
-                stmt.setInt(11, playerData.getSessionSearches());
-                stmt.setInt(12, playerData.getSessionSuccessfulSearches());
-                stmt.setInt(13, playerData.getSessionArrests());
-                stmt.setInt(14, playerData.getSessionKills());
-                stmt.setInt(15, playerData.getSessionDetections());
-                stmt.setInt(16, playerData.getWantedLevel());
-                stmt.setLong(17, playerData.getWantedExpireTime());
-                stmt.setString(18, playerData.getWantedReason());
-                stmt.setBoolean(19, playerData.isBeingChased());
-                stmt.setString(20, playerData.getChaserGuard() != null ? playerData.getChaserGuard().toString() : null);
-                stmt.setLong(21, playerData.getChaseStartTime());
-                stmt.setInt(22, playerData.getTotalArrests());
-                stmt.setInt(23, playerData.getTotalViolations());
-                stmt.setLong(24, playerData.getTotalDutyTime());
-                stmt.setLong(25, System.currentTimeMillis());
-                
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                logger.severe("Failed to save player data for " + playerData.getPlayerName() + ": " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    @Override
-    public CompletableFuture<PlayerData> loadPlayerData(UUID playerId) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM player_data WHERE player_id = ?";
-            
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, playerId.toString());
-                ResultSet rs = stmt.executeQuery();
-                
-                if (rs.next()) {
-                    return mapResultSetToPlayerData(rs);
-                }
-                return null;
-            } catch (SQLException e) {
-                logger.severe("Failed to load player data for " + playerId + ": " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    @Override
-    public CompletableFuture<PlayerData> loadPlayerDataByName(String playerName) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM player_data WHERE player_name = ?";
-            
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, playerName);
-                ResultSet rs = stmt.executeQuery();
-                
-                if (rs.next()) {
-                    return mapResultSetToPlayerData(rs);
-                }
-                return null;
-            } catch (SQLException e) {
-                logger.severe("Failed to load player data for " + playerName + ": " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    private PlayerData mapResultSetToPlayerData(ResultSet rs) throws SQLException {
-        UUID playerId = UUID.fromString(rs.getString("player_id"));
-        String playerName = rs.getString("player_name");
-        
-        PlayerData data = new PlayerData(playerId, playerName);
-        
-        // Set duty information
-        data.setOnDuty(rs.getBoolean("is_on_duty"));
-        data.setDutyStartTime(rs.getLong("duty_start_time"));
-        data.setOffDutyTime(rs.getLong("off_duty_time"));
-        data.setGraceDebtTime(rs.getLong("grace_debt_time"));
-        data.setGuardRank(rs.getString("guard_rank"));
-        
-        // Set off-duty earning information
-        data.setEarnedOffDutyTime(rs.getLong("earned_off_duty_time"));
-        data.setHasEarnedBaseTime(rs.getBoolean("has_earned_base_time"));
-        data.setHasBeenNotifiedOfExpiredTime(rs.getBoolean("has_been_notified_expired"));
-        
-        // Set session performance
-        data.setSessionSearches(rs.getInt("session_searches"));
-        data.setSessionSuccessfulSearches(rs.getInt("session_successful_searches"));
-        data.setSessionArrests(rs.getInt("session_arrests"));
-        data.setSessionKills(rs.getInt("session_kills"));
-        data.setSessionDetections(rs.getInt("session_detections"));
-        
-        // Set wanted information
-        data.setWantedLevel(rs.getInt("wanted_level"));
-        data.setWantedExpireTime(rs.getLong("wanted_expire_time"));
-        data.setWantedReason(rs.getString("wanted_reason"));
-        
-        // Set chase information
-        data.setBeingChased(rs.getBoolean("being_chased"));
-        String chaserGuardStr = rs.getString("chaser_guard");
-        if (chaserGuardStr != null) {
-            data.setChaserGuard(UUID.fromString(chaserGuardStr));
-        }
-        data.setChaseStartTime(rs.getLong("chase_start_time"));
-        
-        // Set statistics
-        data.setTotalArrests(rs.getInt("total_arrests"));
-        data.setTotalViolations(rs.getInt("total_violations"));
-        data.setTotalDutyTime(rs.getLong("total_duty_time"));
-        
-        return data;
-    }
-    
-    @Override
-    public CompletableFuture<List<PlayerData>> loadAllPlayerData() {
-        return CompletableFuture.supplyAsync(() -> {
-            List<PlayerData> playerDataList = new ArrayList<>();
-            String sql = "SELECT * FROM player_data ORDER BY player_name";
-            
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                ResultSet rs = stmt.executeQuery();
-                
-                while (rs.next()) {
-                    playerDataList.add(mapResultSetToPlayerData(rs));
-                }
-            } catch (SQLException e) {
-                logger.severe("Failed to load all player data: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-            
-            return playerDataList;
-        }, executor);
-    }
-    
-    @Override
-    public CompletableFuture<Void> deletePlayerData(UUID playerId) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "DELETE FROM player_data WHERE player_id = ?";
-            
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, playerId.toString());
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                logger.severe("Failed to delete player data for " + playerId + ": " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    // === CHASE DATA OPERATIONS ===
-    
-    @Override
-    public CompletableFuture<Void> saveChaseData(ChaseData chaseData) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT INTO chase_data (
-                    chase_id, guard_id, target_id, start_time, duration, is_active, 
-                    end_reason, end_time, created_at
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
-                ON DUPLICATE KEY UPDATE
-                    guard_id = VALUES(guard_id),
-                    target_id = VALUES(target_id),
-                    start_time = VALUES(start_time),
-                    duration = VALUES(duration),
-                    is_active = VALUES(is_active),
-                    end_reason = VALUES(end_reason),
-                    end_time = VALUES(end_time)
-                """;
-            
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, chaseData.getChaseId().toString());
-                stmt.setString(2, chaseData.getGuardId().toString());
-                stmt.setString(3, chaseData.getTargetId().toString());
-                stmt.setLong(4, chaseData.getStartTime());
-                stmt.setLong(5, chaseData.getDuration());
-                stmt.setBoolean(6, chaseData.isActive());
-                stmt.setString(7, chaseData.getEndReason());
-                stmt.setLong(8, chaseData.getEndTime());
-                stmt.setLong(9, System.currentTimeMillis());
-                
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                logger.severe("Failed to save chase data: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
+            return rollups;
         }, executor);
     }
     
+    // === INVENTORY OPERATIONS ===
+    
     @Override
-    public CompletableFuture<ChaseData> loadChaseData(UUID chaseId) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM chase_data WHERE chase_id = ?";
+    public CompletableFuture<Void> savePlayerInventory(UUID playerId, byte[] inventoryData) {
+        return CompletableFuture.runAsync(() -> {
+            String sql = """
+                INSERT INTO player_inventory_cache (player_id, inventory_data, cached_at) 
+                VALUES (?, ?, ?)
+                ON DUPLICATE KEY UPDATE 
+                    inventory_data = VALUES(inventory_data), 
+                    cached_at = VALUES(cached_at)
+                """;
             
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, chaseId.toString());
-                ResultSet rs = stmt.executeQuery();
+            // Store each distinct item once; the inventory row only references them
+            Map<String, byte[]> items = new LinkedHashMap<>();
+            byte[] storedData;
+            try {
+                byte[] references = InventorySerializer.extractItems(inventoryData, items);
+                storedData = references != null ? references : inventoryData;
+            } catch (IOException e) {
+                logger.warning("Storing inventory for " + playerId + " without item deduplication: " + e.getMessage());
+                items.clear();
+                storedData = inventoryData;
+            }
+            
+            long now = System.currentTimeMillis();
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
                 
-                if (rs.next()) {
-                    return mapResultSetToChaseData(rs);
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    saveInventoryItems(connection, items, now);
+                    
+                    UuidCodec.bind(stmt, 1, playerId);
+                    stmt.setBytes(2, storedData);
+                    stmt.setLong(3, now);
+                    stmt.executeUpdate();
+                    
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
                 }
-                return null;
             } catch (SQLException e) {
-                logger.severe("Failed to load chase data for " + chaseId + ": " + e.getMessage());
+                logger.severe("Failed to save player inventory for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
         }, executor);
     }
     
-    private ChaseData mapResultSetToChaseData(ResultSet rs) throws SQLException {
-        UUID chaseId = UUID.fromString(rs.getString("chase_id"));
-        UUID guardId = UUID.fromString(rs.getString("guard_id"));
-        UUID targetId = UUID.fromString(rs.getString("target_id"));
-        long startTime = rs.getLong("start_time");
-        long duration = rs.getLong("duration");
+    // Items are stored once per distinct content; saving an existing one only marks it as used
+    private void saveInventoryItems(Connection connection, Map<String, byte[]> items, long now) throws SQLException {
+        if (items.isEmpty()) {
+            return;
+        }
         
-        ChaseData chaseData = new ChaseData(chaseId, guardId, targetId, duration);
+        String sql = """
+            INSERT INTO inventory_items (item_hash, item_data, last_used) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE last_used = VALUES(last_used)
+            """;
         
-        if (!rs.getBoolean("is_active")) {
-            chaseData.endChase(rs.getString("end_reason"));
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (Map.Entry<String, byte[]> item : items.entrySet()) {
+                stmt.setBytes(1, HexFormat.of().parseHex(item.getKey()));
+                stmt.setBytes(2, item.getValue());
+                stmt.setLong(3, now);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
         }
-        
-        return chaseData;
     }
     
     @Override
-    public CompletableFuture<List<ChaseData>> loadAllActiveChases() {
+    public CompletableFuture<byte[]> loadPlayerInventory(UUID playerId) {
         return CompletableFuture.supplyAsync(() -> {
-            List<ChaseData> chaseDataList = new ArrayList<>();
-            String sql = "SELECT * FROM chase_data WHERE is_active = TRUE ORDER BY start_time DESC";
+            String sql = "SELECT inventory_data FROM player_inventory_cache WHERE player_id = ?";
             
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
+                UuidCodec.bind(stmt, 1, playerId);
                 ResultSet rs = stmt.executeQuery();
                 
-                while (rs.next()) {
-                    chaseDataList.add(mapResultSetToChaseData(rs));
+                if (!rs.next()) {
+                    return null;
                 }
-            } catch (SQLException e) {
-                logger.severe("Failed to load active chase data: " + e.getMessage());
+                
+                byte[] inventoryData = rs.getBytes("inventory_data");
+                return InventorySerializer.resolveItems(inventoryData, loadInventoryItems(connection, inventoryData));
+            } catch (SQLException | IOException e) {
+                logger.severe("Failed to load player inventory for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-            
-            return chaseDataList;
         }, executor);
     }
     
-    @Override
-    public CompletableFuture<Void> deleteChaseData(UUID chaseId) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "DELETE FROM chase_data WHERE chase_id = ?";
-            
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, chaseId.toString());
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                logger.severe("Failed to delete chase data for " + chaseId + ": " + e.getMessage());
-                throw new RuntimeException(e);
+    private Map<String, byte[]> loadInventoryItems(Connection connection, byte[] inventoryData) throws SQLException, IOException {
+        Map<String, byte[]> items = new HashMap<>();
+        List<String> hashes = InventorySerializer.getItemReferences(inventoryData);
+        if (hashes.isEmpty()) {
+            return items;
+        }
+        
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        hashes.forEach(hash -> placeholders.add("?"));
+        String sql = "SELECT item_hash, item_data FROM inventory_items WHERE item_hash IN " + placeholders;
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < hashes.size(); i++) {
+                stmt.setBytes(i + 1, HexFormat.of().parseHex(hashes.get(i)));
             }
-        }, executor);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    items.put(HexFormat.of().formatHex(rs.getBytes(1)), rs.getBytes(2));
+                }
+            }
+        }
+        return items;
     }
     
     @Override
-    public CompletableFuture<Void> cleanupExpiredChases() {
-        return CompletableFuture.runAsync(() -> {
-            // Delete chases older than 24 hours
-            long cutoffTime = System.currentTimeMillis() - (24 * 60 * 60 * 1000);
-            String sql = "DELETE FROM chase_data WHERE is_active = FALSE AND end_time < ?";
+    public CompletableFuture<Boolean> hasPlayerInventory(UUID playerId) {
+        return CompletableFuture.supplyAsync(() -> {
+            String sql = "SELECT 1 FROM player_inventory_cache WHERE player_id = ? " +
+                        "AND LENGTH(inventory_data) > 0";
             
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
-                stmt.setLong(1, cutoffTime);
-                int deleted = stmt.executeUpdate();
-                
-                if (deleted > 0) {
-                    logger.info("Cleaned up " + deleted + " expired chase records");
-                }
+                UuidCodec.bind(stmt, 1, playerId);
+                ResultSet rs = stmt.executeQuery();
+                return rs.next();
             } catch (SQLException e) {
-                logger.severe("Failed to cleanup expired chases: " + e.getMessage());
+                logger.severe("Failed to check player inventory for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
         }, executor);
     }
     
-    // === INVENTORY OPERATIONS ===
-    
     @Override
-    public CompletableFuture<Void> savePlayerInventory(UUID playerId, String inventoryData) {
+    public CompletableFuture<Void> deletePlayerInventory(UUID playerId) {
         return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT INTO player_inventory_cache (player_id, inventory_data, cached_at) 
-                VALUES (?, ?, ?)
-                ON DUPLICATE KEY UPDATE 
-                    inventory_data = VALUES(inventory_data), 
-                    cached_at = VALUES(cached_at)
-                """;
+            String sql = "DELETE FROM player_inventory_cache WHERE player_id = ?";
             
             try (Connection connection = dataSource.getConnection();
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
-                stmt.setString(1, playerId.toString());
-                stmt.setString(2, inventoryData);
-                stmt.setLong(3, System.currentTimeMillis());
+                UuidCodec.bind(stmt, 1, playerId);
                 stmt.executeUpdate();
             } catch (SQLException e) {
-                logger.severe("Failed to save player inventory for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to delete player inventory for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
         }, executor);
     }
     
     @Override
-    public CompletableFuture<String> loadPlayerInventory(UUID playerId) {
+    public CompletableFuture<List<UUID>> getPlayersWithStoredInventory() {
         return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT inventory_data FROM player_inventory_cache WHERE player_id = ?";
+            String sql = "SELECT player_id FROM player_inventory_cache";
+            List<UUID> playerIds = new ArrayList<>();
             
             try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, playerId.toString());
-                ResultSet rs = stmt.executeQuery();
+                 Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
                 
-                if (rs.next()) {
-                    return rs.getString("inventory_data");
+                while (rs.next()) {
+                    try {
+                        UUID playerId = UuidCodec.read(rs, "player_id");
+                        playerIds.add(playerId);
+                    } catch (IllegalArgumentException e) {
+                        logger.warning("Invalid UUID in inventory cache: " + e.getMessage());
+                    }
                 }
-                return null;
             } catch (SQLException e) {
-                logger.severe("Failed to load player inventory for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to get players with stored inventory: " + e.getMessage());
                 throw new RuntimeException(e);
             }
+            
+            return playerIds;
         }, executor);
     }
     
     @Override
-    public CompletableFuture<Void> deletePlayerInventory(UUID playerId) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "DELETE FROM player_inventory_cache WHERE player_id = ?";
+    public CompletableFuture<RetentionResult> purgeStoredInventories(long cutoffTime, boolean keepOnDuty, int batchSize) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<UUID> purged = new ArrayList<>();
+            long reclaimedBytes;
+            int limit = Math.max(1, batchSize);
             
-            try (Connection connection = dataSource.getConnection();
-                 PreparedStatement stmt = connection.prepareStatement(sql)) {
-                
-                stmt.setString(1, playerId.toString());
-                stmt.executeUpdate();
+            // One chunk per call, in one short transaction; maintenance runs the next one when the server is quiet
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    reclaimedBytes = purgeInventoryChunk(connection, cutoffTime, keepOnDuty, limit, purged);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
             } catch (SQLException e) {
-                logger.severe("Failed to delete player inventory for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to purge stored inventories: " + e.getMessage());
                 throw new RuntimeException(e);
             }
+            
+            return new RetentionResult(purged, reclaimedBytes, purged.size() >= limit);
         }, executor);
     }
     
+    // Delete the oldest expired inventories, up to batchSize; returns the bytes they took
+    private long purgeInventoryChunk(Connection connection, long cutoffTime, boolean keepOnDuty, int batchSize,
+                                     List<UUID> purged) throws SQLException {
+        // FOR UPDATE only locks the inventory rows; the subquery is a plain read
+        String sql = "SELECT player_id, LENGTH(inventory_data) FROM player_inventory_cache WHERE cached_at < ?" +
+                    (keepOnDuty ? " AND player_id NOT IN (SELECT player_id FROM player_data WHERE is_on_duty = TRUE)" : "") +
+                    " ORDER BY cached_at LIMIT ? FOR UPDATE";
+        
+        List<byte[]> keys = new ArrayList<>();
+        long bytes = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, cutoffTime);
+            stmt.setInt(2, batchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    keys.add(rs.getBytes(1));
+                    bytes += rs.getLong(2);
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        keys.forEach(key -> placeholders.add("?"));
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "DELETE FROM player_inventory_cache WHERE player_id IN " + placeholders)) {
+            for (int i = 0; i < keys.size(); i++) {
+                stmt.setBytes(i + 1, keys.get(i));
+            }
+            stmt.executeUpdate();
+        }
+        
+        for (byte[] key : keys) {
+            purged.add(UuidCodec.fromBytes(key));
+        }
+        return bytes;
+    }
+    
     // === MAINTENANCE AND STATISTICS ===
     
     @Override
-    public CompletableFuture<Void> performMaintenance() {
-        return CompletableFuture.runAsync(() -> {
+    public CompletableFuture<Boolean> performMaintenanceStep(MaintenanceStep step, int batchSize) {
+        int limit = Math.max(1, batchSize);
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                // Clean up expired chases
-                cleanupExpiredChases().get();
-                
-                // Clean up old inventory cache (older than 7 days)
-                long cutoffTime = System.currentTimeMillis() - (7 * 24 * 60 * 60 * 1000);
-                String sql = "DELETE FROM player_inventory_cache WHERE cached_at < ?";
-                
-                try (Connection connection = dataSource.getConnection();
-                     PreparedStatement stmt = connection.prepareStatement(sql)) {
+                switch (step) {
+                    case ARCHIVE_ENDED_CHASES -> cleanupExpiredChases().get();
                     
-                    stmt.setLong(1, cutoffTime);
-                    int deleted = stmt.executeUpdate();
+                    case DELETE_UNUSED_ITEMS -> {
+                        // Old stored inventories are purged by the retention policy (see DataManager)
+                        try (Connection connection = dataSource.getConnection()) {
+                            int unusedItems = deleteUnusedInventoryItems(connection, limit);
+                            if (unusedItems > 0) {
+                                logger.info("Cleaned up " + unusedItems + " unused stored items");
+                            }
+                            return unusedItems == limit;
+                        }
+                    }
                     
-                    if (deleted > 0) {
-                        logger.info("Cleaned up " + deleted + " old inventory cache entries");
+                    case DELETE_OLD_STATS -> {
+                        // Raw performance events and hourly roll-ups expire, daily roll-ups are kept
+                        try (Connection connection = dataSource.getConnection()) {
+                            int deleted = deleteOldPerformanceStats(connection, limit);
+                            if (deleted > 0) {
+                                logger.info("Cleaned up " + deleted + " old performance statistics");
+                            }
+                            return deleted == limit;
+                        }
                     }
-                }
-                
-                // Clean up old performance stats (older than 30 days)
-                cutoffTime = System.currentTimeMillis() - (30 * 24 * 60 * 60 * 1000);
-                sql = "DELETE FROM performance_stats WHERE recorded_at < ?";
-                
-                try (Connection connection = dataSource.getConnection();
-                     PreparedStatement stmt = connection.prepareStatement(sql)) {
                     
-                    stmt.setLong(1, cutoffTime);
-                    int deleted = stmt.executeUpdate();
+                    // InnoDB reuses freed pages itself, and OPTIMIZE TABLE rebuilds whole tables
+                    case RECLAIM_SPACE -> {
+                    }
                     
-                    if (deleted > 0) {
-                        logger.info("Cleaned up " + deleted + " old performance statistics");
+                    case OPTIMIZE -> {
+                        try (Connection connection = dataSource.getConnection();
+                             Statement stmt = connection.createStatement()) {
+                            stmt.execute("ANALYZE TABLE " + ANALYZED_TABLES);
+                        }
+                        
+                        // Update maintenance timestamp
+                        setSchemaVersion(SCHEMA_VERSION);
                     }
                 }
-                
-                // Update maintenance timestamp
-                setSchemaVersion(SCHEMA_VERSION);
-                
-                logger.info("Database maintenance completed successfully");
+                return false;
                 
             } catch (Exception e) {
-                logger.severe("Database maintenance failed: " + e.getMessage());
+                logger.severe("Database maintenance step " + step + " failed: " + e.getMessage());
                 throw new RuntimeException(e);
             }
         }, executor);
     }
     
+    @Override
+    public int getPendingOperations() {
+        int pending = executor instanceof ThreadPoolExecutor pool ? pool.getQueue().size() : 0;
+        if (dataSource != null && dataSource.getHikariPoolMXBean() != null) {
+            pending += dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection();
+        }
+        return pending;
+    }
+    
+    // Delete up to limit expired rows, hourly roll-ups first
+    private int deleteOldPerformanceStats(Connection connection, int limit) throws SQLException {
+        long cutoffTime = System.currentTimeMillis() -
+                         plugin.getConfigManager().getTelemetryRetentionDays() * 24L * 60 * 60 * 1000;
+        
+        int deleted;
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "DELETE FROM performance_rollups WHERE period = ? AND period_start < ? LIMIT ?")) {
+            stmt.setString(1, PerformanceRollup.HOUR);
+            stmt.setLong(2, cutoffTime);
+            stmt.setInt(3, limit);
+            deleted = stmt.executeUpdate();
+        }
+        if (deleted == limit) {
+            return deleted;
+        }
+        
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "DELETE FROM performance_stats WHERE recorded_at < ? ORDER BY recorded_at LIMIT ?")) {
+            stmt.setLong(1, cutoffTime);
+            stmt.setInt(2, limit - deleted);
+            return deleted + stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Delete stored items no inventory refers to any more. Saves run concurrently
+     * with this, so only items that haven't been saved for a while are candidates;
+     * a save that reuses an item marks it as used in the same transaction. At most
+     * limit items are deleted per call.
+     */
+    private int deleteUnusedInventoryItems(Connection connection, int limit) throws SQLException {
+        long cutoffTime = System.currentTimeMillis() - UNUSED_ITEM_GRACE_MS;
+        
+        List<byte[]> candidates = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT item_hash FROM inventory_items WHERE last_used < ?")) {
+            stmt.setLong(1, cutoffTime);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    candidates.add(rs.getBytes(1));
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        
+        Set<String> referenced = new HashSet<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT inventory_data FROM player_inventory_cache")) {
+            while (rs.next()) {
+                try {
+                    referenced.addAll(InventorySerializer.getItemReferences(rs.getBytes(1)));
+                } catch (IOException e) {
+                    logger.warning("Skipping unreadable stored inventory: " + e.getMessage());
+                }
+            }
+        }
+        
+        int deleted = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "DELETE FROM inventory_items WHERE item_hash = ? AND last_used < ?")) {
+            for (byte[] hash : candidates) {
+                if (deleted == limit) {
+                    break;
+                }
+                if (referenced.contains(HexFormat.of().formatHex(hash))) {
+                    continue;
+                }
+                stmt.setBytes(1, hash);
+                stmt.setLong(2, cutoffTime);
+                stmt.addBatch();
+                deleted++;
+            }
+            if (deleted > 0) {
+                stmt.executeBatch();
+            }
+        }
+        return deleted;
+    }
+    
     @Override
     public CompletableFuture<DatabaseStats> getStatistics() {
         return CompletableFuture.supplyAsync(() -> {
@@ -1825,108 +1718,245 @@ public class MySQLHandler implements DatabaseHandler {
     @Override
     public CompletableFuture<Void> createBackup(String backupPath) {
         return CompletableFuture.runAsync(() -> {
+            Path backupFilePath = Paths.get(backupPath);
+            long startTime = System.currentTimeMillis();
+            int rows = 0;
+            
             try {
-                // MySQL backup would typically use mysqldump
-                // For now, we'll just log that backup is not implemented for MySQL
-                logger.warning("MySQL backup not implemented. Use mysqldump manually: " +
-                             "mysqldump -u " + username + " -p " + database + " > " + backupPath);
+                Files.createDirectories(backupFilePath.toAbsolutePath().getParent());
                 
-            } catch (Exception e) {
+                try (Connection connection = dataSource.getConnection();
+                     Writer out = Files.newBufferedWriter(backupFilePath, StandardCharsets.UTF_8)) {
+                    
+                    // Every table is read from the same InnoDB snapshot, without locking out writers
+                    connection.setAutoCommit(false);
+                    connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                    try (Statement stmt = connection.createStatement()) {
+                        stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+                    }
+                    
+                    try {
+                        out.write("-- EdenCorrections logical backup of " + database + ", schema version " +
+                                  SCHEMA_VERSION + "\n");
+                        out.write("SET NAMES utf8mb4;\nSET FOREIGN_KEY_CHECKS = 0;\n");
+                        for (String table : BACKUP_TABLES) {
+                            rows += dumpTable(connection, table, out);
+                        }
+                        out.write("\nSET FOREIGN_KEY_CHECKS = 1;\n");
+                        connection.commit();
+                    } catch (SQLException | IOException e) {
+                        connection.rollback();
+                        throw e;
+                    } finally {
+                        connection.setAutoCommit(true);
+                    }
+                }
+                
+                logger.info("Database backup created at: " + backupPath + " (" + rows + " rows) in " +
+                           (System.currentTimeMillis() - startTime) + "ms");
+                
+            } catch (IOException | SQLException e) {
                 logger.severe("Failed to create database backup: " + e.getMessage());
                 throw new RuntimeException(e);
             }
         }, executor);
     }
     
+    // Write one table's definition and rows; rows are streamed, not loaded into memory
+    private int dumpTable(Connection connection, String table, Writer out) throws SQLException, IOException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW CREATE TABLE " + table)) {
+            if (!rs.next()) {
+                return 0;
+            }
+            out.write("\nDROP TABLE IF EXISTS `" + table + "`;\n" + rs.getString(2) + ";\n");
+        }
+        
+        int rows = 0;
+        try (Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams the result row by row with this fetch size
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery("SELECT * FROM " + table)) {
+                ResultSetMetaData meta = rs.getMetaData();
+                StringJoiner columns = new StringJoiner("`, `", "(`", "`)");
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    columns.add(meta.getColumnName(i));
+                }
+                String insert = "INSERT INTO `" + table + "` " + columns + " VALUES\n";
+                
+                while (rs.next()) {
+                    out.write(rows % DUMP_ROWS_PER_INSERT == 0 ? (rows > 0 ? ";\n" : "") + insert : ",\n");
+                    out.write('(');
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        if (i > 1) {
+                            out.write(", ");
+                        }
+                        out.write(toSqlLiteral(rs, i, meta.getColumnType(i)));
+                    }
+                    out.write(')');
+                    rows++;
+                }
+                if (rows > 0) {
+                    out.write(";\n");
+                }
+            }
+        }
+        return rows;
+    }
+    
+    private static String toSqlLiteral(ResultSet rs, int column, int type) throws SQLException {
+        switch (type) {
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                byte[] bytes = rs.getBytes(column);
+                return bytes == null ? "NULL" : bytes.length == 0 ? "''" : "X'" + HexFormat.of().formatHex(bytes) + "'";
+            case Types.BIT:
+            case Types.BOOLEAN:
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                long value = rs.getLong(column);
+                return rs.wasNull() ? "NULL" : Long.toString(value);
+            default:
+                String text = rs.getString(column);
+                if (text == null) {
+                    return "NULL";
+                }
+                StringBuilder literal = new StringBuilder(text.length() + 2).append('\'');
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    switch (c) {
+                        case '\'': literal.append("\\'"); break;
+                        case '\\': literal.append("\\\\"); break;
+                        case '\n': literal.append("\\n"); break;
+                        case '\r': literal.append("\\r"); break;
+                        case '\0': literal.append("\\0"); break;
+                        case '\u001A': literal.append("\\Z"); break;
+                        default: literal.append(c);
+                    }
+                }
+                return literal.append('\'').toString();
+        }
+    }
+    
     // === BATCH OPERATIONS ===
     
     @Override
-    public CompletableFuture<Void> batchSavePlayerData(List<PlayerData> playerDataList) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT INTO player_data (
-                    player_id, player_name, is_on_duty, duty_start_time, off_duty_time, 
-                    grace_debt_time, guard_rank, earned_off_duty_time, has_earned_base_time, 
-                    has_been_notified_expired, session_searches, session_successful_searches, 
-                    session_arrests, session_kills, session_detections, wanted_level, 
-                    wanted_expire_time, wanted_reason, being_chased, chaser_guard, 
-                    chase_start_time, total_arrests, total_violations, total_duty_time, last_updated
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                ON DUPLICATE KEY UPDATE
-                    player_name = VALUES(player_name),
-                    is_on_duty = VALUES(is_on_duty),
-                    duty_start_time = VALUES(duty_start_time),
-                    off_duty_time = VALUES(off_duty_time),
-                    grace_debt_time = VALUES(grace_debt_time),
-                    guard_rank = VALUES(guard_rank),
-                    earned_off_duty_time = VALUES(earned_off_duty_time),
-                    has_earned_base_time = VALUES(has_earned_base_time),
-                    has_been_notified_expired = VALUES(has_been_notified_expired),
-                    session_searches = VALUES(session_searches),
-                    session_successful_searches = VALUES(session_successful_searches),
-                    session_arrests = VALUES(session_arrests),
-                    session_kills = VALUES(session_kills),
-                    session_detections = VALUES(session_detections),
-                    wanted_level = VALUES(wanted_level),
-                    wanted_expire_time = VALUES(wanted_expire_time),
-                    wanted_reason = VALUES(wanted_reason),
-                    being_chased = VALUES(being_chased),
-                    chaser_guard = VALUES(chaser_guard),
-                    chase_start_time = VALUES(chase_start_time),
-                    total_arrests = VALUES(total_arrests),
-                    total_violations = VALUES(total_violations),
-                    total_duty_time = VALUES(total_duty_time),
-                    last_updated = VALUES(last_updated)
-                """;
+    public CompletableFuture<Map<UUID, Long>> batchSavePlayerData(List<PlayerDataSnapshot> snapshots) {
+        // Saves run on several threads; a player's next write waits for the one in flight
+        PlayerWriteOrder.Claim claim = writeOrder.claim(snapshots);
+        List<CompletableFuture<Map<UUID, Long>>> writes = new ArrayList<>(claim.getHeld());
+        if (!claim.getSnapshots().isEmpty()) {
+            writes.add(writeInOrder(claim.getSnapshots()));
+        }
+        
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            Map<UUID, Long> superseded = new HashMap<>();
+            writes.forEach(write -> superseded.putAll(write.join()));
+            return superseded;
+        });
+    }
+    
+    // Write claimed players, then the saves that were held back behind them
+    private CompletableFuture<Map<UUID, Long>> writeInOrder(List<PlayerDataSnapshot> snapshots) {
+        return CompletableFuture.supplyAsync(() -> writePlayerData(snapshots), executor)
+            .whenComplete((result, throwable) -> {
+                List<PlayerWriteOrder.Held> next = writeOrder.release(snapshots);
+                if (!next.isEmpty()) {
+                    List<PlayerDataSnapshot> followUp = new ArrayList<>(next.size());
+                    next.forEach(held -> followUp.add(held.getSnapshot()));
+                    writeInOrder(followUp).whenComplete((superseded, failure) ->
+                        next.forEach(held -> held.complete(superseded, failure)));
+                }
+            });
+    }
+    
+    private Map<UUID, Long> writePlayerData(List<PlayerDataSnapshot> snapshots) {
+        // Existing rows only get their changed columns, grouped by column set
+        Map<String, List<PlayerDataSnapshot>> updates = new LinkedHashMap<>();
+        List<PlayerDataSnapshot> unmatched = new ArrayList<>();
+        Map<UUID, Long> superseded = new HashMap<>();
+        
+        for (PlayerDataSnapshot snapshot : snapshots) {
+            if (snapshot.insert()) {
+                unmatched.add(snapshot);
+            } else if (!snapshot.isEmpty()) {
+                updates.computeIfAbsent(PlayerDataColumns.getUpdateSql(snapshot.changedFields()), k -> new ArrayList<>())
+                       .add(snapshot);
+            }
+        }
+        
+        if (updates.isEmpty() && unmatched.isEmpty()) {
+            return superseded;
+        }
+        
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
             
-            try (Connection connection = dataSource.getConnection()) {
-                connection.setAutoCommit(false);
-                
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    for (PlayerData playerData : playerDataList) {
-                        stmt.setString(1, playerData.getPlayerId().toString());
-                        stmt.setString(2, playerData.getPlayerName());
-                        stmt.setBoolean(3, playerData.isOnDuty());
-                        stmt.setLong(4, playerData.getDutyStartTime());
-                        stmt.setLong(5, playerData.getOffDutyTime());
-                        stmt.setLong(6, playerData.getGraceDebtTime());
-                        stmt.setString(7, playerData.getGuardRank());
-                        stmt.setLong(8, playerData.getEarnedOffDutyTime());
-                        stmt.setBoolean(9, playerData.hasEarnedBaseTime());
-                        stmt.setBoolean(10, playerData.hasBeenNotifiedOfExpiredTime());
-                        stmt.setInt(11, playerData.getSessionSearches());
-                        stmt.setInt(12, playerData.getSessionSuccessfulSearches());
-                        stmt.setInt(13, playerData.getSessionArrests());
-                        stmt.setInt(14, playerData.getSessionKills());
-                        stmt.setInt(15, playerData.getSessionDetections());
-                        stmt.setInt(16, playerData.getWantedLevel());
-                        stmt.setLong(17, playerData.getWantedExpireTime());
-                        stmt.setString(18, playerData.getWantedReason());
-                        stmt.setBoolean(19, playerData.isBeingChased());
-                        stmt.setString(20, playerData.getChaserGuard() != null ? playerData.getChaserGuard().toString() : null);
-                        stmt.setLong(21, playerData.getChaseStartTime());
-                        stmt.setInt(22, playerData.getTotalArrests());
-                        stmt.setInt(23, playerData.getTotalViolations());
-                        stmt.setLong(24, playerData.getTotalDutyTime());
-                        stmt.setLong(25, System.currentTimeMillis());
+            try {
+                for (Map.Entry<String, List<PlayerDataSnapshot>> entry : updates.entrySet()) {
+                    try (PreparedStatement stmt = connection.prepareStatement(entry.getKey())) {
+                        for (PlayerDataSnapshot snapshot : entry.getValue()) {
+                            PlayerDataColumns.bindUpdate(stmt, snapshot);
+                            stmt.addBatch();
+                        }
                         
-                        stmt.addBatch();
+                        // Either the row holds a newer version or it disappeared (e.g. deleted by hand)
+                        int[] counts = stmt.executeBatch();
+                        for (int i = 0; i < counts.length; i++) {
+                            if (counts[i] == 0) {
+                                unmatched.add(entry.getValue().get(i));
+                            }
+                        }
                     }
-                    
-                    stmt.executeBatch();
-                    connection.commit();
                 }
                 
-            } catch (SQLException e) {
-                try (Connection connection = dataSource.getConnection()) {
-                    connection.rollback();
-                } catch (SQLException rollbackEx) {
-                    logger.severe("Failed to rollback batch save: " + rollbackEx.getMessage());
+                List<PlayerDataSnapshot> rowWrites = PlayerDataColumns.resolveUnmatched(connection, unmatched, superseded);
+                if (!rowWrites.isEmpty()) {
+                    try (PreparedStatement stmt = connection.prepareStatement(PLAYER_UPSERT_SQL)) {
+                        for (PlayerDataSnapshot snapshot : rowWrites) {
+                            PlayerDataColumns.bindFullRow(stmt, snapshot);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
                 }
-                logger.severe("Failed to batch save player data: " + e.getMessage());
-                throw new RuntimeException(e);
+                
+                connection.commit();
+                countSupersededWrites(superseded.size());
+                return superseded;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
-        }, executor);
+            
+        } catch (SQLException e) {
+            logger.severe("Failed to save player data (" + snapshots.size() + " players): " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+    
+    private void countSupersededWrites(int count) {
+        if (count > 0) {
+            supersededWrites.addAndGet(count);
+            if (plugin.getConfigManager().isDebugMode()) {
+                logger.info("DEBUG: " + count + " player writes were superseded by newer rows, their changes go out with the next save");
+            }
+        }
+    }
+    
+    public Map<String, Object> getEngineStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("playerWritesSuperseded", supersededWrites.get());
+        stats.put("playerWritesHeld", writeOrder.getHeldWrites());
+        stats.put("playerWritesCoalesced", writeOrder.getCoalescedWrites());
+        stats.put("mysqlPendingOperations", getPendingOperations());
+        return stats;
     }
     
     @Override
@@ -1951,7 +1981,7 @@ public class MySQLHandler implements DatabaseHandler {
                  PreparedStatement stmt = connection.prepareStatement(sql)) {
                 
                 for (int i = 0; i < playerIds.size(); i++) {
-                    stmt.setString(i + 1, playerIds.get(i).toString());
+                    UuidCodec.bind(stmt, i + 1, playerIds.get(i));
                 }
                 
                 ResultSet rs = stmt.executeQuery();
@@ -1966,5 +1996,4 @@ public class MySQLHandler implements DatabaseHandler {
             return playerDataList;
         }, executor);
     }
->>>>>>> 802b20989bd53e59c06b10b624bd5acdc909227d
 } 
\ No newline at end of file
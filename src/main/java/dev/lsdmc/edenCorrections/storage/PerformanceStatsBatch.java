@@ -0,0 +1,128 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.storage.DatabaseHandler.PerformanceRollup;
+import dev.lsdmc.edenCorrections.storage.TelemetryBuffer.Event;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+/**
+ * One drained batch of performance events on its way to performance_stats.
+ *
+ * Raw events are written with multi-row INSERTs of up to {@link #INSERT_CHUNK}
+ * rows. The hourly and daily roll-ups are summed here first, so a batch touches
+ * each performance_rollups row once, in the same transaction as the raw rows.
+ */
+final class PerformanceStatsBatch {
+    
+    // Rows per INSERT; 4 parameters each stays below SQLite's default limit of 999
+    static final int INSERT_CHUNK = 200;
+    
+    private final List<Event> events;
+    private final Map<RollupKey, Rollup> rollups = new LinkedHashMap<>();
+    
+    PerformanceStatsBatch(List<Event> events) {
+        this.events = events;
+        for (Event event : events) {
+            addRollup(event, PerformanceRollup.HOUR);
+            addRollup(event, PerformanceRollup.DAY);
+        }
+    }
+    
+    private void addRollup(Event event, String period) {
+        RollupKey key = new RollupKey(event.getPlayerId(), period,
+                                      PerformanceRollup.toPeriodStart(period, event.getTime()), event.getStat().getKey());
+        Rollup rollup = rollups.computeIfAbsent(key, Rollup::new);
+        rollup.eventCount++;
+        rollup.totalValue += event.getValue();
+    }
+    
+    List<Event> getEvents() {
+        return events;
+    }
+    
+    Collection<Rollup> getRollups() {
+        return rollups.values();
+    }
+    
+    /**
+     * INSERT for the given number of performance_stats rows
+     */
+    static String getInsertSql(int rows) {
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < rows; i++) {
+            values.add("(?, ?, ?, ?)");
+        }
+        return "INSERT INTO performance_stats (player_id, stat_type, stat_value, recorded_at) VALUES " + values;
+    }
+    
+    /**
+     * Bind events [from, to) to a statement from {@link #getInsertSql(int)}
+     */
+    void bindInsert(PreparedStatement stmt, int from, int to) throws SQLException {
+        int index = 1;
+        for (int i = from; i < to; i++) {
+            Event event = events.get(i);
+            UuidCodec.bind(stmt, index++, event.getPlayerId());
+            stmt.setString(index++, event.getStat().getKey());
+            stmt.setLong(index++, event.getValue());
+            stmt.setLong(index++, event.getTime());
+        }
+    }
+    
+    /**
+     * Bind (player_id, period, period_start, stat_type, event_count, total_value)
+     */
+    static void bindRollup(PreparedStatement stmt, Rollup rollup) throws SQLException {
+        UuidCodec.bind(stmt, 1, rollup.key.playerId);
+        stmt.setString(2, rollup.key.period);
+        stmt.setLong(3, rollup.key.periodStart);
+        stmt.setString(4, rollup.key.statType);
+        stmt.setInt(5, rollup.eventCount);
+        stmt.setLong(6, rollup.totalValue);
+    }
+    
+    static final class Rollup {
+        private final RollupKey key;
+        private int eventCount;
+        private long totalValue;
+        
+        private Rollup(RollupKey key) {
+            this.key = key;
+        }
+    }
+    
+    private static final class RollupKey {
+        private final UUID playerId;
+        private final String period;
+        private final long periodStart;
+        private final String statType;
+        
+        private RollupKey(UUID playerId, String period, long periodStart, String statType) {
+            this.playerId = playerId;
+            this.period = period;
+            this.periodStart = periodStart;
+            this.statType = statType;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RollupKey other)) return false;
+            return periodStart == other.periodStart && playerId.equals(other.playerId) &&
+                   period.equals(other.period) && statType.equals(other.statType);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(playerId, period, periodStart, statType);
+        }
+    }
+}
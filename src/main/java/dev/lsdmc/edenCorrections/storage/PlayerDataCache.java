@@ -0,0 +1,313 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.models.PlayerData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-memory player data cache.
+ *
+ * Entries are kept in least-recently-used order on an intrusive linked list, so
+ * lookups, inserts and evictions are all O(1). The cache is bounded by an
+ * estimated weight (see {@link #estimateWeight(PlayerData)}) rather than an entry
+ * count. Pinned players - online players, for the length of their session - are
+ * taken off the list entirely: they never get evicted and hits on them don't take
+ * the lock.
+ */
+public class PlayerDataCache {
+
+    // Rough heap cost of a PlayerData with its boxed fields and map entry, in bytes
+    private static final int BASE_WEIGHT = 320;
+
+    private final Map<UUID, Node> entries = new ConcurrentHashMap<>();
+    private final Set<UUID> pinned = ConcurrentHashMap.newKeySet();
+    private final Predicate<PlayerData> retain;
+    private final long maxWeight;
+
+    // LRU list of unpinned entries, guarded by this; head is most recently used
+    private Node head;
+    private Node tail;
+    private int linkedCount;
+    private long totalWeight;
+
+    // Statistics
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxWeight weight budget for all entries, in estimated bytes
+     * @param retain entries this matches are skipped by eviction (e.g. wanted players)
+     */
+    public PlayerDataCache(long maxWeight, Predicate<PlayerData> retain) {
+        this.maxWeight = maxWeight;
+        this.retain = retain;
+    }
+
+    /**
+     * Look up a player and count the hit or miss
+     * @param playerId the player's UUID
+     * @return the cached data, or null on a miss
+     */
+    public PlayerData get(UUID playerId) {
+        Node node = entries.get(playerId);
+        if (node == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        if (node.linked) {
+            synchronized (this) {
+                if (node.linked) {
+                    moveToHead(node);
+                }
+            }
+        }
+        return node.data;
+    }
+
+    /**
+     * Look up a player without counting it or changing its eviction order
+     */
+    public PlayerData peek(UUID playerId) {
+        Node node = entries.get(playerId);
+        return node != null ? node.data : null;
+    }
+
+    public boolean contains(UUID playerId) {
+        return entries.containsKey(playerId);
+    }
+
+    public synchronized void put(UUID playerId, PlayerData data) {
+        Node node = entries.get(playerId);
+        if (node != null) {
+            totalWeight -= node.weight;
+            node.data = data;
+            node.weight = estimateWeight(data);
+            totalWeight += node.weight;
+            if (node.linked) {
+                moveToHead(node);
+            }
+        } else {
+            insert(playerId, data);
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * Add a player unless it is already cached
+     * @return the data already cached, or null if the given data was added
+     */
+    public synchronized PlayerData putIfAbsent(UUID playerId, PlayerData data) {
+        Node node = entries.get(playerId);
+        if (node != null) {
+            return node.data;
+        }
+        insert(playerId, data);
+        evictIfNeeded();
+        return null;
+    }
+
+    public synchronized PlayerData remove(UUID playerId) {
+        Node node = entries.remove(playerId);
+        if (node == null) {
+            return null;
+        }
+        if (node.linked) {
+            unlink(node);
+        }
+        totalWeight -= node.weight;
+        return node.data;
+    }
+
+    /**
+     * Keep a player in memory until {@link #unpin(UUID)}, whether or not it is cached yet
+     */
+    public void pin(UUID playerId) {
+        pinned.add(playerId);
+        synchronized (this) {
+            Node node = entries.get(playerId);
+            if (node != null && node.linked) {
+                unlink(node);
+            }
+        }
+    }
+
+    /**
+     * Make a player evictable again; it becomes the most recently used entry
+     */
+    public void unpin(UUID playerId) {
+        if (!pinned.remove(playerId)) {
+            return;
+        }
+        synchronized (this) {
+            Node node = entries.get(playerId);
+            if (node != null && !node.linked) {
+                linkAtHead(node);
+            }
+            evictIfNeeded();
+        }
+    }
+
+    /**
+     * Unpin every player the predicate matches, e.g. players who left without a quit event
+     */
+    public void unpinIf(Predicate<UUID> predicate) {
+        for (UUID playerId : new ArrayList<>(pinned)) {
+            if (predicate.test(playerId)) {
+                unpin(playerId);
+            }
+        }
+    }
+
+    public boolean isPinned(UUID playerId) {
+        return pinned.contains(playerId);
+    }
+
+    /**
+     * @return a snapshot of every cached player
+     */
+    public List<PlayerData> values() {
+        List<PlayerData> values = new ArrayList<>(entries.size());
+        for (Node node : entries.values()) {
+            values.add(node.data);
+        }
+        return values;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void insert(UUID playerId, PlayerData data) {
+        Node node = new Node(playerId, data, estimateWeight(data));
+        entries.put(playerId, node);
+        totalWeight += node.weight;
+        if (!pinned.contains(playerId)) {
+            linkAtHead(node);
+        }
+    }
+
+    // Evict from the cold end until the budget is met; retained entries are moved back to the head
+    private void evictIfNeeded() {
+        int candidates = linkedCount;
+        while (totalWeight > maxWeight && tail != null && candidates-- > 0) {
+            Node node = tail;
+            if (retain.test(node.data)) {
+                moveToHead(node);
+                continue;
+            }
+            unlink(node);
+            entries.remove(node.playerId);
+            totalWeight -= node.weight;
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void linkAtHead(Node node) {
+        node.prev = null;
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        head = node;
+        if (tail == null) {
+            tail = node;
+        }
+        node.linked = true;
+        linkedCount++;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            head = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        } else {
+            tail = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.linked = false;
+        linkedCount--;
+    }
+
+    private void moveToHead(Node node) {
+        if (head != node) {
+            unlink(node);
+            linkAtHead(node);
+        }
+    }
+
+    /**
+     * Estimate the heap cost of one cached player
+     */
+    public static int estimateWeight(PlayerData data) {
+        int weight = BASE_WEIGHT;
+        weight += stringWeight(data.getPlayerName());
+        weight += stringWeight(data.getGuardRank());
+        weight += stringWeight(data.getWantedReason());
+        return weight;
+    }
+
+    private static int stringWeight(String value) {
+        return value != null ? 40 + value.length() * 2 : 0;
+    }
+
+    // === STATISTICS ===
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total > 0 ? (double) hits.get() / total : 0.0;
+    }
+
+    public int getPinnedCount() {
+        return pinned.size();
+    }
+
+    public synchronized long getWeight() {
+        return totalWeight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    private static final class Node {
+        private final UUID playerId;
+        private volatile PlayerData data;
+        private int weight;
+        private volatile boolean linked;
+        private Node prev;
+        private Node next;
+
+        private Node(UUID playerId, PlayerData data, int weight) {
+            this.playerId = playerId;
+            this.data = data;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.models.PlayerDataField;
+import dev.lsdmc.edenCorrections.models.PlayerDataSnapshot;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Column-level writes for the player_data table.
+ *
+ * Rows that already exist only get the columns that changed since the last write.
+ * The UPDATE text is generated once per distinct column set, so the handlers'
+ * statement caches (the SQLite writer cache, the MySQL driver cache) keep one
+ * prepared statement per column set.
+ *
+ * Values are only ever bound from a {@link PlayerDataSnapshot}, never from the live
+ * PlayerData the main thread keeps changing.
+ *
+ * Every write carries a new version of the row and an UPDATE only applies to a
+ * row with an older version, so a write that lands after a newer one for the same
+ * player can't overwrite it. Writes that match no row are sorted out by
+ * {@link #resolveUnmatched}.
+ */
+public final class PlayerDataColumns {
+
+    private static final Map<Set<PlayerDataField>, String> UPDATE_SQL = new ConcurrentHashMap<>();
+
+    private PlayerDataColumns() {
+    }
+
+    /**
+     * Get the UPDATE statement for a set of changed fields
+     * @param fields the changed fields (must not be empty)
+     * @return SQL that sets those columns plus last_updated and version for one
+     *         player_id, if its stored version is older
+     */
+    public static String getUpdateSql(Set<PlayerDataField> fields) {
+        String sql = UPDATE_SQL.get(fields);
+        if (sql == null) {
+            sql = buildUpdateSql(fields);
+            UPDATE_SQL.putIfAbsent(EnumSet.copyOf(fields), sql);
+        }
+        return sql;
+    }
+
+    private static String buildUpdateSql(Set<PlayerDataField> fields) {
+        StringBuilder sql = new StringBuilder("UPDATE player_data SET ");
+        for (PlayerDataField field : fields) {
+            sql.append(field.getColumn()).append(" = ?, ");
+        }
+        sql.append("last_updated = ?, version = ? WHERE player_id = ? AND version < ?");
+        return sql.toString();
+    }
+
+    /**
+     * Bind the parameters of a statement from {@link #getUpdateSql(Set)}
+     */
+    public static void bindUpdate(PreparedStatement stmt, PlayerDataSnapshot snapshot) throws SQLException {
+        int index = 1;
+        for (PlayerDataField field : snapshot.changedFields()) {
+            bindField(stmt, index++, field, snapshot);
+        }
+        stmt.setLong(index++, System.currentTimeMillis());
+        stmt.setLong(index++, snapshot.version());
+        UuidCodec.bind(stmt, index++, snapshot.playerId());
+        stmt.setLong(index, snapshot.version());
+    }
+
+    /**
+     * Bind a full player_data row: player_id, player_name, every field in
+     * declaration order, then last_updated and version
+     */
+    public static void bindFullRow(PreparedStatement stmt, PlayerDataSnapshot snapshot) throws SQLException {
+        UuidCodec.bind(stmt, 1, snapshot.playerId());
+        stmt.setString(2, snapshot.playerName());
+
+        int index = 3;
+        for (PlayerDataField field : PlayerDataField.values()) {
+            bindField(stmt, index++, field, snapshot);
+        }
+        stmt.setLong(index++, System.currentTimeMillis());
+        stmt.setLong(index, snapshot.version());
+    }
+
+    /**
+     * Sort out writes that have no row to update: new players, and updates that
+     * matched no row. A write whose row is missing or older needs a full row write.
+     * A row that already holds this write's version or a newer one means the write
+     * was superseded; it is reported in {@code superseded} instead of being written.
+     * @param connection connection of the transaction the writes run in
+     * @param writes the writes to sort out
+     * @param superseded receives superseded players and the version their row holds
+     * @return the writes that need a full row write
+     */
+    public static List<PlayerDataSnapshot> resolveUnmatched(Connection connection, List<PlayerDataSnapshot> writes,
+                                                           Map<UUID, Long> superseded) throws SQLException {
+        List<PlayerDataSnapshot> rowWrites = new ArrayList<>();
+        if (writes.isEmpty()) {
+            return rowWrites;
+        }
+
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        writes.forEach(write -> placeholders.add("?"));
+        Map<UUID, Long> storedVersions = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT player_id, version FROM player_data WHERE player_id IN " + placeholders)) {
+            for (int i = 0; i < writes.size(); i++) {
+                UuidCodec.bind(stmt, i + 1, writes.get(i).playerId());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    storedVersions.put(UuidCodec.read(rs, "player_id"), rs.getLong("version"));
+                }
+            }
+        }
+
+        for (PlayerDataSnapshot write : writes) {
+            Long storedVersion = storedVersions.get(write.playerId());
+            if (storedVersion == null || storedVersion < write.version()) {
+                rowWrites.add(write);
+            } else {
+                superseded.put(write.playerId(), storedVersion);
+            }
+        }
+        return rowWrites;
+    }
+
+    private static void bindField(PreparedStatement stmt, int index, PlayerDataField field, PlayerDataSnapshot data) throws SQLException {
+        switch (field) {
+            case ON_DUTY:
+                stmt.setBoolean(index, data.onDuty());
+                break;
+            case DUTY_START_TIME:
+                stmt.setLong(index, data.dutyStartTime());
+                break;
+            case OFF_DUTY_TIME:
+                stmt.setLong(index, data.offDutyTime());
+                break;
+            case GRACE_DEBT_TIME:
+                stmt.setLong(index, data.graceDebtTime());
+                break;
+            case GUARD_RANK:
+                stmt.setString(index, data.guardRank());
+                break;
+            case EARNED_OFF_DUTY_TIME:
+                stmt.setLong(index, data.earnedOffDutyTime());
+                break;
+            case HAS_EARNED_BASE_TIME:
+                stmt.setBoolean(index, data.hasEarnedBaseTime());
+                break;
+            case NOTIFIED_OF_EXPIRED_TIME:
+                stmt.setBoolean(index, data.notifiedOfExpiredTime());
+                break;
+            case SESSION_SEARCHES:
+                stmt.setInt(index, data.sessionSearches());
+                break;
+            case SESSION_SUCCESSFUL_SEARCHES:
+                stmt.setInt(index, data.sessionSuccessfulSearches());
+                break;
+            case SESSION_ARRESTS:
+                stmt.setInt(index, data.sessionArrests());
+                break;
+            case SESSION_KILLS:
+                stmt.setInt(index, data.sessionKills());
+                break;
+            case SESSION_DETECTIONS:
+                stmt.setInt(index, data.sessionDetections());
+                break;
+            case PENALTY_START_TIME:
+                stmt.setLong(index, data.penaltyStartTime());
+                break;
+            case CURRENT_PENALTY_STAGE:
+                stmt.setInt(index, data.currentPenaltyStage());
+                break;
+            case LAST_PENALTY_TIME:
+                stmt.setLong(index, data.lastPenaltyTime());
+                break;
+            case LAST_SLOWNESS_APPLICATION:
+                stmt.setLong(index, data.lastSlownessApplication());
+                break;
+            case ACTIVE_PENALTY_BOSS_BAR:
+                stmt.setBoolean(index, data.activePenaltyBossBar());
+                break;
+            case WANTED_LEVEL:
+                stmt.setInt(index, data.wantedLevel());
+                break;
+            case WANTED_EXPIRE_TIME:
+                stmt.setLong(index, data.wantedExpireTime());
+                break;
+            case WANTED_REASON:
+                stmt.setString(index, data.wantedReason());
+                break;
+            case BEING_CHASED:
+                stmt.setBoolean(index, data.beingChased());
+                break;
+            case CHASER_GUARD:
+                UuidCodec.bind(stmt, index, data.chaserGuard());
+                break;
+            case CHASE_START_TIME:
+                stmt.setLong(index, data.chaseStartTime());
+                break;
+            case TOTAL_ARRESTS:
+                stmt.setInt(index, data.totalArrests());
+                break;
+            case TOTAL_VIOLATIONS:
+                stmt.setInt(index, data.totalViolations());
+                break;
+            case TOTAL_DUTY_TIME:
+                stmt.setLong(index, data.totalDutyTime());
+                break;
+        }
+    }
+}
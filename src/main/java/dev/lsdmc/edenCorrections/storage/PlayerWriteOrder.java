@@ -0,0 +1,132 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.models.PlayerDataSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps player data writes in order per player on a multi-threaded executor.
+ *
+ * A player is written by at most one batch at a time. A save of a player whose
+ * write is still running is held back and goes out in a follow-up batch as soon as
+ * that write finishes; any further saves in the meantime are merged into the same
+ * follow-up (see {@link PlayerDataSnapshot#merge}), so it carries the newest values
+ * and every field changed since the running write.
+ */
+final class PlayerWriteOrder {
+
+    // Players with a write running, and the saves held back behind them; guarded by this
+    private final Set<UUID> writing = new HashSet<>();
+    private final Map<UUID, Held> held = new LinkedHashMap<>();
+
+    // Statistics
+    private final AtomicLong heldWrites = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+
+    /**
+     * Claim players for a write
+     * @param snapshots the players to write
+     * @return the players the write can go ahead with, and futures for the held-back rest
+     */
+    synchronized Claim claim(List<PlayerDataSnapshot> snapshots) {
+        List<PlayerDataSnapshot> claimed = new ArrayList<>(snapshots.size());
+        List<CompletableFuture<Map<UUID, Long>>> waiting = new ArrayList<>();
+
+        for (PlayerDataSnapshot snapshot : snapshots) {
+            if (writing.add(snapshot.playerId())) {
+                claimed.add(snapshot);
+                continue;
+            }
+
+            Held entry = held.get(snapshot.playerId());
+            if (entry == null) {
+                entry = new Held(snapshot);
+                held.put(snapshot.playerId(), entry);
+                heldWrites.incrementAndGet();
+            } else {
+                entry.snapshot = PlayerDataSnapshot.merge(entry.snapshot, snapshot);
+                coalescedWrites.incrementAndGet();
+            }
+            waiting.add(entry.future);
+        }
+
+        return new Claim(claimed, waiting);
+    }
+
+    /**
+     * Release players once their write has finished
+     * @param snapshots the players that were written
+     * @return saves that were held back behind them; those players stay claimed for the follow-up
+     */
+    synchronized List<Held> release(List<PlayerDataSnapshot> snapshots) {
+        List<Held> next = new ArrayList<>();
+        for (PlayerDataSnapshot snapshot : snapshots) {
+            Held entry = held.remove(snapshot.playerId());
+            if (entry != null) {
+                next.add(entry);
+            } else {
+                writing.remove(snapshot.playerId());
+            }
+        }
+        return next;
+    }
+
+    long getHeldWrites() {
+        return heldWrites.get();
+    }
+
+    long getCoalescedWrites() {
+        return coalescedWrites.get();
+    }
+
+    static final class Claim {
+        private final List<PlayerDataSnapshot> snapshots;
+        private final List<CompletableFuture<Map<UUID, Long>>> held;
+
+        private Claim(List<PlayerDataSnapshot> snapshots, List<CompletableFuture<Map<UUID, Long>>> held) {
+            this.snapshots = snapshots;
+            this.held = held;
+        }
+
+        List<PlayerDataSnapshot> getSnapshots() {
+            return snapshots;
+        }
+
+        /**
+         * @return futures of the follow-up writes of this claim's held-back players,
+         *         with the superseded players of those writes
+         */
+        List<CompletableFuture<Map<UUID, Long>>> getHeld() {
+            return held;
+        }
+    }
+
+    static final class Held {
+        private PlayerDataSnapshot snapshot;
+        private final CompletableFuture<Map<UUID, Long>> future = new CompletableFuture<>();
+
+        private Held(PlayerDataSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        PlayerDataSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        void complete(Map<UUID, Long> superseded, Throwable throwable) {
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(superseded);
+            }
+        }
+    }
+}
@@ -1,16 +1,23 @@
-<<<<<<< HEAD
 package dev.lsdmc.edenCorrections.storage;
 
 import dev.lsdmc.edenCorrections.EdenCorrections;
 import dev.lsdmc.edenCorrections.models.PlayerData;
+import dev.lsdmc.edenCorrections.models.PlayerDataSnapshot;
 import dev.lsdmc.edenCorrections.models.ChaseData;
+import dev.lsdmc.edenCorrections.utils.InventorySerializer;
+
+import org.sqlite.SQLiteConfig;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 import java.io.File;
 import java.io.IOException;
@@ -18,28 +25,86 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+/**
+ * SQLite storage engine. All writes go through a single {@link SQLiteWriter} that
+ * groups them into transactions; reads run on a small pool of read-only
+ * connections, which WAL mode lets proceed while a write is in progress.
+ */
 public class SQLiteHandler implements DatabaseHandler {
     
+    @FunctionalInterface
+    private interface Query<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+    
     private final EdenCorrections plugin;
     private final Logger logger;
     private final String databasePath;
-    private final ExecutorService executor;
+    private final int readPoolSize;
+    private final ExecutorService readExecutor;
+    
+    // Single writer connection and thread
+    private SQLiteWriter writer;
     
-    private Connection connection;
+    // Read-only connections, one per reader thread
+    private final BlockingQueue<Connection> readConnections = new LinkedBlockingQueue<>();
+    
+    // Prepared statements per read connection; a connection is only used by the thread that borrowed it
+    private final Map<Connection, Map<String, PreparedStatement>> readStatements = new ConcurrentHashMap<>();
     private boolean initialized = false;
     
-    // Prepared statement cache for performance
-    private final Map<String, PreparedStatement> statementCache = new ConcurrentHashMap<>();
+    // Player writes dropped because the row already held a newer version
+    private final AtomicLong supersededWrites = new AtomicLong();
     
     // Database schema version for migrations
-    private static final int SCHEMA_VERSION = 1;
+    // v2: UUIDs stored as 16-byte BLOBs, player_data and player_inventory_cache WITHOUT ROWID
+    // v3: inventory_data holds the binary inventory format (BLOB)
+    // v4: inventory items stored once in inventory_items, referenced by content hash
+    // v5: ended chases moved to chase_history with daily chase_rollups
+    // v6: hourly and daily performance_rollups
+    // v7: player_data.version for compare-and-set writes
+    private static final int SCHEMA_VERSION = 7;
+    
+    // UUID columns converted by the v2 migration, per table (parents before children)
+    private static final String[][] UUID_COLUMNS = {
+        {"player_data", "player_id", "chaser_guard"},
+        {"chase_data", "chase_id", "guard_id", "target_id"},
+        {"player_inventory_cache", "player_id"},
+        {"performance_stats", "player_id"}
+    };
+    
+    // Number of players timed for the before/after lookup measurement
+    private static final int LOOKUP_SAMPLE_SIZE = 500;
+    
+    // Chase history rows deleted per writer task by the history purge
+    private static final int HISTORY_PURGE_CHUNK = 1000;
+    
+    // Full row write, used for new players and missing rows (updates only touch changed columns)
+    private static final String PLAYER_UPSERT_SQL = """
+        INSERT OR REPLACE INTO player_data (
+            player_id, player_name, is_on_duty, duty_start_time, off_duty_time, 
+            grace_debt_time, guard_rank, earned_off_duty_time, has_earned_base_time, 
+            has_been_notified_expired, session_searches, session_successful_searches, 
+            session_arrests, session_kills, session_detections, penalty_start_time,
+            current_penalty_stage, last_penalty_time, last_slowness_application,
+            has_active_penalty_boss_bar, wanted_level, wanted_expire_time, wanted_reason, 
+            being_chased, chaser_guard, chase_start_time, total_arrests, total_violations, 
+            total_duty_time, last_updated, version
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    
+    private static final int BUSY_TIMEOUT_MS = 5000;
+    
+    // PRAGMA auto_vacuum value for INCREMENTAL
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
     
     public SQLiteHandler(EdenCorrections plugin, String databasePath) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.databasePath = databasePath;
-        this.executor = Executors.newFixedThreadPool(4, r -> {
-            Thread t = new Thread(r, "EdenCorrections-DB-Worker");
+        this.readPoolSize = Math.max(1, plugin.getConfigManager().getSQLiteReadConnections());
+        this.readExecutor = Executors.newFixedThreadPool(readPoolSize, r -> {
+            Thread t = new Thread(r, "EdenCorrections-DB-Reader");
             t.setDaemon(true);
             return t;
         });
@@ -58,27 +123,39 @@ public class SQLiteHandler implements DatabaseHandler {
             // Load SQLite driver
             Class.forName("org.sqlite.JDBC");
             
-            // Create connection
+            // Create the writer connection
             String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
-            connection = DriverManager.getConnection(url);
+            Connection connection = DriverManager.getConnection(url);
             
             // Configure connection
             connection.setAutoCommit(true);
             
             // Enable foreign keys and performance optimizations
             try (Statement stmt = connection.createStatement()) {
+                // Takes effect right away on a new database; existing ones switch at the next maintenance
+                stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
                 stmt.execute("PRAGMA foreign_keys = ON");
                 stmt.execute("PRAGMA journal_mode = WAL");
                 stmt.execute("PRAGMA synchronous = NORMAL");
                 stmt.execute("PRAGMA cache_size = 10000");
                 stmt.execute("PRAGMA temp_store = MEMORY");
+                stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
             }
             
             // Create tables
-            createTables();
+            createTables(connection);
             
             // Check and perform migrations if needed
-            checkAndMigrate();
+            checkAndMigrate(connection);
+            
+            // Schema is in place, hand the connection to the writer thread
+            writer = new SQLiteWriter(logger, connection);
+            writer.start();
+            
+            // Open the read-only pool (WAL lets these read while the writer commits)
+            for (int i = 0; i < readPoolSize; i++) {
+                readConnections.add(openReadConnection(url));
+            }
             
             initialized = true;
             logger.info("SQLite database initialized successfully at: " + dbFile.getPath());
@@ -91,12 +168,52 @@ public class SQLiteHandler implements DatabaseHandler {
         }
     }
     
-    private void createTables() throws SQLException {
+    private Connection openReadConnection(String url) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        return DriverManager.getConnection(url, config.toProperties());
+    }
+    
+    // Run a query on a pooled read-only connection
+    private <T> CompletableFuture<T> read(Query<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            Connection connection;
+            try {
+                connection = readConnections.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for a read connection", e);
+            }
+            
+            try {
+                return query.execute(connection);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            } finally {
+                readConnections.add(connection);
+            }
+        }, readExecutor);
+    }
+    
+    // Get a cached prepared statement for a borrowed read connection (don't close it)
+    private PreparedStatement prepareRead(Connection connection, String sql) throws SQLException {
+        Map<String, PreparedStatement> statements = readStatements.computeIfAbsent(connection, key -> new HashMap<>());
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt == null || stmt.isClosed()) {
+            stmt = connection.prepareStatement(sql);
+            statements.put(sql, stmt);
+        }
+        return stmt;
+    }
+    
+    private void createTables(Connection connection) throws SQLException {
         String[] tableCreationSql = {
             // Player data table
             """
             CREATE TABLE IF NOT EXISTS player_data (
-                player_id TEXT PRIMARY KEY,
+                player_id BLOB PRIMARY KEY NOT NULL,
                 player_name TEXT NOT NULL,
                 is_on_duty INTEGER NOT NULL DEFAULT 0,
                 duty_start_time INTEGER NOT NULL DEFAULT 0,
@@ -120,21 +237,22 @@ public class SQLiteHandler implements DatabaseHandler {
                 wanted_expire_time INTEGER NOT NULL DEFAULT 0,
                 wanted_reason TEXT,
                 being_chased INTEGER NOT NULL DEFAULT 0,
-                chaser_guard TEXT,
+                chaser_guard BLOB,
                 chase_start_time INTEGER NOT NULL DEFAULT 0,
                 total_arrests INTEGER NOT NULL DEFAULT 0,
                 total_violations INTEGER NOT NULL DEFAULT 0,
                 total_duty_time INTEGER NOT NULL DEFAULT 0,
-                last_updated INTEGER NOT NULL DEFAULT 0
-            )
+                last_updated INTEGER NOT NULL DEFAULT 0,
+                version INTEGER NOT NULL DEFAULT 0
+            ) WITHOUT ROWID
             """,
             
             // Chase data table
             """
             CREATE TABLE IF NOT EXISTS chase_data (
-                chase_id TEXT PRIMARY KEY,
-                guard_id TEXT NOT NULL,
-                target_id TEXT NOT NULL,
+                chase_id BLOB PRIMARY KEY,
+                guard_id BLOB NOT NULL,
+                target_id BLOB NOT NULL,
                 start_time INTEGER NOT NULL,
                 duration INTEGER NOT NULL,
                 is_active INTEGER NOT NULL DEFAULT 1,
@@ -144,14 +262,48 @@ public class SQLiteHandler implements DatabaseHandler {
             )
             """,
             
+            // Ended chases, append-only; chase_data only keeps live chases
+            """
+            CREATE TABLE IF NOT EXISTS chase_history (
+                chase_id BLOB PRIMARY KEY,
+                guard_id BLOB NOT NULL,
+                target_id BLOB NOT NULL,
+                start_time INTEGER NOT NULL,
+                end_time INTEGER NOT NULL,
+                end_day INTEGER NOT NULL,
+                end_reason TEXT
+            )
+            """,
+            
+            // Ended chases per day (UTC), guard and end reason
+            """
+            CREATE TABLE IF NOT EXISTS chase_rollups (
+                guard_id BLOB NOT NULL,
+                day INTEGER NOT NULL,
+                end_reason TEXT NOT NULL,
+                chase_count INTEGER NOT NULL DEFAULT 0,
+                total_duration INTEGER NOT NULL DEFAULT 0,
+                PRIMARY KEY (guard_id, day, end_reason)
+            ) WITHOUT ROWID
+            """,
+            
             // Player inventory cache table
             """
             CREATE TABLE IF NOT EXISTS player_inventory_cache (
-                player_id TEXT PRIMARY KEY,
-                inventory_data TEXT NOT NULL,
+                player_id BLOB PRIMARY KEY NOT NULL,
+                inventory_data BLOB NOT NULL,
                 cached_at INTEGER NOT NULL DEFAULT 0,
                 FOREIGN KEY (player_id) REFERENCES player_data(player_id) ON DELETE CASCADE
-            )
+            ) WITHOUT ROWID
+            """,
+            
+            // Distinct inventory items, keyed by the SHA-256 of their serialized bytes
+            """
+            CREATE TABLE IF NOT EXISTS inventory_items (
+                item_hash BLOB PRIMARY KEY NOT NULL,
+                item_data BLOB NOT NULL,
+                last_used INTEGER NOT NULL DEFAULT 0
+            ) WITHOUT ROWID
             """,
             
             // Database metadata table
@@ -167,12 +319,25 @@ public class SQLiteHandler implements DatabaseHandler {
             """
             CREATE TABLE IF NOT EXISTS performance_stats (
                 id INTEGER PRIMARY KEY AUTOINCREMENT,
-                player_id TEXT NOT NULL,
+                player_id BLOB NOT NULL,
                 stat_type TEXT NOT NULL,
                 stat_value INTEGER NOT NULL,
                 recorded_at INTEGER NOT NULL DEFAULT 0,
                 FOREIGN KEY (player_id) REFERENCES player_data(player_id) ON DELETE CASCADE
             )
+            """,
+            
+            // Hourly and daily sums of performance_stats, so reports don't scan raw rows
+            """
+            CREATE TABLE IF NOT EXISTS performance_rollups (
+                player_id BLOB NOT NULL,
+                period TEXT NOT NULL,
+                period_start INTEGER NOT NULL,
+                stat_type TEXT NOT NULL,
+                event_count INTEGER NOT NULL DEFAULT 0,
+                total_value INTEGER NOT NULL DEFAULT 0,
+                PRIMARY KEY (player_id, period, period_start, stat_type)
+            ) WITHOUT ROWID
             """
         };
         
@@ -183,18 +348,24 @@ public class SQLiteHandler implements DatabaseHandler {
         }
         
         // Create indexes for performance
-        createIndexes();
+        createIndexes(connection);
     }
     
-    private void createIndexes() throws SQLException {
+    private void createIndexes(Connection connection) throws SQLException {
         String[] indexes = {
-            "CREATE INDEX IF NOT EXISTS idx_player_name ON player_data(player_name)",
+            // Name lookups are case-insensitive, a plain BINARY index can't serve them
+            "DROP INDEX IF EXISTS idx_player_name",
+            "CREATE INDEX IF NOT EXISTS idx_player_name_nocase ON player_data(player_name COLLATE NOCASE)",
             "CREATE INDEX IF NOT EXISTS idx_player_duty ON player_data(is_on_duty)",
             "CREATE INDEX IF NOT EXISTS idx_player_wanted ON player_data(wanted_level)",
             "CREATE INDEX IF NOT EXISTS idx_chase_guard ON chase_data(guard_id)",
             "CREATE INDEX IF NOT EXISTS idx_chase_target ON chase_data(target_id)",
             "CREATE INDEX IF NOT EXISTS idx_chase_active ON chase_data(is_active)",
             "CREATE INDEX IF NOT EXISTS idx_chase_cleanup ON chase_data(is_active, end_time)",
+            "CREATE INDEX IF NOT EXISTS idx_history_day ON chase_history(end_day)",
+            "CREATE INDEX IF NOT EXISTS idx_history_guard ON chase_history(guard_id, end_day)",
+            "CREATE INDEX IF NOT EXISTS idx_history_target ON chase_history(target_id, end_day)",
+            "CREATE INDEX IF NOT EXISTS idx_inventory_cached ON player_inventory_cache(cached_at)",
             "CREATE INDEX IF NOT EXISTS idx_performance_player ON performance_stats(player_id)",
             "CREATE INDEX IF NOT EXISTS idx_performance_type ON performance_stats(stat_type)",
             "CREATE INDEX IF NOT EXISTS idx_performance_time ON performance_stats(recorded_at)"
@@ -207,19 +378,19 @@ public class SQLiteHandler implements DatabaseHandler {
         }
     }
     
-    private void checkAndMigrate() throws SQLException {
+    private void checkAndMigrate(Connection connection) throws SQLException {
         // Check current schema version
-        int currentVersion = getSchemaVersion();
+        int currentVersion = getSchemaVersion(connection);
         
         if (currentVersion < SCHEMA_VERSION) {
             logger.info("Database schema outdated. Performing migration from version " + 
                        currentVersion + " to " + SCHEMA_VERSION);
-            performMigration(currentVersion);
-            setSchemaVersion(SCHEMA_VERSION);
+            performMigration(connection, currentVersion);
+            setSchemaVersion(connection, SCHEMA_VERSION);
         }
     }
     
-    private int getSchemaVersion() throws SQLException {
+    private int getSchemaVersion(Connection connection) throws SQLException {
         String sql = "SELECT value FROM database_metadata WHERE key = ?";
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, "schema_version");
@@ -233,7 +404,7 @@ public class SQLiteHandler implements DatabaseHandler {
         return 0;
     }
     
-    private void setSchemaVersion(int version) throws SQLException {
+    private void setSchemaVersion(Connection connection, int version) throws SQLException {
         String sql = """
             INSERT OR REPLACE INTO database_metadata (key, value, updated_at) 
             VALUES (?, ?, ?)
@@ -246,58 +417,223 @@ public class SQLiteHandler implements DatabaseHandler {
         }
     }
     
-    private void performMigration(int fromVersion) throws SQLException {
-        // Future migrations would go here
-        logger.info("No migrations needed from version " + fromVersion);
+    /**
+     * Bring an older schema up to date one version step at a time, recording the
+     * version after each step so an interrupted startup resumes where it stopped.
+     * This is an offline migration: it runs in {@link #initialize()} before the writer
+     * and read pool exist, so nothing else can read or write until it is done. Tables
+     * and indexes added by later versions are created by {@link #createTables}.
+     */
+    private void performMigration(Connection connection, int fromVersion) throws SQLException {
+        // A new database is created with the current schema, only v1 files have TEXT keys
+        if (fromVersion < 2 && hasTextUuidKeys(connection)) {
+            migrateToBinaryUuids(connection);
+            setSchemaVersion(connection, 2);
+        }
+        
+        // v3 needs no data changes here: a TEXT column stores BLOB values as they are,
+        // and legacy JSON inventories are still read. v4-v6 only add tables.
+        
+        if (fromVersion < 7 && !hasColumn(connection, "player_data", "version")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("ALTER TABLE player_data ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+            }
+            logger.info("Added player_data.version");
+        }
+    }
+    
+    private boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equals(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private boolean hasTextUuidKeys(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(player_data)")) {
+            while (rs.next()) {
+                if ("player_id".equals(rs.getString("name"))) {
+                    return "TEXT".equalsIgnoreCase(rs.getString("type"));
+                }
+            }
+        }
+        return false;
     }
     
-    // Get cached prepared statement or create new one
-    private PreparedStatement getPreparedStatement(String sql) throws SQLException {
-        return statementCache.computeIfAbsent(sql, k -> {
+    /**
+     * Schema v1 -> v2. Runs at startup before the writer and read pool are opened,
+     * in a single transaction: the v1 tables are renamed aside, the v2 tables are
+     * created and filled with the UUIDs converted to 16 bytes, then the v1 tables
+     * are dropped. Any failure rolls back to the untouched v1 tables. The pages of
+     * the dropped tables are left on the free list for the maintenance space
+     * reclaim to hand back, so startup doesn't wait for a full VACUUM.
+     */
+    private void migrateToBinaryUuids(Connection connection) throws SQLException {
+        long startTime = System.currentTimeMillis();
+        long sizeBefore = getDatabaseSize(connection);
+        double lookupBefore = measurePlayerLookup(connection);
+        int players = 0;
+        
+        try (Statement stmt = connection.createStatement()) {
+            // Foreign keys can't be checked while parent and child tables are swapped
+            stmt.execute("PRAGMA foreign_keys = OFF");
+            connection.setAutoCommit(false);
+            
             try {
-                return connection.prepareStatement(k);
+                for (String[] table : UUID_COLUMNS) {
+                    stmt.execute("ALTER TABLE " + table[0] + " RENAME TO " + table[0] + "_v1");
+                }
+                
+                createTables(connection);
+                
+                for (String[] table : UUID_COLUMNS) {
+                    int copied = copyWithBinaryUuids(connection, table);
+                    if (table[0].equals("player_data")) {
+                        players = copied;
+                    }
+                }
+                
+                // Dropping the v1 tables also drops their indexes, which frees the index names
+                for (int i = UUID_COLUMNS.length - 1; i >= 0; i--) {
+                    stmt.execute("DROP TABLE " + UUID_COLUMNS[i][0] + "_v1");
+                }
+                createIndexes(connection);
+                
+                connection.commit();
             } catch (SQLException e) {
-                logger.warning("Failed to create prepared statement: " + e.getMessage());
-                return null;
+                logger.severe("Schema v2 migration failed, keeping v1 schema: " + e.getMessage());
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+                stmt.execute("PRAGMA foreign_keys = ON");
             }
-        });
+        }
+        
+        long sizeAfter = getDatabaseSize(connection);
+        double lookupAfter = measurePlayerLookup(connection);
+        
+        logger.info(String.format(
+            "Schema v2 migration finished in %dms (%d players): data size %d KB -> %d KB, " +
+            "player lookup %.1f us -> %.1f us",
+            System.currentTimeMillis() - startTime, players, sizeBefore / 1024, sizeAfter / 1024,
+            lookupBefore, lookupAfter));
+    }
+    
+    // Copy one v1 table into its v2 replacement, converting the UUID columns
+    private int copyWithBinaryUuids(Connection connection, String[] table) throws SQLException {
+        Set<String> uuidColumns = new HashSet<>(Arrays.asList(table).subList(1, table.length));
+        StringJoiner columns = new StringJoiner(", ");
+        StringJoiner values = new StringJoiner(", ");
+        
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table[0] + "_v1)")) {
+            while (rs.next()) {
+                String column = rs.getString("name");
+                columns.add(column);
+                values.add(uuidColumns.contains(column) ? "unhex(replace(" + column + ", '-', ''))" : column);
+            }
+        }
+        
+        try (Statement stmt = connection.createStatement()) {
+            return stmt.executeUpdate("INSERT INTO " + table[0] + " (" + columns + ") SELECT " + values +
+                                      " FROM " + table[0] + "_v1");
+        }
+    }
+    
+    // Size of the pages in use; free pages are not counted
+    private long getDatabaseSize(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            long usedPages = queryPragma(stmt, "page_count") - queryPragma(stmt, "freelist_count");
+            return usedPages * queryPragma(stmt, "page_size");
+        }
+    }
+    
+    // Average primary key lookup time in microseconds over a sample of stored players
+    private double measurePlayerLookup(Connection connection) throws SQLException {
+        List<Object> keys = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT player_id FROM player_data LIMIT " + LOOKUP_SAMPLE_SIZE)) {
+            while (rs.next()) {
+                keys.add(rs.getObject(1));
+            }
+        }
+        if (keys.isEmpty()) {
+            return 0.0;
+        }
+        
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT * FROM player_data WHERE player_id = ?")) {
+            for (Object key : keys) {
+                stmt.setObject(1, key);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                }
+            }
+        }
+        return (System.nanoTime() - start) / 1000.0 / keys.size();
     }
     
     @Override
     public void close() {
+        // Let queued writes finish before closing the writer connection
+        if (writer != null) {
+            writer.shutdown(30000);
+        }
+        
+        readExecutor.shutdown();
         try {
-            // Close all prepared statements
-            for (PreparedStatement stmt : statementCache.values()) {
-                if (stmt != null && !stmt.isClosed()) {
+            readExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        for (Map<String, PreparedStatement> statements : readStatements.values()) {
+            for (PreparedStatement stmt : statements.values()) {
+                try {
                     stmt.close();
+                } catch (SQLException e) {
+                    logger.warning("Error closing SQLite read statement: " + e.getMessage());
                 }
             }
-            statementCache.clear();
-            
-            if (connection != null && !connection.isClosed()) {
+        }
+        readStatements.clear();
+        
+        Connection connection;
+        while ((connection = readConnections.poll()) != null) {
+            try {
                 connection.close();
+            } catch (SQLException e) {
+                logger.warning("Error closing SQLite read connection: " + e.getMessage());
             }
-            executor.shutdown();
-            logger.info("SQLite database connection closed");
-        } catch (SQLException e) {
-            logger.warning("Error closing SQLite database: " + e.getMessage());
         }
+        
+        logger.info("SQLite database connection closed");
         initialized = false;
     }
     
     @Override
     public boolean isConnected() {
-        try {
-            return connection != null && !connection.isClosed() && initialized;
-        } catch (SQLException e) {
-            return false;
-        }
+        return initialized && writer != null && writer.isRunning();
     }
     
     @Override
     public boolean testConnection() {
+        if (!isConnected()) return false;
+        
+        Connection connection = null;
         try {
-            if (!isConnected()) return false;
+            connection = readConnections.poll(5, TimeUnit.SECONDS);
+            if (connection == null) {
+                logger.warning("Database connection test failed: no read connection available");
+                return false;
+            }
             
             try (Statement stmt = connection.createStatement()) {
                 stmt.execute("SELECT 1");
@@ -306,115 +642,87 @@ public class SQLiteHandler implements DatabaseHandler {
         } catch (SQLException e) {
             logger.warning("Database connection test failed: " + e.getMessage());
             return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            if (connection != null) {
+                readConnections.add(connection);
+            }
+        }
+    }
+    
+    /**
+     * @return writer queue and read pool statistics for diagnostics
+     */
+    public Map<String, Object> getEngineStatistics() {
+        Map<String, Object> stats = new ConcurrentHashMap<>();
+        if (writer != null) {
+            stats.put("sqliteQueuedWrites", writer.getQueuedWrites());
+            stats.put("sqliteCompletedWrites", writer.getCompletedWrites());
+            stats.put("sqliteFailedWrites", writer.getFailedWrites());
+            stats.put("sqliteWritesPerTransaction", String.format("%.2f", writer.getAverageGroupSize()));
         }
+        stats.put("playerWritesSuperseded", supersededWrites.get());
+        stats.put("sqliteReadConnections", readPoolSize);
+        stats.put("sqliteIdleReadConnections", readConnections.size());
+        return stats;
     }
     
     // === PLAYER DATA OPERATIONS ===
     
     @Override
-    public CompletableFuture<Void> savePlayerData(PlayerData playerData) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT OR REPLACE INTO player_data (
-                    player_id, player_name, is_on_duty, duty_start_time, off_duty_time, 
-                    grace_debt_time, guard_rank, earned_off_duty_time, has_earned_base_time, 
-                    has_been_notified_expired, session_searches, session_successful_searches, 
-                    session_arrests, session_kills, session_detections, penalty_start_time,
-                    current_penalty_stage, last_penalty_time, last_slowness_application,
-                    has_active_penalty_boss_bar, wanted_level, wanted_expire_time, wanted_reason, 
-                    being_chased, chaser_guard, chase_start_time, total_arrests, total_violations, 
-                    total_duty_time, last_updated
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-            
-            try {
-                PreparedStatement stmt = getPreparedStatement(sql);
-                synchronized (stmt) {
-                    stmt.setString(1, playerData.getPlayerId().toString());
-                    stmt.setString(2, playerData.getPlayerName());
-                    stmt.setInt(3, playerData.isOnDuty() ? 1 : 0);
-                    stmt.setLong(4, playerData.getDutyStartTime());
-                    stmt.setLong(5, playerData.getOffDutyTime());
-                    stmt.setLong(6, playerData.getGraceDebtTime());
-                    stmt.setString(7, playerData.getGuardRank());
-                    stmt.setLong(8, playerData.getEarnedOffDutyTime());
-                    stmt.setInt(9, playerData.hasEarnedBaseTime() ? 1 : 0);
-                    stmt.setInt(10, playerData.hasBeenNotifiedOfExpiredTime() ? 1 : 0);
-                    stmt.setInt(11, playerData.getSessionSearches());
-                    stmt.setInt(12, playerData.getSessionSuccessfulSearches());
-                    stmt.setInt(13, playerData.getSessionArrests());
-                    stmt.setInt(14, playerData.getSessionKills());
-                    stmt.setInt(15, playerData.getSessionDetections());
-                    stmt.setLong(16, playerData.getPenaltyStartTime());
-                    stmt.setInt(17, playerData.getCurrentPenaltyStage());
-                    stmt.setLong(18, playerData.getLastPenaltyTime());
-                    stmt.setLong(19, playerData.getLastSlownessApplication());
-                    stmt.setInt(20, playerData.hasActivePenaltyBossBar() ? 1 : 0);
-                    stmt.setInt(21, playerData.getWantedLevel());
-                    stmt.setLong(22, playerData.getWantedExpireTime());
-                    stmt.setString(23, playerData.getWantedReason());
-                    stmt.setInt(24, playerData.isBeingChased() ? 1 : 0);
-                    stmt.setString(25, playerData.getChaserGuard() != null ? playerData.getChaserGuard().toString() : null);
-                    stmt.setLong(26, playerData.getChaseStartTime());
-                    stmt.setInt(27, playerData.getTotalArrests());
-                    stmt.setInt(28, playerData.getTotalViolations());
-                    stmt.setLong(29, playerData.getTotalDutyTime());
-                    stmt.setLong(30, System.currentTimeMillis());
-                    
-                    stmt.executeUpdate();
-                }
-            } catch (SQLException e) {
-                logger.severe("Failed to save player data for " + playerData.getPlayerName() + ": " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
+    public CompletableFuture<Map<UUID, Long>> savePlayerData(PlayerDataSnapshot snapshot) {
+        return batchSavePlayerData(Collections.singletonList(snapshot));
     }
     
     @Override
     public CompletableFuture<PlayerData> loadPlayerData(UUID playerId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return read(connection -> {
             String sql = "SELECT * FROM player_data WHERE player_id = ?";
             
             try {
-                PreparedStatement stmt = getPreparedStatement(sql);
-                synchronized (stmt) {
-                    stmt.setString(1, playerId.toString());
-                    ResultSet rs = stmt.executeQuery();
-                    
+                PreparedStatement stmt = prepareRead(connection, sql);
+                UuidCodec.bind(stmt, 1, playerId);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
                         return mapResultSetToPlayerData(rs);
                     }
-                    return null;
                 }
+                return null;
             } catch (SQLException e) {
                 logger.severe("Failed to load player data for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
     @Override
     public CompletableFuture<PlayerData> loadPlayerDataByName(String playerName) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM player_data WHERE player_name = ? COLLATE NOCASE";
+        return read(connection -> {
+            // Served by idx_player_name_nocase; most recently updated record wins after a rename
+            String sql = "SELECT * FROM player_data WHERE player_name = ? COLLATE NOCASE ORDER BY last_updated DESC LIMIT 1";
             
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try {
+                PreparedStatement stmt = prepareRead(connection, sql);
                 stmt.setString(1, playerName);
-                ResultSet rs = stmt.executeQuery();
                 
-                if (rs.next()) {
-                    return mapResultSetToPlayerData(rs);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return mapResultSetToPlayerData(rs);
+                    }
                 }
                 return null;
             } catch (SQLException e) {
                 logger.severe("Failed to load player data for " + playerName + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
     private PlayerData mapResultSetToPlayerData(ResultSet rs) throws SQLException {
-        UUID playerId = UUID.fromString(rs.getString("player_id"));
+        UUID playerId = UuidCodec.read(rs, "player_id");
         String playerName = rs.getString("player_name");
         
         PlayerData data = new PlayerData(playerId, playerName);
@@ -452,10 +760,7 @@ public class SQLiteHandler implements DatabaseHandler {
         
         // Set chase information
         data.setBeingChased(rs.getInt("being_chased") == 1);
-        String chaserGuardStr = rs.getString("chaser_guard");
-        if (chaserGuardStr != null) {
-            data.setChaserGuard(UUID.fromString(chaserGuardStr));
-        }
+        data.setChaserGuard(UuidCodec.read(rs, "chaser_guard"));
         data.setChaseStartTime(rs.getLong("chase_start_time"));
         
         // Set statistics
@@ -463,12 +768,15 @@ public class SQLiteHandler implements DatabaseHandler {
         data.setTotalViolations(rs.getInt("total_violations"));
         data.setTotalDutyTime(rs.getLong("total_duty_time"));
         
+        // Freshly loaded, nothing to write back yet
+        data.markPersisted(rs.getLong("version"));
+        
         return data;
     }
     
     @Override
     public CompletableFuture<List<PlayerData>> loadAllPlayerData() {
-        return CompletableFuture.supplyAsync(() -> {
+        return read(connection -> {
             List<PlayerData> playerDataList = new ArrayList<>();
             String sql = "SELECT * FROM player_data ORDER BY player_name";
             
@@ -484,29 +792,71 @@ public class SQLiteHandler implements DatabaseHandler {
             }
             
             return playerDataList;
-        }, executor);
+        });
+    }
+    
+    @Override
+    public CompletableFuture<List<PlayerData>> loadActivePlayerData(long currentTime) {
+        return read(connection -> {
+            List<PlayerData> playerDataList = new ArrayList<>();
+            String sql = "SELECT * FROM player_data WHERE (wanted_level > 0 AND wanted_expire_time > ?) OR being_chased = 1";
+            
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setLong(1, currentTime);
+                ResultSet rs = stmt.executeQuery();
+                
+                while (rs.next()) {
+                    playerDataList.add(mapResultSetToPlayerData(rs));
+                }
+            } catch (SQLException e) {
+                logger.severe("Failed to load active player data: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+            
+            return playerDataList;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Map<UUID, String>> loadPlayerNames() {
+        return read(connection -> {
+            Map<UUID, String> names = new LinkedHashMap<>();
+            String sql = "SELECT player_id, player_name FROM player_data ORDER BY last_updated";
+            
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    names.put(UuidCodec.read(rs, "player_id"), rs.getString("player_name"));
+                }
+            } catch (SQLException e) {
+                logger.severe("Failed to load player names: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+            
+            return names;
+        });
     }
     
     @Override
     public CompletableFuture<Void> deletePlayerData(UUID playerId) {
-        return CompletableFuture.runAsync(() -> {
+        return writer.submit(connection -> {
             String sql = "DELETE FROM player_data WHERE player_id = ?";
             
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
+                UuidCodec.bind(stmt, 1, playerId);
                 stmt.executeUpdate();
             } catch (SQLException e) {
                 logger.severe("Failed to delete player data for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
     // === CHASE DATA OPERATIONS ===
     
     @Override
     public CompletableFuture<Void> saveChaseData(ChaseData chaseData) {
-        return CompletableFuture.runAsync(() -> {
+        return writer.submit(connection -> {
             String sql = """
                 INSERT OR REPLACE INTO chase_data (
                     chase_id, guard_id, target_id, start_time, duration, is_active, 
@@ -515,9 +865,9 @@ public class SQLiteHandler implements DatabaseHandler {
                 """;
             
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, chaseData.getChaseId().toString());
-                stmt.setString(2, chaseData.getGuardId().toString());
-                stmt.setString(3, chaseData.getTargetId().toString());
+                UuidCodec.bind(stmt, 1, chaseData.getChaseId());
+                UuidCodec.bind(stmt, 2, chaseData.getGuardId());
+                UuidCodec.bind(stmt, 3, chaseData.getTargetId());
                 stmt.setLong(4, chaseData.getStartTime());
                 stmt.setLong(5, chaseData.getDuration());
                 stmt.setInt(6, chaseData.isActive() ? 1 : 0);
@@ -530,16 +880,16 @@ public class SQLiteHandler implements DatabaseHandler {
                 logger.severe("Failed to save chase data: " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
     @Override
     public CompletableFuture<ChaseData> loadChaseData(UUID chaseId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return read(connection -> {
             String sql = "SELECT * FROM chase_data WHERE chase_id = ?";
             
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, chaseId.toString());
+                UuidCodec.bind(stmt, 1, chaseId);
                 ResultSet rs = stmt.executeQuery();
                 
                 if (rs.next()) {
@@ -550,28 +900,23 @@ public class SQLiteHandler implements DatabaseHandler {
                 logger.severe("Failed to load chase data for " + chaseId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
     private ChaseData mapResultSetToChaseData(ResultSet rs) throws SQLException {
-        UUID chaseId = UUID.fromString(rs.getString("chase_id"));
-        UUID guardId = UUID.fromString(rs.getString("guard_id"));
-        UUID targetId = UUID.fromString(rs.getString("target_id"));
+        UUID chaseId = UuidCodec.read(rs, "chase_id");
+        UUID guardId = UuidCodec.read(rs, "guard_id");
+        UUID targetId = UuidCodec.read(rs, "target_id");
         long startTime = rs.getLong("start_time");
         long duration = rs.getLong("duration");
         
-        ChaseData chaseData = new ChaseData(chaseId, guardId, targetId, duration);
-        
-        if (rs.getInt("is_active") == 0) {
-            chaseData.endChase(rs.getString("end_reason"));
-        }
-        
-        return chaseData;
+        return new ChaseData(chaseId, guardId, targetId, startTime, duration,
+                             rs.getInt("is_active") == 1, rs.getString("end_reason"), rs.getLong("end_time"));
     }
     
     @Override
     public CompletableFuture<List<ChaseData>> loadAllActiveChases() {
-        return CompletableFuture.supplyAsync(() -> {
+        return read(connection -> {
             List<ChaseData> chaseDataList = new ArrayList<>();
             String sql = "SELECT * FROM chase_data WHERE is_active = 1 ORDER BY start_time DESC";
             
@@ -587,1076 +932,634 @@ public class SQLiteHandler implements DatabaseHandler {
             }
             
             return chaseDataList;
-        }, executor);
+        });
     }
     
     @Override
     public CompletableFuture<Void> deleteChaseData(UUID chaseId) {
-        return CompletableFuture.runAsync(() -> {
+        return writer.submit(connection -> {
             String sql = "DELETE FROM chase_data WHERE chase_id = ?";
             
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, chaseId.toString());
+                UuidCodec.bind(stmt, 1, chaseId);
                 stmt.executeUpdate();
             } catch (SQLException e) {
                 logger.severe("Failed to delete chase data for " + chaseId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
     @Override
     public CompletableFuture<Void> cleanupExpiredChases() {
-        return CompletableFuture.runAsync(() -> {
-            // Delete chases older than 24 hours
-            long cutoffTime = System.currentTimeMillis() - (24 * 60 * 60 * 1000);
-            String sql = "DELETE FROM chase_data WHERE is_active = 0 AND end_time < ?";
+        return writer.submit(connection -> {
+            List<ChaseData> ended = new ArrayList<>();
             
             try {
-                PreparedStatement stmt = getPreparedStatement(sql);
-                synchronized (stmt) {
-                    stmt.setLong(1, cutoffTime);
-                    int deleted = stmt.executeUpdate();
-                    
-                    if (deleted > 0) {
-                        logger.info("Cleaned up " + deleted + " expired chase records");
+                PreparedStatement select = writer.prepare("SELECT * FROM chase_data WHERE is_active = 0");
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        ended.add(mapResultSetToChaseData(rs));
                     }
                 }
+                
+                if (!ended.isEmpty()) {
+                    writeChaseHistory(ended);
+                    logger.info("Moved " + ended.size() + " ended chases to the chase history");
+                }
             } catch (SQLException e) {
                 logger.severe("Failed to cleanup expired chases: " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
-    // === INVENTORY OPERATIONS ===
+    // === CHASE HISTORY OPERATIONS ===
     
     @Override
-    public CompletableFuture<Void> savePlayerInventory(UUID playerId, String inventoryData) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT OR REPLACE INTO player_inventory_cache (player_id, inventory_data, cached_at) 
-                VALUES (?, ?, ?)
-                """;
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
-                stmt.setString(2, inventoryData);
-                stmt.setLong(3, System.currentTimeMillis());
-                stmt.executeUpdate();
+    public CompletableFuture<Void> archiveChases(List<ChaseData> chases) {
+        if (chases.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<ChaseData> batch = new ArrayList<>(chases);
+        return writer.submit(connection -> {
+            try {
+                writeChaseHistory(batch);
             } catch (SQLException e) {
-                logger.severe("Failed to save player inventory for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to archive " + batch.size() + " chases: " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
+    }
+    
+    // Runs on the writer thread, inside the writer's transaction
+    private void writeChaseHistory(List<ChaseData> chases) throws SQLException {
+        ChaseHistoryBatch batch = new ChaseHistoryBatch(chases);
+        batch.skipArchived(writer.prepare(ChaseHistoryBatch.ARCHIVED_SQL));
+        
+        PreparedStatement history = writer.prepare("""
+            INSERT OR IGNORE INTO chase_history (
+                chase_id, guard_id, target_id, start_time, end_time, end_day, end_reason
+            ) VALUES (?, ?, ?, ?, ?, ?, ?)
+            """);
+        for (ChaseData chase : batch.getChases()) {
+            batch.bindHistory(history, chase);
+            history.addBatch();
+        }
+        history.executeBatch();
+        
+        PreparedStatement rollups = writer.prepare("""
+            INSERT INTO chase_rollups (day, guard_id, end_reason, chase_count, total_duration)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT(guard_id, day, end_reason) DO UPDATE SET
+                chase_count = chase_count + excluded.chase_count,
+                total_duration = total_duration + excluded.total_duration
+            """);
+        for (ChaseHistoryBatch.Rollup rollup : batch.getRollups()) {
+            ChaseHistoryBatch.bindRollup(rollups, rollup);
+            rollups.addBatch();
+        }
+        rollups.executeBatch();
+        
+        PreparedStatement delete = writer.prepare("DELETE FROM chase_data WHERE chase_id = ?");
+        for (ChaseData chase : chases) {
+            UuidCodec.bind(delete, 1, chase.getChaseId());
+            delete.addBatch();
+        }
+        delete.executeBatch();
     }
     
     @Override
-    public CompletableFuture<String> loadPlayerInventory(UUID playerId) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT inventory_data FROM player_inventory_cache WHERE player_id = ?";
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
-                ResultSet rs = stmt.executeQuery();
-                
-                if (rs.next()) {
-                    return rs.getString("inventory_data");
-                }
-                return null;
+    public CompletableFuture<Integer> purgeChaseHistory(long cutoffTime) {
+        long cutoffDay = ChaseRollup.toDay(cutoffTime);
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        purgeChaseHistoryChunks(cutoffDay, 0, result);
+        return result;
+    }
+    
+    // One chunk per writer task, so live writes queue between chunks instead of behind the whole purge
+    private void purgeChaseHistoryChunks(long cutoffDay, int deletedSoFar, CompletableFuture<Integer> result) {
+        int[] deleted = new int[1];
+        writer.submit(connection -> {
+            try {
+                PreparedStatement stmt = writer.prepare("""
+                    DELETE FROM chase_history WHERE rowid IN (
+                        SELECT rowid FROM chase_history WHERE end_day < ? LIMIT ?
+                    )
+                    """);
+                stmt.setLong(1, cutoffDay);
+                stmt.setInt(2, HISTORY_PURGE_CHUNK);
+                deleted[0] = stmt.executeUpdate();
             } catch (SQLException e) {
-                logger.severe("Failed to load player inventory for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to purge chase history: " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        }).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else if (deleted[0] >= HISTORY_PURGE_CHUNK) {
+                purgeChaseHistoryChunks(cutoffDay, deletedSoFar + deleted[0], result);
+            } else {
+                result.complete(deletedSoFar + deleted[0]);
+            }
+        });
     }
     
     @Override
-    public CompletableFuture<Void> deletePlayerInventory(UUID playerId) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "DELETE FROM player_inventory_cache WHERE player_id = ?";
+    public CompletableFuture<List<ChaseRollup>> loadChaseRollups(UUID guardId, long sinceTime) {
+        return read(connection -> {
+            List<ChaseRollup> rollups = new ArrayList<>();
+            String sql = """
+                SELECT day, end_reason, chase_count, total_duration FROM chase_rollups
+                WHERE guard_id = ? AND day >= ? ORDER BY day DESC, chase_count DESC
+                """;
             
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
-                stmt.executeUpdate();
+            try {
+                PreparedStatement stmt = prepareRead(connection, sql);
+                UuidCodec.bind(stmt, 1, guardId);
+                stmt.setLong(2, ChaseRollup.toDay(sinceTime));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rollups.add(new ChaseRollup(rs.getLong("day"), rs.getString("end_reason"),
+                                                    rs.getInt("chase_count"), rs.getLong("total_duration")));
+                    }
+                }
             } catch (SQLException e) {
-                logger.severe("Failed to delete player inventory for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to load chase roll-ups for " + guardId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+            
+            return rollups;
+        });
     }
     
+    // === PERFORMANCE TELEMETRY OPERATIONS ===
+    
     @Override
-    public CompletableFuture<List<UUID>> getPlayersWithStoredInventory() {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT player_id FROM player_inventory_cache";
-            List<UUID> playerIds = new ArrayList<>();
-            
-            try (Statement stmt = connection.createStatement();
-                 ResultSet rs = stmt.executeQuery(sql)) {
-                
-                while (rs.next()) {
-                    try {
-                        UUID playerId = UUID.fromString(rs.getString("player_id"));
-                        playerIds.add(playerId);
-                    } catch (IllegalArgumentException e) {
-                        logger.warning("Invalid UUID in inventory cache: " + rs.getString("player_id"));
-                    }
-                }
-            } catch (SQLException e) {
-                logger.severe("Failed to get players with stored inventory: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-            
-            return playerIds;
-        }, executor);
-    }
-    
-    // === MAINTENANCE AND STATISTICS ===
-    
-    @Override
-    public CompletableFuture<Void> performMaintenance() {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                // Clean up expired chases
-                cleanupExpiredChases().get();
-                
-                // Clean up old inventory cache (older than 7 days)
-                long cutoffTime = System.currentTimeMillis() - (7 * 24 * 60 * 60 * 1000);
-                String sql = "DELETE FROM player_inventory_cache WHERE cached_at < ?";
-                
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    stmt.setLong(1, cutoffTime);
-                    int deleted = stmt.executeUpdate();
-                    
-                    if (deleted > 0) {
-                        logger.info("Cleaned up " + deleted + " old inventory cache entries");
-                    }
-                }
-                
-                // Attempt to vacuum database for performance (with safety checks)
-                attemptVacuum();
-                
-                // Update maintenance timestamp
-                setSchemaVersion(SCHEMA_VERSION);
-                
-                logger.info("Database maintenance completed successfully");
-                
-            } catch (Exception e) {
-                logger.severe("Database maintenance failed: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    /**
-     * Attempts to vacuum the database with safety checks to prevent conflicts
-     */
-    private void attemptVacuum() {
-        if (!plugin.getConfigManager().isDatabaseVacuumEnabled()) {
-            logger.warning("VACUUM operation is disabled in configuration");
-            return;
-        }
-        
-        logger.info("Starting VACUUM operation on SQLite database...");
-        
-        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + databasePath)) {
-            // Set a timeout for the vacuum operation
-            int timeout = plugin.getConfigManager().getDatabaseVacuumTimeout();
-            
-            // Set busy timeout
-            try (Statement stmt = conn.createStatement()) {
-                stmt.execute("PRAGMA busy_timeout = " + timeout);
-            }
-            
-            // Check if database is busy by attempting to get a lock
-            try {
-                // Try to get an exclusive lock
-                try (Statement stmt = conn.createStatement()) {
-                    stmt.execute("BEGIN EXCLUSIVE");
-                    stmt.execute("ROLLBACK");
-                }
-            } catch (SQLException e) {
-                if (e.getMessage().contains("database is locked") || 
-                    e.getMessage().contains("busy")) {
-                    logger.warning("Database is busy, skipping VACUUM operation");
-                    return;
-                }
-            }
-            
-            // Try to vacuum with the configured timeout
-            try (Statement stmt = conn.createStatement()) {
-                stmt.execute("VACUUM");
-                logger.info("Database VACUUM completed successfully");
-            }
-            
-        } catch (SQLException e) {
-            if (e.getMessage().contains("database is locked") || 
-                e.getMessage().contains("cannot VACUUM") ||
-                e.getMessage().contains("SQL statements in progress") ||
-                e.getMessage().contains("busy")) {
-                logger.warning("Database is busy, skipping VACUUM operation: " + e.getMessage());
-            } else {
-                logger.warning("VACUUM operation failed: " + e.getMessage());
-            }
+    public CompletableFuture<Void> recordPerformanceStats(List<TelemetryBuffer.Event> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
         }
-    }
-    
-    @Override
-    public CompletableFuture<DatabaseStats> getStatistics() {
-        return CompletableFuture.supplyAsync(() -> {
+        PerformanceStatsBatch batch = new PerformanceStatsBatch(events);
+        return writer.submit(connection -> {
             try {
-                int totalPlayers = 0;
-                int activeChases = 0;
-                int cachedInventories = 0;
-                long databaseSize = 0;
-                
-                // Count total players
-                try (Statement stmt = connection.createStatement()) {
-                    ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM player_data");
-                    if (rs.next()) {
-                        totalPlayers = rs.getInt(1);
-                    }
-                }
-                
-                // Count active chases
-                try (Statement stmt = connection.createStatement()) {
-                    ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM chase_data WHERE is_active = 1");
-                    if (rs.next()) {
-                        activeChases = rs.getInt(1);
-                    }
-                }
-                
-                // Count cached inventories
-                try (Statement stmt = connection.createStatement()) {
-                    ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM player_inventory_cache");
-                    if (rs.next()) {
-                        cachedInventories = rs.getInt(1);
-                    }
-                }
-                
-                // Get database size
-                File dbFile = new File(plugin.getDataFolder(), databasePath);
-                if (dbFile.exists()) {
-                    databaseSize = dbFile.length();
+                int size = batch.getEvents().size();
+                int from = 0;
+                for (; from + PerformanceStatsBatch.INSERT_CHUNK <= size; from += PerformanceStatsBatch.INSERT_CHUNK) {
+                    PreparedStatement stmt = writer.prepare(PerformanceStatsBatch.getInsertSql(PerformanceStatsBatch.INSERT_CHUNK));
+                    batch.bindInsert(stmt, from, from + PerformanceStatsBatch.INSERT_CHUNK);
+                    stmt.executeUpdate();
                 }
-                
-                return new DatabaseStats(totalPlayers, activeChases, cachedInventories, 
-                                       databaseSize, "SQLite", System.currentTimeMillis());
-                
-            } catch (SQLException e) {
-                logger.severe("Failed to get database statistics: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    @Override
-    public CompletableFuture<Void> createBackup(String backupPath) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                File dbFile = new File(plugin.getDataFolder(), databasePath);
-                Path backupFilePath = Paths.get(backupPath);
-                
-                // Ensure backup directory exists
-                Files.createDirectories(backupFilePath.getParent());
-                
-                // Copy database file
-                Files.copy(dbFile.toPath(), backupFilePath);
-                
-                logger.info("Database backup created at: " + backupPath);
-                
-            } catch (IOException e) {
-                logger.severe("Failed to create database backup: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    // === BATCH OPERATIONS ===
-    
-    @Override
-    public CompletableFuture<Void> batchSavePlayerData(List<PlayerData> playerDataList) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT OR REPLACE INTO player_data (
-                    player_id, player_name, is_on_duty, duty_start_time, off_duty_time, 
-                    grace_debt_time, guard_rank, earned_off_duty_time, has_earned_base_time, 
-                    has_been_notified_expired, session_searches, session_successful_searches, 
-                    session_arrests, session_kills, session_detections, wanted_level, 
-                    wanted_expire_time, wanted_reason, being_chased, chaser_guard, 
-                    chase_start_time, total_arrests, total_violations, total_duty_time, last_updated
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-            
-            try {
-                connection.setAutoCommit(false);
-                
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    for (PlayerData playerData : playerDataList) {
-                        stmt.setString(1, playerData.getPlayerId().toString());
-                        stmt.setString(2, playerData.getPlayerName());
-                        stmt.setInt(3, playerData.isOnDuty() ? 1 : 0);
-                        stmt.setLong(4, playerData.getDutyStartTime());
-                        stmt.setLong(5, playerData.getOffDutyTime());
-                        stmt.setLong(6, playerData.getGraceDebtTime());
-                        stmt.setString(7, playerData.getGuardRank());
-                        stmt.setLong(8, playerData.getEarnedOffDutyTime());
-                        stmt.setInt(9, playerData.hasEarnedBaseTime() ? 1 : 0);
-                        stmt.setInt(10, playerData.hasBeenNotifiedOfExpiredTime() ? 1 : 0);
-                        stmt.setInt(11, playerData.getSessionSearches());
-                        stmt.setInt(12, playerData.getSessionSuccessfulSearches());
-                        stmt.setInt(13, playerData.getSessionArrests());
-                        stmt.setInt(14, playerData.getSessionKills());
-                        stmt.setInt(15, playerData.getSessionDetections());
-                        stmt.setInt(16, playerData.getWantedLevel());
-                        stmt.setLong(17, playerData.getWantedExpireTime());
-                        stmt.setString(18, playerData.getWantedReason());
-                        stmt.setInt(19, playerData.isBeingChased() ? 1 : 0);
-                        stmt.setString(20, playerData.getChaserGuard() != null ? playerData.getChaserGuard().toString() : null);
-                        stmt.setLong(21, playerData.getChaseStartTime());
-                        stmt.setInt(22, playerData.getTotalArrests());
-                        stmt.setInt(23, playerData.getTotalViolations());
-                        stmt.setLong(24, playerData.getTotalDutyTime());
-                        stmt.setLong(25, System.currentTimeMillis());
-                        
-                        stmt.addBatch();
+                // The remainder has a one-off row count, so it isn't kept in the statement cache
+                if (from < size) {
+                    try (PreparedStatement stmt = connection.prepareStatement(PerformanceStatsBatch.getInsertSql(size - from))) {
+                        batch.bindInsert(stmt, from, size);
+                        stmt.executeUpdate();
                     }
-                    
-                    stmt.executeBatch();
-                    connection.commit();
-                }
-                
-            } catch (SQLException e) {
-                try {
-                    connection.rollback();
-                } catch (SQLException rollbackEx) {
-                    logger.severe("Failed to rollback batch save: " + rollbackEx.getMessage());
-                }
-                logger.severe("Failed to batch save player data: " + e.getMessage());
-                throw new RuntimeException(e);
-            } finally {
-                try {
-                    connection.setAutoCommit(true);
-                } catch (SQLException e) {
-                    logger.warning("Failed to reset auto-commit: " + e.getMessage());
-                }
-            }
-        }, executor);
-    }
-    
-    @Override
-    public CompletableFuture<List<PlayerData>> batchLoadPlayerData(List<UUID> playerIds) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<PlayerData> playerDataList = new ArrayList<>();
-            
-            if (playerIds.isEmpty()) {
-                return playerDataList;
-            }
-            
-            // Create placeholders for IN clause
-            StringBuilder placeholders = new StringBuilder();
-            for (int i = 0; i < playerIds.size(); i++) {
-                if (i > 0) placeholders.append(", ");
-                placeholders.append("?");
-            }
-            
-            String sql = "SELECT * FROM player_data WHERE player_id IN (" + placeholders + ")";
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                for (int i = 0; i < playerIds.size(); i++) {
-                    stmt.setString(i + 1, playerIds.get(i).toString());
-                }
-                
-                ResultSet rs = stmt.executeQuery();
-                while (rs.next()) {
-                    playerDataList.add(mapResultSetToPlayerData(rs));
                 }
+                
+                PreparedStatement rollups = writer.prepare("""
+                    INSERT INTO performance_rollups (player_id, period, period_start, stat_type, event_count, total_value)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    ON CONFLICT(player_id, period, period_start, stat_type) DO UPDATE SET
+                        event_count = event_count + excluded.event_count,
+                        total_value = total_value + excluded.total_value
+                    """);
+                for (PerformanceStatsBatch.Rollup rollup : batch.getRollups()) {
+                    PerformanceStatsBatch.bindRollup(rollups, rollup);
+                    rollups.addBatch();
+                }
+                rollups.executeBatch();
             } catch (SQLException e) {
-                logger.severe("Failed to batch load player data: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-            
-            return playerDataList;
-        }, executor);
-    }
-=======
-package dev.lsdmc.edenCorrections.storage;
-
-import dev.lsdmc.edenCorrections.EdenCorrections;
-import dev.lsdmc.edenCorrections.models.PlayerData;
-import dev.lsdmc.edenCorrections.models.ChaseData;
-
-import java.sql.*;
-import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.logging.Logger;
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
-public class SQLiteHandler implements DatabaseHandler {
-    
-    private final EdenCorrections plugin;
-    private final Logger logger;
-    private final String databasePath;
-    private final ExecutorService executor;
-    
-    private Connection connection;
-    private boolean initialized = false;
-    
-    // Database schema version for migrations
-    private static final int SCHEMA_VERSION = 1;
-    
-    public SQLiteHandler(EdenCorrections plugin, String databasePath) {
-        this.plugin = plugin;
-        this.logger = plugin.getLogger();
-        this.databasePath = databasePath;
-        this.executor = Executors.newFixedThreadPool(4, r -> {
-            Thread t = new Thread(r, "EdenCorrections-DB-Worker");
-            t.setDaemon(true);
-            return t;
-        });
-    }
-    
-    @Override
-    public void initialize() throws SQLException {
-        try {
-            // Ensure database directory exists
-            File dbFile = new File(plugin.getDataFolder(), databasePath);
-            File parentDir = dbFile.getParentFile();
-            if (!parentDir.exists() && !parentDir.mkdirs()) {
-                throw new SQLException("Failed to create database directory: " + parentDir.getPath());
-            }
-            
-            // Load SQLite driver
-            Class.forName("org.sqlite.JDBC");
-            
-            // Create connection
-            String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
-            connection = DriverManager.getConnection(url);
-            
-            // Configure connection
-            connection.setAutoCommit(true);
-            
-            // Enable foreign keys and performance optimizations
-            try (Statement stmt = connection.createStatement()) {
-                stmt.execute("PRAGMA foreign_keys = ON");
-                stmt.execute("PRAGMA journal_mode = WAL");
-                stmt.execute("PRAGMA synchronous = NORMAL");
-                stmt.execute("PRAGMA cache_size = 10000");
-                stmt.execute("PRAGMA temp_store = MEMORY");
-            }
-            
-            // Create tables
-            createTables();
-            
-            // Check and perform migrations if needed
-            checkAndMigrate();
-            
-            initialized = true;
-            logger.info("SQLite database initialized successfully at: " + dbFile.getPath());
-            
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("SQLite driver not found", e);
-        } catch (SQLException e) {
-            logger.severe("Failed to initialize SQLite database: " + e.getMessage());
-            throw e;
-        }
-    }
-    
-    private void createTables() throws SQLException {
-        String[] tableCreationSql = {
-            // Player data table
-            """
-            CREATE TABLE IF NOT EXISTS player_data (
-                player_id TEXT PRIMARY KEY,
-                player_name TEXT NOT NULL,
-                is_on_duty INTEGER NOT NULL DEFAULT 0,
-                duty_start_time INTEGER NOT NULL DEFAULT 0,
-                off_duty_time INTEGER NOT NULL DEFAULT 0,
-                grace_debt_time INTEGER NOT NULL DEFAULT 0,
-                guard_rank TEXT,
-                earned_off_duty_time INTEGER NOT NULL DEFAULT 0,
-                has_earned_base_time INTEGER NOT NULL DEFAULT 0,
-                has_been_notified_expired INTEGER NOT NULL DEFAULT 0,
-                session_searches INTEGER NOT NULL DEFAULT 0,
-                session_successful_searches INTEGER NOT NULL DEFAULT 0,
-                session_arrests INTEGER NOT NULL DEFAULT 0,
-                session_kills INTEGER NOT NULL DEFAULT 0,
-                session_detections INTEGER NOT NULL DEFAULT 0,
-                wanted_level INTEGER NOT NULL DEFAULT 0,
-                wanted_expire_time INTEGER NOT NULL DEFAULT 0,
-                wanted_reason TEXT,
-                being_chased INTEGER NOT NULL DEFAULT 0,
-                chaser_guard TEXT,
-                chase_start_time INTEGER NOT NULL DEFAULT 0,
-                total_arrests INTEGER NOT NULL DEFAULT 0,
-                total_violations INTEGER NOT NULL DEFAULT 0,
-                total_duty_time INTEGER NOT NULL DEFAULT 0,
-                last_updated INTEGER NOT NULL DEFAULT 0
-            )
-            """,
-            
-            // Chase data table
-            """
-            CREATE TABLE IF NOT EXISTS chase_data (
-                chase_id TEXT PRIMARY KEY,
-                guard_id TEXT NOT NULL,
-                target_id TEXT NOT NULL,
-                start_time INTEGER NOT NULL,
-                duration INTEGER NOT NULL,
-                is_active INTEGER NOT NULL DEFAULT 1,
-                end_reason TEXT,
-                end_time INTEGER NOT NULL DEFAULT 0,
-                created_at INTEGER NOT NULL DEFAULT 0
-            )
-            """,
-            
-            // Player inventory cache table
-            """
-            CREATE TABLE IF NOT EXISTS player_inventory_cache (
-                player_id TEXT PRIMARY KEY,
-                inventory_data TEXT NOT NULL,
-                cached_at INTEGER NOT NULL DEFAULT 0,
-                FOREIGN KEY (player_id) REFERENCES player_data(player_id) ON DELETE CASCADE
-            )
-            """,
-            
-            // Database metadata table
-            """
-            CREATE TABLE IF NOT EXISTS database_metadata (
-                key TEXT PRIMARY KEY,
-                value TEXT NOT NULL,
-                updated_at INTEGER NOT NULL DEFAULT 0
-            )
-            """,
-            
-            // Performance statistics table
-            """
-            CREATE TABLE IF NOT EXISTS performance_stats (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                player_id TEXT NOT NULL,
-                stat_type TEXT NOT NULL,
-                stat_value INTEGER NOT NULL,
-                recorded_at INTEGER NOT NULL DEFAULT 0,
-                FOREIGN KEY (player_id) REFERENCES player_data(player_id) ON DELETE CASCADE
-            )
-            """
-        };
-        
-        try (Statement stmt = connection.createStatement()) {
-            for (String sql : tableCreationSql) {
-                stmt.execute(sql);
-            }
-        }
-        
-        // Create indexes for performance
-        createIndexes();
-    }
-    
-    private void createIndexes() throws SQLException {
-        String[] indexes = {
-            "CREATE INDEX IF NOT EXISTS idx_player_name ON player_data(player_name)",
-            "CREATE INDEX IF NOT EXISTS idx_player_duty ON player_data(is_on_duty)",
-            "CREATE INDEX IF NOT EXISTS idx_player_wanted ON player_data(wanted_level)",
-            "CREATE INDEX IF NOT EXISTS idx_chase_guard ON chase_data(guard_id)",
-            "CREATE INDEX IF NOT EXISTS idx_chase_target ON chase_data(target_id)",
-            "CREATE INDEX IF NOT EXISTS idx_chase_active ON chase_data(is_active)",
-            "CREATE INDEX IF NOT EXISTS idx_performance_player ON performance_stats(player_id)",
-            "CREATE INDEX IF NOT EXISTS idx_performance_type ON performance_stats(stat_type)",
-            "CREATE INDEX IF NOT EXISTS idx_performance_time ON performance_stats(recorded_at)"
-        };
-        
-        try (Statement stmt = connection.createStatement()) {
-            for (String index : indexes) {
-                stmt.execute(index);
-            }
-        }
-    }
-    
-    private void checkAndMigrate() throws SQLException {
-        // Check current schema version
-        int currentVersion = getSchemaVersion();
-        
-        if (currentVersion < SCHEMA_VERSION) {
-            logger.info("Database schema outdated. Performing migration from version " + 
-                       currentVersion + " to " + SCHEMA_VERSION);
-            performMigration(currentVersion);
-            setSchemaVersion(SCHEMA_VERSION);
-        }
-    }
-    
-    private int getSchemaVersion() throws SQLException {
-        String sql = "SELECT value FROM database_metadata WHERE key = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, "schema_version");
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return Integer.parseInt(rs.getString("value"));
-            }
-        } catch (SQLException e) {
-            // Table might not exist yet
-        }
-        return 0;
-    }
-    
-    private void setSchemaVersion(int version) throws SQLException {
-        String sql = """
-            INSERT OR REPLACE INTO database_metadata (key, value, updated_at) 
-            VALUES (?, ?, ?)
-            """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, "schema_version");
-            stmt.setString(2, String.valueOf(version));
-            stmt.setLong(3, System.currentTimeMillis());
-            stmt.executeUpdate();
-        }
-    }
-    
-    private void performMigration(int fromVersion) throws SQLException {
-        // Future migrations would go here
-        logger.info("No migrations needed from version " + fromVersion);
-    }
-    
-    @Override
-    public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-            executor.shutdown();
-            logger.info("SQLite database connection closed");
-        } catch (SQLException e) {
-            logger.warning("Error closing SQLite database: " + e.getMessage());
-        }
-        initialized = false;
-    }
-    
-    @Override
-    public boolean isConnected() {
-        try {
-            return connection != null && !connection.isClosed() && initialized;
-        } catch (SQLException e) {
-            return false;
-        }
-    }
-    
-    @Override
-    public boolean testConnection() {
-        try {
-            if (!isConnected()) return false;
-            
-            try (Statement stmt = connection.createStatement()) {
-                stmt.execute("SELECT 1");
-                return true;
-            }
-        } catch (SQLException e) {
-            logger.warning("Database connection test failed: " + e.getMessage());
-            return false;
-        }
-    }
-    
-    // === PLAYER DATA OPERATIONS ===
-    
-    @Override
-    public CompletableFuture<Void> savePlayerData(PlayerData playerData) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT OR REPLACE INTO player_data (
-                    player_id, player_name, is_on_duty, duty_start_time, off_duty_time, 
-                    grace_debt_time, guard_rank, earned_off_duty_time, has_earned_base_time, 
-                    has_been_notified_expired, session_searches, session_successful_searches, 
-                    session_arrests, session_kills, session_detections, wanted_level, 
-                    wanted_expire_time, wanted_reason, being_chased, chaser_guard, 
-                    chase_start_time, total_arrests, total_violations, total_duty_time, last_updated
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerData.getPlayerId().toString());
-                stmt.setString(2, playerData.getPlayerName());
-                stmt.setInt(3, playerData.isOnDuty() ? 1 : 0);
-                stmt.setLong(4, playerData.getDutyStartTime());
-                stmt.setLong(5, playerData.getOffDutyTime());
-                stmt.setLong(6, playerData.getGraceDebtTime());
-                stmt.setString(7, playerData.getGuardRank());
-                stmt.setLong(8, playerData.getEarnedOffDutyTime());
-                stmt.setInt(9, playerData.hasEarnedBaseTime() ? 1 : 0);
-                stmt.setInt(10, playerData.hasBeenNotifiedOfExpiredTime() ? 1 : 0);
-                stmt.setInt(11, playerData.getSessionSearches());
-                stmt.setInt(12, playerData.getSessionSuccessfulSearches());
-                stmt.setInt(13, playerData.getSessionArrests());
-                stmt.setInt(14, playerData.getSessionKills());
-                stmt.setInt(15, playerData.getSessionDetections());
-                stmt.setInt(16, playerData.getWantedLevel());
-                stmt.setLong(17, playerData.getWantedExpireTime());
-                stmt.setString(18, playerData.getWantedReason());
-                stmt.setInt(19, playerData.isBeingChased() ? 1 : 0);
-                stmt.setString(20, playerData.getChaserGuard() != null ? playerData.getChaserGuard().toString() : null);
-                stmt.setLong(21, playerData.getChaseStartTime());
-                stmt.setInt(22, playerData.getTotalArrests());
-                stmt.setInt(23, playerData.getTotalViolations());
-                stmt.setLong(24, playerData.getTotalDutyTime());
-                stmt.setLong(25, System.currentTimeMillis());
-                
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                logger.severe("Failed to save player data for " + playerData.getPlayerName() + ": " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    @Override
-    public CompletableFuture<PlayerData> loadPlayerData(UUID playerId) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM player_data WHERE player_id = ?";
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
-                ResultSet rs = stmt.executeQuery();
-                
-                if (rs.next()) {
-                    return mapResultSetToPlayerData(rs);
-                }
-                return null;
-            } catch (SQLException e) {
-                logger.severe("Failed to load player data for " + playerId + ": " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    @Override
-    public CompletableFuture<PlayerData> loadPlayerDataByName(String playerName) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM player_data WHERE player_name = ? COLLATE NOCASE";
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerName);
-                ResultSet rs = stmt.executeQuery();
-                
-                if (rs.next()) {
-                    return mapResultSetToPlayerData(rs);
-                }
-                return null;
-            } catch (SQLException e) {
-                logger.severe("Failed to load player data for " + playerName + ": " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }, executor);
-    }
-    
-    private PlayerData mapResultSetToPlayerData(ResultSet rs) throws SQLException {
-        UUID playerId = UUID.fromString(rs.getString("player_id"));
-        String playerName = rs.getString("player_name");
-        
-        PlayerData data = new PlayerData(playerId, playerName);
-        
-        // Set duty information
-        data.setOnDuty(rs.getInt("is_on_duty") == 1);
-        data.setDutyStartTime(rs.getLong("duty_start_time"));
-        data.setOffDutyTime(rs.getLong("off_duty_time"));
-        data.setGraceDebtTime(rs.getLong("grace_debt_time"));
-        data.setGuardRank(rs.getString("guard_rank"));
-        
-        // Set off-duty earning information
-        data.setEarnedOffDutyTime(rs.getLong("earned_off_duty_time"));
-        data.setHasEarnedBaseTime(rs.getInt("has_earned_base_time") == 1);
-        data.setHasBeenNotifiedOfExpiredTime(rs.getInt("has_been_notified_expired") == 1);
-        
-        // Set session performance
-        data.setSessionSearches(rs.getInt("session_searches"));
-        data.setSessionSuccessfulSearches(rs.getInt("session_successful_searches"));
-        data.setSessionArrests(rs.getInt("session_arrests"));
-        data.setSessionKills(rs.getInt("session_kills"));
-        data.setSessionDetections(rs.getInt("session_detections"));
-        
-        // Set wanted information
-        data.setWantedLevel(rs.getInt("wanted_level"));
-        data.setWantedExpireTime(rs.getLong("wanted_expire_time"));
-        data.setWantedReason(rs.getString("wanted_reason"));
-        
-        // Set chase information
-        data.setBeingChased(rs.getInt("being_chased") == 1);
-        String chaserGuardStr = rs.getString("chaser_guard");
-        if (chaserGuardStr != null) {
-            data.setChaserGuard(UUID.fromString(chaserGuardStr));
-        }
-        data.setChaseStartTime(rs.getLong("chase_start_time"));
-        
-        // Set statistics
-        data.setTotalArrests(rs.getInt("total_arrests"));
-        data.setTotalViolations(rs.getInt("total_violations"));
-        data.setTotalDutyTime(rs.getLong("total_duty_time"));
-        
-        return data;
-    }
-    
-    @Override
-    public CompletableFuture<List<PlayerData>> loadAllPlayerData() {
-        return CompletableFuture.supplyAsync(() -> {
-            List<PlayerData> playerDataList = new ArrayList<>();
-            String sql = "SELECT * FROM player_data ORDER BY player_name";
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                ResultSet rs = stmt.executeQuery();
-                
-                while (rs.next()) {
-                    playerDataList.add(mapResultSetToPlayerData(rs));
-                }
-            } catch (SQLException e) {
-                logger.severe("Failed to load all player data: " + e.getMessage());
-                throw new RuntimeException(e);
-            }
-            
-            return playerDataList;
-        }, executor);
-    }
-    
-    @Override
-    public CompletableFuture<Void> deletePlayerData(UUID playerId) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "DELETE FROM player_data WHERE player_id = ?";
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                logger.severe("Failed to delete player data for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to record " + events.size() + " performance events: " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
-    // === CHASE DATA OPERATIONS ===
-    
     @Override
-    public CompletableFuture<Void> saveChaseData(ChaseData chaseData) {
-        return CompletableFuture.runAsync(() -> {
+    public CompletableFuture<List<PerformanceRollup>> loadPerformanceRollups(UUID playerId, String period, long sinceTime) {
+        return read(connection -> {
+            List<PerformanceRollup> rollups = new ArrayList<>();
             String sql = """
-                INSERT OR REPLACE INTO chase_data (
-                    chase_id, guard_id, target_id, start_time, duration, is_active, 
-                    end_reason, end_time, created_at
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                SELECT period_start, stat_type, event_count, total_value FROM performance_rollups
+                WHERE player_id = ? AND period = ? AND period_start >= ? ORDER BY period_start DESC, stat_type
                 """;
             
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, chaseData.getChaseId().toString());
-                stmt.setString(2, chaseData.getGuardId().toString());
-                stmt.setString(3, chaseData.getTargetId().toString());
-                stmt.setLong(4, chaseData.getStartTime());
-                stmt.setLong(5, chaseData.getDuration());
-                stmt.setInt(6, chaseData.isActive() ? 1 : 0);
-                stmt.setString(7, chaseData.getEndReason());
-                stmt.setLong(8, chaseData.getEndTime());
-                stmt.setLong(9, System.currentTimeMillis());
-                
-                stmt.executeUpdate();
+            try {
+                PreparedStatement stmt = prepareRead(connection, sql);
+                UuidCodec.bind(stmt, 1, playerId);
+                stmt.setString(2, period);
+                stmt.setLong(3, PerformanceRollup.toPeriodStart(period, sinceTime));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rollups.add(new PerformanceRollup(rs.getLong("period_start"), rs.getString("stat_type"),
+                                                          rs.getInt("event_count"), rs.getLong("total_value")));
+                    }
+                }
             } catch (SQLException e) {
-                logger.severe("Failed to save chase data: " + e.getMessage());
+                logger.severe("Failed to load performance roll-ups for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+            
+            return rollups;
+        });
     }
     
+    // === INVENTORY OPERATIONS ===
+    
     @Override
-    public CompletableFuture<ChaseData> loadChaseData(UUID chaseId) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM chase_data WHERE chase_id = ?";
+    public CompletableFuture<Void> savePlayerInventory(UUID playerId, byte[] inventoryData) {
+        // Split out the items before queueing, so the writer thread only runs SQL
+        Map<String, byte[]> items = new LinkedHashMap<>();
+        byte[] storedData;
+        try {
+            byte[] references = InventorySerializer.extractItems(inventoryData, items);
+            storedData = references != null ? references : inventoryData;
+        } catch (IOException e) {
+            logger.warning("Storing inventory for " + playerId + " without item deduplication: " + e.getMessage());
+            items.clear();
+            storedData = inventoryData;
+        }
+        
+        byte[] rowData = storedData;
+        return writer.submit(connection -> {
+            String sql = """
+                INSERT OR REPLACE INTO player_inventory_cache (player_id, inventory_data, cached_at) 
+                VALUES (?, ?, ?)
+                """;
             
+            long now = System.currentTimeMillis();
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, chaseId.toString());
-                ResultSet rs = stmt.executeQuery();
+                saveInventoryItems(connection, items, now);
                 
-                if (rs.next()) {
-                    return mapResultSetToChaseData(rs);
-                }
-                return null;
+                UuidCodec.bind(stmt, 1, playerId);
+                stmt.setBytes(2, rowData);
+                stmt.setLong(3, now);
+                stmt.executeUpdate();
             } catch (SQLException e) {
-                logger.severe("Failed to load chase data for " + chaseId + ": " + e.getMessage());
+                logger.severe("Failed to save player inventory for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
-    private ChaseData mapResultSetToChaseData(ResultSet rs) throws SQLException {
-        UUID chaseId = UUID.fromString(rs.getString("chase_id"));
-        UUID guardId = UUID.fromString(rs.getString("guard_id"));
-        UUID targetId = UUID.fromString(rs.getString("target_id"));
-        long startTime = rs.getLong("start_time");
-        long duration = rs.getLong("duration");
+    // Items are stored once per distinct content; saving an existing one only marks it as used
+    private void saveInventoryItems(Connection connection, Map<String, byte[]> items, long now) throws SQLException {
+        if (items.isEmpty()) {
+            return;
+        }
         
-        ChaseData chaseData = new ChaseData(chaseId, guardId, targetId, duration);
+        String sql = """
+            INSERT INTO inventory_items (item_hash, item_data, last_used) VALUES (?, ?, ?)
+            ON CONFLICT(item_hash) DO UPDATE SET last_used = excluded.last_used
+            """;
         
-        if (rs.getInt("is_active") == 0) {
-            chaseData.endChase(rs.getString("end_reason"));
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (Map.Entry<String, byte[]> item : items.entrySet()) {
+                stmt.setBytes(1, HexFormat.of().parseHex(item.getKey()));
+                stmt.setBytes(2, item.getValue());
+                stmt.setLong(3, now);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
         }
-        
-        return chaseData;
     }
     
     @Override
-    public CompletableFuture<List<ChaseData>> loadAllActiveChases() {
-        return CompletableFuture.supplyAsync(() -> {
-            List<ChaseData> chaseDataList = new ArrayList<>();
-            String sql = "SELECT * FROM chase_data WHERE is_active = 1 ORDER BY start_time DESC";
+    public CompletableFuture<byte[]> loadPlayerInventory(UUID playerId) {
+        return read(connection -> {
+            String sql = "SELECT inventory_data FROM player_inventory_cache WHERE player_id = ?";
             
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                UuidCodec.bind(stmt, 1, playerId);
                 ResultSet rs = stmt.executeQuery();
                 
-                while (rs.next()) {
-                    chaseDataList.add(mapResultSetToChaseData(rs));
+                if (!rs.next()) {
+                    return null;
                 }
-            } catch (SQLException e) {
-                logger.severe("Failed to load active chase data: " + e.getMessage());
+                
+                byte[] inventoryData = rs.getBytes("inventory_data");
+                return InventorySerializer.resolveItems(inventoryData, loadInventoryItems(connection, inventoryData));
+            } catch (SQLException | IOException e) {
+                logger.severe("Failed to load player inventory for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-            
-            return chaseDataList;
-        }, executor);
+        });
     }
     
-    @Override
-    public CompletableFuture<Void> deleteChaseData(UUID chaseId) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "DELETE FROM chase_data WHERE chase_id = ?";
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, chaseId.toString());
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                logger.severe("Failed to delete chase data for " + chaseId + ": " + e.getMessage());
-                throw new RuntimeException(e);
+    private Map<String, byte[]> loadInventoryItems(Connection connection, byte[] inventoryData) throws SQLException, IOException {
+        Map<String, byte[]> items = new HashMap<>();
+        PreparedStatement stmt = prepareRead(connection, "SELECT item_data FROM inventory_items WHERE item_hash = ?");
+        for (String hash : InventorySerializer.getItemReferences(inventoryData)) {
+            stmt.setBytes(1, HexFormat.of().parseHex(hash));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    items.put(hash, rs.getBytes(1));
+                }
             }
-        }, executor);
+        }
+        return items;
     }
     
     @Override
-    public CompletableFuture<Void> cleanupExpiredChases() {
-        return CompletableFuture.runAsync(() -> {
-            // Delete chases older than 24 hours
-            long cutoffTime = System.currentTimeMillis() - (24 * 60 * 60 * 1000);
-            String sql = "DELETE FROM chase_data WHERE is_active = 0 AND end_time < ?";
+    public CompletableFuture<Boolean> hasPlayerInventory(UUID playerId) {
+        return read(connection -> {
+            String sql = "SELECT 1 FROM player_inventory_cache WHERE player_id = ? " +
+                        "AND LENGTH(inventory_data) > 0";
             
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setLong(1, cutoffTime);
-                int deleted = stmt.executeUpdate();
-                
-                if (deleted > 0) {
-                    logger.info("Cleaned up " + deleted + " expired chase records");
-                }
+                UuidCodec.bind(stmt, 1, playerId);
+                ResultSet rs = stmt.executeQuery();
+                return rs.next();
             } catch (SQLException e) {
-                logger.severe("Failed to cleanup expired chases: " + e.getMessage());
+                logger.severe("Failed to check player inventory for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
-    // === INVENTORY OPERATIONS ===
-    
     @Override
-    public CompletableFuture<Void> savePlayerInventory(UUID playerId, String inventoryData) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT OR REPLACE INTO player_inventory_cache (player_id, inventory_data, cached_at) 
-                VALUES (?, ?, ?)
-                """;
+    public CompletableFuture<Void> deletePlayerInventory(UUID playerId) {
+        return writer.submit(connection -> {
+            String sql = "DELETE FROM player_inventory_cache WHERE player_id = ?";
             
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
-                stmt.setString(2, inventoryData);
-                stmt.setLong(3, System.currentTimeMillis());
+                UuidCodec.bind(stmt, 1, playerId);
                 stmt.executeUpdate();
             } catch (SQLException e) {
-                logger.severe("Failed to save player inventory for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to delete player inventory for " + playerId + ": " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
     @Override
-    public CompletableFuture<String> loadPlayerInventory(UUID playerId) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT inventory_data FROM player_inventory_cache WHERE player_id = ?";
+    public CompletableFuture<List<UUID>> getPlayersWithStoredInventory() {
+        return read(connection -> {
+            String sql = "SELECT player_id FROM player_inventory_cache";
+            List<UUID> playerIds = new ArrayList<>();
             
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
-                ResultSet rs = stmt.executeQuery();
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
                 
-                if (rs.next()) {
-                    return rs.getString("inventory_data");
+                while (rs.next()) {
+                    try {
+                        UUID playerId = UuidCodec.read(rs, "player_id");
+                        playerIds.add(playerId);
+                    } catch (IllegalArgumentException e) {
+                        logger.warning("Invalid UUID in inventory cache: " + e.getMessage());
+                    }
                 }
-                return null;
             } catch (SQLException e) {
-                logger.severe("Failed to load player inventory for " + playerId + ": " + e.getMessage());
+                logger.severe("Failed to get players with stored inventory: " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+            
+            return playerIds;
+        });
     }
     
     @Override
-    public CompletableFuture<Void> deletePlayerInventory(UUID playerId) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = "DELETE FROM player_inventory_cache WHERE player_id = ?";
-            
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                stmt.setString(1, playerId.toString());
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                logger.severe("Failed to delete player inventory for " + playerId + ": " + e.getMessage());
-                throw new RuntimeException(e);
+    public CompletableFuture<RetentionResult> purgeStoredInventories(long cutoffTime, boolean keepOnDuty, int batchSize) {
+        int limit = Math.max(1, batchSize);
+        List<UUID> purged = new ArrayList<>();
+        long[] reclaimedBytes = new long[1];
+        
+        // One chunk per call, as one writer task; maintenance runs the next one when the server is quiet
+        return writer.submit(connection ->
+                reclaimedBytes[0] = purgeInventoryChunk(connection, cutoffTime, keepOnDuty, limit, purged))
+            .thenApply(ignored -> new RetentionResult(purged, reclaimedBytes[0], purged.size() >= limit));
+    }
+    
+    // Delete the oldest expired inventories, up to batchSize; returns the bytes they took
+    private long purgeInventoryChunk(Connection connection, long cutoffTime, boolean keepOnDuty, int batchSize,
+                                     List<UUID> purged) throws SQLException {
+        String sql = "SELECT player_id, LENGTH(inventory_data) FROM player_inventory_cache WHERE cached_at < ?" +
+                    (keepOnDuty ? " AND player_id NOT IN (SELECT player_id FROM player_data WHERE is_on_duty = 1)" : "") +
+                    " ORDER BY cached_at LIMIT ?";
+        
+        List<byte[]> keys = new ArrayList<>();
+        long bytes = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, cutoffTime);
+            stmt.setInt(2, batchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    keys.add(rs.getBytes(1));
+                    bytes += rs.getLong(2);
+                }
+            }
+        }
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        keys.forEach(key -> placeholders.add("?"));
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "DELETE FROM player_inventory_cache WHERE player_id IN " + placeholders)) {
+            for (int i = 0; i < keys.size(); i++) {
+                stmt.setBytes(i + 1, keys.get(i));
             }
-        }, executor);
+            stmt.executeUpdate();
+        }
+        
+        for (byte[] key : keys) {
+            purged.add(UuidCodec.fromBytes(key));
+        }
+        return bytes;
     }
     
     // === MAINTENANCE AND STATISTICS ===
     
     @Override
-    public CompletableFuture<Void> performMaintenance() {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                // Clean up expired chases
-                cleanupExpiredChases().get();
-                
-                // Clean up old inventory cache (older than 7 days)
-                long cutoffTime = System.currentTimeMillis() - (7 * 24 * 60 * 60 * 1000);
-                String sql = "DELETE FROM player_inventory_cache WHERE cached_at < ?";
-                
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    stmt.setLong(1, cutoffTime);
-                    int deleted = stmt.executeUpdate();
-                    
-                    if (deleted > 0) {
-                        logger.info("Cleaned up " + deleted + " old inventory cache entries");
-                    }
+    public CompletableFuture<Boolean> performMaintenanceStep(MaintenanceStep step, int batchSize) {
+        // Every step is queued on the writer thread, so none of them may wait on another write
+        int limit = Math.max(1, batchSize);
+        boolean[] more = new boolean[1];
+        CompletableFuture<Void> work = switch (step) {
+            case ARCHIVE_ENDED_CHASES -> cleanupExpiredChases();
+            case DELETE_UNUSED_ITEMS -> writer.submit(connection -> {
+                // Old stored inventories are purged by the retention policy (see DataManager)
+                int unusedItems = deleteUnusedInventoryItems(connection, limit);
+                if (unusedItems > 0) {
+                    logger.info("Cleaned up " + unusedItems + " unused stored items");
                 }
-                
-                // Vacuum database for performance
+                more[0] = unusedItems == limit;
+            });
+            case DELETE_OLD_STATS -> writer.submit(connection -> {
+                // Raw performance events and hourly roll-ups expire, daily roll-ups are kept
+                int deletedStats = deleteOldPerformanceStats(limit);
+                if (deletedStats > 0) {
+                    logger.info("Cleaned up " + deletedStats + " old performance statistics");
+                }
+                more[0] = deletedStats == limit;
+            });
+            case RECLAIM_SPACE -> reclaimSpace(more);
+            case OPTIMIZE -> writer.submitUnbatched(connection -> {
+                // Runs ANALYZE only on tables whose statistics are out of date
                 try (Statement stmt = connection.createStatement()) {
-                    stmt.execute("VACUUM");
+                    stmt.execute("PRAGMA optimize");
                 }
                 
                 // Update maintenance timestamp
-                setSchemaVersion(SCHEMA_VERSION);
-                
-                logger.info("Database maintenance completed successfully");
+                setSchemaVersion(connection, SCHEMA_VERSION);
+            });
+        };
+        
+        return work
+            .thenApply(ignored -> more[0])
+            .whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    logger.severe("Database maintenance step " + step + " failed: " + throwable.getMessage());
+                }
+            });
+    }
+    
+    @Override
+    public int getPendingOperations() {
+        return writer != null ? writer.getQueuedWrites() : 0;
+    }
+    
+    // Runs on the writer thread; deletes up to limit rows
+    private int deleteOldPerformanceStats(int limit) throws SQLException {
+        long cutoffTime = System.currentTimeMillis() -
+                         plugin.getConfigManager().getTelemetryRetentionDays() * 24L * 60 * 60 * 1000;
+        
+        PreparedStatement rollups = writer.prepare("""
+            DELETE FROM performance_rollups WHERE (player_id, period, period_start, stat_type) IN (
+                SELECT player_id, period, period_start, stat_type FROM performance_rollups
+                WHERE period = ? AND period_start < ? LIMIT ?)
+            """);
+        rollups.setString(1, PerformanceRollup.HOUR);
+        rollups.setLong(2, cutoffTime);
+        rollups.setInt(3, limit);
+        int deleted = rollups.executeUpdate();
+        if (deleted == limit) {
+            return deleted;
+        }
+        
+        PreparedStatement stats = writer.prepare(
+            "DELETE FROM performance_stats WHERE id IN (SELECT id FROM performance_stats WHERE recorded_at < ? LIMIT ?)");
+        stats.setLong(1, cutoffTime);
+        stats.setInt(2, limit - deleted);
+        return deleted + stats.executeUpdate();
+    }
+    
+    // Delete up to limit stored items no inventory refers to any more
+    private int deleteUnusedInventoryItems(Connection connection, int limit) throws SQLException {
+        Set<String> referenced = new HashSet<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT inventory_data FROM player_inventory_cache")) {
+            while (rs.next()) {
+                try {
+                    referenced.addAll(InventorySerializer.getItemReferences(rs.getBytes(1)));
+                } catch (IOException e) {
+                    logger.warning("Skipping unreadable stored inventory: " + e.getMessage());
+                }
+            }
+        }
+        
+        List<byte[]> unused = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT item_hash FROM inventory_items")) {
+            while (rs.next() && unused.size() < limit) {
+                byte[] hash = rs.getBytes(1);
+                if (!referenced.contains(HexFormat.of().formatHex(hash))) {
+                    unused.add(hash);
+                }
+            }
+        }
+        
+        if (!unused.isEmpty()) {
+            try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM inventory_items WHERE item_hash = ?")) {
+                for (byte[] hash : unused) {
+                    stmt.setBytes(1, hash);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+        return unused.size();
+    }
+    
+    /**
+     * Give free pages back to the file system, at most the configured number of pages
+     * per call. Databases created before incremental vacuum was enabled are switched
+     * over with one full VACUUM, which can't run inside a transaction, so this is
+     * queued as unbatched work; with a single writer there is no other connection
+     * holding a write lock to wait for.
+     */
+    private CompletableFuture<Void> reclaimSpace(boolean[] more) {
+        if (!plugin.getConfigManager().isDatabaseVacuumEnabled()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return writer.submitUnbatched(connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                if (queryPragma(stmt, "auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                    convertToIncrementalVacuum(stmt);
+                    return;
+                }
                 
-            } catch (Exception e) {
-                logger.severe("Database maintenance failed: " + e.getMessage());
-                throw new RuntimeException(e);
+                long freePages = queryPragma(stmt, "freelist_count");
+                if (freePages == 0) {
+                    return;
+                }
+                // Each step of incremental_vacuum frees one page and the driver only steps
+                // a statement once, so free them one at a time in a single transaction
+                long pages = Math.min(freePages, Math.max(1, plugin.getConfigManager().getMaintenanceVacuumPages()));
+                connection.setAutoCommit(false);
+                try {
+                    for (long i = 0; i < pages; i++) {
+                        stmt.execute("PRAGMA incremental_vacuum(1)");
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+                more[0] = freePages > pages;
+            }
+        });
+    }
+    
+    // auto_vacuum only changes with a VACUUM once the database has tables
+    private void convertToIncrementalVacuum(Statement stmt) throws SQLException {
+        logger.info("Switching SQLite database to incremental vacuum (one-time full VACUUM)...");
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            stmt.execute("PRAGMA busy_timeout = " + plugin.getConfigManager().getDatabaseVacuumTimeout());
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            stmt.execute("VACUUM");
+            logger.info("Database VACUUM completed in " + (System.currentTimeMillis() - startTime) + "ms");
+        } catch (SQLException e) {
+            if (e.getMessage().contains("database is locked") || 
+                e.getMessage().contains("cannot VACUUM") ||
+                e.getMessage().contains("SQL statements in progress") ||
+                e.getMessage().contains("busy")) {
+                logger.warning("Database is busy, skipping VACUUM operation: " + e.getMessage());
+            } else {
+                logger.warning("VACUUM operation failed: " + e.getMessage());
             }
-        }, executor);
+        } finally {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+        }
+    }
+    
+    private static long queryPragma(Statement stmt, String pragma) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
     }
     
     @Override
     public CompletableFuture<DatabaseStats> getStatistics() {
-        return CompletableFuture.supplyAsync(() -> {
+        return read(connection -> {
             try {
                 int totalPlayers = 0;
                 int activeChases = 0;
@@ -1700,7 +1603,7 @@ public class SQLiteHandler implements DatabaseHandler {
                 logger.severe("Failed to get database statistics: " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        });
     }
     
     @Override
@@ -1708,98 +1611,112 @@ public class SQLiteHandler implements DatabaseHandler {
         return CompletableFuture.runAsync(() -> {
             try {
                 File dbFile = new File(plugin.getDataFolder(), databasePath);
-                Path backupFilePath = Paths.get(backupPath);
+                Path backupFilePath = Paths.get(backupPath).toAbsolutePath();
                 
-                // Ensure backup directory exists
+                // Ensure backup directory exists; VACUUM INTO won't overwrite a file
                 Files.createDirectories(backupFilePath.getParent());
+                Files.deleteIfExists(backupFilePath);
+                
+                // VACUUM INTO writes a consistent snapshot, including pages still in the WAL.
+                // It runs as a reader on its own connection, so the writer keeps committing
+                // and the read pool stays available.
+                long startTime = System.currentTimeMillis();
+                try (Connection connection = openReadConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+                     PreparedStatement stmt = connection.prepareStatement("VACUUM INTO ?")) {
+                    stmt.setString(1, backupFilePath.toString());
+                    stmt.execute();
+                }
                 
-                // Copy database file
-                Files.copy(dbFile.toPath(), backupFilePath);
+                // Check the copy opens and is intact before it counts as a backup
+                try (Connection connection = openReadConnection("jdbc:sqlite:" + backupFilePath);
+                     Statement stmt = connection.createStatement();
+                     ResultSet rs = stmt.executeQuery("PRAGMA quick_check")) {
+                    String result = rs.next() ? rs.getString(1) : "no result";
+                    if (!"ok".equalsIgnoreCase(result)) {
+                        throw new SQLException("Backup failed its integrity check: " + result);
+                    }
+                }
                 
-                logger.info("Database backup created at: " + backupPath);
+                logger.info("Database backup created at: " + backupPath + " in " +
+                           (System.currentTimeMillis() - startTime) + "ms");
                 
-            } catch (IOException e) {
+            } catch (IOException | SQLException e) {
                 logger.severe("Failed to create database backup: " + e.getMessage());
                 throw new RuntimeException(e);
             }
-        }, executor);
+        }, readExecutor);
     }
     
     // === BATCH OPERATIONS ===
     
     @Override
-    public CompletableFuture<Void> batchSavePlayerData(List<PlayerData> playerDataList) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT OR REPLACE INTO player_data (
-                    player_id, player_name, is_on_duty, duty_start_time, off_duty_time, 
-                    grace_debt_time, guard_rank, earned_off_duty_time, has_earned_base_time, 
-                    has_been_notified_expired, session_searches, session_successful_searches, 
-                    session_arrests, session_kills, session_detections, wanted_level, 
-                    wanted_expire_time, wanted_reason, being_chased, chaser_guard, 
-                    chase_start_time, total_arrests, total_violations, total_duty_time, last_updated
-                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-                """;
-            
+    public CompletableFuture<Map<UUID, Long>> batchSavePlayerData(List<PlayerDataSnapshot> snapshots) {
+        Map<UUID, Long> superseded = new HashMap<>();
+        
+        // Runs inside the writer's transaction, together with any other queued writes.
+        // The single writer thread already keeps each player's writes in order.
+        return writer.submit(connection -> {
             try {
-                connection.setAutoCommit(false);
+                // Existing rows only get their changed columns, grouped by column set
+                Map<String, List<PlayerDataSnapshot>> updates = new LinkedHashMap<>();
+                List<PlayerDataSnapshot> unmatched = new ArrayList<>();
+                
+                for (PlayerDataSnapshot snapshot : snapshots) {
+                    if (snapshot.insert()) {
+                        unmatched.add(snapshot);
+                    } else if (!snapshot.isEmpty()) {
+                        updates.computeIfAbsent(PlayerDataColumns.getUpdateSql(snapshot.changedFields()), k -> new ArrayList<>())
+                               .add(snapshot);
+                    }
+                }
                 
-                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-                    for (PlayerData playerData : playerDataList) {
-                        stmt.setString(1, playerData.getPlayerId().toString());
-                        stmt.setString(2, playerData.getPlayerName());
-                        stmt.setInt(3, playerData.isOnDuty() ? 1 : 0);
-                        stmt.setLong(4, playerData.getDutyStartTime());
-                        stmt.setLong(5, playerData.getOffDutyTime());
-                        stmt.setLong(6, playerData.getGraceDebtTime());
-                        stmt.setString(7, playerData.getGuardRank());
-                        stmt.setLong(8, playerData.getEarnedOffDutyTime());
-                        stmt.setInt(9, playerData.hasEarnedBaseTime() ? 1 : 0);
-                        stmt.setInt(10, playerData.hasBeenNotifiedOfExpiredTime() ? 1 : 0);
-                        stmt.setInt(11, playerData.getSessionSearches());
-                        stmt.setInt(12, playerData.getSessionSuccessfulSearches());
-                        stmt.setInt(13, playerData.getSessionArrests());
-                        stmt.setInt(14, playerData.getSessionKills());
-                        stmt.setInt(15, playerData.getSessionDetections());
-                        stmt.setInt(16, playerData.getWantedLevel());
-                        stmt.setLong(17, playerData.getWantedExpireTime());
-                        stmt.setString(18, playerData.getWantedReason());
-                        stmt.setInt(19, playerData.isBeingChased() ? 1 : 0);
-                        stmt.setString(20, playerData.getChaserGuard() != null ? playerData.getChaserGuard().toString() : null);
-                        stmt.setLong(21, playerData.getChaseStartTime());
-                        stmt.setInt(22, playerData.getTotalArrests());
-                        stmt.setInt(23, playerData.getTotalViolations());
-                        stmt.setLong(24, playerData.getTotalDutyTime());
-                        stmt.setLong(25, System.currentTimeMillis());
-                        
+                for (Map.Entry<String, List<PlayerDataSnapshot>> entry : updates.entrySet()) {
+                    PreparedStatement stmt = writer.prepare(entry.getKey());
+                    for (PlayerDataSnapshot snapshot : entry.getValue()) {
+                        PlayerDataColumns.bindUpdate(stmt, snapshot);
                         stmt.addBatch();
                     }
                     
-                    stmt.executeBatch();
-                    connection.commit();
+                    // Either the row holds a newer version or it disappeared (e.g. deleted by hand)
+                    int[] counts = stmt.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] == 0) {
+                            unmatched.add(entry.getValue().get(i));
+                        }
+                    }
                 }
                 
-            } catch (SQLException e) {
-                try {
-                    connection.rollback();
-                } catch (SQLException rollbackEx) {
-                    logger.severe("Failed to rollback batch save: " + rollbackEx.getMessage());
+                List<PlayerDataSnapshot> rowWrites = PlayerDataColumns.resolveUnmatched(connection, unmatched, superseded);
+                if (!rowWrites.isEmpty()) {
+                    PreparedStatement stmt = writer.prepare(PLAYER_UPSERT_SQL);
+                    for (PlayerDataSnapshot snapshot : rowWrites) {
+                        PlayerDataColumns.bindFullRow(stmt, snapshot);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
                 }
-                logger.severe("Failed to batch save player data: " + e.getMessage());
+            } catch (SQLException e) {
+                logger.severe("Failed to save player data (" + snapshots.size() + " players): " + e.getMessage());
                 throw new RuntimeException(e);
-            } finally {
-                try {
-                    connection.setAutoCommit(true);
-                } catch (SQLException e) {
-                    logger.warning("Failed to reset auto-commit: " + e.getMessage());
-                }
             }
-        }, executor);
+        }).thenApply(result -> {
+            countSupersededWrites(superseded.size());
+            return superseded;
+        });
+    }
+    
+    private void countSupersededWrites(int count) {
+        if (count > 0) {
+            supersededWrites.addAndGet(count);
+            if (plugin.getConfigManager().isDebugMode()) {
+                logger.info("DEBUG: " + count + " player writes were superseded by newer rows, their changes go out with the next save");
+            }
+        }
     }
     
     @Override
     public CompletableFuture<List<PlayerData>> batchLoadPlayerData(List<UUID> playerIds) {
-        return CompletableFuture.supplyAsync(() -> {
+        return read(connection -> {
             List<PlayerData> playerDataList = new ArrayList<>();
             
             if (playerIds.isEmpty()) {
@@ -1817,7 +1734,7 @@ public class SQLiteHandler implements DatabaseHandler {
             
             try (PreparedStatement stmt = connection.prepareStatement(sql)) {
                 for (int i = 0; i < playerIds.size(); i++) {
-                    stmt.setString(i + 1, playerIds.get(i).toString());
+                    UuidCodec.bind(stmt, i + 1, playerIds.get(i));
                 }
                 
                 ResultSet rs = stmt.executeQuery();
@@ -1830,7 +1747,6 @@ public class SQLiteHandler implements DatabaseHandler {
             }
             
             return playerDataList;
-        }, executor);
+        });
     }
->>>>>>> 802b20989bd53e59c06b10b624bd5acdc909227d
 } 
\ No newline at end of file
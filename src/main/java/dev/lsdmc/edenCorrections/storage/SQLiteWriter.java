@@ -0,0 +1,278 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Single writer for the SQLite database.
+ *
+ * SQLite only allows one writer at a time, so every write goes through one
+ * connection owned by one thread. Writes that queue up while a transaction is
+ * running are grouped into the next transaction. Each write runs inside its own
+ * savepoint, so a failing write is rolled back without affecting the rest of
+ * the group.
+ */
+public class SQLiteWriter {
+
+    /**
+     * A unit of work executed on the writer connection
+     */
+    @FunctionalInterface
+    public interface Work {
+        void execute(Connection connection) throws SQLException;
+    }
+
+    private static final int MAX_GROUP_SIZE = 256;
+
+    private final Logger logger;
+    private final Connection connection;
+    private final BlockingQueue<WriteTask> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running = false;
+
+    // Only touched from the writer thread
+    private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+
+    // Statistics
+    private final AtomicLong completedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+
+    public SQLiteWriter(Logger logger, Connection connection) {
+        this.logger = logger;
+        this.connection = connection;
+        this.thread = new Thread(this::run, "EdenCorrections-DB-Writer");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    public boolean isRunning() {
+        return running && thread.isAlive();
+    }
+
+    /**
+     * Queue a write. It is committed together with any other writes queued at the same time.
+     * @param work the write to run on the writer connection
+     * @return CompletableFuture that completes once the write has been committed
+     */
+    public CompletableFuture<Void> submit(Work work) {
+        return enqueue(work, true);
+    }
+
+    /**
+     * Queue work that must run outside a transaction, such as VACUUM
+     * @param work the work to run on the writer connection
+     * @return CompletableFuture that completes when the work is done
+     */
+    public CompletableFuture<Void> submitUnbatched(Work work) {
+        return enqueue(work, false);
+    }
+
+    private CompletableFuture<Void> enqueue(Work work, boolean transactional) {
+        WriteTask task = new WriteTask(work, transactional);
+        if (!running) {
+            task.future.completeExceptionally(new IllegalStateException("SQLite writer is not running"));
+            return task.future;
+        }
+        queue.add(task);
+        return task.future;
+    }
+
+    /**
+     * Get a cached prepared statement for the writer connection.
+     * Must only be called from inside a {@link Work}.
+     * @param sql the statement SQL
+     * @return the prepared statement
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement stmt = statementCache.get(sql);
+        if (stmt == null || stmt.isClosed()) {
+            stmt = connection.prepareStatement(sql);
+            statementCache.put(sql, stmt);
+        }
+        return stmt;
+    }
+
+    private void run() {
+        List<WriteTask> group = new ArrayList<>();
+
+        while (running || !queue.isEmpty()) {
+            WriteTask first;
+            try {
+                first = queue.poll(250, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+
+            group.add(first);
+            queue.drainTo(group, MAX_GROUP_SIZE - 1);
+
+            // Transactional writes are committed together, anything else runs on its own
+            List<WriteTask> transaction = new ArrayList<>();
+            for (WriteTask task : group) {
+                if (task.transactional) {
+                    transaction.add(task);
+                } else {
+                    commitGroup(transaction);
+                    transaction.clear();
+                    runUnbatched(task);
+                }
+            }
+            commitGroup(transaction);
+            group.clear();
+        }
+    }
+
+    private void commitGroup(List<WriteTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        Map<WriteTask, Throwable> failures = new HashMap<>();
+        try {
+            connection.setAutoCommit(false);
+
+            for (WriteTask task : tasks) {
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    task.work.execute(connection);
+                    connection.releaseSavepoint(savepoint);
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback(savepoint);
+                    failures.put(task, e);
+                }
+            }
+
+            connection.commit();
+            transactions.incrementAndGet();
+        } catch (SQLException e) {
+            logger.severe("SQLite write transaction failed, rolling back " + tasks.size() + " writes: " + e.getMessage());
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackEx) {
+                logger.severe("Failed to rollback write transaction: " + rollbackEx.getMessage());
+            }
+            for (WriteTask task : tasks) {
+                failures.put(task, e);
+            }
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                logger.warning("Failed to reset auto-commit: " + e.getMessage());
+            }
+        }
+
+        for (WriteTask task : tasks) {
+            Throwable failure = failures.get(task);
+            if (failure != null) {
+                failedWrites.incrementAndGet();
+                task.future.completeExceptionally(failure);
+            } else {
+                completedWrites.incrementAndGet();
+                task.future.complete(null);
+            }
+        }
+    }
+
+    private void runUnbatched(WriteTask task) {
+        try {
+            task.work.execute(connection);
+            completedWrites.incrementAndGet();
+            task.future.complete(null);
+        } catch (SQLException | RuntimeException e) {
+            failedWrites.incrementAndGet();
+            task.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Stop accepting writes, finish everything already queued and close the connection
+     * @param timeoutMillis how long to wait for queued writes
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (thread.isAlive()) {
+            logger.warning("SQLite writer did not finish in time, " + queue.size() + " writes dropped");
+        }
+
+        WriteTask task;
+        while ((task = queue.poll()) != null) {
+            task.future.completeExceptionally(new IllegalStateException("SQLite writer shut down"));
+        }
+
+        try {
+            for (PreparedStatement stmt : statementCache.values()) {
+                if (!stmt.isClosed()) {
+                    stmt.close();
+                }
+            }
+            statementCache.clear();
+
+            if (!connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            logger.warning("Error closing SQLite writer connection: " + e.getMessage());
+        }
+    }
+
+    // === STATISTICS ===
+
+    public int getQueuedWrites() {
+        return queue.size();
+    }
+
+    public long getCompletedWrites() {
+        return completedWrites.get();
+    }
+
+    public long getFailedWrites() {
+        return failedWrites.get();
+    }
+
+    /**
+     * @return average number of writes committed per transaction
+     */
+    public double getAverageGroupSize() {
+        long count = transactions.get();
+        return count > 0 ? (double) (completedWrites.get() + failedWrites.get()) / count : 0.0;
+    }
+
+    private static final class WriteTask {
+        private final Work work;
+        private final boolean transactional;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private WriteTask(Work work, boolean transactional) {
+            this.work = work;
+            this.transactional = transactional;
+        }
+    }
+}
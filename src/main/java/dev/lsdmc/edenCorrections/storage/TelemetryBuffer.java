@@ -0,0 +1,153 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.models.PerformanceStat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free ring buffer of guard performance events.
+ *
+ * Any thread may record, one thread at a time drains. Each slot carries a sequence
+ * number: a producer claims the next slot with a single CAS on the write position,
+ * fills the slot's columns and publishes it by advancing the slot's sequence, and
+ * the drain only reads slots whose sequence says they are published. Recording
+ * never locks or allocates; when the buffer is full the event is dropped and
+ * counted instead of stalling the caller.
+ */
+public class TelemetryBuffer {
+    
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 20;
+    
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final UUID[] players;
+    private final PerformanceStat[] stats;
+    private final long[] values;
+    private final long[] times;
+    
+    private final AtomicLong writePosition = new AtomicLong();
+    // Only touched while holding the drain lock
+    private long readPosition;
+    
+    // Statistics
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong drained = new AtomicLong();
+    
+    /**
+     * @param capacity number of events held between drains, rounded up to a power of two
+     */
+    public TelemetryBuffer(int capacity) {
+        int size = MIN_CAPACITY;
+        while (size < Math.min(capacity, MAX_CAPACITY)) {
+            size <<= 1;
+        }
+        
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.players = new UUID[size];
+        this.stats = new PerformanceStat[size];
+        this.values = new long[size];
+        this.times = new long[size];
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    /**
+     * Record one event
+     * @return false if the buffer was full and the event was dropped
+     */
+    public boolean record(UUID playerId, PerformanceStat stat, long value) {
+        long now = System.currentTimeMillis();
+        while (true) {
+            long position = writePosition.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            
+            if (difference == 0) {
+                if (writePosition.compareAndSet(position, position + 1)) {
+                    players[index] = playerId;
+                    stats[index] = stat;
+                    values[index] = value;
+                    times[index] = now;
+                    // Volatile write, publishes the columns above to the drain
+                    sequences.set(index, position + 1);
+                    recorded.incrementAndGet();
+                    return true;
+                }
+            } else if (difference < 0) {
+                // The slot from one lap ago hasn't been drained yet
+                dropped.incrementAndGet();
+                return false;
+            }
+            // Another producer claimed this position first, try the next one
+        }
+    }
+    
+    /**
+     * Take up to maxEvents published events, oldest first
+     */
+    public synchronized List<Event> drain(int maxEvents) {
+        List<Event> events = new ArrayList<>();
+        while (events.size() < maxEvents) {
+            int index = (int) (readPosition & mask);
+            if (sequences.get(index) != readPosition + 1) {
+                // Empty, or the next producer hasn't finished writing its slot
+                break;
+            }
+            
+            events.add(new Event(players[index], stats[index], values[index], times[index]));
+            players[index] = null;
+            stats[index] = null;
+            // Hand the slot to the producer one lap ahead
+            sequences.set(index, readPosition + mask + 1);
+            readPosition++;
+        }
+        drained.addAndGet(events.size());
+        return events;
+    }
+    
+    public int getCapacity() {
+        return mask + 1;
+    }
+    
+    public long getPending() {
+        return Math.max(0, recorded.get() - drained.get());
+    }
+    
+    public long getRecorded() {
+        return recorded.get();
+    }
+    
+    public long getDropped() {
+        return dropped.get();
+    }
+    
+    /**
+     * One recorded performance event
+     */
+    public static final class Event {
+        private final UUID playerId;
+        private final PerformanceStat stat;
+        private final long value;
+        private final long time;
+        
+        public Event(UUID playerId, PerformanceStat stat, long value, long time) {
+            this.playerId = playerId;
+            this.stat = stat;
+            this.value = value;
+            this.time = time;
+        }
+        
+        public UUID getPlayerId() { return playerId; }
+        public PerformanceStat getStat() { return stat; }
+        public long getValue() { return value; }
+        public long getTime() { return time; }
+    }
+}
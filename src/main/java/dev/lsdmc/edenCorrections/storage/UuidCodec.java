@@ -0,0 +1,58 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * Binary UUID columns (schema v2).
+ *
+ * UUIDs are stored as their 16 raw bytes, most significant half first, instead
+ * of the 36 character text form. This is the same layout MySQL's
+ * UUID_TO_BIN(uuid) and SQLite's unhex(replace(uuid, '-', '')) produce, which
+ * the schema migrations rely on.
+ */
+public final class UuidCodec {
+
+    private UuidCodec() {
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("Binary UUID must be 16 bytes, got " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Bind a UUID parameter, or SQL NULL if the UUID is null
+     */
+    public static void bind(PreparedStatement stmt, int index, UUID uuid) throws SQLException {
+        if (uuid == null) {
+            stmt.setNull(index, Types.BINARY);
+        } else {
+            stmt.setBytes(index, toBytes(uuid));
+        }
+    }
+
+    /**
+     * Read a UUID column, or null if the column is NULL
+     */
+    public static UUID read(ResultSet rs, String column) throws SQLException {
+        return fromBytes(rs.getBytes(column));
+    }
+}
@@ -0,0 +1,271 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.EdenCorrections;
+import dev.lsdmc.edenCorrections.models.PlayerDataSnapshot;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind buffer for player data.
+ *
+ * Saves queue a snapshot of the player instead of hitting the database. Repeated
+ * saves of the same player merge into a single pending snapshot, and pending entries are flushed
+ * together through {@link DatabaseHandler#batchSavePlayerData(List)} on a fixed
+ * interval or as soon as the queue reaches its configured depth.
+ */
+public class WriteBehindQueue {
+
+    private final EdenCorrections plugin;
+    private final Logger logger;
+    private final DatabaseHandler databaseHandler;
+
+    // Pending writes keyed by player - a newer save is merged into the older one
+    private final Map<UUID, PlayerDataSnapshot> pendingWrites = new ConcurrentHashMap<>();
+    private final BiConsumer<List<PlayerDataSnapshot>, Map<UUID, Long>> supersededHandler;
+
+    // Only one flush is in flight at a time
+    private final Object flushLock = new Object();
+    private CompletableFuture<Void> inFlightFlush = CompletableFuture.completedFuture(null);
+
+    private final long flushIntervalTicks;
+    private final int maxQueueDepth;
+    private BukkitTask flushTask;
+
+    // Statistics
+    private final AtomicLong saveRequests = new AtomicLong();
+    private final AtomicLong coalescedSaves = new AtomicLong();
+    private final AtomicLong flushedRecords = new AtomicLong();
+    private final AtomicLong completedFlushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos = 0;
+
+    /**
+     * @param supersededHandler called with each flushed batch and the players in it whose
+     *                          row already held a newer version (see
+     *                          {@link DatabaseHandler#batchSavePlayerData(List)})
+     */
+    public WriteBehindQueue(EdenCorrections plugin, DatabaseHandler databaseHandler,
+                            BiConsumer<List<PlayerDataSnapshot>, Map<UUID, Long>> supersededHandler) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.databaseHandler = databaseHandler;
+        this.supersededHandler = supersededHandler;
+        this.flushIntervalTicks = Math.max(1, plugin.getConfigManager().getWriteBehindFlushInterval()) * 20L;
+        this.maxQueueDepth = Math.max(1, plugin.getConfigManager().getWriteBehindMaxQueueDepth());
+    }
+
+    public void start() {
+        flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush,
+            flushIntervalTicks, flushIntervalTicks);
+
+        logger.info("Write-behind queue started (flush every " + (flushIntervalTicks / 20L) +
+                   "s or at " + maxQueueDepth + " pending players)");
+    }
+
+    /**
+     * Queue a snapshot so it is persisted with the next flush
+     * @param snapshot the player data to persist
+     */
+    public void enqueue(PlayerDataSnapshot snapshot) {
+        saveRequests.incrementAndGet();
+
+        pendingWrites.compute(snapshot.playerId(), (playerId, pending) -> {
+            if (pending == null) {
+                return snapshot;
+            }
+            coalescedSaves.incrementAndGet();
+            return PlayerDataSnapshot.merge(pending, snapshot);
+        });
+
+        if (pendingWrites.size() >= maxQueueDepth) {
+            flush();
+        }
+    }
+
+    /**
+     * Get player data that is waiting to be written, if any
+     * @param playerId the player's UUID
+     * @return the pending snapshot, or null if nothing is queued
+     */
+    public PlayerDataSnapshot getPending(UUID playerId) {
+        return pendingWrites.get(playerId);
+    }
+
+    /**
+     * Drop any pending write for a player (used when the player's data is deleted)
+     * @param playerId the player's UUID
+     */
+    public void discard(UUID playerId) {
+        pendingWrites.remove(playerId);
+    }
+
+    public int getPendingCount() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * Write all pending player data in one batch. If a flush is already running
+     * its future is returned and the remaining entries go out with the next flush.
+     * @return CompletableFuture that completes when the batch has been written
+     */
+    public CompletableFuture<Void> flush() {
+        synchronized (flushLock) {
+            if (!inFlightFlush.isDone()) {
+                return inFlightFlush;
+            }
+
+            List<PlayerDataSnapshot> batch = drainPending();
+            if (batch.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            long startTime = System.nanoTime();
+            inFlightFlush = databaseHandler.batchSavePlayerData(batch).handle((superseded, throwable) -> {
+                long elapsed = System.nanoTime() - startTime;
+
+                if (throwable != null) {
+                    failedFlushes.incrementAndGet();
+
+                    // Put the batch back, merged with any newer save that arrived in the meantime
+                    for (PlayerDataSnapshot snapshot : batch) {
+                        pendingWrites.merge(snapshot.playerId(), snapshot, PlayerDataSnapshot::merge);
+                    }
+                    logger.severe("Failed to flush " + batch.size() + " player records, re-queued: " +
+                                 throwable.getMessage());
+                    throw new CompletionException(throwable);
+                }
+
+                if (!superseded.isEmpty()) {
+                    supersededHandler.accept(batch, superseded);
+                }
+
+                completedFlushes.incrementAndGet();
+                flushedRecords.addAndGet(batch.size());
+                totalFlushNanos.addAndGet(elapsed);
+                maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+                lastFlushNanos = elapsed;
+
+                if (plugin.getConfigManager().isDebugMode()) {
+                    logger.info("DEBUG: Flushed " + batch.size() + " player records in " +
+                               String.format("%.2f", elapsed / 1_000_000.0) + "ms");
+                }
+                return null;
+            });
+
+            return inFlightFlush;
+        }
+    }
+
+    private List<PlayerDataSnapshot> drainPending() {
+        List<PlayerDataSnapshot> batch = new ArrayList<>(pendingWrites.size());
+        for (UUID playerId : pendingWrites.keySet()) {
+            PlayerDataSnapshot snapshot = pendingWrites.remove(playerId);
+            if (snapshot != null) {
+                batch.add(snapshot);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Stop the flush timer and write everything that is still pending
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        try {
+            // Wait for a running flush first, then write whatever is left
+            CompletableFuture<Void> running;
+            synchronized (flushLock) {
+                running = inFlightFlush;
+            }
+            try {
+                running.get(30, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                // Failed entries were re-queued and are retried below
+            }
+
+            int remaining = pendingWrites.size();
+            flush().get(30, TimeUnit.SECONDS);
+
+            if (remaining > 0) {
+                logger.info("Flushed " + remaining + " pending player records on shutdown");
+            }
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            logger.severe("Failed to flush pending player data on shutdown (" +
+                         pendingWrites.size() + " records left): " + e.getMessage());
+        }
+    }
+
+    // === STATISTICS ===
+
+    public long getSaveRequests() {
+        return saveRequests.get();
+    }
+
+    public long getFlushedRecords() {
+        return flushedRecords.get();
+    }
+
+    public long getCompletedFlushes() {
+        return completedFlushes.get();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+
+    /**
+     * @return share of save requests that were absorbed by an already pending write
+     */
+    public double getCoalescingRatio() {
+        long requests = saveRequests.get();
+        return requests > 0 ? (double) coalescedSaves.get() / requests : 0.0;
+    }
+
+    public double getAverageFlushLatencyMs() {
+        long flushes = completedFlushes.get();
+        return flushes > 0 ? totalFlushNanos.get() / (flushes * 1_000_000.0) : 0.0;
+    }
+
+    public double getLastFlushLatencyMs() {
+        return lastFlushNanos / 1_000_000.0;
+    }
+
+    public double getMaxFlushLatencyMs() {
+        return maxFlushNanos.get() / 1_000_000.0;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new ConcurrentHashMap<>();
+        stats.put("writeQueuePending", getPendingCount());
+        stats.put("writeQueueSaveRequests", getSaveRequests());
+        stats.put("writeQueueFlushedRecords", getFlushedRecords());
+        stats.put("writeQueueFlushes", getCompletedFlushes());
+        stats.put("writeQueueFailedFlushes", getFailedFlushes());
+        stats.put("writeQueueCoalescingRatio", String.format("%.2f", getCoalescingRatio()));
+        stats.put("writeQueueAvgFlushMs", String.format("%.2f", getAverageFlushLatencyMs()));
+        stats.put("writeQueueLastFlushMs", String.format("%.2f", getLastFlushLatencyMs()));
+        stats.put("writeQueueMaxFlushMs", String.format("%.2f", getMaxFlushLatencyMs()));
+        return stats;
+    }
+}
@@ -0,0 +1,88 @@
+package dev.lsdmc.edenCorrections.utils;
+
+import com.sk89q.worldguard.WorldGuard;
+import com.sk89q.worldguard.protection.flags.Flag;
+import com.sk89q.worldguard.protection.flags.StateFlag;
+import com.sk89q.worldguard.protection.flags.registry.FlagConflictException;
+import com.sk89q.worldguard.protection.flags.registry.FlagRegistry;
+
+import java.util.logging.Logger;
+
+/**
+ * The WorldGuard flags EdenCorrections marks its regions with.
+ *
+ * WorldGuard only accepts new flags while plugins load, so {@link #register(Logger)}
+ * has to run from the plugin's onLoad. A zone whose flag could not be registered is
+ * checked against the region list in the config instead.
+ */
+public final class CorrectionsFlags {
+    
+    /**
+     * The kinds of region the plugin cares about, each backed by one state flag
+     */
+    public enum Zone {
+        NO_CHASE("no-chase"),
+        DUTY_REQUIRED("duty-required"),
+        CHASE_RESTRICTED("chase-restricted"),
+        DUTY_STATION("guard-duty-station");
+        
+        private final String flagName;
+        private volatile StateFlag flag;
+        
+        Zone(String flagName) {
+            this.flagName = flagName;
+        }
+        
+        public String getFlagName() {
+            return flagName;
+        }
+        
+        /**
+         * @return the registered flag, or null if registration failed or WorldGuard is missing
+         */
+        public StateFlag getFlag() {
+            return flag;
+        }
+    }
+    
+    private CorrectionsFlags() {
+    }
+    
+    /**
+     * Register the zone flags with WorldGuard. A flag another plugin already
+     * registered under the same name is shared if it is a state flag.
+     */
+    public static void register(Logger logger) {
+        FlagRegistry registry = WorldGuard.getInstance().getFlagRegistry();
+        
+        for (Zone zone : Zone.values()) {
+            StateFlag flag = new StateFlag(zone.flagName, false);
+            try {
+                registry.register(flag);
+                zone.flag = flag;
+            } catch (FlagConflictException e) {
+                Flag<?> existing = registry.get(zone.flagName);
+                if (existing instanceof StateFlag) {
+                    zone.flag = (StateFlag) existing;
+                } else {
+                    logger.warning("WorldGuard flag '" + zone.flagName + "' is taken by another plugin - " +
+                                 "using the configured region list instead");
+                }
+            } catch (IllegalStateException e) {
+                logger.warning("Could not register WorldGuard flag '" + zone.flagName + "': " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * @return true if every zone has its flag
+     */
+    public static boolean isRegistered() {
+        for (Zone zone : Zone.values()) {
+            if (zone.flag == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,4 +1,3 @@
-<<<<<<< HEAD
 package dev.lsdmc.edenCorrections.utils;
 
 import com.google.gson.*;
@@ -11,12 +10,48 @@ import org.bukkit.enchantments.Enchantment;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.NamespacedKey;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.logging.Logger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
+/**
+ * Stored inventory codec.
+ *
+ * Inventories are written in a versioned binary format:
+ * [magic][format version][compression][timestamp (8 bytes)] followed by the
+ * (optionally deflated) payload: held slot, slot count, then for every slot its
+ * length (-1 if empty) and Paper's {@link ItemStack#serializeAsBytes()} output.
+ * Rows written before the binary format are pretty-printed JSON and are still
+ * read; they never start with the magic byte.
+ *
+ * For storage the items can be split out by content hash (see
+ * {@link #extractItems(byte[], Map)}), leaving a format version 2 payload that
+ * lists the distinct item hashes and, per slot, an index into that list. That
+ * payload is never compressed: it is mostly hashes, and the item bytes Paper
+ * produces are already gzip-compressed, so deduplication is what saves space.
+ * Deflated version 1 data is still read.
+ *
+ * Only {@link #snapshotInventory(Player)} and {@link #applyInventory(Player, InventorySnapshot)}
+ * touch the live inventory and must run on the main thread; encoding and decoding
+ * work on snapshots and can run on any thread.
+ */
 public class InventorySerializer {
     
     private static final Gson gson = new GsonBuilder()
@@ -25,140 +60,544 @@ public class InventorySerializer {
     
     private static final Logger logger = Logger.getLogger(InventorySerializer.class.getName());
     
+    // Binary format header
+    private static final byte BINARY_MAGIC = (byte) 0xEC;
+    private static final byte BINARY_VERSION = 1;
+    private static final byte REFERENCE_VERSION = 2;
+    private static final byte COMPRESSION_NONE = 0;
+    private static final byte COMPRESSION_DEFLATE = 1;
+    private static final int HEADER_SIZE = 11;
+    private static final int ITEM_HASH_SIZE = 32;
+    
+    // 36 main slots, 4 armor slots, off-hand
+    private static final int SLOT_COUNT = 41;
+    
     /**
-     * Serialize a player's entire inventory to JSON
+     * Serialize a player's entire inventory to the binary format
      * @param player the player whose inventory to serialize
-     * @return JSON string representation of the inventory, or null if failed
+     * @param compress whether to deflate the item data
+     * @return the serialized inventory, or null if failed
      */
-    public static String serializePlayerInventory(Player player) {
+    public static byte[] serializePlayerInventory(Player player, boolean compress) {
         if (player == null) {
             logger.warning("Cannot serialize inventory for null player");
             return null;
         }
         
-        try {
-            PlayerInventory inventory = player.getInventory();
-            JsonObject inventoryJson = new JsonObject();
-            
-            // Serialize main inventory (0-35)
-            JsonArray mainInventory = new JsonArray();
-            for (int i = 0; i < 36; i++) {
-                ItemStack item = inventory.getItem(i);
-                mainInventory.add(serializeItemStack(item));
+        return encodeInventory(snapshotInventory(player), compress);
+    }
+    
+    /**
+     * Copy a player's inventory so it can be encoded off the main thread
+     * @param player the player whose inventory to copy
+     * @return a snapshot holding clones of every item
+     */
+    public static InventorySnapshot snapshotInventory(Player player) {
+        PlayerInventory inventory = player.getInventory();
+        ItemStack[] slots = getSlots(inventory);
+        
+        InventorySnapshot snapshot = new InventorySnapshot(System.currentTimeMillis());
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            if (slots[i] != null && !slots[i].getType().isAir()) {
+                snapshot.slots[i] = slots[i].clone();
             }
-            inventoryJson.add("main", mainInventory);
-            
-            // Serialize armor (36-39)
-            JsonArray armorInventory = new JsonArray();
-            ItemStack[] armor = inventory.getArmorContents();
-            for (ItemStack item : armor) {
-                armorInventory.add(serializeItemStack(item));
+        }
+        snapshot.heldItemSlot = inventory.getHeldItemSlot();
+        return snapshot;
+    }
+    
+    /**
+     * Encode an inventory snapshot to the binary format; safe to call from any thread
+     * @param snapshot the snapshot to encode
+     * @param compress whether to deflate the item data
+     * @return the serialized inventory, or null if failed
+     */
+    public static byte[] encodeInventory(InventorySnapshot snapshot, boolean compress) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+            DataOutputStream header = new DataOutputStream(bytes);
+            header.writeByte(BINARY_MAGIC);
+            header.writeByte(BINARY_VERSION);
+            header.writeByte(compress ? COMPRESSION_DEFLATE : COMPRESSION_NONE);
+            header.writeLong(snapshot.timestamp);
+            
+            OutputStream payload = compress ? new DeflaterOutputStream(bytes) : bytes;
+            try (DataOutputStream out = new DataOutputStream(payload)) {
+                out.writeByte(snapshot.heldItemSlot);
+                out.writeShort(SLOT_COUNT);
+                for (ItemStack item : snapshot.slots) {
+                    if (item == null || item.getType().isAir()) {
+                        out.writeInt(-1);
+                        continue;
+                    }
+                    byte[] itemBytes = item.serializeAsBytes();
+                    out.writeInt(itemBytes.length);
+                    out.write(itemBytes);
+                }
             }
-            inventoryJson.add("armor", armorInventory);
-            
-            // Serialize off-hand (40)
-            inventoryJson.add("offhand", serializeItemStack(inventory.getItemInOffHand()));
-            
-            // Store additional metadata
-            JsonObject metadata = new JsonObject();
-            metadata.addProperty("heldItemSlot", inventory.getHeldItemSlot());
-            metadata.addProperty("timestamp", System.currentTimeMillis());
-            metadata.addProperty("playerName", player.getName());
-            metadata.addProperty("playerUuid", player.getUniqueId().toString());
-            metadata.addProperty("version", "1.0"); // For future compatibility
-            inventoryJson.add("metadata", metadata);
             
-            String result = gson.toJson(inventoryJson);
-            
-            return result;
+            return bytes.toByteArray();
             
         } catch (Exception e) {
-            logger.severe("Failed to serialize inventory for " + player.getName() + ": " + e.getMessage());
+            logger.severe("Failed to encode inventory: " + e.getMessage());
             e.printStackTrace();
             return null;
         }
     }
     
     /**
-     * Deserialize JSON and restore a player's inventory
+     * Restore a player's inventory from stored data in either the binary or the legacy JSON format
      * @param player the player to restore the inventory for
-     * @param inventoryJson the JSON string containing the inventory data
+     * @param data the stored inventory data
      * @return true if successful, false otherwise
      */
-    public static boolean deserializePlayerInventory(Player player, String inventoryJson) {
+    public static boolean deserializePlayerInventory(Player player, byte[] data) {
         if (player == null) {
             logger.warning("Cannot deserialize inventory for null player");
             return false;
         }
         
-        if (inventoryJson == null || inventoryJson.trim().isEmpty()) {
-            logger.warning("Cannot deserialize null or empty inventory data for " + player.getName());
+        // Decode everything before touching the live inventory
+        InventorySnapshot snapshot = decodeInventory(data);
+        if (snapshot == null) {
+            logger.warning("Could not restore stored inventory for " + player.getName());
             return false;
         }
         
+        applyInventory(player, snapshot);
+        return true;
+    }
+    
+    /**
+     * Decode stored data in either the binary or the legacy JSON format; safe to call from any thread
+     * @param data the stored inventory data
+     * @return the decoded inventory, or null if the data is empty or invalid
+     */
+    public static InventorySnapshot decodeInventory(byte[] data) {
+        if (data == null || data.length == 0) {
+            logger.warning("Cannot deserialize null or empty inventory data");
+            return null;
+        }
+        
         try {
-            // Validate the JSON structure first
-            if (!validateInventoryData(inventoryJson)) {
-                logger.warning("Invalid inventory data format for " + player.getName());
-                return false;
+            if (isBinaryFormat(data)) {
+                return decodeBinary(data);
             }
             
-            JsonObject inventoryObj = JsonParser.parseString(inventoryJson).getAsJsonObject();
-            PlayerInventory inventory = player.getInventory();
-            
-            // Clear current inventory
-            inventory.clear();
+            // Parse once, then validate the parsed structure
+            JsonObject inventoryObj = JsonParser.parseString(new String(data, StandardCharsets.UTF_8)).getAsJsonObject();
+            if (!isValidInventoryObject(inventoryObj)) {
+                logger.warning("Invalid inventory data format");
+                return null;
+            }
+            return decodeLegacyJson(inventoryObj);
             
-            // Restore main inventory (0-35)
-            if (inventoryObj.has("main")) {
-                JsonArray mainInventory = inventoryObj.getAsJsonArray("main");
-                for (int i = 0; i < mainInventory.size() && i < 36; i++) {
-                    ItemStack item = deserializeItemStack(mainInventory.get(i));
-                    if (item != null) {
-                        inventory.setItem(i, item);
-                    }
+        } catch (Exception e) {
+            logger.severe("Failed to deserialize inventory: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Get the time an inventory was stored, without decoding the items
+     * @param data the stored inventory data
+     * @return the timestamp in milliseconds, or -1 if the data can't be read
+     */
+    public static long getStoredTimestamp(byte[] data) {
+        if (data == null || data.length == 0) {
+            return -1;
+        }
+        
+        if (isBinaryFormat(data)) {
+            return data.length >= HEADER_SIZE ? ByteBuffer.wrap(data, 3, 8).getLong() : -1;
+        }
+        
+        try {
+            JsonObject inventoryObj = JsonParser.parseString(new String(data, StandardCharsets.UTF_8)).getAsJsonObject();
+            if (inventoryObj.has("metadata")) {
+                JsonObject metadata = inventoryObj.getAsJsonObject("metadata");
+                if (metadata.has("timestamp")) {
+                    return metadata.get("timestamp").getAsLong();
                 }
             }
-            
-            // Restore armor (36-39)
-            if (inventoryObj.has("armor")) {
-                JsonArray armorInventory = inventoryObj.getAsJsonArray("armor");
-                ItemStack[] armor = new ItemStack[4];
-                for (int i = 0; i < armorInventory.size() && i < 4; i++) {
-                    armor[i] = deserializeItemStack(armorInventory.get(i));
+        } catch (Exception e) {
+            // Corrupted data
+        }
+        return -1;
+    }
+    
+    private static boolean isBinaryFormat(byte[] data) {
+        return data.length > 0 && data[0] == BINARY_MAGIC;
+    }
+    
+    private static ItemStack[] getSlots(PlayerInventory inventory) {
+        ItemStack[] slots = new ItemStack[SLOT_COUNT];
+        for (int i = 0; i < 36; i++) {
+            slots[i] = inventory.getItem(i);
+        }
+        ItemStack[] armor = inventory.getArmorContents();
+        for (int i = 0; i < 4 && i < armor.length; i++) {
+            slots[36 + i] = armor[i];
+        }
+        slots[40] = inventory.getItemInOffHand();
+        return slots;
+    }
+    
+    private static InventorySnapshot decodeBinary(byte[] data) throws IOException {
+        if (data.length < HEADER_SIZE) {
+            throw new IOException("Inventory data is truncated");
+        }
+        if (data[1] == REFERENCE_VERSION) {
+            throw new IOException("Inventory items have not been resolved");
+        }
+        if (data[1] != BINARY_VERSION) {
+            throw new IOException("Unsupported inventory format version " + data[1]);
+        }
+        
+        try (DataInputStream in = openPayload(data)) {
+            InventorySnapshot decoded = new InventorySnapshot(ByteBuffer.wrap(data, 3, 8).getLong());
+            decoded.heldItemSlot = in.readByte();
+            int slotCount = in.readShort();
+            for (int i = 0; i < slotCount; i++) {
+                int length = in.readInt();
+                if (length < 0) {
+                    continue;
+                }
+                byte[] itemBytes = new byte[length];
+                in.readFully(itemBytes);
+                if (i < SLOT_COUNT) {
+                    decoded.slots[i] = ItemStack.deserializeBytes(itemBytes);
                 }
-                inventory.setArmorContents(armor);
             }
-            
-            // Restore off-hand
-            if (inventoryObj.has("offhand")) {
-                ItemStack offhand = deserializeItemStack(inventoryObj.get("offhand"));
-                if (offhand != null) {
-                    inventory.setItemInOffHand(offhand);
+            return decoded;
+        }
+    }
+    
+    private static DataInputStream openPayload(byte[] data) throws IOException {
+        InputStream payload = new ByteArrayInputStream(data, HEADER_SIZE, data.length - HEADER_SIZE);
+        switch (data[2]) {
+            case COMPRESSION_NONE:
+                break;
+            case COMPRESSION_DEFLATE:
+                payload = new InflaterInputStream(payload);
+                break;
+            default:
+                throw new IOException("Unsupported inventory compression " + data[2]);
+        }
+        return new DataInputStream(payload);
+    }
+    
+    // Header with the given format version and no payload compression (see the class comment)
+    private static void writeHeader(DataOutputStream out, byte version, byte[] data) throws IOException {
+        out.writeByte(BINARY_MAGIC);
+        out.writeByte(version);
+        out.writeByte(COMPRESSION_NONE);
+        out.write(data, 3, 8);
+    }
+    
+    // === ITEM REFERENCES ===
+    
+    /**
+     * Split binary inventory data into its distinct items and a payload that refers
+     * to them by content hash, so identical items only have to be stored once
+     * @param data inventory data in the binary format
+     * @param items receives the serialized bytes of every item, keyed by hex SHA-256 hash
+     * @return the referencing inventory data, or null if the data isn't in the binary
+     *         format (legacy JSON) and should be stored as it is
+     * @throws IOException if the data is malformed
+     */
+    public static byte[] extractItems(byte[] data, Map<String, byte[]> items) throws IOException {
+        if (data.length < HEADER_SIZE || !isBinaryFormat(data) || data[1] != BINARY_VERSION) {
+            return null;
+        }
+        
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        
+        List<byte[]> hashes = new ArrayList<>();
+        Map<String, Integer> hashIndexes = new HashMap<>();
+        int heldItemSlot;
+        int[] slotRefs;
+        
+        try (DataInputStream in = openPayload(data)) {
+            heldItemSlot = in.readByte();
+            slotRefs = new int[in.readShort()];
+            for (int i = 0; i < slotRefs.length; i++) {
+                int length = in.readInt();
+                if (length < 0) {
+                    slotRefs[i] = -1;
+                    continue;
+                }
+                byte[] itemBytes = new byte[length];
+                in.readFully(itemBytes);
+                
+                byte[] hash = digest.digest(itemBytes);
+                String key = HexFormat.of().formatHex(hash);
+                Integer index = hashIndexes.get(key);
+                if (index == null) {
+                    index = hashes.size();
+                    hashes.add(hash);
+                    hashIndexes.put(key, index);
+                    items.putIfAbsent(key, itemBytes);
                 }
+                slotRefs[i] = index;
             }
-            
-            // Restore metadata
-            if (inventoryObj.has("metadata")) {
-                JsonObject metadata = inventoryObj.getAsJsonObject("metadata");
-                if (metadata.has("heldItemSlot")) {
-                    int heldSlot = metadata.get("heldItemSlot").getAsInt();
-                    if (heldSlot >= 0 && heldSlot < 9) {
-                        inventory.setHeldItemSlot(heldSlot);
-                    }
+        }
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + 5 + hashes.size() * ITEM_HASH_SIZE + slotRefs.length * 2);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeHeader(out, REFERENCE_VERSION, data);
+            out.writeByte(heldItemSlot);
+            out.writeShort(hashes.size());
+            for (byte[] hash : hashes) {
+                out.write(hash);
+            }
+            out.writeShort(slotRefs.length);
+            for (int ref : slotRefs) {
+                out.writeShort(ref);
+            }
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Get the item hashes a referencing payload needs resolved
+     * @param data stored inventory data
+     * @return the hex SHA-256 hashes, empty if the data holds its items inline
+     * @throws IOException if the data is malformed
+     */
+    public static List<String> getItemReferences(byte[] data) throws IOException {
+        List<String> references = new ArrayList<>();
+        if (data.length < HEADER_SIZE || !isBinaryFormat(data) || data[1] != REFERENCE_VERSION) {
+            return references;
+        }
+        
+        try (DataInputStream in = openPayload(data)) {
+            in.readByte();
+            int hashCount = in.readShort();
+            byte[] hash = new byte[ITEM_HASH_SIZE];
+            for (int i = 0; i < hashCount; i++) {
+                in.readFully(hash);
+                references.add(HexFormat.of().formatHex(hash));
+            }
+        }
+        return references;
+    }
+    
+    /**
+     * Turn a referencing payload back into self-contained binary inventory data
+     * @param data stored inventory data
+     * @param items item bytes keyed by hex SHA-256 hash, covering {@link #getItemReferences(byte[])}
+     * @return the binary inventory data, or the data unchanged if it holds its items inline
+     * @throws IOException if the data is malformed or an item is missing
+     */
+    public static byte[] resolveItems(byte[] data, Map<String, byte[]> items) throws IOException {
+        if (data.length < HEADER_SIZE || !isBinaryFormat(data) || data[1] != REFERENCE_VERSION) {
+            return data;
+        }
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (DataInputStream in = openPayload(data);
+             DataOutputStream out = new DataOutputStream(bytes)) {
+            writeHeader(out, BINARY_VERSION, data);
+            out.writeByte(in.readByte());
+            
+            byte[][] slotItems = new byte[in.readShort()][];
+            byte[] hash = new byte[ITEM_HASH_SIZE];
+            for (int i = 0; i < slotItems.length; i++) {
+                in.readFully(hash);
+                String key = HexFormat.of().formatHex(hash);
+                slotItems[i] = items.get(key);
+                if (slotItems[i] == null) {
+                    throw new IOException("Stored item " + key + " is missing");
                 }
             }
             
-            // Update the player's inventory
-            player.updateInventory();
+            int slotCount = in.readShort();
+            out.writeShort(slotCount);
+            for (int i = 0; i < slotCount; i++) {
+                int ref = in.readShort();
+                if (ref < 0) {
+                    out.writeInt(-1);
+                    continue;
+                }
+                out.writeInt(slotItems[ref].length);
+                out.write(slotItems[ref]);
+            }
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Replace a player's inventory with a snapshot; must run on the main thread
+     * @param player the player to restore the inventory for
+     * @param decoded the inventory to apply
+     */
+    public static void applyInventory(Player player, InventorySnapshot decoded) {
+        PlayerInventory inventory = player.getInventory();
+        
+        // Clear current inventory
+        inventory.clear();
+        
+        // Restore main inventory (0-35)
+        for (int i = 0; i < 36; i++) {
+            if (decoded.slots[i] != null) {
+                inventory.setItem(i, decoded.slots[i]);
+            }
+        }
+        
+        // Restore armor (36-39) and off-hand (40)
+        inventory.setArmorContents(Arrays.copyOfRange(decoded.slots, 36, 40));
+        if (decoded.slots[40] != null) {
+            inventory.setItemInOffHand(decoded.slots[40]);
+        }
+        
+        if (decoded.heldItemSlot >= 0 && decoded.heldItemSlot < 9) {
+            inventory.setHeldItemSlot(decoded.heldItemSlot);
+        }
+        
+        // Update the player's inventory
+        player.updateInventory();
+    }
+    
+    /**
+     * Compare the binary format against the legacy JSON format on a player's current inventory
+     * @param player the player whose inventory to encode
+     * @param iterations how many times to encode and decode each format
+     * @return report lines with the encoded size and average encode/decode time per format
+     */
+    public static List<String> compareFormats(Player player, int iterations) {
+        List<String> report = new ArrayList<>();
+        
+        try {
+            long start = System.nanoTime();
+            String json = null;
+            for (int i = 0; i < iterations; i++) {
+                json = serializeLegacyJson(player);
+            }
+            double jsonEncode = (System.nanoTime() - start) / 1000.0 / iterations;
             
-            return true;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                decodeLegacyJson(JsonParser.parseString(json).getAsJsonObject());
+            }
+            double jsonDecode = (System.nanoTime() - start) / 1000.0 / iterations;
+            report.add(String.format("JSON (legacy): %d bytes, encode %.1f us, decode %.1f us",
+                json.getBytes(StandardCharsets.UTF_8).length, jsonEncode, jsonDecode));
+            
+            for (boolean compress : new boolean[] {false, true}) {
+                start = System.nanoTime();
+                byte[] data = null;
+                for (int i = 0; i < iterations; i++) {
+                    data = serializePlayerInventory(player, compress);
+                }
+                double encode = (System.nanoTime() - start) / 1000.0 / iterations;
+                
+                start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    decodeBinary(data);
+                }
+                double decode = (System.nanoTime() - start) / 1000.0 / iterations;
+                report.add(String.format("Binary%s: %d bytes, encode %.1f us, decode %.1f us",
+                    compress ? " + deflate" : "", data.length, encode, decode));
+            }
             
+            // What storage keeps: the referencing payload plus each distinct item once
+            Map<String, byte[]> items = new HashMap<>();
+            byte[] references = extractItems(serializePlayerInventory(player, false), items);
+            int itemBytes = items.values().stream().mapToInt(item -> item.length).sum();
+            report.add(String.format("Stored (deduplicated): %d bytes + %d bytes in %d distinct items",
+                references.length, itemBytes, items.size()));
         } catch (Exception e) {
-            logger.severe("Failed to deserialize inventory for " + player.getName() + ": " + e.getMessage());
-            e.printStackTrace();
-            return false;
+            report.add("Comparison failed: " + e.getMessage());
+        }
+        
+        return report;
+    }
+    
+    // === LEGACY JSON FORMAT ===
+    
+    /**
+     * Serialize a player's entire inventory to the legacy JSON format (kept for format comparisons)
+     * @param player the player whose inventory to serialize
+     * @return JSON string representation of the inventory
+     */
+    private static String serializeLegacyJson(Player player) {
+        PlayerInventory inventory = player.getInventory();
+        JsonObject inventoryJson = new JsonObject();
+        
+        // Serialize main inventory (0-35)
+        JsonArray mainInventory = new JsonArray();
+        for (int i = 0; i < 36; i++) {
+            ItemStack item = inventory.getItem(i);
+            mainInventory.add(serializeItemStack(item));
+        }
+        inventoryJson.add("main", mainInventory);
+        
+        // Serialize armor (36-39)
+        JsonArray armorInventory = new JsonArray();
+        ItemStack[] armor = inventory.getArmorContents();
+        for (ItemStack item : armor) {
+            armorInventory.add(serializeItemStack(item));
+        }
+        inventoryJson.add("armor", armorInventory);
+        
+        // Serialize off-hand (40)
+        inventoryJson.add("offhand", serializeItemStack(inventory.getItemInOffHand()));
+        
+        // Store additional metadata
+        JsonObject metadata = new JsonObject();
+        metadata.addProperty("heldItemSlot", inventory.getHeldItemSlot());
+        metadata.addProperty("timestamp", System.currentTimeMillis());
+        metadata.addProperty("playerName", player.getName());
+        metadata.addProperty("playerUuid", player.getUniqueId().toString());
+        metadata.addProperty("version", "1.0"); // For future compatibility
+        inventoryJson.add("metadata", metadata);
+        
+        return gson.toJson(inventoryJson);
+    }
+    
+    private static InventorySnapshot decodeLegacyJson(JsonObject inventoryObj) {
+        InventorySnapshot decoded = new InventorySnapshot(-1);
+        
+        // Main inventory (0-35)
+        if (inventoryObj.has("main")) {
+            JsonArray mainInventory = inventoryObj.getAsJsonArray("main");
+            for (int i = 0; i < mainInventory.size() && i < 36; i++) {
+                decoded.slots[i] = deserializeItemStack(mainInventory.get(i));
+            }
         }
+        
+        // Armor (36-39)
+        if (inventoryObj.has("armor")) {
+            JsonArray armorInventory = inventoryObj.getAsJsonArray("armor");
+            for (int i = 0; i < armorInventory.size() && i < 4; i++) {
+                decoded.slots[36 + i] = deserializeItemStack(armorInventory.get(i));
+            }
+        }
+        
+        // Off-hand (40)
+        if (inventoryObj.has("offhand")) {
+            decoded.slots[40] = deserializeItemStack(inventoryObj.get("offhand"));
+        }
+        
+        // Metadata
+        if (inventoryObj.has("metadata")) {
+            JsonObject metadata = inventoryObj.getAsJsonObject("metadata");
+            if (metadata.has("heldItemSlot")) {
+                decoded.heldItemSlot = metadata.get("heldItemSlot").getAsInt();
+            }
+            if (metadata.has("timestamp")) {
+                decoded.timestamp = metadata.get("timestamp").getAsLong();
+            }
+        }
+        
+        return decoded;
     }
     
     /**
@@ -528,8 +967,15 @@ public class InventorySerializer {
         }
         
         try {
-            JsonObject inventoryObj = JsonParser.parseString(inventoryJson).getAsJsonObject();
-            
+            return isValidInventoryObject(JsonParser.parseString(inventoryJson).getAsJsonObject());
+        } catch (Exception e) {
+            logger.warning("Invalid inventory data format: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private static boolean isValidInventoryObject(JsonObject inventoryObj) {
+        try {
             // Check for required fields
             if (!inventoryObj.has("main") || !inventoryObj.has("armor") || !inventoryObj.has("metadata")) {
                 return false;
@@ -596,545 +1042,31 @@ public class InventorySerializer {
         
         return true;
     }
-=======
-package dev.lsdmc.edenCorrections.utils;
-
-import com.google.gson.*;
-import org.bukkit.Material;
-import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.PlayerInventory;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.enchantments.Enchantment;
-import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.NamespacedKey;
-
-import java.util.HashMap;
-import java.util.Map;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.logging.Logger;
-
-public class InventorySerializer {
-    
-    private static final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .create();
-    
-    private static final Logger logger = Logger.getLogger(InventorySerializer.class.getName());
     
     /**
-     * Serialize a player's entire inventory to JSON
-     * @param player the player whose inventory to serialize
-     * @return JSON string representation of the inventory
+     * A copy of a player's inventory, detached from the live inventory
      */
-    public static String serializePlayerInventory(Player player) {
-        try {
-            PlayerInventory inventory = player.getInventory();
-            JsonObject inventoryJson = new JsonObject();
-            
-            // Serialize main inventory (0-35)
-            JsonArray mainInventory = new JsonArray();
-            for (int i = 0; i < 36; i++) {
-                ItemStack item = inventory.getItem(i);
-                mainInventory.add(serializeItemStack(item));
-            }
-            inventoryJson.add("main", mainInventory);
-            
-            // Serialize armor (36-39)
-            JsonArray armorInventory = new JsonArray();
-            ItemStack[] armor = inventory.getArmorContents();
-            for (ItemStack item : armor) {
-                armorInventory.add(serializeItemStack(item));
-            }
-            inventoryJson.add("armor", armorInventory);
-            
-            // Serialize off-hand (40)
-            inventoryJson.add("offhand", serializeItemStack(inventory.getItemInOffHand()));
-            
-            // Store additional metadata
-            JsonObject metadata = new JsonObject();
-            metadata.addProperty("heldItemSlot", inventory.getHeldItemSlot());
-            metadata.addProperty("timestamp", System.currentTimeMillis());
-            metadata.addProperty("playerName", player.getName());
-            metadata.addProperty("playerUuid", player.getUniqueId().toString());
-            inventoryJson.add("metadata", metadata);
-            
-            return gson.toJson(inventoryJson);
-            
-        } catch (Exception e) {
-            logger.severe("Failed to serialize inventory for " + player.getName() + ": " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
-    }
-    
-    /**
-     * Deserialize JSON and restore a player's inventory
-     * @param player the player to restore the inventory for
-     * @param inventoryJson the JSON string containing the inventory data
-     * @return true if successful, false otherwise
-     */
-    public static boolean deserializePlayerInventory(Player player, String inventoryJson) {
-        try {
-            if (inventoryJson == null || inventoryJson.trim().isEmpty()) {
-                logger.warning("Cannot deserialize null or empty inventory data for " + player.getName());
-                return false;
-            }
-            
-            JsonObject inventoryObj = JsonParser.parseString(inventoryJson).getAsJsonObject();
-            PlayerInventory inventory = player.getInventory();
-            
-            // Clear current inventory
-            inventory.clear();
-            
-            // Restore main inventory (0-35)
-            if (inventoryObj.has("main")) {
-                JsonArray mainInventory = inventoryObj.getAsJsonArray("main");
-                for (int i = 0; i < mainInventory.size() && i < 36; i++) {
-                    ItemStack item = deserializeItemStack(mainInventory.get(i));
-                    if (item != null) {
-                        inventory.setItem(i, item);
-                    }
-                }
-            }
-            
-            // Restore armor (36-39)
-            if (inventoryObj.has("armor")) {
-                JsonArray armorInventory = inventoryObj.getAsJsonArray("armor");
-                ItemStack[] armor = new ItemStack[4];
-                for (int i = 0; i < armorInventory.size() && i < 4; i++) {
-                    armor[i] = deserializeItemStack(armorInventory.get(i));
-                }
-                inventory.setArmorContents(armor);
-            }
-            
-            // Restore off-hand
-            if (inventoryObj.has("offhand")) {
-                ItemStack offhand = deserializeItemStack(inventoryObj.get("offhand"));
-                if (offhand != null) {
-                    inventory.setItemInOffHand(offhand);
-                }
-            }
-            
-            // Restore metadata
-            if (inventoryObj.has("metadata")) {
-                JsonObject metadata = inventoryObj.getAsJsonObject("metadata");
-                if (metadata.has("heldItemSlot")) {
-                    inventory.setHeldItemSlot(metadata.get("heldItemSlot").getAsInt());
-                }
-            }
-            
-            // Update the player's inventory
-            player.updateInventory();
-            
-            return true;
-            
-        } catch (Exception e) {
-            logger.severe("Failed to deserialize inventory for " + player.getName() + ": " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
-    }
-    
-    /**
-     * Serialize an individual ItemStack to JSON
-     * @param item the ItemStack to serialize
-     * @return JsonElement representing the ItemStack
-     */
-    private static JsonElement serializeItemStack(ItemStack item) {
-        if (item == null || item.getType() == Material.AIR) {
-            return JsonNull.INSTANCE;
-        }
-        
-        try {
-            JsonObject itemJson = new JsonObject();
-            
-            // Basic item properties
-            itemJson.addProperty("type", item.getType().name());
-            itemJson.addProperty("amount", item.getAmount());
-            itemJson.addProperty("durability", item.getDurability());
-            
-            // ItemMeta data
-            if (item.hasItemMeta()) {
-                ItemMeta meta = item.getItemMeta();
-                JsonObject metaJson = new JsonObject();
-                
-                // Display name
-                if (meta.hasDisplayName()) {
-                    metaJson.addProperty("displayName", meta.getDisplayName());
-                }
-                
-                // Lore
-                if (meta.hasLore()) {
-                    JsonArray loreArray = new JsonArray();
-                    for (String loreLine : meta.getLore()) {
-                        loreArray.add(loreLine);
-                    }
-                    metaJson.add("lore", loreArray);
-                }
-                
-                // Enchantments
-                if (meta.hasEnchants()) {
-                    JsonObject enchantmentsJson = new JsonObject();
-                    for (Map.Entry<Enchantment, Integer> entry : meta.getEnchants().entrySet()) {
-                        enchantmentsJson.addProperty(entry.getKey().getKey().toString(), entry.getValue());
-                    }
-                    metaJson.add("enchantments", enchantmentsJson);
-                }
-                
-                // Custom model data
-                if (meta.hasCustomModelData()) {
-                    metaJson.addProperty("customModelData", meta.getCustomModelData());
-                }
-                
-                // Unbreakable
-                if (meta.isUnbreakable()) {
-                    metaJson.addProperty("unbreakable", true);
-                }
-                
-                // Attribute modifiers
-                if (meta.hasAttributeModifiers()) {
-                    // We'll skip complex attribute modifiers for now
-                    // This can be expanded if needed
-                    metaJson.addProperty("hasAttributeModifiers", true);
-                }
-                
-                // Persistent data container (basic support)
-                if (!meta.getPersistentDataContainer().isEmpty()) {
-                    // We'll skip complex persistent data for now
-                    // This can be expanded if needed
-                    metaJson.addProperty("hasPersistentData", true);
-                }
-                
-                itemJson.add("meta", metaJson);
-            }
-            
-            return itemJson;
-            
-        } catch (Exception e) {
-            logger.warning("Failed to serialize ItemStack: " + e.getMessage());
-            return JsonNull.INSTANCE;
-        }
-    }
-    
-    /**
-     * Deserialize a JsonElement to an ItemStack
-     * @param element the JsonElement to deserialize
-     * @return the deserialized ItemStack, or null if invalid
-     */
-    private static ItemStack deserializeItemStack(JsonElement element) {
-        if (element == null || element.isJsonNull()) {
-            return null;
+    public static final class InventorySnapshot {
+        private final ItemStack[] slots = new ItemStack[SLOT_COUNT];
+        private int heldItemSlot = -1;
+        private long timestamp;
+        
+        private InventorySnapshot(long timestamp) {
+            this.timestamp = timestamp;
         }
         
-        try {
-            JsonObject itemJson = element.getAsJsonObject();
-            
-            // Basic item properties
-            Material type = Material.valueOf(itemJson.get("type").getAsString());
-            int amount = itemJson.get("amount").getAsInt();
-            short durability = itemJson.has("durability") ? itemJson.get("durability").getAsShort() : 0;
-            
-            ItemStack item = new ItemStack(type, amount);
-            item.setDurability(durability);
-            
-            // ItemMeta data
-            if (itemJson.has("meta")) {
-                JsonObject metaJson = itemJson.getAsJsonObject("meta");
-                ItemMeta meta = item.getItemMeta();
-                
-                if (meta != null) {
-                    // Display name
-                    if (metaJson.has("displayName")) {
-                        meta.setDisplayName(metaJson.get("displayName").getAsString());
-                    }
-                    
-                    // Lore
-                    if (metaJson.has("lore")) {
-                        JsonArray loreArray = metaJson.getAsJsonArray("lore");
-                        List<String> lore = new ArrayList<>();
-                        for (JsonElement loreElement : loreArray) {
-                            lore.add(loreElement.getAsString());
-                        }
-                        meta.setLore(lore);
-                    }
-                    
-                    // Enchantments
-                    if (metaJson.has("enchantments")) {
-                        JsonObject enchantmentsJson = metaJson.getAsJsonObject("enchantments");
-                        for (Map.Entry<String, JsonElement> entry : enchantmentsJson.entrySet()) {
-                            try {
-                                Enchantment enchantment = Enchantment.getByKey(NamespacedKey.minecraft(entry.getKey()));
-                                if (enchantment != null) {
-                                    meta.addEnchant(enchantment, entry.getValue().getAsInt(), true);
-                                }
-                            } catch (Exception e) {
-                                logger.warning("Failed to deserialize enchantment: " + entry.getKey());
-                            }
-                        }
-                    }
-                    
-                    // Custom model data
-                    if (metaJson.has("customModelData")) {
-                        meta.setCustomModelData(metaJson.get("customModelData").getAsInt());
-                    }
-                    
-                    // Unbreakable
-                    if (metaJson.has("unbreakable") && metaJson.get("unbreakable").getAsBoolean()) {
-                        meta.setUnbreakable(true);
-                    }
-                    
-                    item.setItemMeta(meta);
-                }
-            }
-            
-            return item;
-            
-        } catch (Exception e) {
-            logger.warning("Failed to deserialize ItemStack: " + e.getMessage());
-            return null;
+        /**
+         * @return when the inventory was stored, or -1 if unknown
+         */
+        public long getTimestamp() {
+            return timestamp;
         }
-    }
-    
-    /**
-     * Create a snapshot of essential inventory info for comparison
-     * @param player the player to snapshot
-     * @return a compact JSON string with essential inventory info
-     */
-    public static String createInventorySnapshot(Player player) {
-        try {
-            JsonObject snapshot = new JsonObject();
-            PlayerInventory inventory = player.getInventory();
-            
-            // Count items by type
-            Map<Material, Integer> itemCounts = new HashMap<>();
-            
-            // Count main inventory items
-            for (int i = 0; i < 36; i++) {
-                ItemStack item = inventory.getItem(i);
-                if (item != null && item.getType() != Material.AIR) {
-                    itemCounts.merge(item.getType(), item.getAmount(), Integer::sum);
-                }
-            }
-            
-            // Count armor items
-            for (ItemStack armor : inventory.getArmorContents()) {
-                if (armor != null && armor.getType() != Material.AIR) {
-                    itemCounts.merge(armor.getType(), armor.getAmount(), Integer::sum);
-                }
-            }
-            
-            // Count off-hand item
-            ItemStack offhand = inventory.getItemInOffHand();
-            if (offhand != null && offhand.getType() != Material.AIR) {
-                itemCounts.merge(offhand.getType(), offhand.getAmount(), Integer::sum);
-            }
-            
-            // Convert to JSON
-            JsonObject itemCountsJson = new JsonObject();
-            for (Map.Entry<Material, Integer> entry : itemCounts.entrySet()) {
-                itemCountsJson.addProperty(entry.getKey().name(), entry.getValue());
-            }
-            snapshot.add("itemCounts", itemCountsJson);
-            
-            // Add metadata
-            snapshot.addProperty("timestamp", System.currentTimeMillis());
-            snapshot.addProperty("totalItems", itemCounts.values().stream().mapToInt(Integer::intValue).sum());
-            
-            return gson.toJson(snapshot);
-            
-        } catch (Exception e) {
-            logger.warning("Failed to create inventory snapshot for " + player.getName() + ": " + e.getMessage());
-            return "{}";
-        }
-    }
-    
-    /**
-     * Check if player's inventory contains any guard kit items
-     * @param player the player to check
-     * @param guardKitItems list of materials that are considered guard kit items
-     * @return true if player has any guard kit items, false otherwise
-     */
-    public static boolean hasGuardKitItems(Player player, List<Material> guardKitItems) {
-        PlayerInventory inventory = player.getInventory();
-        
-        // Check main inventory
-        for (int i = 0; i < 36; i++) {
-            ItemStack item = inventory.getItem(i);
-            if (item != null && guardKitItems.contains(item.getType())) {
-                return true;
-            }
-        }
-        
-        // Check armor
-        for (ItemStack armor : inventory.getArmorContents()) {
-            if (armor != null && guardKitItems.contains(armor.getType())) {
-                return true;
-            }
-        }
-        
-        // Check off-hand
-        ItemStack offhand = inventory.getItemInOffHand();
-        if (offhand != null && guardKitItems.contains(offhand.getType())) {
-            return true;
-        }
-        
-        return false;
-    }
-    
-    /**
-     * Remove all guard kit items from player's inventory
-     * @param player the player to remove items from
-     * @param guardKitItems list of materials that are considered guard kit items
-     * @return number of items removed
-     */
-    public static int removeGuardKitItems(Player player, List<Material> guardKitItems) {
-        PlayerInventory inventory = player.getInventory();
-        int removedCount = 0;
-        
-        // Remove from main inventory
-        for (int i = 0; i < 36; i++) {
-            ItemStack item = inventory.getItem(i);
-            if (item != null && guardKitItems.contains(item.getType())) {
-                removedCount += item.getAmount();
-                inventory.setItem(i, null);
-            }
-        }
-        
-        // Remove from armor
-        ItemStack[] armor = inventory.getArmorContents();
-        for (int i = 0; i < armor.length; i++) {
-            if (armor[i] != null && guardKitItems.contains(armor[i].getType())) {
-                removedCount += armor[i].getAmount();
-                armor[i] = null;
-            }
-        }
-        inventory.setArmorContents(armor);
-        
-        // Remove from off-hand
-        ItemStack offhand = inventory.getItemInOffHand();
-        if (offhand != null && guardKitItems.contains(offhand.getType())) {
-            removedCount += offhand.getAmount();
-            inventory.setItemInOffHand(null);
-        }
-        
-        player.updateInventory();
-        return removedCount;
-    }
-    
-    /**
-     * Get a list of common guard kit items
-     * @return list of materials commonly found in guard kits
-     */
-    public static List<Material> getCommonGuardKitItems() {
-        List<Material> guardItems = new ArrayList<>();
-        
-        // Weapons
-        guardItems.add(Material.WOODEN_SWORD);
-        guardItems.add(Material.STONE_SWORD);
-        guardItems.add(Material.IRON_SWORD);
-        guardItems.add(Material.DIAMOND_SWORD);
-        guardItems.add(Material.NETHERITE_SWORD);
-        guardItems.add(Material.BOW);
-        guardItems.add(Material.CROSSBOW);
-        guardItems.add(Material.TRIDENT);
-        
-        // Armor
-        guardItems.add(Material.LEATHER_HELMET);
-        guardItems.add(Material.LEATHER_CHESTPLATE);
-        guardItems.add(Material.LEATHER_LEGGINGS);
-        guardItems.add(Material.LEATHER_BOOTS);
-        guardItems.add(Material.CHAINMAIL_HELMET);
-        guardItems.add(Material.CHAINMAIL_CHESTPLATE);
-        guardItems.add(Material.CHAINMAIL_LEGGINGS);
-        guardItems.add(Material.CHAINMAIL_BOOTS);
-        guardItems.add(Material.IRON_HELMET);
-        guardItems.add(Material.IRON_CHESTPLATE);
-        guardItems.add(Material.IRON_LEGGINGS);
-        guardItems.add(Material.IRON_BOOTS);
-        guardItems.add(Material.DIAMOND_HELMET);
-        guardItems.add(Material.DIAMOND_CHESTPLATE);
-        guardItems.add(Material.DIAMOND_LEGGINGS);
-        guardItems.add(Material.DIAMOND_BOOTS);
-        guardItems.add(Material.NETHERITE_HELMET);
-        guardItems.add(Material.NETHERITE_CHESTPLATE);
-        guardItems.add(Material.NETHERITE_LEGGINGS);
-        guardItems.add(Material.NETHERITE_BOOTS);
-        
-        // Tools
-        guardItems.add(Material.WOODEN_PICKAXE);
-        guardItems.add(Material.STONE_PICKAXE);
-        guardItems.add(Material.IRON_PICKAXE);
-        guardItems.add(Material.DIAMOND_PICKAXE);
-        guardItems.add(Material.NETHERITE_PICKAXE);
-        guardItems.add(Material.WOODEN_AXE);
-        guardItems.add(Material.STONE_AXE);
-        guardItems.add(Material.IRON_AXE);
-        guardItems.add(Material.DIAMOND_AXE);
-        guardItems.add(Material.NETHERITE_AXE);
-        
-        // Food and consumables
-        guardItems.add(Material.BREAD);
-        guardItems.add(Material.COOKED_BEEF);
-        guardItems.add(Material.COOKED_PORKCHOP);
-        guardItems.add(Material.COOKED_CHICKEN);
-        guardItems.add(Material.GOLDEN_APPLE);
-        guardItems.add(Material.ENCHANTED_GOLDEN_APPLE);
-        
-        // Utility items
-        guardItems.add(Material.ARROW);
-        guardItems.add(Material.SPECTRAL_ARROW);
-        guardItems.add(Material.TIPPED_ARROW);
-        guardItems.add(Material.SHIELD);
-        guardItems.add(Material.TORCH);
-        guardItems.add(Material.ENDER_PEARL);
-        
-        return guardItems;
-    }
-    
-    /**
-     * Validate serialized inventory data
-     * @param inventoryJson the JSON string to validate
-     * @return true if valid, false otherwise
-     */
-    public static boolean validateInventoryData(String inventoryJson) {
-        if (inventoryJson == null || inventoryJson.trim().isEmpty()) {
-            return false;
-        }
-        
-        try {
-            JsonObject inventoryObj = JsonParser.parseString(inventoryJson).getAsJsonObject();
-            
-            // Check for required fields
-            if (!inventoryObj.has("main") || !inventoryObj.has("armor") || !inventoryObj.has("metadata")) {
-                return false;
-            }
-            
-            // Validate main inventory structure
-            JsonArray mainInventory = inventoryObj.getAsJsonArray("main");
-            if (mainInventory.size() != 36) {
-                return false;
-            }
-            
-            // Validate armor inventory structure
-            JsonArray armorInventory = inventoryObj.getAsJsonArray("armor");
-            if (armorInventory.size() != 4) {
-                return false;
-            }
-            
-            // Validate metadata
-            JsonObject metadata = inventoryObj.getAsJsonObject("metadata");
-            if (!metadata.has("timestamp") || !metadata.has("playerName") || !metadata.has("playerUuid")) {
-                return false;
-            }
-            
-            return true;
-            
-        } catch (Exception e) {
-            logger.warning("Invalid inventory data format: " + e.getMessage());
-            return false;
+
+        /**
+         * @return the selected hotbar slot, or -1 if unknown
+         */
+        public int getHeldItemSlot() {
+            return heldItemSlot;
         }
     }
->>>>>>> 802b20989bd53e59c06b10b624bd5acdc909227d
 } 
\ No newline at end of file
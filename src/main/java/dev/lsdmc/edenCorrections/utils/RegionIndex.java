@@ -0,0 +1,175 @@
+package dev.lsdmc.edenCorrections.utils;
+
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldguard.protection.ApplicableRegionSet;
+import com.sk89q.worldguard.protection.RegionResultSet;
+import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import com.sk89q.worldguard.protection.regions.RegionContainer;
+import com.sk89q.worldguard.protection.regions.RegionType;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Chunk-keyed index of the few regions the plugin checks.
+ *
+ * WorldGuard's own queries look at every region in a world. Here each chunk maps to
+ * only the plugin's regions overlapping it, so a point test touches one or two
+ * candidate regions. The result is an {@link ApplicableRegionSet} of just those
+ * regions (plus the world's global region), so flags resolve with WorldGuard's usual
+ * priority and inheritance rules. The index is a snapshot: it is built for one region
+ * generation of {@link WorldGuardUtils} and must not be used once that has moved on.
+ */
+final class RegionIndex {
+    
+    // Regions spanning more chunks than this are checked everywhere in their world instead
+    private static final int MAX_INDEXED_CHUNKS = 4096;
+    
+    private static final ProtectedRegion[] NO_REGIONS = new ProtectedRegion[0];
+    
+    private final int generation;
+    private final Map<UUID, WorldRegions> worlds;
+    private final int indexedRegions;
+    private final int indexedChunks;
+    
+    private RegionIndex(int generation, Map<UUID, WorldRegions> worlds, int indexedRegions, int indexedChunks) {
+        this.generation = generation;
+        this.worlds = worlds;
+        this.indexedRegions = indexedRegions;
+        this.indexedChunks = indexedChunks;
+    }
+    
+    /**
+     * Build the index from the regions currently loaded by WorldGuard
+     * @param relevant selects the regions to index
+     * @param generation the region generation the index reflects
+     */
+    static RegionIndex build(RegionContainer container, Collection<World> worlds, Predicate<ProtectedRegion> relevant,
+                             int generation) {
+        Map<UUID, Collection<ProtectedRegion>> regions = new HashMap<>();
+        for (World world : worlds) {
+            RegionManager regionManager = container.get(BukkitAdapter.adapt(world));
+            regions.put(world.getUID(), regionManager != null
+                ? regionManager.getRegions().values() : Collections.emptyList());
+        }
+        return build(regions, relevant, generation);
+    }
+    
+    /**
+     * Build the index from the given regions of each world
+     * @param worlds every region of each world to index, keyed by world UUID
+     * @param relevant selects the regions to index
+     * @param generation the region generation the index reflects
+     */
+    static RegionIndex build(Map<UUID, ? extends Collection<ProtectedRegion>> worlds,
+                             Predicate<ProtectedRegion> relevant, int generation) {
+        Map<UUID, WorldRegions> indexed = new HashMap<>();
+        int regionCount = 0;
+        int chunkCount = 0;
+        
+        for (Map.Entry<UUID, ? extends Collection<ProtectedRegion>> world : worlds.entrySet()) {
+            Map<Long, List<ProtectedRegion>> chunks = new HashMap<>();
+            List<ProtectedRegion> everywhere = new ArrayList<>();
+            ProtectedRegion global = null;
+            for (ProtectedRegion region : world.getValue()) {
+                if (region.getType() == RegionType.GLOBAL) {
+                    // WorldGuard weighs the global region separately from the others
+                    global = region;
+                    continue;
+                }
+                if (!relevant.test(region)) {
+                    continue;
+                }
+                regionCount++;
+                
+                BlockVector3 min = region.getMinimumPoint();
+                BlockVector3 max = region.getMaximumPoint();
+                long spannedChunks = ((long) (max.getBlockX() >> 4) - (min.getBlockX() >> 4) + 1) *
+                                     ((long) (max.getBlockZ() >> 4) - (min.getBlockZ() >> 4) + 1);
+                if (spannedChunks > MAX_INDEXED_CHUNKS) {
+                    everywhere.add(region);
+                    continue;
+                }
+                
+                for (int chunkX = min.getBlockX() >> 4; chunkX <= max.getBlockX() >> 4; chunkX++) {
+                    for (int chunkZ = min.getBlockZ() >> 4; chunkZ <= max.getBlockZ() >> 4; chunkZ++) {
+                        chunks.computeIfAbsent(chunkKey(chunkX, chunkZ), key -> new ArrayList<>(2)).add(region);
+                    }
+                }
+            }
+            
+            Map<Long, ProtectedRegion[]> worldChunks = new HashMap<>(chunks.size() * 2);
+            chunks.forEach((key, regions) -> worldChunks.put(key, regions.toArray(NO_REGIONS)));
+            indexed.put(world.getKey(), new WorldRegions(worldChunks, everywhere.toArray(NO_REGIONS), global));
+            chunkCount += worldChunks.size();
+        }
+        
+        return new RegionIndex(generation, indexed, regionCount, chunkCount);
+    }
+    
+    boolean isCurrent(int currentGeneration) {
+        return generation == currentGeneration;
+    }
+    
+    /**
+     * Get the indexed regions containing a location
+     * @return the regions, or null if the location's world is not indexed
+     */
+    ApplicableRegionSet getRegionsAt(Location location) {
+        World world = location.getWorld();
+        WorldRegions regions = world != null ? worlds.get(world.getUID()) : null;
+        if (regions == null) {
+            return null;
+        }
+        
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        List<ProtectedRegion> applicable = new ArrayList<>(2);
+        collect(regions.chunks.getOrDefault(chunkKey(x >> 4, z >> 4), NO_REGIONS), x, y, z, applicable);
+        collect(regions.everywhere, x, y, z, applicable);
+        return new RegionResultSet(applicable, regions.global);
+    }
+    
+    private static void collect(ProtectedRegion[] candidates, int x, int y, int z, List<ProtectedRegion> applicable) {
+        for (ProtectedRegion region : candidates) {
+            if (region.contains(x, y, z)) {
+                applicable.add(region);
+            }
+        }
+    }
+    
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+    
+    int getIndexedRegions() {
+        return indexedRegions;
+    }
+    
+    int getIndexedChunks() {
+        return indexedChunks;
+    }
+    
+    private static final class WorldRegions {
+        private final Map<Long, ProtectedRegion[]> chunks;
+        private final ProtectedRegion[] everywhere;
+        private final ProtectedRegion global;
+        
+        private WorldRegions(Map<Long, ProtectedRegion[]> chunks, ProtectedRegion[] everywhere, ProtectedRegion global) {
+            this.chunks = chunks;
+            this.everywhere = everywhere;
+            this.global = global;
+        }
+    }
+}
@@ -1,10 +1,13 @@
-<<<<<<< HEAD
 package dev.lsdmc.edenCorrections.utils;
 
 import dev.lsdmc.edenCorrections.EdenCorrections;
+import dev.lsdmc.edenCorrections.events.RegionEnterEvent;
+import dev.lsdmc.edenCorrections.events.RegionExitEvent;
+import dev.lsdmc.edenCorrections.utils.CorrectionsFlags.Zone;
 import com.sk89q.worldguard.WorldGuard;
 import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
 import com.sk89q.worldguard.protection.ApplicableRegionSet;
+import com.sk89q.worldguard.protection.flags.StateFlag;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.sk89q.worldguard.protection.regions.RegionContainer;
 import com.sk89q.worldguard.protection.managers.RegionManager;
@@ -13,18 +16,62 @@ import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.world.World;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.server.ServerCommandEvent;
+import org.bukkit.event.world.WorldLoadEvent;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
  * Centralized WorldGuard operations manager for EdenCorrections
  * Handles all region-related functionality and WorldGuard integration
+ *
+ * The plugin's zones (duty station, no-chase, duty-required, chase restricted) are
+ * WorldGuard flags (see {@link CorrectionsFlags}); the config's region lists are
+ * migrated onto them. Zone checks go through a chunk-keyed {@link RegionIndex} of the
+ * flagged and configured regions instead of full WorldGuard queries. For players the
+ * result is also cached per player and only recomputed when the player moves to
+ * another block or world, or after regions were changed or reloaded.
+ *
+ * Block transitions are diffed against the regions a player was last seen in and
+ * published as {@link RegionEnterEvent}s and {@link RegionExitEvent}s, so boundary
+ * crossings can be acted on once instead of polled for.
  */
-public class WorldGuardUtils {
+public class WorldGuardUtils implements Listener {
+    
+    // WorldGuard commands that can add, move or remove regions
+    private static final Set<String> REGION_COMMANDS = Set.of("rg", "region", "regions", "wg", "worldguard");
+    
+    // Their subcommands (with aliases) that change regions, flags, priorities or members,
+    // or reload them; info, list, select and the like leave the cache alone
+    private static final Set<String> MUTATING_SUBCOMMANDS = Set.of(
+        "define", "def", "d", "create", "redefine", "update", "move", "claim",
+        "remove", "rem", "delete", "del",
+        "flag", "f", "setpriority", "priority", "pri", "setparent", "parent", "par",
+        "addmember", "addmem", "am", "addowner", "ao",
+        "removemember", "remmember", "removemem", "remmem", "rm",
+        "removeowner", "remowner", "ro",
+        "load", "reload", "migratedb", "migrateuuid", "migrateheights");
     
     private final EdenCorrections plugin;
     private final Logger logger;
@@ -34,12 +81,42 @@ public class WorldGuardUtils {
     private RegionContainer regionContainer;
     private boolean worldGuardEnabled;
     
+    // Regions each player was last seen in; entries from an older generation are stale
+    private final Map<UUID, RegionMembership> memberships = new ConcurrentHashMap<>();
+    private volatile int regionGeneration = 0;
+    
+    // Chunk index of the plugin's regions, rebuilt when it falls behind the generation
+    private volatile RegionIndex regionIndex;
+    private final AtomicBoolean indexRebuildScheduled = new AtomicBoolean();
+    // The config's region lists are turned into flags once per config load, not on every rebuild
+    private boolean regionListsMigrated = false;
+    
+    // Membership cache and index statistics
+    private final AtomicLong membershipLookups = new AtomicLong();
+    private final AtomicLong membershipRecomputes = new AtomicLong();
+    private final AtomicLong indexLookups = new AtomicLong();
+    private final AtomicLong indexFallbacks = new AtomicLong();
+    private final AtomicLong indexBuilds = new AtomicLong();
+    
+    // The memberships enter/exit events were last published for, and their statistics
+    private final Map<UUID, RegionMembership> published = new ConcurrentHashMap<>();
+    private final AtomicLong regionTransitions = new AtomicLong();
+    private final AtomicLong regionEvents = new AtomicLong();
+    private volatile long transitionsPerSecond = 0;
+    private long lastSampledTransitions = 0;
+    
     public WorldGuardUtils(EdenCorrections plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.worldGuardEnabled = false;
         
         initializeWorldGuard();
+        rebuildRegionIndex();
+        
+        // Keep the membership cache and index in step with quits and region changes,
+        // and publish region enter/exit events from block transitions
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::sampleTransitionRate, 20L, 20L);
     }
     
     /**
@@ -124,21 +201,12 @@ public class WorldGuardUtils {
             return false;
         }
         
-        try {
-            RegionQuery query = regionContainer.createQuery();
-            ApplicableRegionSet regions = query.getApplicableRegions(BukkitAdapter.adapt(player.getLocation()));
-            
-            for (ProtectedRegion region : regions) {
-                if (region.getId().equalsIgnoreCase(regionName.trim())) {
-                    return true;
-                }
-            }
-            
-            return false;
-        } catch (Exception e) {
-            logger.warning("Error checking if player " + player.getName() + " is in region " + regionName + ": " + e.getMessage());
-            return false;
+        // The plugin's own regions come from the cached membership, anything else needs a query
+        String regionId = normalizeRegionId(regionName);
+        if (plugin.getConfigManager().getPluginRegionIds().contains(regionId)) {
+            return getPlayerRegionIds(player).contains(regionId);
         }
+        return getRegionIdsAt(player.getLocation()).contains(regionId);
     }
     
     /**
@@ -166,46 +234,22 @@ public class WorldGuardUtils {
             return false;
         }
         
-        try {
-            RegionQuery query = regionContainer.createQuery();
-            ApplicableRegionSet regions = query.getApplicableRegions(BukkitAdapter.adapt(location));
-            
-            for (ProtectedRegion region : regions) {
-                if (region.getId().equalsIgnoreCase(regionName.trim())) {
-                    return true;
-                }
-            }
-            
-            return false;
-        } catch (Exception e) {
-            logger.warning("Error checking if location is in region " + regionName + ": " + e.getMessage());
-            return false;
+        String regionId = normalizeRegionId(regionName);
+        if (plugin.getConfigManager().getPluginRegionIds().contains(regionId)) {
+            return getPluginRegionIdsAt(location).contains(regionId);
         }
+        return getRegionIdsAt(location).contains(regionId);
     }
     
     /**
      * Get all regions at a player's location
      */
     public Set<String> getRegionsAtPlayer(Player player) {
-        Set<String> regionNames = new HashSet<>();
-        
         if (!worldGuardEnabled || player == null) {
-            return regionNames;
-        }
-        
-        try {
-            RegionQuery query = regionContainer.createQuery();
-            ApplicableRegionSet regions = query.getApplicableRegions(BukkitAdapter.adapt(player.getLocation()));
-            
-            for (ProtectedRegion region : regions) {
-                regionNames.add(region.getId());
-            }
-            
-        } catch (Exception e) {
-            logger.warning("Error getting regions at player " + player.getName() + ": " + e.getMessage());
+            return new HashSet<>();
         }
         
-        return regionNames;
+        return getRegionIdsAt(player.getLocation());
     }
     
     /**
@@ -233,546 +277,595 @@ public class WorldGuardUtils {
         return regionNames;
     }
     
-    // === EDENCORRECTIONS-SPECIFIC REGION METHODS ===
-    
     /**
-     * Check if a player is in the duty region
+     * Get the IDs of all regions at a location in lowercase, with a single region query
      */
-    public boolean isPlayerInDutyRegion(Player player) {
-        if (!worldGuardEnabled) {
-            return true; // Allow duty activation anywhere if WorldGuard not available
+    public Set<String> getRegionIdsAt(Location location) {
+        Set<String> regionIds = new HashSet<>();
+        
+        if (!worldGuardEnabled || location == null) {
+            return regionIds;
         }
         
-        String dutyRegion = plugin.getConfigManager().getDutyRegion();
-        return isPlayerInRegion(player, dutyRegion);
-    }
-    
-    /**
-     * Check if a player is in a safe zone (no-chase zone)
-     */
-    public boolean isPlayerInSafeZone(Player player) {
-        if (!worldGuardEnabled) {
-            return false; // No safe zones if WorldGuard not available
+        try {
+            RegionQuery query = regionContainer.createQuery();
+            for (ProtectedRegion region : query.getApplicableRegions(BukkitAdapter.adapt(location))) {
+                regionIds.add(region.getId().toLowerCase(Locale.ROOT));
+            }
+        } catch (Exception e) {
+            logger.warning("Error getting regions at location: " + e.getMessage());
         }
         
-        String[] safeZones = plugin.getConfigManager().getNoChaseZones();
-        return isPlayerInAnyRegion(player, safeZones);
+        return regionIds;
     }
     
     /**
-     * Check if a player is in a no-chase zone (alias for isPlayerInSafeZone)
+     * Get the IDs (lowercase) of the plugin's regions at a location: regions with a
+     * zone flag, and those named in the config (see
+     * {@link dev.lsdmc.edenCorrections.config.ConfigManager#getPluginRegionIds()})
      */
-    public boolean isPlayerInNoChaseZone(Player player) {
-        return isPlayerInSafeZone(player);
+    public Set<String> getPluginRegionIdsAt(Location location) {
+        if (!worldGuardEnabled || location == null) {
+            return Collections.emptySet();
+        }
+        
+        return resolve(location, regionGeneration).regionIds;
     }
     
     /**
-     * Check if a player is in a duty-required zone
+     * Get the plugin zones a location is in
+     * @return an unmodifiable set
      */
-    public boolean isPlayerInDutyRequiredZone(Player player) {
-        if (!worldGuardEnabled) {
-            return false; // No requirements if WorldGuard not available
+    public Set<Zone> getZonesAt(Location location) {
+        if (!worldGuardEnabled || location == null) {
+            return Collections.emptySet();
         }
         
-        String[] dutyRequiredZones = plugin.getConfigManager().getDutyRequiredZones();
-        return isPlayerInAnyRegion(player, dutyRequiredZones);
+        return resolve(location, regionGeneration).zones;
     }
     
     /**
-     * Check if a location is in a safe zone
+     * Work out the plugin's regions and zones at a location. Answered from the chunk
+     * index; while the index is stale or doesn't know the world, WorldGuard's own
+     * query is used and the index is rebuilt.
      */
-    public boolean isLocationInSafeZone(Location location) {
-        if (!worldGuardEnabled) {
-            return false;
+    private RegionMembership resolve(Location location, int generation) {
+        ApplicableRegionSet regions = null;
+        RegionIndex index = regionIndex;
+        if (index != null && index.isCurrent(generation)) {
+            regions = index.getRegionsAt(location);
+        }
+        
+        if (regions != null) {
+            indexLookups.incrementAndGet();
+        } else {
+            indexFallbacks.incrementAndGet();
+            scheduleIndexRebuild();
+            try {
+                regions = regionContainer.createQuery().getApplicableRegions(BukkitAdapter.adapt(location));
+            } catch (Exception e) {
+                logger.warning("Error getting regions at location: " + e.getMessage());
+                return new RegionMembership(location, generation, Collections.emptySet(), Collections.emptySet());
+            }
         }
         
-        String[] safeZones = plugin.getConfigManager().getNoChaseZones();
-        for (String zone : safeZones) {
-            if (isLocationInRegion(location, zone)) {
-                return true;
+        Set<String> pluginRegionIds = plugin.getConfigManager().getPluginRegionIds();
+        Set<String> regionIds = new HashSet<>(4);
+        for (ProtectedRegion region : regions) {
+            String regionId = region.getId().toLowerCase(Locale.ROOT);
+            if (pluginRegionIds.contains(regionId) || hasZoneFlag(region)) {
+                regionIds.add(regionId);
             }
         }
         
-        return false;
+        Set<Zone> zones = EnumSet.noneOf(Zone.class);
+        for (Zone zone : Zone.values()) {
+            StateFlag flag = zone.getFlag();
+            boolean inZone = flag != null
+                ? regions.queryState(null, flag) == StateFlag.State.ALLOW
+                : containsAny(regionIds, getConfiguredZoneIds(zone));
+            if (inZone) {
+                zones.add(zone);
+            }
+        }
+        
+        return new RegionMembership(location, generation,
+            regionIds.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(regionIds),
+            zones.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(zones));
     }
     
-    // === REGION VALIDATION METHODS ===
+    // === PLUGIN REGION INDEX ===
     
     /**
-     * Check if a region exists in any world
+     * Index the plugin's regions by chunk, for the current region generation.
+     * On the first rebuild after the config was loaded, configured regions that are
+     * missing their flag get it first. Must run on the main thread.
      */
-    public boolean regionExists(String regionName) {
-        if (!worldGuardEnabled || regionName == null) {
-            return false;
+    public void rebuildRegionIndex() {
+        if (!worldGuardEnabled) {
+            return;
         }
         
+        long startTime = System.nanoTime();
+        int generation = regionGeneration;
         try {
-            for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-                World adaptedWorld = BukkitAdapter.adapt(world);
-                RegionManager regionManager = regionContainer.get(adaptedWorld);
-                
-                if (regionManager != null && regionManager.getRegion(regionName) != null) {
-                    return true;
-                }
+            if (!regionListsMigrated) {
+                migrateRegionLists();
+                regionListsMigrated = true;
             }
-            
-            return false;
+            Set<String> pluginRegionIds = plugin.getConfigManager().getPluginRegionIds();
+            regionIndex = RegionIndex.build(regionContainer, plugin.getServer().getWorlds(),
+                region -> pluginRegionIds.contains(region.getId().toLowerCase(Locale.ROOT)) || hasZoneFlag(region),
+                generation);
+            indexBuilds.incrementAndGet();
         } catch (Exception e) {
-            logger.warning("Error checking if region " + regionName + " exists: " + e.getMessage());
-            return false;
+            logger.warning("Error building region index, using WorldGuard queries: " + e.getMessage());
+            return;
+        }
+        
+        // Regions may have changed under players who are standing still
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            publishTransition(player, player.getLocation());
+        }
+        
+        if (plugin.getConfigManager().isDebugMode()) {
+            logger.info("DEBUG: Indexed " + regionIndex.getIndexedRegions() + " regions over " +
+                       regionIndex.getIndexedChunks() + " chunks in " +
+                       String.format("%.2f", (System.nanoTime() - startTime) / 1_000_000.0) + "ms");
+        }
+    }
+    
+    private void scheduleIndexRebuild() {
+        if (indexRebuildScheduled.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                indexRebuildScheduled.set(false);
+                RegionIndex index = regionIndex;
+                if (index == null || !index.isCurrent(regionGeneration)) {
+                    rebuildRegionIndex();
+                }
+            });
         }
     }
     
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        invalidateRegionCache();
+    }
+    
+    public long getIndexLookups() {
+        return indexLookups.get();
+    }
+    
+    public long getIndexFallbacks() {
+        return indexFallbacks.get();
+    }
+    
+    // === ZONE FLAGS ===
+    
     /**
-     * Get all regions in a world
+     * Give the regions named in the config's region lists the matching flag, unless
+     * the flag is already set on them (to either value). Listed regions that are
+     * created later are picked up after the next config reload.
+     * @return the number of regions that got a flag
      */
-    public Set<String> getAllRegionsInWorld(org.bukkit.World world) {
-        Set<String> regionNames = new HashSet<>();
+    private int migrateRegionLists() {
+        int migrated = 0;
         
-        if (!worldGuardEnabled || world == null) {
-            return regionNames;
-        }
-        
-        try {
-            World adaptedWorld = BukkitAdapter.adapt(world);
-            RegionManager regionManager = regionContainer.get(adaptedWorld);
+        for (org.bukkit.World world : plugin.getServer().getWorlds()) {
+            RegionManager regionManager = regionContainer.get(BukkitAdapter.adapt(world));
+            if (regionManager == null) {
+                continue;
+            }
             
-            if (regionManager != null) {
-                for (String regionName : regionManager.getRegions().keySet()) {
-                    regionNames.add(regionName);
+            for (Zone zone : Zone.values()) {
+                StateFlag flag = zone.getFlag();
+                if (flag == null) {
+                    continue;
+                }
+                for (String regionId : getConfiguredZoneIds(zone)) {
+                    ProtectedRegion region = regionManager.getRegion(regionId);
+                    if (region != null && region.getFlag(flag) == null) {
+                        region.setFlag(flag, StateFlag.State.ALLOW);
+                        migrated++;
+                    }
                 }
             }
-            
-        } catch (Exception e) {
-            logger.warning("Error getting regions in world " + world.getName() + ": " + e.getMessage());
         }
         
-        return regionNames;
+        if (migrated > 0) {
+            logger.info("Set EdenCorrections flags on " + migrated + " regions from the configured region lists");
+        }
+        return migrated;
     }
     
     /**
-     * Get all regions across all worlds
+     * Add a region to a zone or take it out, in every world that has the region.
+     * A region that is still in the config's list for the zone is set to deny, so the
+     * list doesn't put it back.
+     * @return false if the zone's flag isn't registered or the region doesn't exist
      */
-    public Set<String> getAllRegions() {
-        Set<String> allRegions = new HashSet<>();
-        
-        if (!worldGuardEnabled) {
-            return allRegions;
+    public boolean setRegionZone(String regionName, Zone zone, boolean inZone) {
+        StateFlag flag = zone.getFlag();
+        if (!worldGuardEnabled || flag == null || regionName == null) {
+            return false;
         }
         
+        String regionId = normalizeRegionId(regionName);
+        StateFlag.State value = inZone ? StateFlag.State.ALLOW
+            : getConfiguredZoneIds(zone).contains(regionId) ? StateFlag.State.DENY : null;
+        
+        boolean changed = false;
         for (org.bukkit.World world : plugin.getServer().getWorlds()) {
-            allRegions.addAll(getAllRegionsInWorld(world));
+            RegionManager regionManager = regionContainer.get(BukkitAdapter.adapt(world));
+            ProtectedRegion region = regionManager != null ? regionManager.getRegion(regionId) : null;
+            if (region != null) {
+                region.setFlag(flag, value);
+                changed = true;
+            }
         }
         
-        return allRegions;
+        if (changed) {
+            invalidateRegionCache();
+        }
+        return changed;
     }
     
-    // === UTILITY METHODS ===
-    
     /**
-     * Check if WorldGuard is enabled and working
+     * Get the IDs (lowercase) of the regions in a zone, from their flag, or from the
+     * config's list if the flag isn't registered
      */
-    public boolean isWorldGuardEnabled() {
-        return worldGuardEnabled;
+    public Set<String> getZoneRegionIds(Zone zone) {
+        StateFlag flag = zone.getFlag();
+        if (!worldGuardEnabled || flag == null) {
+            return new HashSet<>(getConfiguredZoneIds(zone));
+        }
+        
+        Set<String> regionIds = new HashSet<>();
+        for (org.bukkit.World world : plugin.getServer().getWorlds()) {
+            RegionManager regionManager = regionContainer.get(BukkitAdapter.adapt(world));
+            if (regionManager == null) {
+                continue;
+            }
+            for (ProtectedRegion region : regionManager.getRegions().values()) {
+                if (region.getFlag(flag) == StateFlag.State.ALLOW) {
+                    regionIds.add(region.getId().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return regionIds;
+    }
+    
+    private Set<String> getConfiguredZoneIds(Zone zone) {
+        switch (zone) {
+            case NO_CHASE:
+                return plugin.getConfigManager().getNoChaseZoneIds();
+            case DUTY_REQUIRED:
+                return plugin.getConfigManager().getDutyRequiredZoneIds();
+            case CHASE_RESTRICTED:
+                return plugin.getConfigManager().getChaseRestrictedAreaIds();
+            case DUTY_STATION:
+                return Collections.singleton(normalizeRegionId(plugin.getConfigManager().getDutyRegion()));
+            default:
+                return Collections.emptySet();
+        }
+    }
+    
+    private static boolean hasZoneFlag(ProtectedRegion region) {
+        // Children inherit their parents' flags
+        for (ProtectedRegion current = region; current != null; current = current.getParent()) {
+            for (Zone zone : Zone.values()) {
+                if (zone.getFlag() != null && current.getFlag(zone.getFlag()) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
     
+    // === PLAYER REGION MEMBERSHIP ===
+    
     /**
-     * Get the WorldGuard plugin instance
+     * Get the IDs (lowercase) of the plugin's regions a player is standing in
+     * @return an unmodifiable set, cached until the player changes block or world
      */
-    public WorldGuardPlugin getWorldGuardPlugin() {
-        return worldGuardPlugin;
+    public Set<String> getPlayerRegionIds(Player player) {
+        return getPlayerRegionIds(player, player.getLocation());
     }
     
     /**
-     * Get the region container
+     * Get the IDs (lowercase) of the plugin's regions a player is in at a location,
+     * e.g. the destination of a move. The result is remembered as the player's
+     * membership, so the next lookup at the same block needs no region lookup.
+     * @return an unmodifiable set
      */
-    public RegionContainer getRegionContainer() {
-        return regionContainer;
+    public Set<String> getPlayerRegionIds(Player player, Location location) {
+        if (!worldGuardEnabled || player == null || location == null) {
+            return Collections.emptySet();
+        }
+        
+        return getMembership(player, location).regionIds;
     }
     
     /**
-     * Force re-initialization of WorldGuard (for debugging)
+     * Get the plugin zones a player is standing in
+     * @return an unmodifiable set, cached like {@link #getPlayerRegionIds(Player)}
      */
-    public void reinitialize() {
-        logger.info("Reinitializing WorldGuard integration...");
-        initializeWorldGuard();
+    public Set<Zone> getPlayerZones(Player player) {
+        return getPlayerZones(player, player.getLocation());
     }
     
     /**
-     * Generate a diagnostic report for WorldGuard integration
+     * Get the plugin zones a player is in at a location, cached like
+     * {@link #getPlayerRegionIds(Player, Location)}
+     * @return an unmodifiable set
      */
-    public void generateDiagnosticReport() {
-        logger.info("=== WorldGuard Integration Diagnostic Report ===");
-        logger.info("WorldGuard Enabled: " + worldGuardEnabled);
-        
-        if (worldGuardEnabled) {
-            logger.info("WorldGuard Plugin: " + (worldGuardPlugin != null ? "Available" : "Not Available"));
-            logger.info("Region Container: " + (regionContainer != null ? "Available" : "Not Available"));
-            
-            // Log configured regions
-            logger.info("Configured Duty Region: " + plugin.getConfigManager().getDutyRegion());
-            logger.info("Configured No-Chase Zones: " + Arrays.toString(plugin.getConfigManager().getNoChaseZones()));
-            logger.info("Configured Duty-Required Zones: " + Arrays.toString(plugin.getConfigManager().getDutyRequiredZones()));
-            
-            // Log total regions
-            Set<String> allRegions = getAllRegions();
-            logger.info("Total Regions Found: " + allRegions.size());
-            
-            if (plugin.getConfigManager().isDebugMode()) {
-                logger.info("All Regions: " + allRegions);
-            }
+    public Set<Zone> getPlayerZones(Player player, Location location) {
+        if (!worldGuardEnabled || player == null || location == null) {
+            return Collections.emptySet();
         }
         
-        logger.info("=== End WorldGuard Diagnostic Report ===");
+        return getMembership(player, location).zones;
     }
     
-    // === INTEGRATION HELPER METHODS ===
+    private RegionMembership getMembership(Player player, Location location) {
+        membershipLookups.incrementAndGet();
+        int generation = regionGeneration;
+        RegionMembership membership = memberships.get(player.getUniqueId());
+        if (membership != null && membership.isAt(location, generation)) {
+            return membership;
+        }
+        
+        membershipRecomputes.incrementAndGet();
+        membership = resolve(location, generation);
+        memberships.put(player.getUniqueId(), membership);
+        return membership;
+    }
     
     /**
-     * Check if a player can be chased at their current location
+     * Drop every cached membership and the region index, e.g. after regions were
+     * added, moved or reloaded, or the plugin's region lists changed. The index is
+     * rebuilt on the next tick.
      */
-    public boolean canPlayerBeChased(Player player) {
-        if (!worldGuardEnabled) {
-            return true; // Allow chasing anywhere if WorldGuard not available
-        }
-        
-        // Cannot chase in safe zones (no-chase zones)
-        return !isPlayerInSafeZone(player);
+    public void invalidateRegionCache() {
+        regionGeneration++;
+        scheduleIndexRebuild();
     }
     
     /**
-     * Check if a player should be forced on duty at their current location
+     * Invalidate after the config was reloaded, so the next index rebuild also
+     * applies the region lists again
      */
-    public boolean shouldForcePlayerOnDuty(Player player) {
-        if (!worldGuardEnabled) {
-            return false; // No forced duty if WorldGuard not available
-        }
-        
-        // Force duty in duty-required zones
-        return isPlayerInDutyRequiredZone(player);
+    public void reloadRegionLists() {
+        regionListsMigrated = false;
+        invalidateRegionCache();
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        forgetPlayer(event.getPlayer().getUniqueId());
     }
     
     /**
-     * Get a user-friendly description of the player's current region context
+     * Drop a player's cached and published memberships
      */
-    public String getPlayerRegionContext(Player player) {
-        if (!worldGuardEnabled) {
-            return "WorldGuard not available";
-        }
-        
-        Set<String> regions = getRegionsAtPlayer(player);
-        if (regions.isEmpty()) {
-            return "No regions (wilderness)";
-        }
-        
-        StringBuilder context = new StringBuilder();
-        context.append("Regions: ").append(String.join(", ", regions));
-        
-        // Add special zone indicators
-        if (isPlayerInSafeZone(player)) {
-            context.append(" [SAFE ZONE/NO CHASE]");
+    public void forgetPlayer(UUID playerId) {
+        memberships.remove(playerId);
+        published.remove(playerId);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        checkRegionCommand(event.getMessage().substring(1));
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onServerCommand(ServerCommandEvent event) {
+        checkRegionCommand(event.getCommand());
+    }
+    
+    private void checkRegionCommand(String commandLine) {
+        String[] words = commandLine.trim().split("\\s+", 3);
+        if (words.length < 2) {
+            return;
         }
-        if (isPlayerInDutyRequiredZone(player)) {
-            context.append(" [DUTY REQUIRED]");
+        String label = words[0].toLowerCase(Locale.ROOT);
+        label = label.substring(label.indexOf(':') + 1);
+        if (REGION_COMMANDS.contains(label) && MUTATING_SUBCOMMANDS.contains(words[1].toLowerCase(Locale.ROOT))) {
+            // The command runs after this event; drop the cache once it has
+            plugin.getServer().getScheduler().runTask(plugin, this::invalidateRegionCache);
         }
-        if (isPlayerInDutyRegion(player)) {
-            context.append(" [DUTY REGION]");
+    }
+    
+    public long getMembershipLookups() {
+        return membershipLookups.get();
+    }
+    
+    public long getMembershipRecomputes() {
+        return membershipRecomputes.get();
+    }
+    
+    // === REGION ENTER/EXIT EVENTS ===
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to != null && (from.getBlockX() != to.getBlockX() || from.getBlockY() != to.getBlockY() ||
+                           from.getBlockZ() != to.getBlockZ() || from.getWorld() != to.getWorld())) {
+            publishTransition(event.getPlayer(), to);
         }
-        
-        return context.toString();
     }
-}
-=======
-package dev.lsdmc.edenCorrections.utils;
-
-import dev.lsdmc.edenCorrections.EdenCorrections;
-import com.sk89q.worldguard.WorldGuard;
-import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
-import com.sk89q.worldguard.protection.ApplicableRegionSet;
-import com.sk89q.worldguard.protection.regions.ProtectedRegion;
-import com.sk89q.worldguard.protection.regions.RegionContainer;
-import com.sk89q.worldguard.protection.managers.RegionManager;
-import com.sk89q.worldguard.protection.regions.RegionQuery;
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
-import com.sk89q.worldedit.world.World;
-import org.bukkit.Location;
-import org.bukkit.entity.Player;
-
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.logging.Logger;
-
-/**
- * Centralized WorldGuard operations manager for EdenCorrections
- * Handles all region-related functionality and WorldGuard integration
- */
-public class WorldGuardUtils {
     
-    private final EdenCorrections plugin;
-    private final Logger logger;
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        publishTransition(event.getPlayer(), event.getTo());
+    }
     
-    // WorldGuard components
-    private WorldGuardPlugin worldGuardPlugin;
-    private RegionContainer regionContainer;
-    private boolean worldGuardEnabled;
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        publishTransition(event.getPlayer(), event.getPlayer().getLocation());
+    }
     
-    public WorldGuardUtils(EdenCorrections plugin) {
-        this.plugin = plugin;
-        this.logger = plugin.getLogger();
-        this.worldGuardEnabled = false;
-        
-        initializeWorldGuard();
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        publishTransition(event.getPlayer(), event.getRespawnLocation());
     }
     
     /**
-     * Initialize WorldGuard integration
+     * Compare a player's regions at a location with the ones last published for them,
+     * and fire a {@link RegionExitEvent} for each region left and a
+     * {@link RegionEnterEvent} for each region entered. When the regions are the same
+     * but their zones changed (a flag edit under a player standing still), the regions
+     * the player is in fire an exit event if zones were lost and an enter event if
+     * zones were gained. Must run on the main thread.
      */
-    private void initializeWorldGuard() {
-        try {
-            // Check if WorldGuard is available
-            if (plugin.getServer().getPluginManager().getPlugin("WorldGuard") == null) {
-                logger.info("WorldGuard not found - region restrictions will be disabled");
-                return;
+    private void publishTransition(Player player, Location location) {
+        if (!worldGuardEnabled || location == null) {
+            return;
+        }
+        
+        RegionMembership current = getMembership(player, location);
+        RegionMembership previous = published.put(player.getUniqueId(), current);
+        if (previous == current) {
+            return;
+        }
+        
+        regionTransitions.incrementAndGet();
+        Set<String> previousIds = previous != null ? previous.regionIds : Collections.emptySet();
+        Set<Zone> previousZones = previous != null ? previous.zones : Collections.emptySet();
+        if (previousIds.equals(current.regionIds)) {
+            if (!previousZones.equals(current.zones)) {
+                publishZoneChange(player, current, previousZones);
             }
-            
-            // Initialize WorldGuard plugin instance
-            worldGuardPlugin = WorldGuardPlugin.inst();
-            if (worldGuardPlugin == null) {
-                logger.warning("Failed to get WorldGuard plugin instance");
-                return;
+            return;
+        }
+        
+        for (String regionId : previousIds) {
+            if (!current.regionIds.contains(regionId)) {
+                regionEvents.incrementAndGet();
+                plugin.getServer().getPluginManager().callEvent(
+                    new RegionExitEvent(player, regionId, previousZones, current.zones));
             }
-            
-            // Initialize region container
-            regionContainer = WorldGuard.getInstance().getPlatform().getRegionContainer();
-            if (regionContainer == null) {
-                logger.warning("Failed to get WorldGuard region container");
-                return;
+        }
+        for (String regionId : current.regionIds) {
+            if (!previousIds.contains(regionId)) {
+                regionEvents.incrementAndGet();
+                plugin.getServer().getPluginManager().callEvent(
+                    new RegionEnterEvent(player, regionId, previousZones, current.zones));
             }
-            
-            worldGuardEnabled = true;
-            logger.info("WorldGuard integration initialized successfully");
-            
-            // Validate configured regions
-            validateConfiguredRegions();
-            
-        } catch (Exception e) {
-            logger.severe("Failed to initialize WorldGuard integration: " + e.getMessage());
-            e.printStackTrace();
-            worldGuardEnabled = false;
         }
     }
     
-    /**
-     * Validate that all configured regions exist
-     */
-    private void validateConfiguredRegions() {
-        if (!worldGuardEnabled) return;
-        
-        try {
-            // Check duty region
-            String dutyRegion = plugin.getConfigManager().getDutyRegion();
-            if (!regionExists(dutyRegion)) {
-                logger.warning("Configured duty region '" + dutyRegion + "' does not exist in any world");
+    private void publishZoneChange(Player player, RegionMembership current, Set<Zone> previousZones) {
+        boolean lost = !current.zones.containsAll(previousZones);
+        boolean gained = !previousZones.containsAll(current.zones);
+        // A flag on the global region has no region of its own to report
+        Set<String> regionIds = current.regionIds.isEmpty() ? Set.of(ProtectedRegion.GLOBAL_REGION) : current.regionIds;
+        for (String regionId : regionIds) {
+            if (lost) {
+                regionEvents.incrementAndGet();
+                plugin.getServer().getPluginManager().callEvent(
+                    new RegionExitEvent(player, regionId, previousZones, current.zones));
             }
-            
-            // Check no-chase zones
-            String[] safeZones = plugin.getConfigManager().getNoChaseZones();
-            for (String zone : safeZones) {
-                if (!regionExists(zone.trim())) {
-                    logger.warning("Configured safe zone '" + zone + "' does not exist in any world");
-                }
-            }
-            
-            // Check no-chase zones
-            String[] noChaseZones = plugin.getConfigManager().getNoChaseZones();
-            for (String zone : noChaseZones) {
-                if (!regionExists(zone.trim())) {
-                    logger.warning("Configured no-chase zone '" + zone + "' does not exist in any world");
-                }
+            if (gained) {
+                regionEvents.incrementAndGet();
+                plugin.getServer().getPluginManager().callEvent(
+                    new RegionEnterEvent(player, regionId, previousZones, current.zones));
             }
-            
-            // Check duty-required zones
-            String[] dutyRequiredZones = plugin.getConfigManager().getDutyRequiredZones();
-            for (String zone : dutyRequiredZones) {
-                if (!regionExists(zone.trim())) {
-                    logger.warning("Configured duty-required zone '" + zone + "' does not exist in any world");
-                }
-            }
-            
-        } catch (Exception e) {
-            logger.warning("Error validating configured regions: " + e.getMessage());
         }
     }
     
-    // === CORE REGION CHECKING METHODS ===
+    private void sampleTransitionRate() {
+        long transitions = regionTransitions.get();
+        transitionsPerSecond = transitions - lastSampledTransitions;
+        lastSampledTransitions = transitions;
+    }
     
     /**
-     * Check if a player is in a specific region
+     * @return block transitions diffed for enter/exit events since startup
      */
-    public boolean isPlayerInRegion(Player player, String regionName) {
-        if (!worldGuardEnabled || player == null || regionName == null) {
-            return false;
-        }
-        
-        try {
-            RegionQuery query = regionContainer.createQuery();
-            ApplicableRegionSet regions = query.getApplicableRegions(BukkitAdapter.adapt(player.getLocation()));
-            
-            for (ProtectedRegion region : regions) {
-                if (region.getId().equalsIgnoreCase(regionName.trim())) {
-                    return true;
-                }
-            }
-            
-            return false;
-        } catch (Exception e) {
-            logger.warning("Error checking if player " + player.getName() + " is in region " + regionName + ": " + e.getMessage());
-            return false;
-        }
+    public long getRegionTransitions() {
+        return regionTransitions.get();
     }
     
     /**
-     * Check if a player is in any of the specified regions
+     * @return enter and exit events fired since startup
      */
-    public boolean isPlayerInAnyRegion(Player player, String[] regionNames) {
-        if (!worldGuardEnabled || player == null || regionNames == null) {
-            return false;
-        }
-        
-        for (String regionName : regionNames) {
-            if (isPlayerInRegion(player, regionName)) {
-                return true;
-            }
-        }
-        
-        return false;
+    public long getRegionEvents() {
+        return regionEvents.get();
     }
     
     /**
-     * Check if a location is in a specific region
+     * @return block transitions diffed during the last full second
      */
-    public boolean isLocationInRegion(Location location, String regionName) {
-        if (!worldGuardEnabled || location == null || regionName == null) {
-            return false;
-        }
-        
-        try {
-            RegionQuery query = regionContainer.createQuery();
-            ApplicableRegionSet regions = query.getApplicableRegions(BukkitAdapter.adapt(location));
-            
-            for (ProtectedRegion region : regions) {
-                if (region.getId().equalsIgnoreCase(regionName.trim())) {
-                    return true;
-                }
-            }
-            
-            return false;
-        } catch (Exception e) {
-            logger.warning("Error checking if location is in region " + regionName + ": " + e.getMessage());
-            return false;
-        }
+    public long getTransitionsPerSecond() {
+        return transitionsPerSecond;
     }
     
-    /**
-     * Get all regions at a player's location
-     */
-    public Set<String> getRegionsAtPlayer(Player player) {
-        Set<String> regionNames = new HashSet<>();
-        
-        if (!worldGuardEnabled || player == null) {
-            return regionNames;
-        }
-        
-        try {
-            RegionQuery query = regionContainer.createQuery();
-            ApplicableRegionSet regions = query.getApplicableRegions(BukkitAdapter.adapt(player.getLocation()));
-            
-            for (ProtectedRegion region : regions) {
-                regionNames.add(region.getId());
-            }
-            
-        } catch (Exception e) {
-            logger.warning("Error getting regions at player " + player.getName() + ": " + e.getMessage());
-        }
-        
-        return regionNames;
+    private static String normalizeRegionId(String regionName) {
+        return regionName.trim().toLowerCase(Locale.ROOT);
     }
     
-    /**
-     * Get all regions at a location
-     */
-    public Set<String> getRegionsAtLocation(Location location) {
-        Set<String> regionNames = new HashSet<>();
-        
-        if (!worldGuardEnabled || location == null) {
-            return regionNames;
-        }
-        
-        try {
-            RegionQuery query = regionContainer.createQuery();
-            ApplicableRegionSet regions = query.getApplicableRegions(BukkitAdapter.adapt(location));
-            
-            for (ProtectedRegion region : regions) {
-                regionNames.add(region.getId());
+    private static boolean containsAny(Set<String> regionIds, Set<String> zoneIds) {
+        for (String regionId : regionIds) {
+            if (zoneIds.contains(regionId)) {
+                return true;
             }
-            
-        } catch (Exception e) {
-            logger.warning("Error getting regions at location: " + e.getMessage());
         }
-        
-        return regionNames;
+        return false;
     }
     
     // === EDENCORRECTIONS-SPECIFIC REGION METHODS ===
     
     /**
-     * Check if a player is in the duty region
+     * Check if a player is in the duty region (a guard-duty-station region)
      */
     public boolean isPlayerInDutyRegion(Player player) {
         if (!worldGuardEnabled) {
             return true; // Allow duty activation anywhere if WorldGuard not available
         }
         
-        String dutyRegion = plugin.getConfigManager().getDutyRegion();
-        return isPlayerInRegion(player, dutyRegion);
+        return getPlayerZones(player).contains(Zone.DUTY_STATION);
     }
     
     /**
-     * Check if a player is in a safe zone
+     * Check if a player is in a safe zone (no-chase zone)
      */
     public boolean isPlayerInSafeZone(Player player) {
-        if (!worldGuardEnabled) {
+        if (!worldGuardEnabled || player == null) {
             return false; // No safe zones if WorldGuard not available
         }
         
-        String[] safeZones = plugin.getConfigManager().getNoChaseZones();
-        return isPlayerInAnyRegion(player, safeZones);
+        return getPlayerZones(player).contains(Zone.NO_CHASE);
     }
     
     /**
-     * Check if a player is in a no-chase zone
+     * Check if a player is in a no-chase zone (alias for isPlayerInSafeZone)
      */
     public boolean isPlayerInNoChaseZone(Player player) {
-        if (!worldGuardEnabled) {
-            return false; // No restrictions if WorldGuard not available
-        }
-        
-        String[] noChaseZones = plugin.getConfigManager().getNoChaseZones();
-        return isPlayerInAnyRegion(player, noChaseZones);
+        return isPlayerInSafeZone(player);
     }
     
     /**
      * Check if a player is in a duty-required zone
      */
     public boolean isPlayerInDutyRequiredZone(Player player) {
-        if (!worldGuardEnabled) {
+        if (!worldGuardEnabled || player == null) {
             return false; // No requirements if WorldGuard not available
         }
         
-        String[] dutyRequiredZones = plugin.getConfigManager().getDutyRequiredZones();
-        return isPlayerInAnyRegion(player, dutyRequiredZones);
+        return getPlayerZones(player).contains(Zone.DUTY_REQUIRED);
+    }
+    
+    /**
+     * Check if a player is in a chase restricted area
+     */
+    public boolean isPlayerInChaseRestrictedArea(Player player) {
+        if (!worldGuardEnabled || player == null) {
+            return false;
+        }
+        
+        return getPlayerZones(player).contains(Zone.CHASE_RESTRICTED);
     }
     
     /**
@@ -783,14 +876,7 @@ public class WorldGuardUtils {
             return false;
         }
         
-        String[] safeZones = plugin.getConfigManager().getNoChaseZones();
-        for (String zone : safeZones) {
-            if (isLocationInRegion(location, zone)) {
-                return true;
-            }
-        }
-        
-        return false;
+        return getZonesAt(location).contains(Zone.NO_CHASE);
     }
     
     // === REGION VALIDATION METHODS ===
@@ -893,6 +979,8 @@ public class WorldGuardUtils {
     public void reinitialize() {
         logger.info("Reinitializing WorldGuard integration...");
         initializeWorldGuard();
+        invalidateRegionCache();
+        rebuildRegionIndex();
     }
     
     /**
@@ -910,10 +998,20 @@ public class WorldGuardUtils {
             logger.info("Configured Duty Region: " + plugin.getConfigManager().getDutyRegion());
             logger.info("Configured No-Chase Zones: " + Arrays.toString(plugin.getConfigManager().getNoChaseZones()));
             logger.info("Configured Duty-Required Zones: " + Arrays.toString(plugin.getConfigManager().getDutyRequiredZones()));
+            logger.info("Zone Flags: " + (CorrectionsFlags.isRegistered() ? "Registered" : "Not registered - using the region lists"));
             
             // Log total regions
             Set<String> allRegions = getAllRegions();
             logger.info("Total Regions Found: " + allRegions.size());
+            logger.info("Region Membership Cache: " + memberships.size() + " players, " + getMembershipLookups() +
+                       " lookups, " + getMembershipRecomputes() + " recomputed");
+            RegionIndex index = regionIndex;
+            logger.info("Region Index: " + (index != null ? index.getIndexedRegions() + " regions over " +
+                       index.getIndexedChunks() + " chunks" + (index.isCurrent(regionGeneration) ? "" : " (stale)") : "not built") +
+                       ", " + getIndexLookups() + " lookups, " + getIndexFallbacks() + " WorldGuard fallbacks, " +
+                       indexBuilds.get() + " builds");
+            logger.info("Region Transitions: " + getRegionTransitions() + " (" + getTransitionsPerSecond() +
+                       "/s), " + getRegionEvents() + " enter/exit events");
             
             if (plugin.getConfigManager().isDebugMode()) {
                 logger.info("All Regions: " + allRegions);
@@ -933,20 +1031,8 @@ public class WorldGuardUtils {
             return true; // Allow chasing anywhere if WorldGuard not available
         }
         
-        // Cannot chase in safe zones or no-chase zones
-        return !isPlayerInSafeZone(player) && !isPlayerInNoChaseZone(player);
-    }
-    
-    /**
-     * Check if a player should be forced on duty at their current location
-     */
-    public boolean shouldForcePlayerOnDuty(Player player) {
-        if (!worldGuardEnabled) {
-            return false; // No forced duty if WorldGuard not available
-        }
-        
-        // Force duty in duty-required zones
-        return isPlayerInDutyRequiredZone(player);
+        // Cannot chase in safe zones (no-chase zones)
+        return !isPlayerInSafeZone(player);
     }
     
     /**
@@ -967,10 +1053,7 @@ public class WorldGuardUtils {
         
         // Add special zone indicators
         if (isPlayerInSafeZone(player)) {
-            context.append(" [SAFE ZONE]");
-        }
-        if (isPlayerInNoChaseZone(player)) {
-            context.append(" [NO CHASE]");
+            context.append(" [SAFE ZONE/NO CHASE]");
         }
         if (isPlayerInDutyRequiredZone(player)) {
             context.append(" [DUTY REQUIRED]");
@@ -981,5 +1064,32 @@ public class WorldGuardUtils {
         
         return context.toString();
     }
+    
+    /**
+     * The plugin's regions and zones at a block
+     */
+    private static final class RegionMembership {
+        private final org.bukkit.World world;
+        private final int x;
+        private final int y;
+        private final int z;
+        private final int generation;
+        private final Set<String> regionIds;
+        private final Set<Zone> zones;
+        
+        private RegionMembership(Location location, int generation, Set<String> regionIds, Set<Zone> zones) {
+            this.world = location.getWorld();
+            this.x = location.getBlockX();
+            this.y = location.getBlockY();
+            this.z = location.getBlockZ();
+            this.generation = generation;
+            this.regionIds = regionIds;
+            this.zones = zones;
+        }
+        
+        private boolean isAt(Location location, int currentGeneration) {
+            return generation == currentGeneration && world == location.getWorld() &&
+                   x == location.getBlockX() && y == location.getBlockY() && z == location.getBlockZ();
+        }
+    }
 }
->>>>>>> 802b20989bd53e59c06b10b624bd5acdc909227d
@@ -0,0 +1,249 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.models.PlayerData;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerDataCacheTest {
+
+    // Every player in these tests has a four letter name, so they all weigh the same
+    private static final int WEIGHT = PlayerDataCache.estimateWeight(new PlayerData(UUID.randomUUID(), "test"));
+
+    private final Set<UUID> retained = new HashSet<>();
+
+    private PlayerDataCache cache(int entries) {
+        return new PlayerDataCache((long) WEIGHT * entries, data -> retained.contains(data.getPlayerId()));
+    }
+
+    private static PlayerData player(String name) {
+        return new PlayerData(UUID.randomUUID(), name);
+    }
+
+    private static void put(PlayerDataCache cache, PlayerData data) {
+        cache.put(data.getPlayerId(), data);
+    }
+
+    @Test
+    void estimatesWeightFromStrings() {
+        PlayerData data = player("test");
+        // Base weight, the name and the empty wanted reason; the guard rank is null
+        assertEquals(320 + (40 + 8) + 40, PlayerDataCache.estimateWeight(data));
+
+        data.setGuardRank("warden");
+        assertEquals(320 + (40 + 8) + (40 + 12) + 40, PlayerDataCache.estimateWeight(data));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverBudget() {
+        PlayerDataCache cache = cache(3);
+        PlayerData a = player("aaaa");
+        PlayerData b = player("bbbb");
+        PlayerData c = player("cccc");
+        put(cache, a);
+        put(cache, b);
+        put(cache, c);
+
+        // Touching a leaves b as the coldest entry
+        assertSame(a, cache.get(a.getPlayerId()));
+        PlayerData d = player("dddd");
+        put(cache, d);
+
+        assertEquals(3, cache.size());
+        assertFalse(cache.contains(b.getPlayerId()));
+        assertTrue(cache.contains(a.getPlayerId()));
+        assertEquals(1, cache.getEvictions());
+        assertEquals((long) WEIGHT * 3, cache.getWeight());
+    }
+
+    @Test
+    void peekDoesNotChangeOrderOrStatistics() {
+        PlayerDataCache cache = cache(2);
+        PlayerData a = player("aaaa");
+        PlayerData b = player("bbbb");
+        put(cache, a);
+        put(cache, b);
+
+        assertSame(a, cache.peek(a.getPlayerId()));
+        put(cache, player("cccc"));
+
+        assertFalse(cache.contains(a.getPlayerId()));
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        PlayerDataCache cache = cache(2);
+        PlayerData a = player("aaaa");
+        put(cache, a);
+
+        cache.get(a.getPlayerId());
+        cache.get(UUID.randomUUID());
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    void pinnedPlayersAreNeverEvicted() {
+        PlayerDataCache cache = cache(2);
+        PlayerData a = player("aaaa");
+        put(cache, a);
+        cache.pin(a.getPlayerId());
+
+        for (int i = 0; i < 5; i++) {
+            put(cache, player("p" + i + "xx"));
+        }
+
+        assertTrue(cache.contains(a.getPlayerId()));
+        assertTrue(cache.isPinned(a.getPlayerId()));
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.getEvictions());
+    }
+
+    @Test
+    void pinBeforeCachingKeepsPlayer() {
+        PlayerDataCache cache = cache(1);
+        PlayerData a = player("aaaa");
+        cache.pin(a.getPlayerId());
+        put(cache, a);
+        put(cache, player("bbbb"));
+
+        assertTrue(cache.contains(a.getPlayerId()));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void unpinnedPlayerBecomesMostRecentlyUsed() {
+        PlayerDataCache cache = cache(2);
+        PlayerData a = player("aaaa");
+        PlayerData c = player("cccc");
+        cache.pin(a.getPlayerId());
+        put(cache, a);
+        put(cache, player("bbbb"));
+        // Over budget: b is the only evictable entry
+        put(cache, c);
+        assertEquals(2, cache.size());
+
+        cache.unpin(a.getPlayerId());
+        assertFalse(cache.isPinned(a.getPlayerId()));
+        put(cache, player("dddd"));
+
+        assertTrue(cache.contains(a.getPlayerId()));
+        assertFalse(cache.contains(c.getPlayerId()));
+    }
+
+    @Test
+    void unpinEvictsWhenOverBudget() {
+        PlayerDataCache cache = cache(1);
+        PlayerData a = player("aaaa");
+        PlayerData b = player("bbbb");
+        cache.pin(a.getPlayerId());
+        cache.pin(b.getPlayerId());
+        put(cache, a);
+        put(cache, b);
+        assertEquals(2, cache.size());
+
+        cache.unpin(a.getPlayerId());
+
+        assertFalse(cache.contains(a.getPlayerId()));
+        assertTrue(cache.contains(b.getPlayerId()));
+    }
+
+    @Test
+    void unpinIfOnlyUnpinsMatches() {
+        PlayerDataCache cache = cache(4);
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        cache.pin(a);
+        cache.pin(b);
+
+        cache.unpinIf(a::equals);
+
+        assertFalse(cache.isPinned(a));
+        assertTrue(cache.isPinned(b));
+        assertEquals(1, cache.getPinnedCount());
+    }
+
+    @Test
+    void retainedEntriesAreSkipped() {
+        PlayerDataCache cache = cache(2);
+        PlayerData a = player("aaaa");
+        PlayerData b = player("bbbb");
+        retained.add(a.getPlayerId());
+        put(cache, a);
+        put(cache, b);
+        put(cache, player("cccc"));
+
+        assertTrue(cache.contains(a.getPlayerId()));
+        assertFalse(cache.contains(b.getPlayerId()));
+    }
+
+    @Test
+    void stopsWhenEverythingIsRetained() {
+        PlayerDataCache cache = cache(1);
+        for (int i = 0; i < 3; i++) {
+            PlayerData data = player("p" + i + "xx");
+            retained.add(data.getPlayerId());
+            put(cache, data);
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    void putIfAbsentKeepsExistingEntry() {
+        PlayerDataCache cache = cache(2);
+        PlayerData a = player("aaaa");
+        PlayerData replacement = new PlayerData(a.getPlayerId(), "aaaa");
+        put(cache, a);
+
+        assertSame(a, cache.putIfAbsent(a.getPlayerId(), replacement));
+        assertSame(a, cache.peek(a.getPlayerId()));
+
+        PlayerData b = player("bbbb");
+        assertNull(cache.putIfAbsent(b.getPlayerId(), b));
+        assertSame(b, cache.peek(b.getPlayerId()));
+    }
+
+    @Test
+    void putReplacesAndReweighs() {
+        PlayerDataCache cache = cache(4);
+        PlayerData a = player("aaaa");
+        put(cache, a);
+
+        PlayerData renamed = new PlayerData(a.getPlayerId(), "a much longer name");
+        put(cache, renamed);
+
+        assertEquals(1, cache.size());
+        assertSame(renamed, cache.peek(a.getPlayerId()));
+        assertEquals(PlayerDataCache.estimateWeight(renamed), cache.getWeight());
+    }
+
+    @Test
+    void removeReleasesWeight() {
+        PlayerDataCache cache = cache(2);
+        PlayerData a = player("aaaa");
+        PlayerData b = player("bbbb");
+        put(cache, a);
+        cache.pin(b.getPlayerId());
+        put(cache, b);
+
+        assertSame(a, cache.remove(a.getPlayerId()));
+        assertSame(b, cache.remove(b.getPlayerId()));
+        assertNull(cache.remove(a.getPlayerId()));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+    }
+}
@@ -0,0 +1,153 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.models.PlayerData;
+import dev.lsdmc.edenCorrections.models.PlayerDataField;
+import dev.lsdmc.edenCorrections.models.PlayerDataSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerWriteOrderTest {
+
+    private final PlayerWriteOrder order = new PlayerWriteOrder();
+
+    private static PlayerData player(String name) {
+        return new PlayerData(UUID.randomUUID(), name);
+    }
+
+    @Test
+    void claimsPlayersWithNoWriteRunning() {
+        PlayerDataSnapshot a = player("a").snapshot();
+        PlayerDataSnapshot b = player("b").snapshot();
+
+        PlayerWriteOrder.Claim claim = order.claim(List.of(a, b));
+
+        assertEquals(List.of(a, b), claim.getSnapshots());
+        assertTrue(claim.getHeld().isEmpty());
+    }
+
+    @Test
+    void holdsBackPlayersWithWriteRunning() {
+        PlayerData a = player("a");
+        PlayerDataSnapshot first = a.snapshot();
+        PlayerDataSnapshot c = player("c").snapshot();
+        order.claim(List.of(first));
+
+        a.setOnDuty(true);
+        PlayerDataSnapshot second = a.snapshot();
+        PlayerWriteOrder.Claim claim = order.claim(List.of(second, c));
+
+        // The rest of the batch still goes ahead
+        assertEquals(List.of(c), claim.getSnapshots());
+        assertEquals(1, claim.getHeld().size());
+        assertFalse(claim.getHeld().get(0).isDone());
+        assertEquals(1, order.getHeldWrites());
+    }
+
+    @Test
+    void releaseHandsOverHeldSaveAndKeepsClaim() {
+        PlayerData a = player("a");
+        PlayerDataSnapshot first = a.snapshot();
+        order.claim(List.of(first));
+        a.setOnDuty(true);
+        PlayerDataSnapshot second = a.snapshot();
+        order.claim(List.of(second));
+
+        List<PlayerWriteOrder.Held> next = order.release(List.of(first));
+
+        assertEquals(1, next.size());
+        assertSame(second, next.get(0).getSnapshot());
+
+        // Still claimed for the follow-up write
+        a.setWantedLevel(2);
+        PlayerDataSnapshot third = a.snapshot();
+        assertTrue(order.claim(List.of(third)).getSnapshots().isEmpty());
+
+        // The follow-up finishing hands over the save made while it ran
+        List<PlayerWriteOrder.Held> after = order.release(List.of(second));
+        assertEquals(1, after.size());
+        assertSame(third, after.get(0).getSnapshot());
+
+        assertTrue(order.release(List.of(third)).isEmpty());
+        PlayerDataSnapshot fourth = a.snapshot();
+        assertEquals(List.of(fourth), order.claim(List.of(fourth)).getSnapshots());
+    }
+
+    @Test
+    void mergesSavesHeldBehindTheSameWrite() {
+        PlayerData a = player("a");
+        PlayerDataSnapshot first = a.snapshot();
+        order.claim(List.of(first));
+
+        a.setOnDuty(true);
+        PlayerWriteOrder.Claim second = order.claim(List.of(a.snapshot()));
+        a.setWantedLevel(3);
+        PlayerWriteOrder.Claim third = order.claim(List.of(a.snapshot()));
+
+        // Both saves wait on the one follow-up write
+        assertSame(second.getHeld().get(0), third.getHeld().get(0));
+        assertEquals(1, order.getHeldWrites());
+        assertEquals(1, order.getCoalescedWrites());
+
+        PlayerDataSnapshot merged = order.release(List.of(first)).get(0).getSnapshot();
+        assertTrue(merged.onDuty());
+        assertEquals(3, merged.wantedLevel());
+        assertEquals(3, merged.version());
+        assertFalse(merged.insert());
+        assertEquals(Set.of(PlayerDataField.ON_DUTY, PlayerDataField.WANTED_LEVEL), merged.changedFields());
+    }
+
+    @Test
+    void mergeKeepsInsertOfHeldNewRow() {
+        PlayerData a = player("a");
+        PlayerDataSnapshot insert = a.snapshot();
+        a.setOnDuty(true);
+        PlayerDataSnapshot update = a.snapshot();
+
+        PlayerDataSnapshot merged = PlayerDataSnapshot.merge(update, insert);
+
+        assertTrue(merged.insert());
+        assertTrue(merged.onDuty());
+        assertEquals(update.version(), merged.version());
+    }
+
+    @Test
+    void completingHeldSaveCompletesWaitingClaims() throws Exception {
+        PlayerData a = player("a");
+        PlayerDataSnapshot first = a.snapshot();
+        order.claim(List.of(first));
+        a.setOnDuty(true);
+        CompletableFuture<Map<UUID, Long>> waiting = order.claim(List.of(a.snapshot())).getHeld().get(0);
+
+        Map<UUID, Long> superseded = Map.of(a.getPlayerId(), 2L);
+        order.release(List.of(first)).get(0).complete(superseded, null);
+
+        assertSame(superseded, waiting.get());
+    }
+
+    @Test
+    void failedHeldSaveFailsWaitingClaims() {
+        PlayerData a = player("a");
+        PlayerDataSnapshot first = a.snapshot();
+        order.claim(List.of(first));
+        a.setOnDuty(true);
+        CompletableFuture<Map<UUID, Long>> waiting = order.claim(List.of(a.snapshot())).getHeld().get(0);
+
+        IllegalStateException failure = new IllegalStateException("write failed");
+        order.release(List.of(first)).get(0).complete(null, failure);
+
+        ExecutionException error = assertThrows(ExecutionException.class, waiting::get);
+        assertSame(failure, error.getCause());
+    }
+}
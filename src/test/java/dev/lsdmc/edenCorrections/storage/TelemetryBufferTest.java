@@ -0,0 +1,154 @@
+package dev.lsdmc.edenCorrections.storage;
+
+import dev.lsdmc.edenCorrections.models.PerformanceStat;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryBufferTest {
+
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    @Test
+    void roundsCapacityUpToPowerOfTwo() {
+        assertEquals(16, new TelemetryBuffer(1).getCapacity());
+        assertEquals(16, new TelemetryBuffer(16).getCapacity());
+        assertEquals(32, new TelemetryBuffer(17).getCapacity());
+        assertEquals(1 << 20, new TelemetryBuffer(Integer.MAX_VALUE).getCapacity());
+    }
+
+    @Test
+    void drainsInRecordOrder() {
+        TelemetryBuffer buffer = new TelemetryBuffer(16);
+        buffer.record(PLAYER, PerformanceStat.SEARCH, 1);
+        buffer.record(PLAYER, PerformanceStat.ARREST, 2);
+        buffer.record(PLAYER, PerformanceStat.DUTY_MINUTES, 3);
+
+        List<TelemetryBuffer.Event> events = buffer.drain(10);
+
+        assertEquals(3, events.size());
+        assertEquals(PerformanceStat.SEARCH, events.get(0).getStat());
+        assertEquals(PerformanceStat.ARREST, events.get(1).getStat());
+        assertEquals(PerformanceStat.DUTY_MINUTES, events.get(2).getStat());
+        assertEquals(3, events.get(2).getValue());
+        assertEquals(PLAYER, events.get(0).getPlayerId());
+        assertEquals(0, buffer.getPending());
+        assertTrue(buffer.drain(10).isEmpty());
+    }
+
+    @Test
+    void drainStopsAtMaxEvents() {
+        TelemetryBuffer buffer = new TelemetryBuffer(16);
+        for (int i = 0; i < 5; i++) {
+            buffer.record(PLAYER, PerformanceStat.SEARCH, i);
+        }
+
+        assertEquals(2, buffer.drain(2).size());
+        assertEquals(3, buffer.getPending());
+
+        List<TelemetryBuffer.Event> rest = buffer.drain(10);
+        assertEquals(3, rest.size());
+        assertEquals(2, rest.get(0).getValue());
+    }
+
+    @Test
+    void dropsWhenFull() {
+        TelemetryBuffer buffer = new TelemetryBuffer(16);
+        for (int i = 0; i < 16; i++) {
+            assertTrue(buffer.record(PLAYER, PerformanceStat.KILL, i));
+        }
+
+        assertFalse(buffer.record(PLAYER, PerformanceStat.KILL, 16));
+        assertEquals(1, buffer.getDropped());
+        assertEquals(16, buffer.getRecorded());
+
+        // Draining one slot makes room for exactly one more event
+        assertEquals(1, buffer.drain(1).size());
+        assertTrue(buffer.record(PLAYER, PerformanceStat.KILL, 17));
+        assertFalse(buffer.record(PLAYER, PerformanceStat.KILL, 18));
+        assertEquals(2, buffer.getDropped());
+
+        List<TelemetryBuffer.Event> events = buffer.drain(100);
+        assertEquals(16, events.size());
+        assertEquals(1, events.get(0).getValue());
+        assertEquals(17, events.get(15).getValue());
+    }
+
+    @Test
+    void wrapsAroundManyTimes() {
+        TelemetryBuffer buffer = new TelemetryBuffer(16);
+        long next = 0;
+        long expected = 0;
+        for (int lap = 0; lap < 50; lap++) {
+            // Uneven batches so the read and write positions land on every slot
+            for (int i = 0; i < 11; i++) {
+                assertTrue(buffer.record(PLAYER, PerformanceStat.DETECTION, next++));
+            }
+            for (TelemetryBuffer.Event event : buffer.drain(7 + lap % 5)) {
+                assertEquals(expected++, event.getValue());
+            }
+            for (TelemetryBuffer.Event event : buffer.drain(100)) {
+                assertEquals(expected++, event.getValue());
+            }
+        }
+
+        assertEquals(next, expected);
+        assertEquals(0, buffer.getDropped());
+        assertEquals(0, buffer.getPending());
+    }
+
+    @Test
+    void concurrentProducersLoseNothingUncounted() throws InterruptedException {
+        TelemetryBuffer buffer = new TelemetryBuffer(64);
+        int producers = 4;
+        int perProducer = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            UUID playerId = UUID.randomUUID();
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.record(playerId, PerformanceStat.SEARCH, i);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        Map<UUID, Long> lastValues = new HashMap<>();
+        long drained = 0;
+        start.countDown();
+        boolean running = true;
+        while (running) {
+            running = threads.stream().anyMatch(Thread::isAlive);
+            for (TelemetryBuffer.Event event : buffer.drain(32)) {
+                // Each producer's events come out in the order it recorded them
+                Long last = lastValues.put(event.getPlayerId(), event.getValue());
+                assertTrue(last == null || last < event.getValue());
+                drained++;
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        drained += buffer.drain(Integer.MAX_VALUE).size();
+
+        assertEquals((long) producers * perProducer, buffer.getRecorded() + buffer.getDropped());
+        assertEquals(buffer.getRecorded(), drained);
+        assertEquals(0, buffer.getPending());
+    }
+}
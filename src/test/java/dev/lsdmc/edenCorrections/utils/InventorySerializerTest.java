@@ -0,0 +1,256 @@
+package dev.lsdmc.edenCorrections.utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import dev.lsdmc.edenCorrections.utils.InventorySerializer.InventorySnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Item bytes are opaque to the codecs, so these tests use arbitrary bytes in place
+ * of Paper's serialized items; decoding real items needs a running server.
+ */
+class InventorySerializerTest {
+
+    private static final long TIMESTAMP = 1_700_000_000_000L;
+    private static final byte[] SWORD = "sword".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BREAD = "bread".getBytes(StandardCharsets.UTF_8);
+
+    // Binary (version 1) inventory data holding the given slots; null slots are empty
+    private static byte[] binary(long timestamp, int heldItemSlot, boolean deflate, byte[]... slots) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(bytes);
+        header.writeByte(0xEC);
+        header.writeByte(1);
+        header.writeByte(deflate ? 1 : 0);
+        header.writeLong(timestamp);
+
+        OutputStream payload = deflate ? new DeflaterOutputStream(bytes) : bytes;
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            out.writeByte(heldItemSlot);
+            out.writeShort(slots.length);
+            for (byte[] slot : slots) {
+                if (slot == null) {
+                    out.writeInt(-1);
+                    continue;
+                }
+                out.writeInt(slot.length);
+                out.write(slot);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] emptyInventory(long timestamp, int heldItemSlot, boolean deflate) throws IOException {
+        return binary(timestamp, heldItemSlot, deflate, new byte[41][]);
+    }
+
+    private static String hash(byte[] item) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(item));
+    }
+
+    private static JsonObject legacyJson(int mainSlots) {
+        JsonObject inventory = new JsonObject();
+        JsonArray main = new JsonArray();
+        for (int i = 0; i < mainSlots; i++) {
+            main.add(JsonNull.INSTANCE);
+        }
+        JsonArray armor = new JsonArray();
+        for (int i = 0; i < 4; i++) {
+            armor.add(JsonNull.INSTANCE);
+        }
+        JsonObject metadata = new JsonObject();
+        metadata.addProperty("timestamp", TIMESTAMP);
+        metadata.addProperty("playerName", "Steve");
+        metadata.addProperty("playerUuid", "8667ba71-b85a-4004-af54-457a9734eed7");
+        metadata.addProperty("heldItemSlot", 4);
+
+        inventory.add("main", main);
+        inventory.add("armor", armor);
+        inventory.add("offhand", JsonNull.INSTANCE);
+        inventory.add("metadata", metadata);
+        return inventory;
+    }
+
+    // === BINARY FORMAT ===
+
+    @Test
+    void decodesEmptyBinaryInventory() throws IOException {
+        for (boolean deflate : new boolean[] {false, true}) {
+            InventorySnapshot decoded = InventorySerializer.decodeInventory(emptyInventory(TIMESTAMP, 3, deflate));
+
+            assertNotNull(decoded);
+            assertEquals(TIMESTAMP, decoded.getTimestamp());
+            assertEquals(3, decoded.getHeldItemSlot());
+        }
+    }
+
+    @Test
+    void encodeRoundTripsThroughDecode() throws IOException {
+        InventorySnapshot decoded = InventorySerializer.decodeInventory(emptyInventory(TIMESTAMP, 7, false));
+
+        byte[] plain = InventorySerializer.encodeInventory(decoded, false);
+        assertArrayEquals(emptyInventory(TIMESTAMP, 7, false), plain);
+
+        byte[] deflated = InventorySerializer.encodeInventory(decoded, true);
+        assertEquals((byte) 0xEC, deflated[0]);
+        assertEquals(1, deflated[1]);
+        assertEquals(1, deflated[2]);
+
+        InventorySnapshot again = InventorySerializer.decodeInventory(deflated);
+        assertEquals(TIMESTAMP, again.getTimestamp());
+        assertEquals(7, again.getHeldItemSlot());
+    }
+
+    @Test
+    void rejectsMalformedBinaryData() throws IOException {
+        byte[] data = emptyInventory(TIMESTAMP, 0, false);
+
+        byte[] unknownVersion = data.clone();
+        unknownVersion[1] = 9;
+        assertNull(InventorySerializer.decodeInventory(unknownVersion));
+
+        byte[] unknownCompression = data.clone();
+        unknownCompression[2] = 9;
+        assertNull(InventorySerializer.decodeInventory(unknownCompression));
+
+        byte[] truncated = new byte[] {(byte) 0xEC, 1, 0, 0};
+        assertNull(InventorySerializer.decodeInventory(truncated));
+        assertNull(InventorySerializer.decodeInventory(new byte[0]));
+        assertNull(InventorySerializer.decodeInventory(null));
+    }
+
+    @Test
+    void readsStoredTimestampWithoutDecoding() throws IOException {
+        assertEquals(TIMESTAMP, InventorySerializer.getStoredTimestamp(emptyInventory(TIMESTAMP, 0, true)));
+        assertEquals(TIMESTAMP, InventorySerializer.getStoredTimestamp(
+            legacyJson(36).toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(-1, InventorySerializer.getStoredTimestamp(new byte[] {(byte) 0xEC, 1, 0}));
+        assertEquals(-1, InventorySerializer.getStoredTimestamp("not json".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(-1, InventorySerializer.getStoredTimestamp(new byte[0]));
+        assertEquals(-1, InventorySerializer.getStoredTimestamp(null));
+    }
+
+    // === ITEM REFERENCES ===
+
+    @Test
+    void extractStoresEachDistinctItemOnce() throws Exception {
+        byte[] data = binary(TIMESTAMP, 2, false, SWORD, BREAD, null, SWORD);
+        Map<String, byte[]> items = new HashMap<>();
+
+        byte[] references = InventorySerializer.extractItems(data, items);
+
+        assertNotNull(references);
+        assertEquals((byte) 0xEC, references[0]);
+        assertEquals(2, references[1]);
+        assertEquals(0, references[2]);
+        assertEquals(2, items.size());
+        assertArrayEquals(SWORD, items.get(hash(SWORD)));
+        assertArrayEquals(BREAD, items.get(hash(BREAD)));
+        // In order of first use
+        assertEquals(List.of(hash(SWORD), hash(BREAD)), InventorySerializer.getItemReferences(references));
+        assertEquals(TIMESTAMP, InventorySerializer.getStoredTimestamp(references));
+    }
+
+    @Test
+    void extractKeepsItemsAlreadyKnown() throws Exception {
+        byte[] known = SWORD.clone();
+        Map<String, byte[]> items = new HashMap<>();
+        items.put(hash(SWORD), known);
+
+        InventorySerializer.extractItems(binary(TIMESTAMP, 0, false, SWORD), items);
+
+        assertSame(known, items.get(hash(SWORD)));
+    }
+
+    @Test
+    void resolveRestoresOriginalData() throws IOException {
+        byte[] data = binary(TIMESTAMP, 5, false, null, SWORD, BREAD, SWORD, null);
+        Map<String, byte[]> items = new HashMap<>();
+        byte[] references = InventorySerializer.extractItems(data, items);
+
+        assertArrayEquals(data, InventorySerializer.resolveItems(references, items));
+    }
+
+    @Test
+    void resolveWritesDeflatedDataUncompressed() throws IOException {
+        byte[] deflated = binary(TIMESTAMP, 1, true, BREAD, null, BREAD);
+        Map<String, byte[]> items = new HashMap<>();
+        byte[] references = InventorySerializer.extractItems(deflated, items);
+
+        assertArrayEquals(binary(TIMESTAMP, 1, false, BREAD, null, BREAD),
+            InventorySerializer.resolveItems(references, items));
+    }
+
+    @Test
+    void resolveFailsOnMissingItem() throws Exception {
+        Map<String, byte[]> items = new HashMap<>();
+        byte[] references = InventorySerializer.extractItems(binary(TIMESTAMP, 0, false, SWORD, BREAD), items);
+        items.remove(hash(BREAD));
+
+        IOException error = assertThrows(IOException.class, () -> InventorySerializer.resolveItems(references, items));
+        assertTrue(error.getMessage().contains(hash(BREAD)));
+    }
+
+    @Test
+    void unresolvedReferencesAreNotDecoded() throws IOException {
+        byte[] references = InventorySerializer.extractItems(emptyInventory(TIMESTAMP, 0, false), new HashMap<>());
+
+        assertTrue(InventorySerializer.getItemReferences(references).isEmpty());
+        assertNull(InventorySerializer.decodeInventory(references));
+        assertNotNull(InventorySerializer.decodeInventory(InventorySerializer.resolveItems(references, Map.of())));
+    }
+
+    @Test
+    void inlineDataPassesThroughReferenceHelpers() throws IOException {
+        byte[] data = binary(TIMESTAMP, 0, false, SWORD);
+        byte[] json = legacyJson(36).toString().getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(InventorySerializer.getItemReferences(data).isEmpty());
+        assertSame(data, InventorySerializer.resolveItems(data, Map.of()));
+        assertSame(json, InventorySerializer.resolveItems(json, Map.of()));
+        assertNull(InventorySerializer.extractItems(json, new HashMap<>()));
+    }
+
+    // === LEGACY JSON ===
+
+    @Test
+    void decodesLegacyJson() {
+        byte[] json = legacyJson(36).toString().getBytes(StandardCharsets.UTF_8);
+
+        InventorySnapshot decoded = InventorySerializer.decodeInventory(json);
+
+        assertNotNull(decoded);
+        assertEquals(TIMESTAMP, decoded.getTimestamp());
+        assertEquals(4, decoded.getHeldItemSlot());
+    }
+
+    @Test
+    void rejectsInvalidLegacyJson() {
+        assertNull(InventorySerializer.decodeInventory(legacyJson(35).toString().getBytes(StandardCharsets.UTF_8)));
+        assertNull(InventorySerializer.decodeInventory("{\"main\": []}".getBytes(StandardCharsets.UTF_8)));
+        assertNull(InventorySerializer.decodeInventory("not json".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,154 @@
+package dev.lsdmc.edenCorrections.utils;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldguard.protection.ApplicableRegionSet;
+import com.sk89q.worldguard.protection.regions.GlobalProtectedRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionIndexTest {
+
+    private final World world = world();
+
+    private static World world() {
+        UUID uid = UUID.randomUUID();
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[] {World.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getUID" -> uid;
+                case "hashCode" -> uid.hashCode();
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private static ProtectedRegion cuboid(String id, int minX, int minZ, int maxX, int maxZ) {
+        return new ProtectedCuboidRegion(id, BlockVector3.at(minX, 0, minZ), BlockVector3.at(maxX, 255, maxZ));
+    }
+
+    private RegionIndex index(ProtectedRegion... regions) {
+        return RegionIndex.build(Map.of(world.getUID(), List.of(regions)), region -> true, 1);
+    }
+
+    private Set<String> regionsAt(RegionIndex index, int x, int y, int z) {
+        ApplicableRegionSet regions = index.getRegionsAt(new Location(world, x, y, z));
+        return regions.getRegions().stream().map(ProtectedRegion::getId).collect(Collectors.toSet());
+    }
+
+    @Test
+    void chunkKeysAreDistinctAcrossSigns() {
+        long[] keys = {
+            RegionIndex.chunkKey(0, 0), RegionIndex.chunkKey(0, -1), RegionIndex.chunkKey(-1, 0),
+            RegionIndex.chunkKey(-1, -1), RegionIndex.chunkKey(1, -1), RegionIndex.chunkKey(-1, 1)
+        };
+        for (int i = 0; i < keys.length; i++) {
+            for (int j = i + 1; j < keys.length; j++) {
+                assertNotEquals(keys[i], keys[j]);
+            }
+        }
+        assertEquals(RegionIndex.chunkKey(Integer.MIN_VALUE, Integer.MAX_VALUE),
+            RegionIndex.chunkKey(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void indexesRegionInEveryChunkItSpans() {
+        // Four chunks around the origin
+        RegionIndex index = index(cuboid("yard", -8, -8, 8, 8));
+
+        assertEquals(1, index.getIndexedRegions());
+        assertEquals(4, index.getIndexedChunks());
+        assertEquals(Set.of("yard"), regionsAt(index, -8, 64, -8));
+        assertEquals(Set.of("yard"), regionsAt(index, 8, 64, 8));
+        assertEquals(Set.of("yard"), regionsAt(index, -1, 64, 0));
+    }
+
+    @Test
+    void checksContainmentWithinChunk() {
+        RegionIndex index = index(cuboid("cell", 2, 2, 4, 4));
+
+        assertEquals(Set.of("cell"), regionsAt(index, 3, 10, 3));
+        // Same chunk, outside the region
+        assertTrue(regionsAt(index, 10, 10, 10).isEmpty());
+        // Other chunk
+        assertTrue(regionsAt(index, 100, 10, 100).isEmpty());
+    }
+
+    @Test
+    void returnsOverlappingRegions() {
+        RegionIndex index = index(cuboid("prison", -100, -100, 100, 100), cuboid("cell", 10, 10, 12, 12));
+
+        assertEquals(Set.of("prison", "cell"), regionsAt(index, 11, 64, 11));
+        assertEquals(Set.of("prison"), regionsAt(index, -50, 64, 50));
+    }
+
+    @Test
+    void skipsIrrelevantRegions() {
+        ProtectedRegion relevant = cuboid("relevant", 0, 0, 15, 15);
+        ProtectedRegion other = cuboid("other", 0, 0, 15, 15);
+
+        RegionIndex index = RegionIndex.build(Map.of(world.getUID(), List.of(relevant, other)),
+            region -> region == relevant, 1);
+
+        assertEquals(1, index.getIndexedRegions());
+        assertEquals(Set.of("relevant"), regionsAt(index, 5, 64, 5));
+    }
+
+    @Test
+    void checksHugeRegionsEverywhere() {
+        // 5001 x 5001 chunks, far past the per-chunk limit
+        RegionIndex index = index(cuboid("world-border", -40_000, -40_000, 40_000, 40_000), cuboid("cell", 0, 0, 3, 3));
+
+        assertEquals(2, index.getIndexedRegions());
+        assertEquals(1, index.getIndexedChunks());
+        assertEquals(Set.of("world-border", "cell"), regionsAt(index, 1, 64, 1));
+        assertEquals(Set.of("world-border"), regionsAt(index, 39_000, 64, -39_000));
+        assertTrue(regionsAt(index, 41_000, 64, 0).isEmpty());
+    }
+
+    @Test
+    void keepsGlobalRegionOutOfIndex() {
+        RegionIndex index = index(new GlobalProtectedRegion("__global__"), cuboid("cell", 0, 0, 3, 3));
+
+        assertEquals(1, index.getIndexedRegions());
+        assertEquals(Set.of("cell"), regionsAt(index, 1, 64, 1));
+        assertTrue(regionsAt(index, 500, 64, 500).isEmpty());
+    }
+
+    @Test
+    void unknownWorldIsNotIndexed() {
+        RegionIndex index = index(cuboid("cell", 0, 0, 3, 3));
+
+        assertNull(index.getRegionsAt(new Location(world(), 1, 64, 1)));
+    }
+
+    @Test
+    void worldWithoutRegionsIsIndexedEmpty() {
+        RegionIndex index = index();
+
+        assertEquals(0, index.getIndexedRegions());
+        assertTrue(regionsAt(index, 0, 64, 0).isEmpty());
+    }
+
+    @Test
+    void tracksGeneration() {
+        RegionIndex index = RegionIndex.build(Map.of(), region -> true, 7);
+
+        assertTrue(index.isCurrent(7));
+        assertFalse(index.isCurrent(8));
+    }
+}